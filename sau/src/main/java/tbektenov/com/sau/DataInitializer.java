@@ -27,6 +27,7 @@ import tbektenov.com.sau.models.user.userRoles.Nurse;
 import tbektenov.com.sau.models.user.userRoles.Patient;
 import tbektenov.com.sau.models.user.userRoles.Specialization;
 import tbektenov.com.sau.repositories.*;
+import tbektenov.com.sau.services.IWardOccupancyService;
 import tbektenov.com.sau.services.implementation.PatientServiceImpl;
 import tbektenov.com.sau.services.implementation.UserServiceImpl;
 
@@ -55,6 +56,8 @@ public class DataInitializer implements ApplicationListener<ContextRefreshedEven
     @Autowired
     private AppointmentRepo appointmentRepo;
     @Autowired
+    private ArchivedAppointmentRepo archivedAppointmentRepo;
+    @Autowired
     private HospitalPharmacyRepo hospitalPharmacyRepo;
     @Autowired
     private HospitalRepo hospitalRepo;
@@ -74,6 +77,8 @@ public class DataInitializer implements ApplicationListener<ContextRefreshedEven
     private PatientServiceImpl patientService;
     @Autowired
     private HospitalizationRepo hospitalizationRepo;
+    @Autowired
+    private IWardOccupancyService wardOccupancyService;
 
     /**
      * Event handler that initializes data when the application context is refreshed.
@@ -508,10 +513,13 @@ public class DataInitializer implements ApplicationListener<ContextRefreshedEven
             orderRepo.save(finishedOrder);
             orderRepo.save(finishedOrder1);
         }
+
+        wardOccupancyService.reconcileOccupancy();
     }
 
     private void createAppointments(Patient patient, Doctor doctor) {
-        if (!appointmentRepo.existsByPatientIdAndDoctorId(patient.getId(), doctor.getId())) {
+        if (!appointmentRepo.existsByPatientIdAndDoctorId(patient.getId(), doctor.getId())
+                && !archivedAppointmentRepo.existsByPatientIdAndDoctorId(patient.getId(), doctor.getId())) {
             Appointment appointment = Appointment.builder()
                     .date(LocalDate.now())
                     .appointmentStatus(AppointmentStatus.UPCOMING)
@@ -0,0 +1,85 @@
+package tbektenov.com.sau;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the ID sequences past the IDs that already exist in the database.
+ *
+ * <p>Entities used to be stored with identity columns. Databases created at that time already
+ * contain rows, while the sequences created for the pooled generators start at 1. This component
+ * restarts every such sequence above the current maximum ID, so newly generated IDs never collide
+ * with existing ones. It runs before {@link DataInitializer} and does nothing once the sequences
+ * are ahead.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SequenceInitializer implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SequenceInitializer.class);
+
+    private static final List<SequencedTable> SEQUENCED_TABLES = List.of(
+            new SequencedTable("appointments_seq", "appointments", "appointment_id"),
+            new SequencedTable("hospital_seq", "hospital", "hospital_id"),
+            new SequencedTable("hospital_ward_seq", "hospital_ward", "hospital_ward_id"),
+            new SequencedTable("laboratory_seq", "laboratory", "laboratory_id"),
+            new SequencedTable("hospitalization_seq", "hospitalization", "hospitalization_id"),
+            new SequencedTable("order_entity_seq", "order_entity", "order_id"),
+            new SequencedTable("users_seq", "users", "id")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a SequenceInitializer using the given JDBC template.
+     *
+     * @param jdbcTemplate template used to inspect and restart the sequences
+     */
+    @Autowired
+    public SequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aligns the sequences with the existing data when the application context is refreshed.
+     *
+     * @param event the event containing the application context refresh information
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        SEQUENCED_TABLES.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(SequencedTable table) {
+        List<Long> baseValues = jdbcTemplate.queryForList(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)",
+                Long.class, table.sequence());
+        if (baseValues.isEmpty()) {
+            LOG.warn("Sequence {} does not exist, skipping", table.sequence());
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + table.idColumn() + "), 0) FROM " + table.table(), Long.class);
+
+        // BASE_VALUE is the next value the sequence hands out, so only a value at or below the
+        // highest ID can collide.
+        long restartWith = maxId + 1;
+        if (baseValues.get(0) <= maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + table.sequence() + " RESTART WITH " + restartWith);
+            LOG.info("Restarted sequence {} with {}", table.sequence(), restartWith);
+        }
+    }
+
+    private record SequencedTable(String sequence, String table, String idColumn) {
+    }
+}
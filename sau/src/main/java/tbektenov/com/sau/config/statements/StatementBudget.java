@@ -0,0 +1,30 @@
+package tbektenov.com.sau.config.statements;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements a controller endpoint or service method may
+ * execute.
+ *
+ * <p>Endpoints are measured by the {@link StatementBudgetInterceptor} until their view is
+ * rendered, service methods by the {@link StatementBudgetPostProcessor} until their transaction
+ * is committed. Enforced budgets only fail transactional service methods, since the changes of
+ * other methods are already committed. Statements of nested calls count towards every
+ * enclosing budget.</p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StatementBudget {
+
+    /**
+     * The maximum number of statements.
+     *
+     * @return the budget
+     */
+    int value();
+}
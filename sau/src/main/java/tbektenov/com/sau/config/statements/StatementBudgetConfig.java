@@ -0,0 +1,68 @@
+package tbektenov.com.sau.config.statements;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration class counting the SQL statements of the application and checking them
+ * against the declared {@link StatementBudget}s.
+ */
+@Configuration
+public class StatementBudgetConfig implements WebMvcConfigurer {
+
+    private final StatementBudgets statementBudgets;
+
+    /**
+     * Constructs a new {@code StatementBudgetConfig}.
+     *
+     * @param statementBudgets the measurer of the endpoints
+     */
+    @Autowired
+    public StatementBudgetConfig(StatementBudgets statementBudgets) {
+        this.statementBudgets = statementBudgets;
+    }
+
+    /**
+     * Wraps every data source in a {@link StatementCountingDataSource}.
+     *
+     * @return the post-processor wrapping the data sources
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Measures the service methods declaring a budget.
+     *
+     * @return the post-processor advising the services
+     */
+    @Bean
+    public static StatementBudgetPostProcessor statementBudgetPostProcessor() {
+        return new StatementBudgetPostProcessor();
+    }
+
+    /**
+     * Measures the endpoints declaring a budget.
+     *
+     * @param registry the registry of the interceptors
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor(statementBudgets));
+    }
+}
@@ -0,0 +1,60 @@
+package tbektenov.com.sau.config.statements;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Measures the controller endpoints declaring a {@link StatementBudget}, including the
+ * rendering of their view, where lazy associations are often loaded.
+ *
+ * <p>The report is stored in the request attribute {@link StatementReport#ATTRIBUTE}. Exceeded
+ * budgets of endpoints are logged and counted but never fail the request, as the response is
+ * already sent when the measurement ends. Endpoints handled asynchronously are measured until
+ * the handler returns.</p>
+ */
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String MEASUREMENT = StatementBudgetInterceptor.class.getName() + ".measurement";
+
+    private final StatementBudgets statementBudgets;
+
+    /**
+     * Constructs a StatementBudgetInterceptor.
+     *
+     * @param statementBudgets the measurer of the endpoints
+     */
+    public StatementBudgetInterceptor(StatementBudgets statementBudgets) {
+        this.statementBudgets = statementBudgets;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+            if (budget != null) {
+                String operation = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+                request.setAttribute(MEASUREMENT, statementBudgets.start(operation, budget.value()));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(request);
+    }
+
+    private void finish(HttpServletRequest request) {
+        if (request.getAttribute(MEASUREMENT) instanceof StatementBudgets.Measurement measurement) {
+            request.removeAttribute(MEASUREMENT);
+            request.setAttribute(StatementReport.ATTRIBUTE, statementBudgets.finish(measurement));
+        }
+    }
+}
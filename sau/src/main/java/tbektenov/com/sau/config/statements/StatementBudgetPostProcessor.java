@@ -0,0 +1,125 @@
+package tbektenov.com.sau.config.statements;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the methods of non-controller beans declaring a {@link StatementBudget}.
+ *
+ * <p>The measurement is added behind the existing advice of a bean, inside the transaction a
+ * method begins. Before returning, such a method's persistence context is flushed, so the
+ * statements its commit would issue count towards the budget, and an enforced budget that was
+ * exceeded rolls the transaction back instead of failing a committed change. Methods without a
+ * transaction of their own are only reported: whatever they committed before returning cannot
+ * be rolled back any more, so they measure and enforce their transactions themselves through
+ * {@link StatementBudgets#measure}. Controllers are left to the
+ * {@link StatementBudgetInterceptor}, which also measures their view.</p>
+ */
+public class StatementBudgetPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    /**
+     * Constructs a StatementBudgetPostProcessor.
+     */
+    public StatementBudgetPostProcessor() {
+        setBeforeExistingAdvisors(false);
+        setProxyTargetClass(true);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, StatementBudget.class, true),
+                new BudgetInterceptor(beanFactory.getBeanProvider(StatementBudgets.class)));
+    }
+
+    @Override
+    protected boolean isEligible(Class<?> targetClass) {
+        return !AnnotatedElementUtils.hasAnnotation(targetClass, Controller.class) && super.isEligible(targetClass);
+    }
+
+    private static final class BudgetInterceptor implements MethodInterceptor {
+
+        private static final TransactionAttributeSource TRANSACTION_ATTRIBUTES = new AnnotationTransactionAttributeSource();
+
+        private final ObjectProvider<StatementBudgets> statementBudgets;
+        private final Map<MethodKey, Optional<Budgeted>> budgeted = new ConcurrentHashMap<>();
+
+        BudgetInterceptor(ObjectProvider<StatementBudgets> statementBudgets) {
+            this.statementBudgets = statementBudgets;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            Optional<Budgeted> resolved = budgeted.computeIfAbsent(
+                    new MethodKey(invocation.getMethod(), targetClass), BudgetInterceptor::resolve);
+            if (resolved.isEmpty()) {
+                return invocation.proceed();
+            }
+
+            StatementBudgets budgets = statementBudgets.getObject();
+            StatementBudgets.Measurement measurement =
+                    budgets.start(resolved.get().operation(), resolved.get().budget());
+            Object result;
+            try {
+                result = invocation.proceed();
+                if (resolved.get().transactional()) {
+                    flushOwnTransaction();
+                }
+            } catch (Throwable e) {
+                budgets.finish(measurement);
+                throw e;
+            }
+            StatementReport report = budgets.finish(measurement);
+            if (resolved.get().transactional()) {
+                budgets.enforce(report);
+            }
+            return result;
+        }
+
+        /**
+         * Flushes the transaction begun for the measured method, leaving joined and read-only ones alone.
+         */
+        private static void flushOwnTransaction() {
+            TransactionStatus status = TransactionAspectSupport.currentTransactionStatus();
+            if (status.isNewTransaction() && !status.isReadOnly()) {
+                status.flush();
+            }
+        }
+
+        private static Optional<Budgeted> resolve(MethodKey key) {
+            Method method = AopUtils.getMostSpecificMethod(key.method(), key.targetClass());
+            StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, StatementBudget.class);
+            boolean transactional = TRANSACTION_ATTRIBUTES.getTransactionAttribute(method, key.targetClass()) != null;
+            return Optional.ofNullable(budget)
+                    .map(found -> new Budgeted(key.targetClass().getSimpleName() + "." + method.getName(),
+                            found.value(), transactional));
+        }
+    }
+
+    private record MethodKey(Method method, Class<?> targetClass) {
+    }
+
+    private record Budgeted(String operation, int budget, boolean transactional) {
+    }
+}
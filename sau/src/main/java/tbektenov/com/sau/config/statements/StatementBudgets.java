@@ -0,0 +1,151 @@
+package tbektenov.com.sau.config.statements;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tbektenov.com.sau.exceptions.StatementBudgetExceededException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Measures operations against their {@link StatementBudget}.
+ *
+ * <p>Every measured operation is published to {@code statements.executed}, tagged with the
+ * operation. An exceeded budget is logged with the statements the operation repeated and
+ * counted in {@code statements.budget.exceeded}. If {@code statements.budget.enforce} is set,
+ * exceeded budgets of transactional service methods and of {@link #measure measured} actions
+ * also fail the call, rolling back the transaction it runs in.</p>
+ *
+ * <p>With {@code hibernate.generate_statistics} enabled, reports also carry the number of
+ * entities loaded and lazy collections fetched. Hibernate's statistics are shared by all
+ * threads, so these numbers include other requests running at the same time.</p>
+ */
+@Component
+public class StatementBudgets {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementBudgets.class);
+
+    private final Statistics statistics;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> executed = new ConcurrentHashMap<>();
+    private final boolean enforce;
+
+    /**
+     * Constructs a StatementBudgets.
+     *
+     * @param entityManagerFactory the factory whose statistics are added to the reports
+     * @param meterRegistry registry the statement counts are published to
+     * @param enforce whether exceeded budgets of service methods fail the call
+     */
+    @Autowired
+    public StatementBudgets(EntityManagerFactory entityManagerFactory,
+                            MeterRegistry meterRegistry,
+                            @Value("${statements.budget.enforce:false}") boolean enforce) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.meterRegistry = meterRegistry;
+        this.enforce = enforce;
+    }
+
+    /**
+     * Starts measuring an operation on the current thread.
+     *
+     * @param operation the name of the operation
+     * @param budget the maximum number of statements of the operation
+     * @return the measurement, to be finished by the same thread
+     */
+    public Measurement start(String operation, int budget) {
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        return new Measurement(operation, budget, StatementCount.open(),
+                statisticsEnabled ? statistics.getEntityLoadCount() : -1,
+                statisticsEnabled ? statistics.getCollectionFetchCount() : -1);
+    }
+
+    /**
+     * Finishes a measurement, publishing it and logging it if the budget was exceeded.
+     *
+     * @param measurement the measurement started by {@link #start(String, int)}
+     * @return the report of the measured operation
+     */
+    public StatementReport finish(Measurement measurement) {
+        StatementCount count = measurement.count();
+        count.close();
+
+        boolean statisticsEnabled = measurement.entityLoads() >= 0 && statistics.isStatisticsEnabled();
+        StatementReport report = new StatementReport(measurement.operation(), measurement.budget(),
+                count.statements(), count.repeatedStatements(),
+                statisticsEnabled ? statistics.getEntityLoadCount() - measurement.entityLoads() : -1,
+                statisticsEnabled ? statistics.getCollectionFetchCount() - measurement.collectionFetches() : -1);
+
+        executed.computeIfAbsent(report.operation(), operation -> DistributionSummary.builder("statements.executed")
+                        .tag("operation", operation)
+                        .register(meterRegistry))
+                .record(report.statements());
+        if (report.exceeded()) {
+            meterRegistry.counter("statements.budget.exceeded", "operation", report.operation()).increment();
+            LOG.warn("Statement budget exceeded: {}", report.describe());
+        }
+        return report;
+    }
+
+    /**
+     * Fails if budgets are enforced and the reported operation exceeded its budget.
+     *
+     * @param report the report of the operation
+     * @throws StatementBudgetExceededException if the enforced budget was exceeded
+     */
+    public void enforce(StatementReport report) {
+        if (enforce && report.exceeded()) {
+            throw new StatementBudgetExceededException(report.describe());
+        }
+    }
+
+    /**
+     * Measures an action and enforces its budget before returning.
+     *
+     * <p>Called within a transaction, an exceeded budget fails the action before the transaction
+     * commits, so its changes are rolled back.</p>
+     *
+     * @param operation the name of the operation
+     * @param budget the maximum number of statements of the operation
+     * @param action the action to measure
+     * @return the result of the action
+     * @throws StatementBudgetExceededException if the enforced budget was exceeded
+     */
+    public <T> T measure(String operation, int budget, Supplier<T> action) {
+        Measurement measurement = start(operation, budget);
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            finish(measurement);
+            throw e;
+        }
+        enforce(finish(measurement));
+        return result;
+    }
+
+    /**
+     * A running measurement of an operation.
+     *
+     * @param operation the name of the operation
+     * @param budget the maximum number of statements of the operation
+     * @param count the count of the operation's statements
+     * @param entityLoads Hibernate's entity load count at the start, or -1 without statistics
+     * @param collectionFetches Hibernate's collection fetch count at the start, or -1 without statistics
+     */
+    public record Measurement(String operation,
+                              int budget,
+                              StatementCount count,
+                              long entityLoads,
+                              long collectionFetches) {
+    }
+}
@@ -0,0 +1,105 @@
+package tbektenov.com.sau.config.statements;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements executed by the current thread while it is open.
+ *
+ * <p>Statements are recorded by the {@link StatementCountingDataSource}. Counts opened while
+ * another one is open on the same thread are nested: a statement is recorded by all of them.
+ * Each count keeps the SQL texts it recorded, which shows the statements run once per row of
+ * an earlier result.</p>
+ */
+public final class StatementCount {
+
+    private static final ThreadLocal<Deque<StatementCount>> OPEN = new ThreadLocal<>();
+
+    private final List<String> executed = new ArrayList<>();
+
+    private StatementCount() {
+    }
+
+    /**
+     * Opens a count on the current thread.
+     *
+     * @return the opened count, to be closed by the same thread
+     */
+    public static StatementCount open() {
+        Deque<StatementCount> open = OPEN.get();
+        if (open == null) {
+            open = new ArrayDeque<>();
+            OPEN.set(open);
+        }
+        StatementCount count = new StatementCount();
+        open.push(count);
+        return count;
+    }
+
+    /**
+     * Stops counting. Closing a count twice has no effect.
+     */
+    public void close() {
+        Deque<StatementCount> open = OPEN.get();
+        if (open != null && open.removeFirstOccurrence(this) && open.isEmpty()) {
+            OPEN.remove();
+        }
+    }
+
+    /**
+     * Returns the number of statements executed so far.
+     *
+     * @return the number of statements
+     */
+    public int statements() {
+        return executed.size();
+    }
+
+    /**
+     * Returns the SQL texts executed so far.
+     *
+     * @return the statements in order of their execution
+     */
+    public List<String> executedStatements() {
+        return List.copyOf(executed);
+    }
+
+    /**
+     * Returns the SQL texts executed more than once, with their number of executions.
+     *
+     * @return the repeated statements in order of their first execution
+     */
+    public Map<String, Integer> repeatedStatements() {
+        Map<String, Integer> executions = new LinkedHashMap<>();
+        for (String sql : executed) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.forEach((sql, times) -> {
+            if (times > 1) {
+                repeated.put(sql, times);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * Records a statement executed by the current thread in all of its open counts.
+     *
+     * @param sql the SQL text of the statement
+     */
+    static void record(String sql) {
+        Deque<StatementCount> open = OPEN.get();
+        if (open == null) {
+            return;
+        }
+        for (StatementCount count : open) {
+            count.executed.add(sql);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package tbektenov.com.sau.config.statements;
+
+import java.util.Map;
+
+/**
+ * The statements executed by one measured operation.
+ *
+ * @param operation the measured endpoint or service method
+ * @param budget the maximum number of statements declared for the operation
+ * @param statements the number of statements executed
+ * @param repeatedStatements the SQL texts executed more than once, with their number of executions
+ * @param entityLoads the entities loaded meanwhile according to Hibernate's statistics, or -1 if
+ *                    statistics are disabled
+ * @param collectionFetches the lazy collections fetched meanwhile according to Hibernate's
+ *                          statistics, or -1 if statistics are disabled
+ */
+public record StatementReport(String operation,
+                              int budget,
+                              int statements,
+                              Map<String, Integer> repeatedStatements,
+                              long entityLoads,
+                              long collectionFetches) {
+
+    /**
+     * Name of the request attribute the report of an endpoint is stored in.
+     */
+    public static final String ATTRIBUTE = StatementReport.class.getName();
+
+    /**
+     * Returns whether the operation executed more statements than its budget.
+     *
+     * @return true if the budget was exceeded
+     */
+    public boolean exceeded() {
+        return statements > budget;
+    }
+
+    /**
+     * Describes the report, listing the repeated statements first as they are the likely cause
+     * of an exceeded budget.
+     *
+     * @return a readable description
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder()
+                .append(operation).append(" executed ").append(statements)
+                .append(" SQL statements, its budget is ").append(budget).append('.');
+        if (entityLoads >= 0) {
+            description.append(" Hibernate loaded ").append(entityLoads).append(" entities and fetched ")
+                    .append(collectionFetches).append(" collections meanwhile.");
+        }
+        repeatedStatements.forEach((sql, times) ->
+                description.append("\n  ").append(times).append("x ").append(sql));
+        return description.toString();
+    }
+}
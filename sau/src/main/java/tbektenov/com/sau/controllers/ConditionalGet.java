@@ -0,0 +1,42 @@
+package tbektenov.com.sau.controllers;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import tbektenov.com.sau.services.version.ContentVersion;
+import tbektenov.com.sau.services.version.ContentVersions;
+
+/**
+ * Answers conditional GET requests of the read pages from the {@link ContentVersions}.
+ */
+public final class ConditionalGet {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets the entity tag and last modification time of a page and checks them against the
+     * request's conditional headers. The page may be kept by the browser only, which has to
+     * revalidate it before every use.
+     *
+     * <p>If this returns true, the response is a 304 and the handler has to return null
+     * without rendering.</p>
+     *
+     * @param request the current request
+     * @param contentVersions the versions the tag is built from
+     * @param scope identifies the page and everything else the page depends on, such as the user
+     * @param versions the versions of the records the page shows
+     * @return true if the client's copy is current
+     */
+    public static boolean notModified(ServletWebRequest request,
+                                      ContentVersions contentVersions,
+                                      String scope,
+                                      ContentVersion... versions) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(contentVersions.etag(scope, versions), contentVersions.lastModified(versions));
+    }
+}
@@ -6,18 +6,30 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import tbektenov.com.sau.config.CustomUserDetailsService;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.controllers.ConditionalGet;
 import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.dtos.doctor.DoctorAvailabilityDTO;
 import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.doctor.DoctorResponse;
+import tbektenov.com.sau.dtos.search.DoctorFacetsDTO;
 import tbektenov.com.sau.models.user.UserEntity;
 import tbektenov.com.sau.models.user.userRoles.Specialization;
 import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.IDoctorFacetService;
 import tbektenov.com.sau.services.implementation.DoctorServiceImpl;
+import tbektenov.com.sau.services.version.ContentVersions;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -29,7 +41,9 @@ public class AppointmentController {
 
     private final DoctorServiceImpl doctorServiceImpl;
     private final IAppointmentService appointmentService;
+    private final IDoctorFacetService doctorFacetService;
     private final CustomUserDetailsService customUserDetailsService;
+    private final ContentVersions contentVersions;
 
     /**
      * Constructs an {@code AppointmentController} with the required dependencies.
@@ -37,14 +51,20 @@ public class AppointmentController {
      * @param appointmentService the service handling appointment logic
      * @param customUserDetailsService the service for managing user details
      * @param doctorServiceImpl the service for managing doctor-related operations
+     * @param doctorFacetService the service counting the doctors per filter value
+     * @param contentVersions the versions the page's entity tag is built from
      */
     @Autowired
     public AppointmentController(IAppointmentService appointmentService,
                                  CustomUserDetailsService customUserDetailsService,
-                                 DoctorServiceImpl doctorServiceImpl) {
+                                 DoctorServiceImpl doctorServiceImpl,
+                                 IDoctorFacetService doctorFacetService,
+                                 ContentVersions contentVersions) {
         this.appointmentService = appointmentService;
+        this.doctorFacetService = doctorFacetService;
         this.customUserDetailsService = customUserDetailsService;
         this.doctorServiceImpl = doctorServiceImpl;
+        this.contentVersions = contentVersions;
     }
 
     /**
@@ -55,6 +75,7 @@ public class AppointmentController {
      * @return a string indicating the next view to render
      */
     @PostMapping("create")
+    @StatementBudget(9)
     public String createAppointment(
             CreateAppointmentDTO createAppointmentDTO,
             BindingResult result) {
@@ -67,17 +88,53 @@ public class AppointmentController {
         return "redirect:/home";
     }
 
+    /**
+     * Cancels an upcoming appointment of the logged-in patient.
+     *
+     * @param id the ID of the appointment to cancel
+     * @return a redirect to the home page
+     */
+    @PostMapping("{id}/cancel")
+    @StatementBudget(4)
+    public String cancelAppointment(@PathVariable("id") Long id) {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+        appointmentService.cancelAppointment(user.getId(), id);
+        return "redirect:/home";
+    }
+
     /**
      * Renders the form for creating a new appointment.
      *
+     * <p>Only the requested page of the doctors matching the filters is rendered. Each
+     * doctor on it is listed with the number of free slots today; the page refreshes these numbers
+     * from the availability API when another date is chosen. Every rendered form carries a
+     * fresh idempotency key, so submitting it twice books only once.</p>
+     *
+     * <p>The page is answered with 304 while the doctors and the booked slots did not change
+     * since the client's copy. Every committed booking changes the booked slots, so a copy whose
+     * idempotency key was used is never revalidated.</p>
+     *
+     * @param hospital the hospital to filter doctors by, optional
+     * @param specialization the specialization to filter doctors by, optional
+     * @param name the beginning of the doctors' surname, optional
+     * @param pageNo the page of doctors to render, defaults to 0
+     * @param pageSize the number of doctors per page, defaults to 20
      * @param model the model to add attributes used in the view
      * @param session the current HTTP session
-     * @return the view name for creating a new appointment
+     * @param request the current request, checked for conditional headers
+     * @return the view name for creating a new appointment, or null if the client's copy is current
      */
     @GetMapping("new")
+    @StatementBudget(5)
     public String newAppointment(
+            @RequestParam(value = "hospital", required = false) String hospital,
+            @RequestParam(value = "specialization", required = false) Specialization specialization,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "20", required = false) int pageSize,
             Model model,
-            HttpSession session
+            HttpSession session,
+            ServletWebRequest request
     ) {
         UserEntity user;
         if (session.getAttribute("user") == null) {
@@ -87,20 +144,25 @@ public class AppointmentController {
             user = (UserEntity) session.getAttribute("user");
         }
 
-        List<DoctorDTO> doctors = doctorServiceImpl.getAllDoctors();
+        if (ConditionalGet.notModified(request, contentVersions,
+                "appointments-new-" + user.getId() + "-" + LocalDate.now(),
+                contentVersions.doctorDirectory(), contentVersions.doctorAvailability())) {
+            return null;
+        }
 
-        Set<String> hospitals = doctors.stream()
-                .map(DoctorDTO::getHospitalName)
-                .collect(Collectors.toSet());
+        DoctorResponse doctors = doctorServiceImpl.searchDoctors(hospital, specialization, name, pageNo, pageSize);
+        DoctorFacetsDTO facets = doctorFacetService.getFacets();
 
-        Set<Specialization> specializations = doctors.stream()
-                .map(DoctorDTO::getSpecialization)
-                .collect(Collectors.toSet());
+        List<Long> doctorIds = doctors.getContent().stream().map(DoctorDTO::getId).toList();
+        Map<Long, Integer> freeSlots = doctorServiceImpl.getDoctorAvailability(doctorIds, LocalDate.now()).stream()
+                .collect(Collectors.toMap(DoctorAvailabilityDTO::getDoctorId, DoctorAvailabilityDTO::getFreeSlots));
 
         model.addAttribute("user", user);
         model.addAttribute("doctors", doctors);
-        model.addAttribute("hospitals", hospitals);
-        model.addAttribute("specializations", specializations);
+        model.addAttribute("freeSlots", freeSlots);
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
+        model.addAttribute("hospitals", facets.getHospitals());
+        model.addAttribute("specializations", facets.getSpecializations());
         return "newAppointment";
     }
 }
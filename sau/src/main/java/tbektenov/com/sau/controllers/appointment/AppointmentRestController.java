@@ -0,0 +1,205 @@
+package tbektenov.com.sau.controllers.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tbektenov.com.sau.config.CustomUserDetailsService;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.appointment.AppointmentHistoryResponse;
+import tbektenov.com.sau.dtos.doctor.DoctorAvailabilityDTO;
+import tbektenov.com.sau.dtos.doctor.DoctorResponse;
+import tbektenov.com.sau.dtos.waitlist.JoinWaitlistDTO;
+import tbektenov.com.sau.dtos.waitlist.WaitlistEntryDTO;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.user.UserEntity;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.IDoctorService;
+import tbektenov.com.sau.services.IWaitlistService;
+import tbektenov.com.sau.services.events.AppointmentEventBroadcaster;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller exposing appointment data of the logged-in patient as JSON.
+ */
+@RestController
+@RequestMapping("/api/appointments/")
+public class AppointmentRestController {
+
+    private final IAppointmentService appointmentService;
+    private final IDoctorService doctorService;
+    private final IWaitlistService waitlistService;
+    private final AppointmentEventBroadcaster eventBroadcaster;
+    private final CustomUserDetailsService customUserDetailsService;
+
+    /**
+     * Constructs an {@code AppointmentRestController} with the required dependencies.
+     *
+     * @param appointmentService the service handling appointment logic
+     * @param doctorService the service for managing doctor-related operations
+     * @param waitlistService the service managing the waitlists of doctors
+     * @param eventBroadcaster the broadcaster pushing appointment changes to patients
+     * @param customUserDetailsService the service for managing user details
+     */
+    @Autowired
+    public AppointmentRestController(IAppointmentService appointmentService,
+                                     IDoctorService doctorService,
+                                     IWaitlistService waitlistService,
+                                     AppointmentEventBroadcaster eventBroadcaster,
+                                     CustomUserDetailsService customUserDetailsService) {
+        this.appointmentService = appointmentService;
+        this.doctorService = doctorService;
+        this.waitlistService = waitlistService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.customUserDetailsService = customUserDetailsService;
+    }
+
+    /**
+     * Returns one page of the logged-in patient's appointment history.
+     *
+     * <p>Pass {@code nextDate} and {@code nextId} of a response as {@code afterDate} and
+     * {@code afterId} to get the following page.</p>
+     *
+     * @param status the status of the appointments, defaults to UPCOMING
+     * @param afterDate the date part of the cursor, optional
+     * @param afterId the ID part of the cursor, optional
+     * @param pageSize the number of appointments per page, defaults to 20
+     * @return the requested page with the cursor of the next page
+     */
+    @GetMapping("history")
+    @StatementBudget(3)
+    public ResponseEntity<AppointmentHistoryResponse> getHistory(
+            @RequestParam(value = "status", defaultValue = "UPCOMING", required = false) AppointmentStatus status,
+            @RequestParam(value = "afterDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "pageSize", defaultValue = "20", required = false) int pageSize
+    ) {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+
+        return ResponseEntity.ok(
+                appointmentService.getAppointmentHistory(user.getId(), status, afterDate, afterId, pageSize)
+        );
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the logged-in patient's appointment changes.
+     *
+     * <p>Each event is named {@code appointment} and carries an AppointmentEventDTO.</p>
+     *
+     * @return the emitter backing the stream
+     */
+    @GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @StatementBudget(1)
+    public SseEmitter streamEvents() {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+        return eventBroadcaster.subscribe(user.getId());
+    }
+
+    /**
+     * Returns the number of free appointment slots of every doctor on the given day.
+     *
+     * @param date the day to check, defaults to today
+     * @return the availability of every doctor
+     */
+    @GetMapping("availability")
+    @StatementBudget(2)
+    public ResponseEntity<List<DoctorAvailabilityDTO>> getAvailability(
+            @RequestParam(value = "date", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(
+                doctorService.getDoctorAvailability(date != null ? date : LocalDate.now())
+        );
+    }
+
+    /**
+     * Returns one page of the doctors matching the given filters, ordered by surname.
+     *
+     * @param hospital the exact hospital name, optional
+     * @param specialization the specialization, optional
+     * @param name the beginning of the surname, case-insensitive, optional
+     * @param pageNo the page number, defaults to 0
+     * @param pageSize the number of doctors per page, defaults to 20
+     * @return the requested page of doctors
+     */
+    @GetMapping("doctors")
+    @StatementBudget(2)
+    public ResponseEntity<DoctorResponse> searchDoctors(
+            @RequestParam(value = "hospital", required = false) String hospital,
+            @RequestParam(value = "specialization", required = false) Specialization specialization,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "20", required = false) int pageSize
+    ) {
+        return ResponseEntity.ok(
+                doctorService.searchDoctors(hospital, specialization, name, pageNo, pageSize)
+        );
+    }
+
+    /**
+     * Cancels an upcoming appointment of the logged-in patient.
+     *
+     * @param id the ID of the appointment to cancel
+     * @return an empty response
+     */
+    @DeleteMapping("{id}")
+    @StatementBudget(4)
+    public ResponseEntity<Void> cancelAppointment(@PathVariable("id") Long id) {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+        appointmentService.cancelAppointment(user.getId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cancels several upcoming appointments of the logged-in patient at once.
+     * IDs that are not upcoming appointments of the patient are skipped.
+     *
+     * @param ids the IDs of the appointments to cancel
+     * @return the IDs of the cancelled appointments
+     */
+    @DeleteMapping
+    @StatementBudget(4)
+    public ResponseEntity<List<Long>> cancelAppointments(@RequestParam("ids") List<Long> ids) {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+        return ResponseEntity.ok(appointmentService.cancelAppointments(user.getId(), ids));
+    }
+
+    /**
+     * Adds the logged-in patient to the waitlist of a doctor for a day.
+     *
+     * @param joinWaitlistDTO the doctor, day and priority of the request
+     * @return the created waitlist entry
+     */
+    @PostMapping("waitlist")
+    @StatementBudget(7)
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(@RequestBody JoinWaitlistDTO joinWaitlistDTO) {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+        return new ResponseEntity<>(waitlistService.joinWaitlist(user.getId(), joinWaitlistDTO), HttpStatus.CREATED);
+    }
+
+    /**
+     * Returns the waitlist entries of the logged-in patient, newest first.
+     *
+     * @return the patient's waitlist entries
+     */
+    @GetMapping("waitlist")
+    @StatementBudget(2)
+    public ResponseEntity<List<WaitlistEntryDTO>> getWaitlist() {
+        UserEntity user = customUserDetailsService.getLoggedUser();
+        return ResponseEntity.ok(waitlistService.getWaitlistEntries(user.getId()));
+    }
+}
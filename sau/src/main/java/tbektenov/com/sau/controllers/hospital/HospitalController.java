@@ -1,18 +1,18 @@
 package tbektenov.com.sau.controllers.hospital;
 
-import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
-import tbektenov.com.sau.dtos.hospital.HospitalDTO;
+import org.springframework.web.context.request.ServletWebRequest;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.controllers.ConditionalGet;
 import tbektenov.com.sau.dtos.hospital.HospitalResponse;
+import tbektenov.com.sau.dtos.hospital.HospitalTotals;
 import tbektenov.com.sau.services.IHospitalService;
-
-import java.util.List;
-import java.util.Optional;
+import tbektenov.com.sau.services.version.ContentVersions;
 
 /**
  * Controller class that handles requests related to hospitals.
@@ -21,63 +21,81 @@ import java.util.Optional;
 public class HospitalController {
 
     private final IHospitalService hospitalService;
+    private final ContentVersions contentVersions;
 
     /**
      * Constructs a {@code HospitalController} with the specified {@code IHospitalService}.
      *
      * @param hospitalService the service handling hospital-related operations
+     * @param contentVersions the versions the pages' entity tags are built from
      */
     @Autowired
-    public HospitalController(IHospitalService hospitalService) {
+    public HospitalController(IHospitalService hospitalService,
+                              ContentVersions contentVersions) {
         this.hospitalService = hospitalService;
+        this.contentVersions = contentVersions;
     }
 
     /**
      * Retrieves a paginated list of hospitals and displays them.
+     * Answers with 304 if the hospital catalog did not change since the client's copy.
      *
      * @param pageNo the page number to retrieve, defaults to 0
      * @param pageSize the number of hospitals per page, defaults to 5
+     * @param totals how the page totals are computed, defaults to CACHED
      * @param model the model to add attributes to
-     * @param session the HTTP session to store the hospital content
-     * @return the name of the view to render
+     * @param request the current request, checked for conditional headers
+     * @return the name of the view to render, or null if the client's copy is current
      */
     @GetMapping("/hospitals")
+    @StatementBudget(3)
     public String showHospitals(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
             @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "totals", defaultValue = "CACHED", required = false) HospitalTotals totals,
             Model model,
-            HttpSession session
+            ServletWebRequest request
     ) {
-        HospitalResponse hospitalResponse = hospitalService.getAllHospitals(pageNo, pageSize);
+        if (ConditionalGet.notModified(request, contentVersions, "hospitals", contentVersions.hospitalCatalog())) {
+            return null;
+        }
+
+        HospitalResponse hospitalResponse = hospitalService.getAllHospitals(pageNo, pageSize, totals);
 
         model.addAttribute("hospitals", hospitalResponse);
-        session.setAttribute("content", hospitalResponse.getContent());
         return ("hospitals");
     }
 
     /**
      * Retrieves the doctors associated with a specific hospital and displays them.
      *
+     * <p>The hospital is read from the shared hospital detail cache, so it does not have to be
+     * on the hospital page viewed last. Answers with 304 if the hospital catalog did not change
+     * since the client's copy. The tag is checked before the details are read; the hospital is
+     * only loaded first when the cache cannot tell that it exists, so an unknown ID still gets
+     * a 404.</p>
+     *
      * @param hospitalId the ID of the hospital to retrieve doctors for
      * @param model the model to add attributes to
-     * @param session the HTTP session to retrieve the hospital content from
-     * @return the name of the view to render
+     * @param request the current request, checked for conditional headers
+     * @return the name of the view to render, or null if the client's copy is current
      */
     @GetMapping("/hospitals/{hospitalId}")
+    @StatementBudget(2)
     public String getDoctorsFromHospital(
             @PathVariable Long hospitalId,
             Model model,
-            HttpSession session
+            ServletWebRequest request
     ) {
-        List<HospitalDTO> hospitalDTOS = (List<HospitalDTO>) session.getAttribute("content");
-
-        if (hospitalDTOS != null) {
-            Optional<HospitalDTO> matchingHospital = hospitalDTOS.stream()
-                    .filter(hospital -> hospital.getHospitalId().equals(hospitalId))
-                    .findFirst();
-
-            matchingHospital.ifPresent(hospitalDTO -> model.addAttribute("doctors", hospitalDTO.getDoctors()));
+        if (!hospitalService.isHospitalDetailCached(hospitalId)) {
+            hospitalService.getHospitalDetails(hospitalId);
         }
+        if (ConditionalGet.notModified(
+                request, contentVersions, "hospital-" + hospitalId, contentVersions.hospitalCatalog())) {
+            return null;
+        }
+
+        model.addAttribute("doctors", hospitalService.getHospitalDetails(hospitalId).getDoctors());
         return "hospital-details";
     }
 }
@@ -0,0 +1,56 @@
+package tbektenov.com.sau.controllers.hospital;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.hospital.HospitalOccupancyDTO;
+import tbektenov.com.sau.services.IWardOccupancyService;
+
+import java.util.List;
+
+/**
+ * REST controller exposing hospital data as JSON.
+ */
+@RestController
+@RequestMapping("/api/hospitals/")
+public class HospitalRestController {
+
+    private final IWardOccupancyService wardOccupancyService;
+
+    /**
+     * Constructs a {@code HospitalRestController} with the required dependencies.
+     *
+     * @param wardOccupancyService the service reporting occupied and free beds
+     */
+    @Autowired
+    public HospitalRestController(IWardOccupancyService wardOccupancyService) {
+        this.wardOccupancyService = wardOccupancyService;
+    }
+
+    /**
+     * Reports the capacity, occupied and free beds of every hospital.
+     *
+     * @return the occupancy of each hospital, ordered by ID
+     */
+    @GetMapping("occupancy")
+    @StatementBudget(1)
+    public ResponseEntity<List<HospitalOccupancyDTO>> occupancy() {
+        return ResponseEntity.ok(wardOccupancyService.getHospitalOccupancy());
+    }
+
+    /**
+     * Reports the capacity, occupied and free beds of a hospital and each of its wards.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return the occupancy of the hospital and its wards
+     */
+    @GetMapping("{hospitalId}/occupancy")
+    @StatementBudget(2)
+    public ResponseEntity<HospitalOccupancyDTO> hospitalOccupancy(@PathVariable("hospitalId") Long hospitalId) {
+        return ResponseEntity.ok(wardOccupancyService.getHospitalOccupancy(hospitalId));
+    }
+}
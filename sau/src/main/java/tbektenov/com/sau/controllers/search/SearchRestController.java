@@ -0,0 +1,99 @@
+package tbektenov.com.sau.controllers.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.search.DoctorFacetsDTO;
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+import tbektenov.com.sau.dtos.search.TypeaheadSuggestionDTO;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.services.IDoctorFacetService;
+import tbektenov.com.sau.services.INearbyFacilityService;
+import tbektenov.com.sau.services.ITypeaheadService;
+
+import java.util.List;
+
+/**
+ * REST controller for searching doctors, hospitals and pharmacies.
+ */
+@RestController
+@RequestMapping("/api/search/")
+public class SearchRestController {
+
+    private final ITypeaheadService typeaheadService;
+    private final IDoctorFacetService doctorFacetService;
+    private final INearbyFacilityService nearbyFacilityService;
+
+    /**
+     * Constructs a {@code SearchRestController} with the required dependencies.
+     *
+     * @param typeaheadService the service suggesting records while the user types
+     * @param doctorFacetService the service counting the doctors per filter value
+     * @param nearbyFacilityService the service finding the facilities nearest to a point
+     */
+    @Autowired
+    public SearchRestController(ITypeaheadService typeaheadService,
+                                IDoctorFacetService doctorFacetService,
+                                INearbyFacilityService nearbyFacilityService) {
+        this.typeaheadService = typeaheadService;
+        this.doctorFacetService = doctorFacetService;
+        this.nearbyFacilityService = nearbyFacilityService;
+    }
+
+    /**
+     * Suggests doctors, hospitals and private pharmacies whose words start with the typed ones.
+     *
+     * @param query the words typed so far
+     * @param limit the maximum number of suggestions, defaults to 10
+     * @return the matching suggestions
+     */
+    @GetMapping("typeahead")
+    @StatementBudget(3)
+    public ResponseEntity<List<TypeaheadSuggestionDTO>> typeahead(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit
+    ) {
+        return ResponseEntity.ok(typeaheadService.suggest(query, limit));
+    }
+
+    /**
+     * Counts the doctors per hospital, per specialization and per hospital and specialization.
+     *
+     * @return the doctor counts
+     */
+    @GetMapping("facets")
+    @StatementBudget(1)
+    public ResponseEntity<DoctorFacetsDTO> facets() {
+        return ResponseEntity.ok(doctorFacetService.getFacets());
+    }
+
+    /**
+     * Finds the hospitals or private pharmacies nearest to a point.
+     *
+     * @param type the kind of facilities, {@code HOSPITAL} or {@code PHARMACY}
+     * @param latitude the latitude of the point in degrees
+     * @param longitude the longitude of the point in degrees
+     * @param specialization the specialization the hospitals must offer, optional
+     * @param partnerOf the ID of the hospital the pharmacies must be partners of, optional
+     * @param limit the maximum number of facilities, defaults to 10
+     * @return the nearest facilities with their distance in kilometres
+     */
+    @GetMapping("nearest")
+    @StatementBudget(3)
+    public ResponseEntity<List<NearbyFacilityDTO>> nearest(
+            @RequestParam("type") FacilityType type,
+            @RequestParam("lat") Double latitude,
+            @RequestParam("lon") Double longitude,
+            @RequestParam(value = "specialization", required = false) Specialization specialization,
+            @RequestParam(value = "partnerOf", required = false) Long partnerOf,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit
+    ) {
+        return ResponseEntity.ok(nearbyFacilityService.findNearest(type, latitude, longitude,
+                specialization, partnerOf, limit));
+    }
+}
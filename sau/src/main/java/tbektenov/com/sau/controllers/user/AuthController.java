@@ -2,16 +2,23 @@ package tbektenov.com.sau.controllers.user;
 
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import tbektenov.com.sau.config.CustomUserDetailsService;
-import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.controllers.ConditionalGet;
+import tbektenov.com.sau.dtos.appointment.AppointmentHistoryResponse;
+import tbektenov.com.sau.models.AppointmentStatus;
 import tbektenov.com.sau.models.user.UserEntity;
 import tbektenov.com.sau.services.implementation.AppointmentServiceImpl;
+import tbektenov.com.sau.services.version.ContentVersions;
 
-import java.util.List;
+import java.time.LocalDate;
 
 /**
  * Controller class for managing user authentication and registration.
@@ -21,19 +28,23 @@ public class AuthController {
 
     private final CustomUserDetailsService customUserDetailsService;
     private final AppointmentServiceImpl appointmentService;
+    private final ContentVersions contentVersions;
 
     /**
      * Constructs an {@code AuthController} with the specified dependencies.
      *
      * @param appointmentService the service for managing appointment-related operations
      * @param customUserDetailsService the service for loading user-specific details
+     * @param contentVersions the versions the home page's entity tag is built from
      */
     @Autowired
     public AuthController(
                           AppointmentServiceImpl appointmentService,
-                          CustomUserDetailsService customUserDetailsService) {
+                          CustomUserDetailsService customUserDetailsService,
+                          ContentVersions contentVersions) {
         this.appointmentService = appointmentService;
         this.customUserDetailsService = customUserDetailsService;
+        this.contentVersions = contentVersions;
     }
 
     /**
@@ -42,6 +53,7 @@ public class AuthController {
      * @return the name of the welcome page view
      */
     @GetMapping("/")
+    @StatementBudget(0)
     public String showWelcomePage() {
         return "welcomePage";
     }
@@ -54,6 +66,7 @@ public class AuthController {
      * @return the name of the login page view
      */
     @GetMapping("/login")
+    @StatementBudget(0)
     public String showLogin(
             Model model,
             @RequestParam(name = "error", required = false) Boolean error
@@ -65,24 +78,64 @@ public class AuthController {
     }
 
     /**
-     * Displays the home page with the user's upcoming appointments.
+     * Displays the home page with one page of the user's appointments.
      *
+     * <p>Appointments are paged by a (date, ID) cursor; the first page is shown when no cursor is given.</p>
+     *
+     * <p>The page is answered with 304 while the user's appointments, the doctors and the
+     * hospitals did not change since the client's copy. The user is then taken from the
+     * session, so the database is not queried.</p>
+     *
+     * @param status the status of the appointments to show, defaults to UPCOMING
+     * @param afterDate the date part of the cursor, optional
+     * @param afterId the ID part of the cursor, optional
+     * @param pageSize the number of appointments per page, defaults to 10
      * @param model the model to carry data to the view
      * @param session the HTTP session to store and retrieve user data
-     * @return the name of the home page view
+     * @param request the current request, checked for conditional headers
+     * @return the name of the home page view, or null if the client's copy is current
      */
     @GetMapping("/home")
+    @StatementBudget(3)
     public String showHomePage(
+            @RequestParam(value = "status", defaultValue = "UPCOMING", required = false) AppointmentStatus status,
+            @RequestParam(value = "afterDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
             Model model,
-            HttpSession session
+            HttpSession session,
+            ServletWebRequest request
     ) {
-        UserEntity user = customUserDetailsService.getLoggedUser();
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        UserEntity user = (UserEntity) session.getAttribute("user");
+        boolean loaded = false;
+        if (user == null || !user.getUsername().equals(username)) {
+            user = customUserDetailsService.getLoggedUser();
+            loaded = true;
+        }
+
+        if (ConditionalGet.notModified(request, contentVersions, "home-" + user.getId(),
+                contentVersions.patientAppointments(user.getId()),
+                contentVersions.doctorDirectory(),
+                contentVersions.hospitalCatalog())) {
+            return null;
+        }
+
+        if (!loaded) {
+            user = customUserDetailsService.getLoggedUser();
+        }
         session.setAttribute("user", user);
 
-        List<AppointmentDTO> appointments = appointmentService.getUpcomingAppointmentsByPatientId(user.getId());
+        AppointmentHistoryResponse history = appointmentService.getAppointmentHistory(
+                user.getId(), status, afterDate, afterId, pageSize
+        );
 
         model.addAttribute("user", user);
-        model.addAttribute("appointments", appointments);
+        model.addAttribute("appointments", history.getContent());
+        model.addAttribute("history", history);
+        model.addAttribute("afterDate", afterDate);
+        model.addAttribute("afterId", afterId);
         return "home";
     }
 }
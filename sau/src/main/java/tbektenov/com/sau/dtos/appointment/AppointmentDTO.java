@@ -1,18 +1,26 @@
 package tbektenov.com.sau.dtos.appointment;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import tbektenov.com.sau.models.AppointmentStatus;
 import tbektenov.com.sau.models.user.userRoles.Specialization;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 /**
  * Data Transfer Object (DTO) for Appointment.
  *
  * This DTO represents the essential details of an appointment,
  * including the patient and doctor involved, the date, and the status.
+ *
+ * <p>The all-arguments constructor is used by the projection queries of
+ * {@link tbektenov.com.sau.repositories.AppointmentRepo}, so the field order matters.</p>
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AppointmentDTO {
     private Long id;
     private Specialization specialization;
@@ -20,4 +28,6 @@ public class AppointmentDTO {
     private String hospitalAddress;
     private AppointmentStatus appointmentStatus;
     private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
 }
@@ -0,0 +1,22 @@
+package tbektenov.com.sau.dtos.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing a change of a patient's appointment, as pushed to the patient's event stream.
+ *
+ * Fields:
+ * - {@code type}: The kind of change: CREATED, CANCELLED or ARCHIVED.
+ * - {@code appointmentId}: The unique identifier of the changed appointment.
+ * - {@code appointment}: The details of the appointment; only set for CREATED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentEventDTO {
+    private String type;
+    private Long appointmentId;
+    private AppointmentDTO appointment;
+}
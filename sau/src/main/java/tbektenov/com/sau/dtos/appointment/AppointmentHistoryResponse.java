@@ -0,0 +1,28 @@
+package tbektenov.com.sau.dtos.appointment;
+
+import lombok.Data;
+import tbektenov.com.sau.models.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for keyset-paginated responses of a patient's appointments.
+ *
+ * Fields:
+ * - {@code content}: The appointments of the current page.
+ * - {@code status}: The status of the listed appointments.
+ * - {@code pageSize}: The maximum number of items per page.
+ * - {@code nextDate}: The date part of the cursor for the next page, or null on the last page.
+ * - {@code nextId}: The ID part of the cursor for the next page, or null on the last page.
+ * - {@code last}: Indicates if this is the last page.
+ */
+@Data
+public class AppointmentHistoryResponse {
+    private List<AppointmentDTO> content;
+    private AppointmentStatus status;
+    private int pageSize;
+    private LocalDate nextDate;
+    private Long nextId;
+    private boolean last;
+}
@@ -0,0 +1,39 @@
+package tbektenov.com.sau.dtos.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO carrying everything needed to remind a patient of an upcoming appointment.
+ *
+ * Fields:
+ * - {@code appointmentId}: The unique identifier of the appointment.
+ * - {@code patientId}: The unique identifier of the patient.
+ * - {@code patientName}: The first name of the patient.
+ * - {@code email}: The email address the reminder is sent to.
+ * - {@code specialization}: The specialization of the doctor.
+ * - {@code hospital}: The name of the hospital.
+ * - {@code date}: The day of the appointment.
+ * - {@code startTime}: The start of the time slot, if any.
+ *
+ * <p>The all-arguments constructor is used by the projection queries of
+ * {@link tbektenov.com.sau.repositories.AppointmentRepo}, so the field order matters.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentReminderDTO {
+    private Long appointmentId;
+    private Long patientId;
+    private String patientName;
+    private String email;
+    private Specialization specialization;
+    private String hospital;
+    private LocalDate date;
+    private LocalTime startTime;
+}
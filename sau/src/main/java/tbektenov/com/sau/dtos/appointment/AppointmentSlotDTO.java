@@ -0,0 +1,34 @@
+package tbektenov.com.sau.dtos.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO identifying the time slot an appointment occupies.
+ *
+ * Fields:
+ * - {@code id}: The unique identifier of the appointment.
+ * - {@code patientId}: The unique identifier of the patient.
+ * - {@code doctorId}: The unique identifier of the doctor.
+ * - {@code date}: The day of the appointment.
+ * - {@code startTime}: The start of the time slot, if any.
+ * - {@code endTime}: The end of the time slot, if any.
+ *
+ * <p>The all-arguments constructor is used by the projection queries of
+ * {@link tbektenov.com.sau.repositories.AppointmentRepo}, so the field order matters.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSlotDTO {
+    private Long id;
+    private Long patientId;
+    private Long doctorId;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
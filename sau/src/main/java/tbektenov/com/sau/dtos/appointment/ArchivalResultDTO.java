@@ -0,0 +1,26 @@
+package tbektenov.com.sau.dtos.appointment;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO summarizing one run of the appointment archival job.
+ *
+ * Fields:
+ * - {@code cutoffDate}: Appointments dated before this day were archived.
+ * - {@code rowsArchived}: The number of appointments archived in this run.
+ * - {@code chunks}: The number of bulk updates issued.
+ * - {@code durationMillis}: The duration of the run in milliseconds.
+ * - {@code rowsPerSecond}: The archival throughput of the run.
+ * - {@code resumed}: Indicates if the run continued an interrupted one.
+ */
+@Data
+public class ArchivalResultDTO {
+    private LocalDate cutoffDate;
+    private long rowsArchived;
+    private int chunks;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private boolean resumed;
+}
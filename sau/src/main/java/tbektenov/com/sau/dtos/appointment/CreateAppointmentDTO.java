@@ -3,16 +3,20 @@ package tbektenov.com.sau.dtos.appointment;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
 import tbektenov.com.sau.models.AppointmentStatus;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 /**
  * Data Transfer Object (DTO) for creating a new appointment.
  *
  * This DTO contains the necessary details to schedule a new appointment,
  * including the patient and doctor identifiers, the appointment date,
- * and the initial status.
+ * the time slot, and the initial status. If no end time is given,
+ * the default slot length is used. Requests repeating the same
+ * idempotency key create the appointment only once.
  */
 @Data
 public class CreateAppointmentDTO {
@@ -22,5 +26,12 @@ public class CreateAppointmentDTO {
     private Long doctor_id;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate date;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm")
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm")
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime endTime;
     private AppointmentStatus appointmentStatus = AppointmentStatus.UPCOMING;
+    private String idempotencyKey;
 }
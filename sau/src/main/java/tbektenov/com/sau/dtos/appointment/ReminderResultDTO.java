@@ -0,0 +1,22 @@
+package tbektenov.com.sau.dtos.appointment;
+
+import lombok.Data;
+
+/**
+ * DTO summarizing one run of the appointment reminder dispatcher.
+ *
+ * Fields:
+ * - {@code sent}: The number of reminders delivered in this run.
+ * - {@code failed}: The number of reminders whose delivery failed in this run.
+ * - {@code batches}: The number of batches read from the database.
+ * - {@code durationMillis}: The duration of the run in milliseconds.
+ * - {@code remindersPerSecond}: The delivery throughput of the run.
+ */
+@Data
+public class ReminderResultDTO {
+    private long sent;
+    private long failed;
+    private int batches;
+    private long durationMillis;
+    private double remindersPerSecond;
+}
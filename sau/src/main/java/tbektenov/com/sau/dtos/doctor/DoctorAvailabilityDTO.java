@@ -0,0 +1,24 @@
+package tbektenov.com.sau.dtos.doctor;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO describing how many appointments a doctor still has room for on a given day.
+ *
+ * Fields:
+ * - {@code doctorId}: The unique identifier of the doctor.
+ * - {@code date}: The day the numbers refer to.
+ * - {@code dailySlots}: The number of appointments a doctor takes per day.
+ * - {@code bookedSlots}: The number of upcoming appointments booked on that day.
+ * - {@code freeSlots}: The number of appointments that can still be booked on that day.
+ */
+@Data
+public class DoctorAvailabilityDTO {
+    private Long doctorId;
+    private LocalDate date;
+    private int dailySlots;
+    private int bookedSlots;
+    private int freeSlots;
+}
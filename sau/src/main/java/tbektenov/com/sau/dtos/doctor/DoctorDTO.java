@@ -1,6 +1,8 @@
 package tbektenov.com.sau.dtos.doctor;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import tbektenov.com.sau.models.user.userRoles.Specialization;
 
 /**
@@ -8,8 +10,13 @@ import tbektenov.com.sau.models.user.userRoles.Specialization;
  *
  * This DTO represents the detailed information of a doctor,
  * including their unique identifier, specialization, and associated user details.
+ *
+ * <p>The all-arguments constructor is used by the doctor search and listing projections,
+ * so the field order matters.</p>
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class DoctorDTO {
     private Long id;
     private String name;
@@ -0,0 +1,33 @@
+package tbektenov.com.sau.dtos.doctor;
+
+import lombok.Data;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+import java.util.List;
+
+/**
+ * DTO for paginated responses of a doctor search.
+ *
+ * Fields:
+ * - {@code content}: The list of doctor data on the page.
+ * - {@code hospital}: The hospital filter applied, or null.
+ * - {@code specialization}: The specialization filter applied, or null.
+ * - {@code name}: The surname prefix filter applied, or null.
+ * - {@code pageNo}: The current page number.
+ * - {@code pageSize}: The number of items per page.
+ * - {@code totalElements}: The total number of matching doctors.
+ * - {@code totalPages}: The total number of pages.
+ * - {@code last}: Indicates if this is the last page.
+ */
+@Data
+public class DoctorResponse {
+    private List<DoctorDTO> content;
+    private String hospital;
+    private Specialization specialization;
+    private String name;
+    private int pageNo;
+    private int pageSize;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+}
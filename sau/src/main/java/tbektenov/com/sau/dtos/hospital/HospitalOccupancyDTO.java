@@ -0,0 +1,26 @@
+package tbektenov.com.sau.dtos.hospital;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO reporting the occupancy of a hospital.
+ *
+ * Fields:
+ * - {@code hospitalId}: The unique identifier of the hospital.
+ * - {@code name}: The name of the hospital.
+ * - {@code capacity}: The number of beds in all wards of the hospital.
+ * - {@code occupied}: The number of hospitalized patients in the hospital.
+ * - {@code free}: The number of free beds, never negative.
+ * - {@code wards}: The occupancy of each ward, only set when a single hospital is requested.
+ */
+@Data
+public class HospitalOccupancyDTO {
+    private Long hospitalId;
+    private String name;
+    private long capacity;
+    private long occupied;
+    private long free;
+    private List<WardOccupancyDTO> wards;
+}
@@ -11,9 +11,10 @@ import java.util.List;
  * - {@code content}: The list of hospital data.
  * - {@code pageNo}: The current page number.
  * - {@code pageSize}: The number of items per page.
- * - {@code totalElements}: The total number of elements.
- * - {@code totalPages}: The total number of pages.
+ * - {@code totalElements}: The total number of elements, or -1 if not computed.
+ * - {@code totalPages}: The total number of pages, or -1 if not computed.
  * - {@code last}: Indicates if this is the last page.
+ * - {@code totals}: How the totals were computed.
  */
 @Data
 public class HospitalResponse {
@@ -23,4 +24,5 @@ public class HospitalResponse {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    private HospitalTotals totals;
 }
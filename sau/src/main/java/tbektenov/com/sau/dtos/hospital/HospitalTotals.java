@@ -0,0 +1,13 @@
+package tbektenov.com.sau.dtos.hospital;
+
+/**
+ * How the totals of a page of hospitals are computed.
+ */
+public enum HospitalTotals {
+    /** Counted in the database for every page. */
+    EXACT,
+    /** Taken from the in-memory hospital count, kept current by inserts and deletes. */
+    CACHED,
+    /** Not computed; only whether a next page exists is known. */
+    NONE
+}
@@ -0,0 +1,18 @@
+package tbektenov.com.sau.dtos.hospital;
+
+import lombok.Data;
+
+/**
+ * DTO summarizing one run of the occupancy reconciliation job.
+ *
+ * Fields:
+ * - {@code wardsCorrected}: The number of wards whose occupied beds were corrected.
+ * - {@code hospitalsCorrected}: The number of hospitals whose occupied beds were corrected.
+ * - {@code durationMillis}: The duration of the run in milliseconds.
+ */
+@Data
+public class OccupancyReconciliationDTO {
+    private int wardsCorrected;
+    private int hospitalsCorrected;
+    private long durationMillis;
+}
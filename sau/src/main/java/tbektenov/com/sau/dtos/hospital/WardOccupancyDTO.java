@@ -0,0 +1,22 @@
+package tbektenov.com.sau.dtos.hospital;
+
+import lombok.Data;
+
+/**
+ * DTO reporting the occupancy of a hospital ward.
+ *
+ * Fields:
+ * - {@code wardId}: The unique identifier of the ward.
+ * - {@code wardNum}: The number of the ward within its hospital.
+ * - {@code capacity}: The number of beds in the ward.
+ * - {@code occupied}: The number of hospitalized patients in the ward.
+ * - {@code free}: The number of free beds, never negative.
+ */
+@Data
+public class WardOccupancyDTO {
+    private Long wardId;
+    private String wardNum;
+    private long capacity;
+    private long occupied;
+    private long free;
+}
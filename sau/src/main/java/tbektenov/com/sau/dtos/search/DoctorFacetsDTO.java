@@ -0,0 +1,24 @@
+package tbektenov.com.sau.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the doctor counts offered as search filters.
+ *
+ * Fields:
+ * - {@code hospitals}: The number of doctors per hospital, by hospital name.
+ * - {@code specializations}: The number of doctors per specialization, in declaration order.
+ * - {@code hospitalSpecializations}: The number of doctors per hospital and specialization.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorFacetsDTO {
+    private List<FacetCountDTO> hospitals;
+    private List<FacetCountDTO> specializations;
+    private List<HospitalSpecializationCountDTO> hospitalSpecializations;
+}
@@ -0,0 +1,20 @@
+package tbektenov.com.sau.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the number of doctors sharing one filter value.
+ *
+ * Fields:
+ * - {@code value}: The filter value, a hospital name or a specialization.
+ * - {@code count}: The number of doctors with that value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+    private String value;
+    private long count;
+}
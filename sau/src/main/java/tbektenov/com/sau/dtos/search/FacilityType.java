@@ -0,0 +1,9 @@
+package tbektenov.com.sau.dtos.search;
+
+/**
+ * Kinds of facilities the nearest-facility search can look for.
+ */
+public enum FacilityType {
+    HOSPITAL,
+    PHARMACY
+}
@@ -0,0 +1,25 @@
+package tbektenov.com.sau.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+/**
+ * DTO for the number of doctors of one specialization in one hospital.
+ *
+ * <p>The all-arguments constructor is used by the facet query, so the field order matters.</p>
+ *
+ * Fields:
+ * - {@code hospital}: The name of the hospital.
+ * - {@code specialization}: The specialization.
+ * - {@code count}: The number of doctors of the specialization in the hospital.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalSpecializationCountDTO {
+    private String hospital;
+    private Specialization specialization;
+    private long count;
+}
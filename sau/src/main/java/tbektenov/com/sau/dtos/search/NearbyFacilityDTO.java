@@ -0,0 +1,30 @@
+package tbektenov.com.sau.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a facility found by the nearest-facility search.
+ *
+ * Fields:
+ * - {@code type}: The kind of facility.
+ * - {@code id}: The unique identifier of the hospital or private pharmacy.
+ * - {@code name}: The name of the facility.
+ * - {@code address}: The address of the facility.
+ * - {@code latitude}: The latitude of the facility in degrees.
+ * - {@code longitude}: The longitude of the facility in degrees.
+ * - {@code distanceKm}: The great-circle distance from the searched point in kilometres.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyFacilityDTO {
+    private FacilityType type;
+    private Long id;
+    private String name;
+    private String address;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+}
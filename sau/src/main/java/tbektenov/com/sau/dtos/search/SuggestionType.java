@@ -0,0 +1,10 @@
+package tbektenov.com.sau.dtos.search;
+
+/**
+ * Kinds of records a typeahead suggestion can point to.
+ */
+public enum SuggestionType {
+    DOCTOR,
+    HOSPITAL,
+    PHARMACY
+}
@@ -0,0 +1,24 @@
+package tbektenov.com.sau.dtos.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single typeahead suggestion.
+ *
+ * Fields:
+ * - {@code type}: The kind of record the suggestion points to.
+ * - {@code id}: The unique identifier of the record.
+ * - {@code label}: The text to show, the doctor's full name or the hospital's or pharmacy's name.
+ * - {@code detail}: Secondary text, the doctor's specialization or the address.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadSuggestionDTO {
+    private SuggestionType type;
+    private Long id;
+    private String label;
+    private String detail;
+}
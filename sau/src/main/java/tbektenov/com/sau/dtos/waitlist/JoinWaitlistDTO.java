@@ -0,0 +1,25 @@
+package tbektenov.com.sau.dtos.waitlist;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) for joining the waitlist of a doctor on a given day.
+ *
+ * Fields:
+ * - {@code doctor_id}: The unique identifier of the doctor.
+ * - {@code date}: The day the patient wants an appointment on.
+ * - {@code priority}: The priority of the request; higher values are served first.
+ */
+@Data
+public class JoinWaitlistDTO {
+    @NotNull(message = "Doctor cannot be null.")
+    private Long doctor_id;
+    @NotNull(message = "Date cannot be null.")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    private int priority;
+}
@@ -0,0 +1,30 @@
+package tbektenov.com.sau.dtos.waitlist;
+
+import lombok.Data;
+import tbektenov.com.sau.models.WaitlistStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) for a waitlist entry of a patient.
+ *
+ * Fields:
+ * - {@code id}: The unique identifier of the entry.
+ * - {@code doctorId}: The unique identifier of the doctor.
+ * - {@code date}: The day the patient waits for.
+ * - {@code priority}: The priority of the entry.
+ * - {@code status}: The current status of the entry.
+ * - {@code createdAt}: The moment the patient joined the waitlist.
+ * - {@code appointmentId}: The appointment booked for the patient, once fulfilled.
+ */
+@Data
+public class WaitlistEntryDTO {
+    private Long id;
+    private Long doctorId;
+    private LocalDate date;
+    private int priority;
+    private WaitlistStatus status;
+    private LocalDateTime createdAt;
+    private Long appointmentId;
+}
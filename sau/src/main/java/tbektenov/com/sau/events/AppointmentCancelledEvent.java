@@ -0,0 +1,22 @@
+package tbektenov.com.sau.events;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published when an upcoming appointment is cancelled and its slot becomes free again.
+ *
+ * @param appointmentId the ID of the cancelled appointment
+ * @param patientId the ID of the patient the appointment belonged to
+ * @param doctorId the ID of the doctor whose slot was freed
+ * @param date the day of the freed slot
+ * @param startTime the start of the freed slot, or null if the appointment had no time slot
+ * @param endTime the end of the freed slot, or null if the appointment had no time slot
+ */
+public record AppointmentCancelledEvent(Long appointmentId,
+                                        Long patientId,
+                                        Long doctorId,
+                                        LocalDate date,
+                                        LocalTime startTime,
+                                        LocalTime endTime) {
+}
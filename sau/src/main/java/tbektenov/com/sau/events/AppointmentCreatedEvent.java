@@ -0,0 +1,15 @@
+package tbektenov.com.sau.events;
+
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+
+/**
+ * Published when an appointment is booked.
+ *
+ * @param patientId the ID of the patient the appointment was booked for
+ * @param doctorId the ID of the doctor of the appointment
+ * @param appointment the booked appointment
+ */
+public record AppointmentCreatedEvent(Long patientId,
+                                      Long doctorId,
+                                      AppointmentDTO appointment) {
+}
@@ -0,0 +1,13 @@
+package tbektenov.com.sau.events;
+
+import tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO;
+
+import java.util.List;
+
+/**
+ * Published when a chunk of past appointments has been archived.
+ *
+ * @param appointments the slots of the archived appointments
+ */
+public record AppointmentsArchivedEvent(List<AppointmentSlotDTO> appointments) {
+}
@@ -0,0 +1,10 @@
+package tbektenov.com.sau.events;
+
+/**
+ * Published after a transaction committed a change that shows in doctor listings, such as a new
+ * doctor, a doctor moving to another hospital or a renamed hospital.
+ *
+ * @param changedType the entity class whose change triggered the event
+ */
+public record DoctorDirectoryChangedEvent(Class<?> changedType) {
+}
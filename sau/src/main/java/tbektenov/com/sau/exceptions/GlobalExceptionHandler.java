@@ -77,4 +77,37 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(errorObject, HttpStatus.ALREADY_REPORTED);
     }
+
+    /**
+     * Handles {@link SlotAlreadyBookedException} and returns a 409 response.
+     */
+    @ExceptionHandler(SlotAlreadyBookedException.class)
+    public ResponseEntity<ErrorObject> handleSlotAlreadyBookedException(
+            SlotAlreadyBookedException ex,
+            WebRequest req
+    ) {
+        ErrorObject errorObject = new ErrorObject();
+        errorObject.setStatusCode(HttpStatus.CONFLICT.value());
+        errorObject.setMessage(ex.getMessage());
+        errorObject.setTimestamp(new Date());
+
+        return new ResponseEntity<>(errorObject, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles {@link StatementBudgetExceededException} and returns a 500 response.
+     * The statements are only logged, so they are not shown to the client.
+     */
+    @ExceptionHandler(StatementBudgetExceededException.class)
+    public ResponseEntity<ErrorObject> handleStatementBudgetExceededException(
+            StatementBudgetExceededException ex,
+            WebRequest req
+    ) {
+        ErrorObject errorObject = new ErrorObject();
+        errorObject.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        errorObject.setMessage("The request executed more SQL statements than its budget allows.");
+        errorObject.setTimestamp(new Date());
+
+        return new ResponseEntity<>(errorObject, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
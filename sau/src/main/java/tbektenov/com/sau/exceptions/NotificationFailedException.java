@@ -0,0 +1,31 @@
+package tbektenov.com.sau.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a notification could not be delivered to a patient.
+ */
+public class NotificationFailedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 6L;
+
+    /**
+     * Constructs a new {@code NotificationFailedException} with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public NotificationFailedException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new {@code NotificationFailedException} with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of the failure
+     */
+    public NotificationFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
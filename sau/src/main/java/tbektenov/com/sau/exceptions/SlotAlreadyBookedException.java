@@ -0,0 +1,21 @@
+package tbektenov.com.sau.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when a requested time slot overlaps an existing appointment of the doctor.
+ */
+public class SlotAlreadyBookedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 5L;
+
+    /**
+     * Constructs a new {@code SlotAlreadyBookedException} with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public SlotAlreadyBookedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package tbektenov.com.sau.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Exception thrown when an operation executed more SQL statements than its declared budget
+ * and budgets are enforced.
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 7L;
+
+    /**
+     * Constructs a new {@code StatementBudgetExceededException} with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package tbektenov.com.sau.models;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import tbektenov.com.sau.exceptions.InvalidArgumentsException;
 import tbektenov.com.sau.models.config.validator.DoctorAndPatientAreNotSame;
 import tbektenov.com.sau.models.hospital.Laboratory;
@@ -10,6 +11,8 @@ import tbektenov.com.sau.models.user.userRoles.Doctor;
 import tbektenov.com.sau.models.user.userRoles.Patient;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Objects;
 
 /**
@@ -17,11 +20,21 @@ import java.util.Objects;
  *
  * <p>Mapped to the "APPOINTMENTS" table in the database.</p>
  *
- * <p>Includes details like date, status, doctor, and patient.</p>
+ * <p>Includes details like date, time slot, status, doctor, patient, and the delivery state
+ * of the appointment reminder.
+ * A doctor cannot have two appointments starting at the same moment, and concurrent
+ * updates are detected through the version column.</p>
  */
 @Entity
 @Data
-@Table(name = "APPOINTMENTS")
+@Table(name = "APPOINTMENTS", indexes = {
+        @Index(name = "idx_appointments_patient_status_date", columnList = "patient_id, status, date, appointment_id"),
+        @Index(name = "idx_appointments_status_date", columnList = "status, date"),
+        @Index(name = "idx_appointments_reminder", columnList = "reminder_status, date, appointment_id"),
+        @Index(name = "idx_appointments_patient_doctor", columnList = "patient_id, doctor_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = Appointment.DOCTOR_SLOT_CONSTRAINT, columnNames = {"doctor_id", "date", "start_time"})
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -43,8 +56,14 @@ import java.util.Objects;
         )
 )
 public class Appointment {
+    /**
+     * Name of the unique constraint on the doctor and the start of the time slot.
+     */
+    public static final String DOCTOR_SLOT_CONSTRAINT = "uk_appointments_doctor_slot";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     @Column(name = "appointment_id", nullable = false, updatable = false)
     private Long id;
 
@@ -52,12 +71,50 @@ public class Appointment {
     @EqualsAndHashCode.Exclude
     private LocalDate date = LocalDate.now();
 
+    @Column(name = "start_time")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalTime endTime;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     @EqualsAndHashCode.Exclude
     private AppointmentStatus appointmentStatus = AppointmentStatus.UPCOMING;
 
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'PENDING'")
+    @Column(name = "reminder_status", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private ReminderStatus reminderStatus = ReminderStatus.PENDING;
+
+    @ColumnDefault("0")
+    @Column(name = "reminder_attempts", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private int reminderAttempts = 0;
+
+    @Column(name = "reminder_sent_at")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime reminderSentAt;
+
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false, updatable = false)
@@ -72,6 +129,24 @@ public class Appointment {
     @EqualsAndHashCode.Exclude
     private Patient patient;
 
+    /**
+     * Returns the moment the appointment starts.
+     *
+     * @return the start of the time slot, or null if the appointment has no time slot
+     */
+    public LocalDateTime getStart() {
+        return (date != null && startTime != null) ? date.atTime(startTime) : null;
+    }
+
+    /**
+     * Returns the moment the appointment ends.
+     *
+     * @return the end of the time slot, or null if the appointment has no time slot
+     */
+    public LocalDateTime getEnd() {
+        return (date != null && endTime != null) ? date.atTime(endTime) : null;
+    }
+
     /**
      * Marks the given appointment as finished by setting its status to archived.
      *
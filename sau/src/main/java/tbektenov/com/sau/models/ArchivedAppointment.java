@@ -0,0 +1,72 @@
+package tbektenov.com.sau.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Represents an archived appointment that was moved out of the active appointments.
+ *
+ * <p>Mapped to the "APPOINTMENTS_ARCHIVE" table in the database. Rows keep the ID they had in
+ * the "APPOINTMENTS" table, so an appointment can be followed across the move. The archive is
+ * append-only and is only read by the appointment history.</p>
+ */
+@Entity
+@Data
+@Table(name = "APPOINTMENTS_ARCHIVE", indexes = {
+        @Index(name = "idx_appointments_archive_patient_date", columnList = "patient_id, date, appointment_id"),
+        @Index(name = "idx_appointments_archive_patient_doctor", columnList = "patient_id, doctor_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedAppointment {
+    @Id
+    @Column(name = "appointment_id", nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "date", updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalDate date;
+
+    @Column(name = "start_time", updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalTime startTime;
+
+    @Column(name = "end_time", updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LocalTime endTime;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private AppointmentStatus appointmentStatus;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Doctor doctor;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Patient patient;
+
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime archivedAt;
+}
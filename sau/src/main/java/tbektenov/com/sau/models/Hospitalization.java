@@ -33,7 +33,8 @@ import java.util.Set;
 )
 public class Hospitalization {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hospitalization_seq")
+    @SequenceGenerator(name = "hospitalization_seq", sequenceName = "hospitalization_seq", allocationSize = 50)
     @Column(name = "hospitalization_id")
     private Long id;
 
@@ -0,0 +1,56 @@
+package tbektenov.com.sau.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Records the progress of a chunked background job, so an interrupted run can resume.
+ *
+ * <p>Mapped to the "JOB_CHECKPOINT" table in the database, one row per job.</p>
+ */
+@Entity
+@Data
+@Table(name = "JOB_CHECKPOINT")
+@NoArgsConstructor
+public class JobCheckpoint {
+    @Id
+    @Column(name = "job_name", nullable = false, updatable = false)
+    private String jobName;
+
+    @Column(name = "cutoff_date")
+    private LocalDate cutoffDate;
+
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId = 0L;
+
+    @Column(name = "rows_processed", nullable = false)
+    private Long rowsProcessed = 0L;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Constructs a checkpoint for the given job.
+     *
+     * @param jobName the unique name of the job
+     */
+    public JobCheckpoint(String jobName) {
+        this.jobName = jobName;
+    }
+
+    /**
+     * Checks whether the checkpoint belongs to an unfinished run for the given cutoff date.
+     *
+     * @param cutoffDate the cutoff date of the current run
+     * @return true if the run was interrupted and can be resumed
+     */
+    public boolean isResumableFor(LocalDate cutoffDate) {
+        return finishedAt == null && cutoffDate.equals(this.cutoffDate);
+    }
+}
@@ -14,12 +14,16 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_order_entity_doctor", columnList = "doctor_id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class OrderEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_entity_seq")
+    @SequenceGenerator(name = "order_entity_seq", sequenceName = "order_entity_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
 
@@ -0,0 +1,49 @@
+package tbektenov.com.sau.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+
+/**
+ * Enum representing the status of the reminder of an appointment.
+ *
+ * <p>A reminder is PENDING until it is delivered to the patient (SENT), or until every
+ * delivery attempt has failed (FAILED).</p>
+ */
+public enum ReminderStatus {
+    PENDING("PENDING"),
+    SENT("SENT"),
+    FAILED("FAILED");
+
+    private String name;
+
+    ReminderStatus(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the status.
+     *
+     * @return the name of the status.
+     */
+    @JsonValue
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Converts a string value to a ReminderStatus enum.
+     *
+     * @param value the string value representing the status.
+     * @return the corresponding ReminderStatus enum.
+     * @throws InvalidArgumentsException if the value does not match any ReminderStatus.
+     */
+    @JsonCreator
+    public static ReminderStatus fromValue(String value) {
+        for (ReminderStatus reminderStatus : ReminderStatus.values()) {
+            if (reminderStatus.name.equalsIgnoreCase(value)) return reminderStatus;
+        }
+
+        throw new InvalidArgumentsException(String.format("Unknown reminder status: %s", value));
+    }
+}
@@ -0,0 +1,72 @@
+package tbektenov.com.sau.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a patient waiting for a slot of a doctor on a given day.
+ *
+ * <p>Mapped to the "WAITLIST_ENTRY" table in the database. Entries with a higher priority
+ * are served first; entries with the same priority are served in the order they were created.</p>
+ */
+@Entity
+@Data
+@Table(name = "WAITLIST_ENTRY", indexes = {
+        @Index(name = "idx_waitlist_doctor_date_status", columnList = "doctor_id, date, status"),
+        @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+    @SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_seq", allocationSize = 50)
+    @Column(name = "waitlist_entry_id", nullable = false, updatable = false)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Doctor doctor;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Patient patient;
+
+    @NotNull
+    @Column(name = "date", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private LocalDate date;
+
+    @Column(name = "priority", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private int priority;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "appointment_id")
+    @EqualsAndHashCode.Exclude
+    private Long appointmentId;
+}
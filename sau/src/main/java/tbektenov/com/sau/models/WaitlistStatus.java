@@ -0,0 +1,49 @@
+package tbektenov.com.sau.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+
+/**
+ * Enum representing the status of a waitlist entry.
+ *
+ * <p>An entry is WAITING until a freed slot is booked for the patient (FULFILLED),
+ * or until booking for the patient turns out to be impossible (REJECTED).</p>
+ */
+public enum WaitlistStatus {
+    WAITING("WAITING"),
+    FULFILLED("FULFILLED"),
+    REJECTED("REJECTED");
+
+    private String name;
+
+    WaitlistStatus(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the status.
+     *
+     * @return the name of the status.
+     */
+    @JsonValue
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Converts a string value to a WaitlistStatus enum.
+     *
+     * @param value the string value representing the status.
+     * @return the corresponding WaitlistStatus enum.
+     * @throws InvalidArgumentsException if the value does not match any WaitlistStatus.
+     */
+    @JsonCreator
+    public static WaitlistStatus fromValue(String value) {
+        for (WaitlistStatus waitlistStatus : WaitlistStatus.values()) {
+            if (waitlistStatus.name.equalsIgnoreCase(value)) return waitlistStatus;
+        }
+
+        throw new InvalidArgumentsException(String.format("Unknown waitlist status: %s", value));
+    }
+}
@@ -1,8 +1,11 @@
 package tbektenov.com.sau.models.hospital;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import tbektenov.com.sau.models.pharmacy.HospitalPharmacy;
 import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
 import tbektenov.com.sau.models.user.userRoles.Doctor;
@@ -18,6 +21,12 @@ import java.util.Set;
  *
  * <p>The entity graph defined by {@code @NamedEntityGraph} allows for optimized fetching
  * of related entities by specifying subgraphs for complex queries.</p>
+ *
+ * <p>The coordinates are optional; a hospital is found by the nearest-facility search only
+ * when both are set.</p>
+ *
+ * <p>{@code occupiedBeds} counts the hospitalizations in all wards of the hospital. It is kept
+ * by bulk updates on admission and discharge, never written from the entity.</p>
  */
 @Data
 @Entity
@@ -67,7 +76,8 @@ import java.util.Set;
 public class Hospital {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hospital_seq")
+    @SequenceGenerator(name = "hospital_seq", sequenceName = "hospital_seq", allocationSize = 50)
     @Column(name = "hospital_id", nullable = false)
     private Long id;
 
@@ -79,6 +89,22 @@ public class Hospital {
     @Column(name = "address", nullable = false)
     private String address;
 
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90.")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90.")
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180.")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180.")
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @ColumnDefault("0")
+    @Column(name = "occupied_beds", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private int occupiedBeds = 0;
+
     @OneToMany(mappedBy = "hospital", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
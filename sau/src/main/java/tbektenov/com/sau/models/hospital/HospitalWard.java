@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import tbektenov.com.sau.models.Hospitalization;
 
 import java.util.HashSet;
@@ -16,10 +17,16 @@ import java.util.Set;
  *
  * <p>This entity is used to store details about a hospital ward, such as its number, capacity,
  * and the associated hospital. It also manages the hospitalizations that occur within the ward.</p>
+ *
+ * <p>{@code occupied} counts the hospitalizations in the ward, so occupancy can be reported
+ * without loading them. It is kept by bulk updates on admission and discharge, never written
+ * from the entity.</p>
  */
 @Data
 @Entity
-@Table(name = "HOSPITAL_WARD")
+@Table(name = "HOSPITAL_WARD", indexes = {
+        @Index(name = "idx_hospital_ward_hospital_num", columnList = "hospital_id, ward_num")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -33,7 +40,8 @@ import java.util.Set;
 )
 public class HospitalWard {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hospital_ward_seq")
+    @SequenceGenerator(name = "hospital_ward_seq", sequenceName = "hospital_ward_seq", allocationSize = 50)
     @Column(name = "hospital_ward_id", nullable = false)
     private Long id;
 
@@ -46,6 +54,12 @@ public class HospitalWard {
     @Column(name = "capacity", nullable = false)
     private Integer capacity;
 
+    @ColumnDefault("0")
+    @Column(name = "occupied", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private int occupied = 0;
+
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hospital_id", nullable = false, updatable = false)
@@ -18,13 +18,16 @@ import java.util.Set;
  */
 @Data
 @Entity
-@Table(name = "LABORATORY")
+@Table(name = "LABORATORY", indexes = {
+        @Index(name = "idx_laboratory_hospital_floor", columnList = "hospital_id, floor")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Laboratory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "laboratory_seq")
+    @SequenceGenerator(name = "laboratory_seq", sequenceName = "laboratory_seq", allocationSize = 50)
     @Column(name = "laboratory_id", nullable = false)
     private Long id;
 
@@ -18,7 +18,9 @@ import java.util.Set;
  */
 @Data
 @Entity
-@Table(name = "HOSPITAL_PHARMACY")
+@Table(name = "HOSPITAL_PHARMACY", indexes = {
+        @Index(name = "idx_hospital_pharmacy_hospital_name", columnList = "hospital_id, name")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @NamedEntityGraphs(
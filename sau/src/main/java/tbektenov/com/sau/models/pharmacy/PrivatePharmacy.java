@@ -1,6 +1,8 @@
 package tbektenov.com.sau.models.pharmacy;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import tbektenov.com.sau.models.hospital.Hospital;
@@ -10,6 +12,9 @@ import java.util.Set;
 
 /**
  * Entity representing a Private Pharmacy.
+ *
+ * <p>The coordinates are optional; a pharmacy is found by the nearest-facility search only
+ * when both are set.</p>
  */
 @Data
 @Entity
@@ -30,6 +35,16 @@ public class PrivatePharmacy
     @Column(name = "Company", updatable = false, nullable = false)
     private String pharmaCompany;
 
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90.")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90.")
+    @Column(name = "Latitude")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180.")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180.")
+    @Column(name = "Longitude")
+    private Double longitude;
+
     @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinTable(
             name = "pharmacy_hospital_partners",
@@ -44,11 +59,15 @@ public class PrivatePharmacy
     public PrivatePharmacy(String name,
                            boolean isCompoundPharmacy,
                            String address,
-                           String pharmaCompany) {
+                           String pharmaCompany,
+                           Double latitude,
+                           Double longitude) {
         this.name = name;
         this.isCompoundPharmacy = isCompoundPharmacy;
         this.address = address;
         this.pharmaCompany = pharmaCompany;
+        this.latitude = latitude;
+        this.longitude = longitude;
     }
 
 
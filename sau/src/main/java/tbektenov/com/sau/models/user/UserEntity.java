@@ -31,7 +31,9 @@ import java.util.Set;
  */
 @Data
 @Entity
-@Table(name = "USERS")
+@Table(name = "USERS", indexes = {
+        @Index(name = "idx_users_surname_key", columnList = "surname_key")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -63,7 +65,8 @@ public class UserEntity
     implements IDoctor, IPatient, INurse{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     protected Long id;
 
     @NotBlank(message = "Name cannot be blank.")
@@ -74,6 +77,16 @@ public class UserEntity
     @Column(name = "surname", nullable = false)
     protected String surname;
 
+    /**
+     * Lower-cased surname maintained by the database, so case-insensitive surname prefix
+     * searches can use an index.
+     */
+    @Column(name = "surname_key", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(surname))")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    protected String surnameKey;
+
     @NotBlank(message = "Username cannot be blank.")
     @Column(name = "username", nullable = false, unique = true)
     protected String username;
@@ -3,6 +3,7 @@ package tbektenov.com.sau.models.user.userRoles;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import tbektenov.com.sau.exceptions.InvalidArgumentsException;
 import tbektenov.com.sau.models.*;
 import tbektenov.com.sau.models.hospital.Hospital;
@@ -17,10 +18,14 @@ import java.util.*;
  * Represents a doctor entity associated with a user, hospital, and optionally a laboratory.
  *
  * <p>This class handles the relationship of a doctor with appointments, orders, and hospitalizations.
- * It is mapped to the database using JPA annotations.</p>
+ * It is mapped to the database using JPA annotations and versioned for optimistic locking.</p>
  */
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_doctor_hospital_specialization", columnList = "hospital_id, specialization"),
+        @Index(name = "idx_doctor_specialization", columnList = "specialization")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -71,6 +76,13 @@ public class Doctor
     @EqualsAndHashCode.Exclude
     private UserEntity user;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
     @NotNull(message = "Doctor must have specialization.")
     @Column(name = "specialization")
     @Enumerated(EnumType.STRING)
@@ -1,10 +1,20 @@
 package tbektenov.com.sau.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.AppointmentReminderDTO;
+import tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO;
 import tbektenov.com.sau.models.Appointment;
 import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.ReminderStatus;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -18,6 +28,14 @@ import java.util.List;
  */
 public interface AppointmentRepo extends JpaRepository<Appointment, Long> {
 
+    /**
+     * Select clause projecting an appointment with its doctor's specialization and hospital
+     * straight into an {@link AppointmentDTO}, without creating managed entities.
+     */
+    String DTO_SELECT = "select new tbektenov.com.sau.dtos.appointment.AppointmentDTO(" +
+            "a.id, d.specialization, h.name, h.address, a.appointmentStatus, a.date, a.startTime, a.endTime) " +
+            "from Appointment a join a.doctor d join d.hospital h ";
+
     /**
      * Find appointments by patient ID and status, fetching related entities.
      *
@@ -36,4 +54,227 @@ public interface AppointmentRepo extends JpaRepository<Appointment, Long> {
      * @return true if an appointment exists, false otherwise
      */
     Boolean existsByPatientIdAndDoctorId(Long patientId, Long doctorId);
+
+    /**
+     * Find the appointments of a doctor with the given status that have a time slot assigned.
+     *
+     * @param doctorId the doctor's ID
+     * @param status the status of the appointments
+     * @return a list of time-slotted appointments of the doctor
+     */
+    List<Appointment> findByDoctorIdAndAppointmentStatusAndStartTimeIsNotNull(Long doctorId, AppointmentStatus status);
+
+    /**
+     * Find a patient's appointments with the given status as DTO projections, oldest first.
+     *
+     * @param patientId the patient's ID
+     * @param status the status of the appointments
+     * @return a list of appointment DTOs ordered by date and ID
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId and a.appointmentStatus = :status " +
+            "order by a.date asc, a.id asc")
+    List<AppointmentDTO> findDtosByPatientIdAndStatus(@Param("patientId") Long patientId,
+                                                      @Param("status") AppointmentStatus status);
+
+    /**
+     * Find the first page of a patient's appointments with the given status, oldest first.
+     *
+     * @param patientId the patient's ID
+     * @param status the status of the appointments
+     * @param pageable the page limit; its offset is expected to be zero
+     * @return a page of appointment DTOs ordered by date and ID
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId and a.appointmentStatus = :status " +
+            "order by a.date asc, a.id asc")
+    List<AppointmentDTO> findFirstPageAsc(@Param("patientId") Long patientId,
+                                          @Param("status") AppointmentStatus status,
+                                          Pageable pageable);
+
+    /**
+     * Find the page of a patient's appointments that follows the given (date, ID) cursor, oldest first.
+     *
+     * @param patientId the patient's ID
+     * @param status the status of the appointments
+     * @param date the date of the last appointment of the previous page
+     * @param id the ID of the last appointment of the previous page
+     * @param pageable the page limit; its offset is expected to be zero
+     * @return a page of appointment DTOs ordered by date and ID
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId and a.appointmentStatus = :status " +
+            "and (a.date > :date or (a.date = :date and a.id > :id)) " +
+            "order by a.date asc, a.id asc")
+    List<AppointmentDTO> findPageAfterAsc(@Param("patientId") Long patientId,
+                                          @Param("status") AppointmentStatus status,
+                                          @Param("date") LocalDate date,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    /**
+     * Find the first page of a patient's appointments with the given status, newest first.
+     *
+     * @param patientId the patient's ID
+     * @param status the status of the appointments
+     * @param pageable the page limit; its offset is expected to be zero
+     * @return a page of appointment DTOs ordered by date and ID, descending
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId and a.appointmentStatus = :status " +
+            "order by a.date desc, a.id desc")
+    List<AppointmentDTO> findFirstPageDesc(@Param("patientId") Long patientId,
+                                           @Param("status") AppointmentStatus status,
+                                           Pageable pageable);
+
+    /**
+     * Find the page of a patient's appointments that follows the given (date, ID) cursor, newest first.
+     *
+     * @param patientId the patient's ID
+     * @param status the status of the appointments
+     * @param date the date of the last appointment of the previous page
+     * @param id the ID of the last appointment of the previous page
+     * @param pageable the page limit; its offset is expected to be zero
+     * @return a page of appointment DTOs ordered by date and ID, descending
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId and a.appointmentStatus = :status " +
+            "and (a.date < :date or (a.date = :date and a.id < :id)) " +
+            "order by a.date desc, a.id desc")
+    List<AppointmentDTO> findPageAfterDesc(@Param("patientId") Long patientId,
+                                           @Param("status") AppointmentStatus status,
+                                           @Param("date") LocalDate date,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    /**
+     * Find the slots of appointments with the given status dated before the given day,
+     * following the given ID in ascending order.
+     *
+     * @param status the status of the appointments
+     * @param date the exclusive upper bound of the appointment date
+     * @param afterId the ID after which to continue
+     * @param pageable the chunk limit; its offset is expected to be zero
+     * @return a chunk of appointment slots ordered by ID ascending
+     */
+    @Query("select new tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO(" +
+            "a.id, a.patient.id, a.doctor.id, a.date, a.startTime, a.endTime) from Appointment a " +
+            "where a.appointmentStatus = :status and a.date < :date and a.id > :afterId order by a.id asc")
+    List<AppointmentSlotDTO> findSlotsByStatusAndDateBefore(@Param("status") AppointmentStatus status,
+                                                            @Param("date") LocalDate date,
+                                                            @Param("afterId") Long afterId,
+                                                            Pageable pageable);
+
+    /**
+     * Find the IDs of appointments with the given status following the given ID in ascending order.
+     *
+     * @param status the status of the appointments
+     * @param afterId the ID after which to continue
+     * @param pageable the chunk limit; its offset is expected to be zero
+     * @return a chunk of appointment IDs in ascending order
+     */
+    @Query("select a.id from Appointment a where a.appointmentStatus = :status and a.id > :afterId order by a.id asc")
+    List<Long> findIdsByStatusAfter(@Param("status") AppointmentStatus status,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    /**
+     * Set the status of all appointments with the given IDs in one statement,
+     * incrementing their versions.
+     *
+     * @param ids the IDs of the appointments
+     * @param status the new status
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update versioned Appointment a set a.appointmentStatus = :status where a.id in :ids")
+    int updateStatusByIds(@Param("ids") List<Long> ids, @Param("status") AppointmentStatus status);
+
+    /**
+     * Count the appointments with the given status per doctor and day, starting at the given day.
+     *
+     * @param status the status of the appointments
+     * @param fromDate the first day to count
+     * @return rows of doctor ID, date and number of appointments
+     */
+    @Query("select a.doctor.id, a.date, count(a) from Appointment a " +
+            "where a.appointmentStatus = :status and a.date >= :fromDate group by a.doctor.id, a.date")
+    List<Object[]> countByDoctorAndDate(@Param("status") AppointmentStatus status,
+                                        @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Find the slots of the given appointments that belong to the patient and have the given status.
+     * Neither the appointments nor their associations are loaded as entities.
+     *
+     * @param ids the IDs of the appointments
+     * @param patientId the patient's ID
+     * @param status the status of the appointments
+     * @return the slots of the matching appointments
+     */
+    @Query("select new tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO(" +
+            "a.id, a.patient.id, a.doctor.id, a.date, a.startTime, a.endTime) from Appointment a " +
+            "where a.id in :ids and a.patient.id = :patientId and a.appointmentStatus = :status")
+    List<AppointmentSlotDTO> findSlotsByIdsAndPatientId(@Param("ids") List<Long> ids,
+                                                        @Param("patientId") Long patientId,
+                                                        @Param("status") AppointmentStatus status);
+
+    /**
+     * Delete all appointments with the given IDs in one statement.
+     *
+     * @param ids the IDs of the appointments
+     * @return the number of deleted rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Appointment a where a.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Find the reminders of upcoming appointments in the given date range whose reminder has the
+     * given status, following the given ID in ascending order.
+     *
+     * @param reminderStatus the status of the reminders
+     * @param fromDate the first day of the range
+     * @param toDate the last day of the range
+     * @param afterId the ID after which to continue
+     * @param pageable the batch limit; its offset is expected to be zero
+     * @return a batch of reminders ordered by appointment ID ascending
+     */
+    @Query("select new tbektenov.com.sau.dtos.appointment.AppointmentReminderDTO(" +
+            "a.id, p.id, u.name, u.email, d.specialization, h.name, a.date, a.startTime) " +
+            "from Appointment a join a.patient p join p.user u join a.doctor d join d.hospital h " +
+            "where a.reminderStatus = :reminderStatus " +
+            "and a.appointmentStatus = tbektenov.com.sau.models.AppointmentStatus.UPCOMING " +
+            "and a.date between :fromDate and :toDate and a.id > :afterId order by a.id asc")
+    List<AppointmentReminderDTO> findReminders(@Param("reminderStatus") ReminderStatus reminderStatus,
+                                               @Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    /**
+     * Mark the reminders of all upcoming appointments with the given IDs as sent in one statement.
+     * The version is not incremented, so the bookkeeping does not conflict with a concurrent change
+     * of the appointment.
+     *
+     * @param ids the IDs of the appointments
+     * @param sentAt the moment the reminders were sent
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Appointment a set a.reminderStatus = tbektenov.com.sau.models.ReminderStatus.SENT, " +
+            "a.reminderSentAt = :sentAt where a.id in :ids " +
+            "and a.appointmentStatus = tbektenov.com.sau.models.AppointmentStatus.UPCOMING")
+    int markRemindersSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record a failed reminder delivery for all appointments with the given IDs in one statement.
+     * Reminders that reach the maximum number of attempts are marked as failed; the others stay pending.
+     * The version is not incremented, as for {@link #markRemindersSent}.
+     *
+     * @param ids the IDs of the appointments
+     * @param maxAttempts the number of attempts after which a reminder is given up
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Appointment a set a.reminderAttempts = a.reminderAttempts + 1, " +
+            "a.reminderStatus = case when a.reminderAttempts + 1 >= :maxAttempts " +
+            "then tbektenov.com.sau.models.ReminderStatus.FAILED " +
+            "else tbektenov.com.sau.models.ReminderStatus.PENDING end " +
+            "where a.id in :ids")
+    int recordFailedReminders(@Param("ids") List<Long> ids, @Param("maxAttempts") int maxAttempts);
 }
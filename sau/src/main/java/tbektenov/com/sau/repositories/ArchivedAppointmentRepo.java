@@ -0,0 +1,81 @@
+package tbektenov.com.sau.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.models.ArchivedAppointment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for {@link ArchivedAppointment} entities.
+ * Provides the history queries over the archive and the bulk copy from the active appointments.
+ *
+ * @see JpaRepository
+ * @see ArchivedAppointment
+ */
+public interface ArchivedAppointmentRepo
+    extends JpaRepository<ArchivedAppointment, Long> {
+
+    /**
+     * Select clause projecting an archived appointment with its doctor's specialization and hospital
+     * straight into an {@link AppointmentDTO}, without creating managed entities.
+     */
+    String DTO_SELECT = "select new tbektenov.com.sau.dtos.appointment.AppointmentDTO(" +
+            "a.id, d.specialization, h.name, h.address, a.appointmentStatus, a.date, a.startTime, a.endTime) " +
+            "from ArchivedAppointment a join a.doctor d join d.hospital h ";
+
+    /**
+     * Check if an archived appointment exists between a specific patient and doctor.
+     *
+     * @param patientId the patient's ID
+     * @param doctorId the doctor's ID
+     * @return true if an archived appointment exists, false otherwise
+     */
+    boolean existsByPatientIdAndDoctorId(Long patientId, Long doctorId);
+
+    /**
+     * Find the first page of a patient's archived appointments, newest first.
+     *
+     * @param patientId the patient's ID
+     * @param pageable the page limit; its offset is expected to be zero
+     * @return a page of appointment DTOs ordered by date and ID, descending
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId order by a.date desc, a.id desc")
+    List<AppointmentDTO> findFirstPageDesc(@Param("patientId") Long patientId, Pageable pageable);
+
+    /**
+     * Find the page of a patient's archived appointments that follows the given (date, ID) cursor, newest first.
+     *
+     * @param patientId the patient's ID
+     * @param date the date of the last appointment of the previous page
+     * @param id the ID of the last appointment of the previous page
+     * @param pageable the page limit; its offset is expected to be zero
+     * @return a page of appointment DTOs ordered by date and ID, descending
+     */
+    @Query(DTO_SELECT + "where a.patient.id = :patientId " +
+            "and (a.date < :date or (a.date = :date and a.id < :id)) " +
+            "order by a.date desc, a.id desc")
+    List<AppointmentDTO> findPageAfterDesc(@Param("patientId") Long patientId,
+                                           @Param("date") LocalDate date,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    /**
+     * Copy the given appointments from the active table into the archive in one statement.
+     *
+     * @param ids the IDs of the appointments
+     * @param archivedAt the moment the appointments are moved
+     * @return the number of copied rows
+     */
+    @Modifying
+    @Query("insert into ArchivedAppointment (id, date, startTime, endTime, appointmentStatus, doctor, patient, archivedAt) " +
+            "select a.id, a.date, a.startTime, a.endTime, a.appointmentStatus, a.doctor, a.patient, :archivedAt " +
+            "from Appointment a where a.id in :ids")
+    int copyFromActive(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -1,9 +1,16 @@
 package tbektenov.com.sau.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.search.HospitalSpecializationCountDTO;
 import tbektenov.com.sau.models.user.userRoles.Doctor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,20 +19,53 @@ import java.util.Optional;
  * <p>
  * This interface extends {@link JpaRepository}, providing basic CRUD operations and additional
  * methods to manage {@link Doctor} entities in the database.
+ * Searching doctors by optional criteria is provided by {@link DoctorSearchRepo}.
  * </p>
  *
  * @see JpaRepository
+ * @see DoctorSearchRepo
  * @see Doctor
  */
-public interface DoctorRepo extends JpaRepository<Doctor, Long> {
+public interface DoctorRepo extends JpaRepository<Doctor, Long>, DoctorSearchRepo {
 
     /**
-     * Retrieves all doctors with their associated hospital and laboratory details.
+     * Retrieves the listing data of all doctors in a single query, without loading the doctors.
+     * <p>
+     * Use this instead of loading the doctors with the {@code Doctor.detailsHospitalAndLaboratory}
+     * graph when only the names, specializations and hospitals are shown.
+     * </p>
      *
-     * @return a list of all doctors with their hospital and laboratory details
+     * @return a list of doctor DTOs ordered by surname
      */
-    @EntityGraph(value = "Doctor.detailsHospitalAndLaboratory", type = EntityGraph.EntityGraphType.LOAD)
-    List<Doctor> findAll();
+    @Query("select new tbektenov.com.sau.dtos.doctor.DoctorDTO(d.id, u.name, u.surname, d.specialization, h.name) " +
+            "from Doctor d join d.user u join d.hospital h " +
+            "order by u.surname, d.id")
+    List<DoctorDTO> findAllListings();
+
+    /**
+     * Retrieves the listing data of the doctors of one hospital in a single query.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return a list of doctor DTOs ordered by surname
+     */
+    @Query("select new tbektenov.com.sau.dtos.doctor.DoctorDTO(d.id, u.name, u.surname, d.specialization, h.name) " +
+            "from Doctor d join d.user u join d.hospital h " +
+            "where h.id = :hospitalId " +
+            "order by u.surname, d.id")
+    List<DoctorDTO> findListingsByHospitalId(@Param("hospitalId") Long hospitalId);
+
+    /**
+     * Retrieves the listing data of the doctors of several hospitals in a single query.
+     *
+     * @param hospitalIds the IDs of the hospitals
+     * @return a list of Object arrays, where each array contains the hospital ID and the
+     *         doctor DTO, ordered by hospital ID and surname
+     */
+    @Query("select h.id, new tbektenov.com.sau.dtos.doctor.DoctorDTO(d.id, u.name, u.surname, d.specialization, h.name) " +
+            "from Doctor d join d.user u join d.hospital h " +
+            "where h.id in :hospitalIds " +
+            "order by h.id, u.surname, d.id")
+    List<Object[]> findListingsByHospitalIds(@Param("hospitalIds") Collection<Long> hospitalIds);
 
     /**
      * Retrieves a doctor by their ID, including associated hospital and laboratory details.
@@ -36,4 +76,46 @@ public interface DoctorRepo extends JpaRepository<Doctor, Long> {
     @Override
     @EntityGraph(value = "Doctor.detailsHospitalAndLaboratory", type = EntityGraph.EntityGraphType.LOAD)
     Optional<Doctor> findById(Long id);
+
+    /**
+     * Retrieves a doctor for booking an appointment, without any associations.
+     * <p>
+     * The doctor's version is checked again when the transaction commits, so a booking
+     * fails with an optimistic locking exception if the doctor was changed meanwhile.
+     * Associations are not fetched here, as the check would extend to unversioned entities.
+     * </p>
+     *
+     * @param id the ID of the doctor
+     * @return an optional containing the doctor if found, or empty if not
+     */
+    @Lock(LockModeType.OPTIMISTIC)
+    Optional<Doctor> findForBookingById(Long id);
+
+    /**
+     * Retrieves the IDs of all doctors without loading the doctors themselves.
+     *
+     * @return a list of doctor IDs in ascending order
+     */
+    @Query("select d.id from Doctor d order by d.id")
+    List<Long> findAllIds();
+
+    /**
+     * Counts the doctors per hospital and specialization in a single grouped query.
+     *
+     * @return the counts ordered by hospital name and specialization
+     */
+    @Query("select new tbektenov.com.sau.dtos.search.HospitalSpecializationCountDTO(h.name, d.specialization, count(d)) " +
+            "from Doctor d join d.hospital h " +
+            "group by h.name, d.specialization " +
+            "order by h.name, d.specialization")
+    List<HospitalSpecializationCountDTO> findHospitalSpecializationCounts();
+
+    /**
+     * Retrieves the specializations available at each hospital in a single query.
+     *
+     * @return a list of Object arrays, where each array contains the hospital ID and a
+     *         specialization of one of its doctors
+     */
+    @Query("select distinct h.id, d.specialization from Doctor d join d.hospital h")
+    List<Object[]> findHospitalSpecializations();
 }
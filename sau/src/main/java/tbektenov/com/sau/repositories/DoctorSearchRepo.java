@@ -0,0 +1,29 @@
+package tbektenov.com.sau.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+/**
+ * Repository fragment for searching doctors by optional criteria.
+ *
+ * @see DoctorRepo
+ */
+public interface DoctorSearchRepo {
+
+    /**
+     * Searches doctors matching every given criterion, ordered by surname.
+     * Criteria that are null are ignored.
+     *
+     * @param hospitalName the exact name of the doctor's hospital
+     * @param specialization the doctor's specialization
+     * @param surnamePrefix the case-insensitive beginning of the doctor's surname
+     * @param pageable the requested page
+     * @return a page of doctor DTOs
+     */
+    Page<DoctorDTO> searchDoctors(String hospitalName,
+                                  Specialization specialization,
+                                  String surnamePrefix,
+                                  Pageable pageable);
+}
@@ -0,0 +1,92 @@
+package tbektenov.com.sau.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Implementation of {@link DoctorSearchRepo} building the query from the given criteria.
+ *
+ * <p>Only the criteria that are set end up in the WHERE clause, so each of them can be
+ * served by its index: the hospital name by the unique index on hospitals, the hospital and
+ * specialization by the composite index on doctors, and the surname prefix by a range on
+ * the index of the lower-cased surname. Rows are projected straight into DTOs. The count
+ * query is skipped when the first page is not full.</p>
+ */
+public class DoctorSearchRepoImpl
+        implements DoctorSearchRepo {
+
+    private static final String SELECT = "select new tbektenov.com.sau.dtos.doctor.DoctorDTO(" +
+            "d.id, u.name, u.surname, d.specialization, h.name) ";
+    private static final String FROM = "from Doctor d join d.user u join d.hospital h";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Searches doctors matching every given criterion, ordered by surname.
+     *
+     * @param hospitalName the exact name of the doctor's hospital
+     * @param specialization the doctor's specialization
+     * @param surnamePrefix the case-insensitive beginning of the doctor's surname
+     * @param pageable the requested page
+     * @return a page of doctor DTOs
+     */
+    @Override
+    public Page<DoctorDTO> searchDoctors(String hospitalName,
+                                         Specialization specialization,
+                                         String surnamePrefix,
+                                         Pageable pageable) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (hospitalName != null) {
+            conditions.add("h.name = :hospitalName");
+            parameters.put("hospitalName", hospitalName);
+        }
+        if (specialization != null) {
+            conditions.add("d.specialization = :specialization");
+            parameters.put("specialization", specialization);
+        }
+        if (surnamePrefix != null) {
+            String from = surnamePrefix.toLowerCase(Locale.ROOT);
+            conditions.add("u.surnameKey >= :surnameFrom and u.surnameKey < :surnameTo");
+            parameters.put("surnameFrom", from);
+            parameters.put("surnameTo", upperBound(from));
+        }
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+
+        TypedQuery<DoctorDTO> query = entityManager.createQuery(
+                SELECT + FROM + where + " order by u.surname, d.id", DoctorDTO.class);
+        parameters.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<DoctorDTO> content = query.getResultList();
+
+        if (pageable.getOffset() == 0 && content.size() < pageable.getPageSize()) {
+            return new PageImpl<>(content, pageable, content.size());
+        }
+
+        TypedQuery<Long> countQuery = entityManager.createQuery("select count(d) " + FROM + where, Long.class);
+        parameters.forEach(countQuery::setParameter);
+        return new PageImpl<>(content, pageable, countQuery.getSingleResult());
+    }
+
+    /**
+     * Returns the smallest string greater than every string starting with the prefix,
+     * so that a prefix match becomes a range on the surname index.
+     */
+    private static String upperBound(String prefix) {
+        return prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+    }
+}
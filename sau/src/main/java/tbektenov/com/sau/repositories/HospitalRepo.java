@@ -1,11 +1,15 @@
 package tbektenov.com.sau.repositories;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tbektenov.com.sau.models.hospital.Hospital;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,13 +24,18 @@ public interface HospitalRepo
         extends JpaRepository<Hospital, Long> {
 
     /**
-     * Retrieves a paginated list of hospitals with their associated pharmacies and doctors.
+     * Retrieves one page of hospitals ordered by ID, without any of their associations and
+     * without counting the hospitals.
+     * <p>
+     * No collection is fetched, so the page is limited in the database. Load the associations
+     * a page shows with separate queries over the IDs of the page.
+     * </p>
      *
      * @param pageable pagination details
-     * @return a paginated list of hospitals
+     * @return a slice of hospitals, telling whether a next page exists
      */
-    @EntityGraph(value = "Hospital.details", type = EntityGraph.EntityGraphType.FETCH)
-    Page<Hospital> findAll(Pageable pageable);
+    @Query("select h from Hospital h order by h.id")
+    Slice<Hospital> findSlice(Pageable pageable);
 
     /**
      * Checks if a hospital exists by its name.
@@ -57,4 +66,65 @@ public interface HospitalRepo
     @Override
     @EntityGraph(value = "Hospital.details", type = EntityGraph.EntityGraphType.FETCH)
     Optional<Hospital> findById(Long hospitalId);
+
+    /**
+     * Retrieves a Hospital by its ID without any of its associations.
+     *
+     * @param hospitalId The ID of the hospital.
+     * @return An Optional containing the Hospital if found, otherwise empty.
+     */
+    @Query("select h from Hospital h where h.id = :hospitalId")
+    Optional<Hospital> findPlainById(@Param("hospitalId") Long hospitalId);
+
+    /**
+     * Retrieves the hospitals with both coordinates set, without any of their associations.
+     *
+     * @return the located hospitals
+     */
+    @Query("select h from Hospital h where h.latitude is not null and h.longitude is not null")
+    List<Hospital> findLocated();
+
+    /**
+     * Adds a number of beds to the occupied beds of the hospital of a ward, in one statement.
+     *
+     * @param wardId the ID of the ward
+     * @param delta the number of beds taken, negative for beds freed
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Hospital h set h.occupiedBeds = h.occupiedBeds + :delta " +
+            "where h.id = (select w.hospital.id from HospitalWard w where w.id = :wardId)")
+    int adjustOccupiedBeds(@Param("wardId") Long wardId, @Param("delta") int delta);
+
+    /**
+     * Reads the occupancy counters of every hospital: its ID, name, the capacity of its wards
+     * and its occupied beds. No hospitalization is read.
+     *
+     * @return rows of hospital ID, name, capacity and occupied beds, ordered by ID
+     */
+    @Query("select h.id, h.name, coalesce(sum(w.capacity), 0), h.occupiedBeds from Hospital h " +
+            "left join h.hospitalWards w group by h.id, h.name, h.occupiedBeds order by h.id")
+    List<Object[]> findOccupancy();
+
+    /**
+     * Finds the hospitals whose occupied beds differ from their actual number of hospitalizations.
+     *
+     * @return rows of hospital ID, counted occupied beds and actual hospitalizations
+     */
+    @Query("select h.id, h.occupiedBeds, count(z) from Hospital h " +
+            "left join h.hospitalWards w left join w.hospitalizations z " +
+            "group by h.id, h.occupiedBeds having h.occupiedBeds <> count(z)")
+    List<Object[]> findOccupiedBedsDrift();
+
+    /**
+     * Sets the occupied beds of the given hospitals to their actual number of hospitalizations,
+     * in one statement.
+     *
+     * @param ids the IDs of the hospitals
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update Hospital h set h.occupiedBeds = " +
+            "(select count(z) from Hospitalization z where z.hospitalWard.hospital.id = h.id) where h.id in :ids")
+    int reconcileOccupiedBeds(@Param("ids") List<Long> ids);
 }
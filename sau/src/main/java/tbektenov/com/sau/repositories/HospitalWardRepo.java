@@ -2,6 +2,9 @@ package tbektenov.com.sau.repositories;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tbektenov.com.sau.models.hospital.Hospital;
 import tbektenov.com.sau.models.hospital.HospitalWard;
 
@@ -54,4 +57,45 @@ public interface HospitalWardRepo
      * @return true if a ward with the specified number exists in the given hospital, false otherwise
      */
     Boolean existsByWardNumAndHospital(String wardNum, Hospital hospital);
+
+    /**
+     * Retrieves the wards of a hospital ordered by ward number, without their hospitalizations.
+     *
+     * @param hospitalId The ID of the hospital.
+     * @return The wards of the hospital.
+     */
+    @Query("select w from HospitalWard w where w.hospital.id = :hospitalId order by w.wardNum")
+    List<HospitalWard> findPlainByHospitalId(@Param("hospitalId") Long hospitalId);
+
+    /**
+     * Adds a number of beds to the occupied beds of a ward, in one statement.
+     *
+     * @param wardId The ID of the ward.
+     * @param delta The number of beds taken, negative for beds freed.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query("update HospitalWard w set w.occupied = w.occupied + :delta where w.id = :wardId")
+    int adjustOccupied(@Param("wardId") Long wardId, @Param("delta") int delta);
+
+    /**
+     * Finds the wards whose occupied beds differ from their actual number of hospitalizations.
+     *
+     * @return Rows of ward ID, counted occupied beds and actual hospitalizations.
+     */
+    @Query("select w.id, w.occupied, count(z) from HospitalWard w left join w.hospitalizations z " +
+            "group by w.id, w.occupied having w.occupied <> count(z)")
+    List<Object[]> findOccupancyDrift();
+
+    /**
+     * Sets the occupied beds of the given wards to their actual number of hospitalizations,
+     * in one statement.
+     *
+     * @param ids The IDs of the wards.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query("update HospitalWard w set w.occupied = " +
+            "(select count(z) from Hospitalization z where z.hospitalWard.id = w.id) where w.id in :ids")
+    int reconcileOccupied(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,15 @@
+package tbektenov.com.sau.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import tbektenov.com.sau.models.JobCheckpoint;
+
+/**
+ * Repository interface for {@link JobCheckpoint} entities.
+ * Provides CRUD operations for the progress records of background jobs, keyed by job name.
+ *
+ * @see JpaRepository
+ * @see JobCheckpoint
+ */
+public interface JobCheckpointRepo
+    extends JpaRepository<JobCheckpoint, String> {
+}
@@ -1,8 +1,10 @@
 package tbektenov.com.sau.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -35,5 +37,22 @@ public interface PrivatePharmacyRepo
      * @return An Optional containing the found PrivatePharmacy, or an empty Optional if none found.
      */
     Optional<PrivatePharmacy> findByAddressAndPharmaCompany(String address, String company);
+
+    /**
+     * Retrieves the private pharmacies with both coordinates set, without their partner hospitals.
+     *
+     * @return the located pharmacies
+     */
+    @Query("select p from PrivatePharmacy p where p.latitude is not null and p.longitude is not null")
+    List<PrivatePharmacy> findLocated();
+
+    /**
+     * Retrieves all partnerships between private pharmacies and hospitals in a single query.
+     *
+     * @return a list of Object arrays, where each array contains the hospital ID and the
+     *         pharmacy ID
+     */
+    @Query("select h.id, p.id from PrivatePharmacy p join p.partnerHospitals h")
+    List<Object[]> findPartnerships();
 }
 
@@ -0,0 +1,54 @@
+package tbektenov.com.sau.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tbektenov.com.sau.models.WaitlistEntry;
+import tbektenov.com.sau.models.WaitlistStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link WaitlistEntry} entities.
+ *
+ * @see JpaRepository
+ * @see WaitlistEntry
+ */
+public interface WaitlistEntryRepo extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Find the entries of a doctor's waitlist for a day with the given status, in the order they are served.
+     *
+     * @param doctorId the doctor's ID
+     * @param date the day of the waitlist
+     * @param status the status of the entries
+     * @return a list of rows of entry ID, patient ID and priority
+     */
+    @Query("select w.id, w.patient.id, w.priority from WaitlistEntry w " +
+            "where w.doctor.id = :doctorId and w.date = :date and w.status = :status " +
+            "order by w.priority desc, w.id asc")
+    List<Object[]> findQueue(@Param("doctorId") Long doctorId,
+                             @Param("date") LocalDate date,
+                             @Param("status") WaitlistStatus status);
+
+    /**
+     * Find all waitlist entries of a patient, newest first.
+     *
+     * @param patientId the patient's ID
+     * @return a list of the patient's waitlist entries
+     */
+    List<WaitlistEntry> findByPatientIdOrderByIdDesc(Long patientId);
+
+    /**
+     * Check if the patient is already waiting for the doctor on the given day.
+     *
+     * @param patientId the patient's ID
+     * @param doctorId the doctor's ID
+     * @param date the day of the waitlist
+     * @param status the status of the entries
+     * @return true if such an entry exists, false otherwise
+     */
+    boolean existsByPatientIdAndDoctorIdAndDateAndStatus(Long patientId, Long doctorId,
+                                                         LocalDate date, WaitlistStatus status);
+}
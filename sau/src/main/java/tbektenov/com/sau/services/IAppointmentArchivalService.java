@@ -0,0 +1,33 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.appointment.ArchivalResultDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for archiving past appointments in bulk and moving archived
+ * appointments out of the active table.
+ */
+public interface IAppointmentArchivalService {
+    /**
+     * Archives every upcoming appointment dated before today.
+     *
+     * @return An ArchivalResultDTO summarizing the run.
+     */
+    ArchivalResultDTO archivePastAppointments();
+
+    /**
+     * Archives every upcoming appointment dated before the given day.
+     *
+     * @param cutoffDate Appointments dated before this day are archived.
+     * @return An ArchivalResultDTO summarizing the run.
+     */
+    ArchivalResultDTO archiveAppointmentsBefore(LocalDate cutoffDate);
+
+    /**
+     * Moves every archived appointment from the active table into the archive table.
+     *
+     * @return The number of appointments moved.
+     */
+    int moveArchivedAppointments();
+}
@@ -0,0 +1,15 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.appointment.ReminderResultDTO;
+
+/**
+ * Service interface for reminding patients of their upcoming appointments.
+ */
+public interface IAppointmentReminderService {
+    /**
+     * Sends every pending reminder of the upcoming appointments that are due for one.
+     *
+     * @return A ReminderResultDTO summarizing the run.
+     */
+    ReminderResultDTO dispatchDueReminders();
+}
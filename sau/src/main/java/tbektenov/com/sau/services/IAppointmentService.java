@@ -1,8 +1,11 @@
 package tbektenov.com.sau.services;
 
 import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.AppointmentHistoryResponse;
 import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.models.AppointmentStatus;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -19,6 +22,25 @@ public interface IAppointmentService {
      */
     AppointmentDTO createAppointment(CreateAppointmentDTO createAppointmentDTO);
 
+    /**
+     * Cancels an upcoming appointment of the patient and frees its time slot.
+     *
+     * @param patientId The ID of the patient the appointment belongs to.
+     * @param appointmentId The ID of the appointment to cancel.
+     */
+    void cancelAppointment(Long patientId, Long appointmentId);
+
+    /**
+     * Cancels several upcoming appointments of the patient at once.
+     *
+     * <p>IDs of appointments that do not exist, belong to another patient or are not upcoming are skipped.</p>
+     *
+     * @param patientId The ID of the patient the appointments belong to.
+     * @param appointmentIds The IDs of the appointments to cancel.
+     * @return The IDs of the cancelled appointments.
+     */
+    List<Long> cancelAppointments(Long patientId, List<Long> appointmentIds);
+
     /**
      * Retrieves a list of upcoming appointments for a specific patient.
      *
@@ -26,4 +48,23 @@ public interface IAppointmentService {
      * @return A list of upcoming AppointmentDTOs.
      */
     List<AppointmentDTO> getUpcomingAppointmentsByPatientId(Long patient_id);
+
+    /**
+     * Retrieves one page of a patient's appointments with the given status, using a (date, ID) cursor.
+     *
+     * <p>Upcoming appointments are listed oldest first, archived ones newest first.
+     * The first page is requested without a cursor.</p>
+     *
+     * @param patientId The ID of the patient.
+     * @param status The status of the appointments to list.
+     * @param afterDate The date of the last appointment of the previous page, or null for the first page.
+     * @param afterId The ID of the last appointment of the previous page, or null for the first page.
+     * @param pageSize The maximum number of appointments in the page.
+     * @return An AppointmentHistoryResponse with the page content and the cursor of the next page.
+     */
+    AppointmentHistoryResponse getAppointmentHistory(Long patientId,
+                                                     AppointmentStatus status,
+                                                     LocalDate afterDate,
+                                                     Long afterId,
+                                                     int pageSize);
 }
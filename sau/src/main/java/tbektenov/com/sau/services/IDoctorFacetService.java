@@ -0,0 +1,17 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.search.DoctorFacetsDTO;
+
+/**
+ * Service interface providing the doctor counts offered as search filters.
+ */
+public interface IDoctorFacetService {
+
+    /**
+     * Retrieves the number of doctors per hospital, per specialization and per hospital and
+     * specialization. Only values with at least one doctor are included.
+     *
+     * @return the doctor counts
+     */
+    DoctorFacetsDTO getFacets();
+}
@@ -1,7 +1,12 @@
 package tbektenov.com.sau.services;
 
+import tbektenov.com.sau.dtos.doctor.DoctorAvailabilityDTO;
 import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.doctor.DoctorResponse;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,4 +23,34 @@ public interface IDoctorService {
      * @return A list of DoctorDTO representing all doctors.
      */
     List<DoctorDTO> getAllDoctors();
+
+    /**
+     * Searches doctors by hospital, specialization and surname, one page at a time.
+     * Blank or null criteria are ignored.
+     *
+     * @param hospital The exact name of the doctor's hospital.
+     * @param specialization The doctor's specialization.
+     * @param name The case-insensitive beginning of the doctor's surname.
+     * @param pageNo The page number to retrieve.
+     * @param pageSize The number of doctors per page.
+     * @return A DoctorResponse containing the matching doctors and pagination details.
+     */
+    DoctorResponse searchDoctors(String hospital, Specialization specialization, String name, int pageNo, int pageSize);
+
+    /**
+     * Retrieves the number of free appointment slots of every doctor on the given day.
+     *
+     * @param date The day to check.
+     * @return A list of DoctorAvailabilityDTO, one per doctor.
+     */
+    List<DoctorAvailabilityDTO> getDoctorAvailability(LocalDate date);
+
+    /**
+     * Retrieves the number of free appointment slots of the given doctors on the given day.
+     *
+     * @param doctorIds The IDs of the doctors to check.
+     * @param date The day to check.
+     * @return A list of DoctorAvailabilityDTO, one per given doctor.
+     */
+    List<DoctorAvailabilityDTO> getDoctorAvailability(Collection<Long> doctorIds, LocalDate date);
 }
@@ -1,6 +1,8 @@
 package tbektenov.com.sau.services;
 
+import tbektenov.com.sau.dtos.hospital.HospitalDTO;
 import tbektenov.com.sau.dtos.hospital.HospitalResponse;
+import tbektenov.com.sau.dtos.hospital.HospitalTotals;
 
 /**
  * Service interface for managing hospitals.
@@ -12,7 +14,26 @@ public interface IHospitalService {
      *
      * @param pageNo   the page number to retrieve
      * @param pageSize the number of records per page
+     * @param totals   whether the totals are counted exactly, taken from a cached count or not computed
      * @return a {@link HospitalResponse} containing the list of hospitals and pagination details
      */
-    HospitalResponse getAllHospitals(int pageNo, int pageSize);
+    HospitalResponse getAllHospitals(int pageNo, int pageSize, HospitalTotals totals);
+
+    /**
+     * Retrieves a hospital with its doctors.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return a {@link HospitalDTO} with the hospital's doctors
+     * @throws tbektenov.com.sau.exceptions.ObjectNotFoundException if the hospital does not exist
+     */
+    HospitalDTO getHospitalDetails(Long hospitalId);
+
+    /**
+     * Tells from the cache alone, without querying, whether a hospital's details are known at the
+     * current hospital catalog version.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return true if the hospital exists and its current details are cached
+     */
+    boolean isHospitalDetailCached(Long hospitalId);
 }
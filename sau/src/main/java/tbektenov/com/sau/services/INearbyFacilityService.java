@@ -0,0 +1,29 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+import java.util.List;
+
+/**
+ * Service interface for finding the hospitals and private pharmacies nearest to a point.
+ */
+public interface INearbyFacilityService {
+
+    /**
+     * Finds the located facilities of a kind nearest to a point, nearest first. Hospitals can be
+     * restricted to those with a doctor of a specialization, pharmacies to the partners of a
+     * hospital.
+     *
+     * @param type the kind of facilities
+     * @param latitude the latitude of the point in degrees
+     * @param longitude the longitude of the point in degrees
+     * @param specialization the specialization the hospitals must offer, or null
+     * @param partnerOf the ID of the hospital the pharmacies must be partners of, or null
+     * @param limit the maximum number of facilities
+     * @return the nearest facilities with their distance in kilometres
+     */
+    List<NearbyFacilityDTO> findNearest(FacilityType type, Double latitude, Double longitude,
+                                        Specialization specialization, Long partnerOf, int limit);
+}
@@ -0,0 +1,22 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.search.TypeaheadSuggestionDTO;
+
+import java.util.List;
+
+/**
+ * Service interface for suggesting doctors, hospitals and pharmacies while the user types.
+ */
+public interface ITypeaheadService {
+
+    /**
+     * Suggests the doctors, hospitals and private pharmacies matching the typed words.
+     * Every word has to be the beginning of a word of the doctor's name, the hospital's name or
+     * the pharmacy's name, company or address; case and accents are ignored.
+     *
+     * @param query the words typed so far
+     * @param limit the maximum number of suggestions
+     * @return the matching suggestions, empty if the query is blank
+     */
+    List<TypeaheadSuggestionDTO> suggest(String query, int limit);
+}
@@ -0,0 +1,32 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.waitlist.JoinWaitlistDTO;
+import tbektenov.com.sau.dtos.waitlist.WaitlistEntryDTO;
+
+import java.util.List;
+
+/**
+ * Service interface for the waitlists of doctors.
+ *
+ * Patients join the waitlist of a doctor for a day; when an appointment of that doctor on
+ * that day is cancelled, the freed slot is booked for the next waiting patient.
+ */
+public interface IWaitlistService {
+
+    /**
+     * Adds the patient to the waitlist of a doctor for a day.
+     *
+     * @param patientId The ID of the patient.
+     * @param joinWaitlistDTO The doctor, day and priority of the request.
+     * @return The created WaitlistEntryDTO.
+     */
+    WaitlistEntryDTO joinWaitlist(Long patientId, JoinWaitlistDTO joinWaitlistDTO);
+
+    /**
+     * Retrieves all waitlist entries of the patient, newest first.
+     *
+     * @param patientId The ID of the patient.
+     * @return A list of the patient's WaitlistEntryDTOs.
+     */
+    List<WaitlistEntryDTO> getWaitlistEntries(Long patientId);
+}
@@ -0,0 +1,35 @@
+package tbektenov.com.sau.services;
+
+import tbektenov.com.sau.dtos.hospital.HospitalOccupancyDTO;
+import tbektenov.com.sau.dtos.hospital.OccupancyReconciliationDTO;
+
+import java.util.List;
+
+/**
+ * Service interface for reporting occupied and free beds per hospital and ward from their
+ * occupancy counters, and for reconciling the counters with the hospitalizations.
+ */
+public interface IWardOccupancyService {
+    /**
+     * Reports the occupancy of every hospital, without the occupancy of its wards.
+     *
+     * @return The occupancy of each hospital, ordered by ID.
+     */
+    List<HospitalOccupancyDTO> getHospitalOccupancy();
+
+    /**
+     * Reports the occupancy of a hospital and each of its wards.
+     *
+     * @param hospitalId The ID of the hospital.
+     * @return The occupancy of the hospital and its wards.
+     */
+    HospitalOccupancyDTO getHospitalOccupancy(Long hospitalId);
+
+    /**
+     * Compares the occupancy counters of every ward and hospital with their hospitalizations
+     * and corrects the counters that differ.
+     *
+     * @return An OccupancyReconciliationDTO summarizing the run.
+     */
+    OccupancyReconciliationDTO reconcileOccupancy();
+}
@@ -0,0 +1,94 @@
+package tbektenov.com.sau.services.directory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.events.DoctorDirectoryChangedEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of a value derived from the doctors, dropped on every
+ * {@link DoctorDirectoryChangedEvent}.
+ *
+ * <p>The value is loaded on first access and kept until the next event, so repeated page views
+ * do not query the database. It is loaded in a separate read-only transaction, so uncommitted
+ * changes of the caller never end up in the cache. A load that overlaps an invalidation is
+ * returned to its caller but not kept.</p>
+ *
+ * @param <T> the type of the cached value
+ */
+public abstract class DirectoryCache<T> {
+
+    private final TransactionTemplate loadTransaction;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private volatile T value;
+
+    /**
+     * Constructs a DirectoryCache publishing its counters under the given prefix.
+     *
+     * @param transactionManager transaction manager used to load the value in its own transaction
+     * @param meterRegistry registry the hit, miss and invalidation counters are published to
+     * @param metricPrefix prefix of the counter names
+     */
+    protected DirectoryCache(PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             String metricPrefix) {
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.hits = meterRegistry.counter(metricPrefix + ".hits");
+        this.misses = meterRegistry.counter(metricPrefix + ".misses");
+        this.invalidations = meterRegistry.counter(metricPrefix + ".invalidations");
+    }
+
+    /**
+     * Returns the cached value, loading it with the given loader if it is not cached.
+     *
+     * @param loader loads the value from the database
+     * @return the cached or freshly loaded value
+     */
+    public T get(Supplier<T> loader) {
+        T cached = value;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long loadedGeneration = generation.get();
+        T loaded = loadTransaction.execute(status -> loader.get());
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                value = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Discards the cached value, so it is loaded again on next access.
+     */
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        value = null;
+        invalidations.increment();
+    }
+
+    /**
+     * Discards the cached value when the doctors changed.
+     *
+     * @param event the committed change
+     */
+    @EventListener
+    public void onDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        invalidate();
+    }
+}
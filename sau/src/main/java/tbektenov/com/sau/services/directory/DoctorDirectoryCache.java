@@ -0,0 +1,32 @@
+package tbektenov.com.sau.services.directory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+
+import java.util.List;
+
+/**
+ * Cache of the listing data of all doctors.
+ *
+ * <p>Publishes {@code doctors.directory.cache.hits}, {@code .misses} and
+ * {@code .invalidations}.</p>
+ */
+@Component
+public class DoctorDirectoryCache
+        extends DirectoryCache<List<DoctorDTO>> {
+
+    /**
+     * Constructs a DoctorDirectoryCache.
+     *
+     * @param transactionManager transaction manager used to load the directory in its own transaction
+     * @param meterRegistry registry the cache counters are published to
+     */
+    @Autowired
+    public DoctorDirectoryCache(PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        super(transactionManager, meterRegistry, "doctors.directory.cache");
+    }
+}
@@ -0,0 +1,130 @@
+package tbektenov.com.sau.services.directory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import tbektenov.com.sau.events.DoctorDirectoryChangedEvent;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.user.UserEntity;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes a {@link DoctorDirectoryChangedEvent} after a transaction commits a change that is
+ * visible in doctor listings, so the {@link DirectoryCache}s drop their values.
+ *
+ * <p>These are a new or removed doctor, for example one created by
+ * {@link tbektenov.com.sau.services.IUserService#registerUser}, a doctor moving to another
+ * hospital or laboratory or changing specialization, a renamed or removed hospital and a
+ * renamed user. Updates that touch only other properties, such as a version increment, keep
+ * the caches.</p>
+ */
+@Component
+public class DoctorDirectoryInvalidator
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Map<Class<?>, Set<String>> DIRECTORY_PROPERTIES = Map.of(
+            Doctor.class, Set.of("hospital", "laboratory", "specialization"),
+            Hospital.class, Set.of("name"),
+            UserEntity.class, Set.of("name", "surname")
+    );
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructs a DoctorDirectoryInvalidator.
+     *
+     * @param eventPublisher the publisher of the change events
+     * @param entityManagerFactory the factory whose sessions are listened to
+     */
+    @Autowired
+    public DoctorDirectoryInvalidator(ApplicationEventPublisher eventPublisher,
+                                      EntityManagerFactory entityManagerFactory) {
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Registers this invalidator for the committed inserts, updates and deletes of Hibernate.
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Doctor) {
+            changed(event.getPersister());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Set<String> properties = DIRECTORY_PROPERTIES.get(event.getPersister().getMappedClass());
+        if (properties == null) {
+            return;
+        }
+        int[] dirtyProperties = event.getDirtyProperties();
+        if (dirtyProperties == null) {
+            changed(event.getPersister());
+            return;
+        }
+
+        String[] propertyNames = event.getPersister().getPropertyNames();
+        for (int dirtyProperty : dirtyProperties) {
+            if (properties.contains(propertyNames[dirtyProperty])) {
+                changed(event.getPersister());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Doctor || event.getEntity() instanceof Hospital) {
+            changed(event.getPersister());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return DIRECTORY_PROPERTIES.containsKey(persister.getMappedClass());
+    }
+
+    private void changed(EntityPersister persister) {
+        eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(persister.getMappedClass()));
+    }
+}
@@ -0,0 +1,30 @@
+package tbektenov.com.sau.services.directory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import tbektenov.com.sau.dtos.search.DoctorFacetsDTO;
+
+/**
+ * Cache of the doctor counts per hospital and specialization.
+ *
+ * <p>Publishes {@code doctors.facets.cache.hits}, {@code .misses} and
+ * {@code .invalidations}.</p>
+ */
+@Component
+public class DoctorFacetCache
+        extends DirectoryCache<DoctorFacetsDTO> {
+
+    /**
+     * Constructs a DoctorFacetCache.
+     *
+     * @param transactionManager transaction manager used to load the counts in their own transaction
+     * @param meterRegistry registry the cache counters are published to
+     */
+    @Autowired
+    public DoctorFacetCache(PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        super(transactionManager, meterRegistry, "doctors.facets.cache");
+    }
+}
@@ -0,0 +1,148 @@
+package tbektenov.com.sau.services.directory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.repositories.HospitalRepo;
+
+/**
+ * In-memory count of the hospitals.
+ *
+ * <p>The count is loaded on first access in a separate read-only transaction and then kept
+ * current from Hibernate's post-commit events: a committed insert increments it, a committed
+ * delete decrements it. A count loaded while a hospital was inserted or deleted is returned to
+ * its caller but not kept, as it may or may not include the change. Hospitals inserted or
+ * deleted through bulk queries bypass the count until {@link #reset()} is called.</p>
+ *
+ * <p>Publishes {@code hospitals.count.cache.hits} and {@code .misses}.</p>
+ */
+@Component
+public class HospitalCountCache
+        implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+    private final HospitalRepo hospitalRepo;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate loadTransaction;
+    private final Counter hits;
+    private final Counter misses;
+    private long generation;
+    private volatile Long count;
+
+    /**
+     * Constructs a HospitalCountCache.
+     *
+     * @param hospitalRepo repository counting the hospitals
+     * @param entityManagerFactory the factory whose sessions are listened to
+     * @param transactionManager transaction manager used to count the hospitals in their own transaction
+     * @param meterRegistry registry the hit and miss counters are published to
+     */
+    @Autowired
+    public HospitalCountCache(HospitalRepo hospitalRepo,
+                              EntityManagerFactory entityManagerFactory,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.hospitalRepo = hospitalRepo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.hits = meterRegistry.counter("hospitals.count.cache.hits");
+        this.misses = meterRegistry.counter("hospitals.count.cache.misses");
+    }
+
+    /**
+     * Registers this cache for the committed inserts and deletes of Hibernate.
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Returns the number of hospitals, counting them in the database if the count is not cached.
+     *
+     * @return the number of hospitals
+     */
+    public long get() {
+        Long cached = count;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long loadedGeneration;
+        synchronized (this) {
+            loadedGeneration = generation;
+        }
+        long loaded = loadTransaction.execute(status -> hospitalRepo.count());
+        synchronized (this) {
+            if (generation == loadedGeneration) {
+                count = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Discards the count, so the hospitals are counted again on next access.
+     */
+    public synchronized void reset() {
+        generation++;
+        count = null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Hospital) {
+            adjust(1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Hospital) {
+            adjust(-1);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Hospital.class;
+    }
+
+    private synchronized void adjust(long delta) {
+        generation++;
+        Long cached = count;
+        if (cached != null) {
+            count = cached + delta;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package tbektenov.com.sau.services.directory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.hospital.HospitalDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.services.version.ContentVersion;
+import tbektenov.com.sau.services.version.ContentVersions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory cache of hospital details with their doctors, shared by all users.
+ *
+ * <p>Every entry remembers the {@link ContentVersions#hospitalCatalog() hospital catalog
+ * version} it was loaded at and is loaded again once the catalog changed, so no extra
+ * invalidation is needed. The version is read before loading, so a change committed during
+ * the load makes the entry stale right away. Loads run in a separate read-only transaction.
+ * Once the cache is full, the least recently used hospital is evicted.</p>
+ *
+ * <p>Publishes {@code hospitals.details.cache.hits}, {@code .misses} and {@code .evictions}.</p>
+ */
+@Component
+public class HospitalDetailCache {
+
+    private final ContentVersions contentVersions;
+    private final TransactionTemplate loadTransaction;
+    private final Map<Long, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * Constructs a HospitalDetailCache holding at most the given number of hospitals.
+     *
+     * @param contentVersions the versions deciding whether an entry is current
+     * @param transactionManager transaction manager used to load the details in their own transaction
+     * @param meterRegistry registry the cache counters are published to
+     * @param maxEntries the maximum number of cached hospitals
+     */
+    @Autowired
+    public HospitalDetailCache(ContentVersions contentVersions,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${hospitals.details.cache.max-entries:1000}") int maxEntries) {
+        if (maxEntries < 1) {
+            throw new InvalidArgumentsException("Hospital detail cache must hold at least 1 hospital");
+        }
+
+        this.contentVersions = contentVersions;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.hits = meterRegistry.counter("hospitals.details.cache.hits");
+        this.misses = meterRegistry.counter("hospitals.details.cache.misses");
+        this.evictions = meterRegistry.counter("hospitals.details.cache.evictions");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the details of a hospital, loading them with the given loader if they are not
+     * cached or the catalog changed since they were.
+     *
+     * @param hospitalId the ID of the hospital
+     * @param loader loads the details from the database
+     * @return the cached or freshly loaded details
+     */
+    public HospitalDTO get(Long hospitalId, Function<Long, HospitalDTO> loader) {
+        ContentVersion version = contentVersions.hospitalCatalog();
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(hospitalId);
+        }
+        if (cached != null && cached.version().equals(version)) {
+            hits.increment();
+            return cached.hospital();
+        }
+
+        misses.increment();
+        HospitalDTO loaded = loadTransaction.execute(status -> loader.apply(hospitalId));
+        synchronized (entries) {
+            entries.put(hospitalId, new Entry(version, loaded));
+        }
+        return loaded;
+    }
+
+    /**
+     * Tells whether the details of a hospital are cached at the current catalog version, without
+     * loading them. Only existing hospitals are cached, so true means the hospital exists.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return true if a current entry is cached
+     */
+    public boolean isCurrent(Long hospitalId) {
+        ContentVersion version = contentVersions.hospitalCatalog();
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(hospitalId);
+        }
+        return cached != null && cached.version().equals(version);
+    }
+
+    /**
+     * Returns the number of cached hospitals, including stale ones.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Discards all cached hospitals.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private record Entry(ContentVersion version, HospitalDTO hospital) {
+    }
+}
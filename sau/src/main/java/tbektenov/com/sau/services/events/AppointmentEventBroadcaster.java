@@ -0,0 +1,336 @@
+package tbektenov.com.sau.services.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tbektenov.com.sau.dtos.appointment.AppointmentEventDTO;
+import tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO;
+import tbektenov.com.sau.events.AppointmentCancelledEvent;
+import tbektenov.com.sau.events.AppointmentCreatedEvent;
+import tbektenov.com.sau.events.AppointmentsArchivedEvent;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed appointment changes to the Server-Sent Events streams of the affected patients.
+ *
+ * <p>Every subscriber has a bounded buffer. Publishing only offers the event to the buffers of
+ * the patient's subscribers; a small pool of sender threads drains them into the streams. A
+ * subscriber whose buffer is full, or whose stream fails, is dropped, so one slow client never
+ * holds up publishers or other clients. Dropped clients reconnect and reload their state.</p>
+ *
+ * <p>Writing to a stream blocks while the client does not read, and completing the stream waits
+ * for that write. A watchdog therefore drops every subscriber whose send takes longer than the
+ * send timeout and adds a sender thread for as long as that send stays stuck, so stalled clients
+ * never occupy the threads the other clients are served by. A dropped stream that is being
+ * written to is completed by its sender thread once the send returns, so neither publishers nor
+ * the watchdog ever wait for a client.</p>
+ */
+@Component
+public class AppointmentEventBroadcaster {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AppointmentEventBroadcaster.class);
+    private static final String EVENT_NAME = "appointment";
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService watchdog;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Counter droppedSubscribers;
+
+    /**
+     * Constructs an AppointmentEventBroadcaster.
+     *
+     * @param meterRegistry Registry the broadcaster metrics are published to.
+     * @param bufferSize Number of events buffered per subscriber before it is dropped.
+     * @param senderThreads Number of threads writing events to the streams.
+     * @param timeoutMillis Time after which a stream is closed and the client has to reconnect.
+     * @param sendTimeoutMillis Time a single send may take before its stream is dropped as stalled.
+     */
+    @Autowired
+    public AppointmentEventBroadcaster(MeterRegistry meterRegistry,
+                                       @Value("${appointments.events.buffer-size:32}") int bufferSize,
+                                       @Value("${appointments.events.sender-threads:2}") int senderThreads,
+                                       @Value("${appointments.events.timeout-ms:1800000}") long timeoutMillis,
+                                       @Value("${appointments.events.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        if (bufferSize < 1 || senderThreads < 1) {
+            throw new InvalidArgumentsException("Event buffer size and sender threads must be at least 1");
+        }
+        if (sendTimeoutMillis < 1) {
+            throw new InvalidArgumentsException("Event send timeout must be at least 1 ms");
+        }
+
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "appointment-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "appointment-events-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkEvery = Math.max(sendTimeoutMillis / 4, 1);
+        this.watchdog.scheduleWithFixedDelay(this::dropStalled, checkEvery, checkEvery, TimeUnit.MILLISECONDS);
+        this.droppedSubscribers = meterRegistry.counter("appointments.events.dropped");
+        meterRegistry.gauge("appointments.events.subscribers", subscriberCount);
+    }
+
+    /**
+     * Opens a new event stream for the patient.
+     *
+     * @param patientId the ID of the patient
+     * @return the emitter backing the stream
+     */
+    public SseEmitter subscribe(Long patientId) {
+        return subscribe(patientId, new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Registers the given emitter as an event stream of the patient.
+     *
+     * @param patientId the ID of the patient
+     * @param emitter the emitter to send the patient's events to
+     * @return the given emitter
+     */
+    public SseEmitter subscribe(Long patientId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(patientId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.compute(patientId, (id, patientSubscribers) -> {
+            Set<Subscriber> updated = patientSubscribers != null ? patientSubscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Returns the number of open event streams.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Queues the event for every stream of the patient.
+     *
+     * @param patientId the ID of the patient
+     * @param event the event to send
+     */
+    public void publish(Long patientId, AppointmentEventDTO event) {
+        Set<Subscriber> patientSubscribers = subscribers.get(patientId);
+        if (patientSubscribers == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : patientSubscribers) {
+            if (subscriber.buffer().offer(event)) {
+                scheduleDrain(subscriber);
+            } else {
+                LOG.info("Dropping slow event stream of patient {}", patientId);
+                drop(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Pushes a committed booking to the patient's streams.
+     *
+     * @param event the booking
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentCreated(AppointmentCreatedEvent event) {
+        publish(event.patientId(),
+                new AppointmentEventDTO("CREATED", event.appointment().getId(), event.appointment()));
+    }
+
+    /**
+     * Pushes a committed cancellation to the patient's streams.
+     *
+     * @param event the cancellation
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentCancelled(AppointmentCancelledEvent event) {
+        publish(event.patientId(), new AppointmentEventDTO("CANCELLED", event.appointmentId(), null));
+    }
+
+    /**
+     * Pushes a committed archival chunk to the streams of the affected patients.
+     *
+     * @param event the archived appointments
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsArchived(AppointmentsArchivedEvent event) {
+        for (AppointmentSlotDTO slot : event.appointments()) {
+            publish(slot.getPatientId(), new AppointmentEventDTO("ARCHIVED", slot.getId(), null));
+        }
+    }
+
+    /**
+     * Stops the sender threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(patientSubscribers -> patientSubscribers.forEach(this::drop));
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Sends the buffered events of the subscriber until its buffer is empty.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            AppointmentEventDTO event;
+            while ((event = subscriber.buffer().poll()) != null) {
+                subscriber.sendStartedAt().set(System.nanoTime());
+                try {
+                    subscriber.emitter().send(SseEmitter.event().name(EVENT_NAME).data(event));
+                } finally {
+                    subscriber.sendStartedAt().set(0);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+            if (subscriber.stalled().get()) {
+                resizeSenders(-1);
+            }
+            if (subscriber.closed().get()) {
+                complete(subscriber);
+            }
+        }
+
+        if (!subscriber.buffer().isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Drops the subscribers whose current send exceeded the send timeout. Each stuck send keeps
+     * its sender thread, so a replacement thread is added until the send returns and completes
+     * the stream.
+     */
+    private void dropStalled() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(patientSubscribers -> patientSubscribers.forEach(subscriber -> {
+            long started = subscriber.sendStartedAt().get();
+            if (started != 0 && now - started > sendTimeoutNanos && subscriber.stalled().compareAndSet(false, true)) {
+                LOG.info("Dropping stalled event stream of patient {}", subscriber.patientId());
+                resizeSenders(1);
+                detach(subscriber);
+            }
+        }));
+    }
+
+    private void resizeSenders(int delta) {
+        synchronized (senders) {
+            if (delta > 0) {
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+            } else {
+                senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+                senders.setMaximumPoolSize(senders.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+
+    /**
+     * Removes the subscriber and completes its stream, unless a send is in progress; the sender
+     * thread then completes it once the send returns.
+     */
+    private void drop(Subscriber subscriber) {
+        if (detach(subscriber) && !subscriber.draining().get()) {
+            complete(subscriber);
+        }
+    }
+
+    private boolean detach(Subscriber subscriber) {
+        if (unsubscribe(subscriber)) {
+            droppedSubscribers.increment();
+            subscriber.closed().set(true);
+            subscriber.buffer().clear();
+            return true;
+        }
+        return false;
+    }
+
+    private void complete(Subscriber subscriber) {
+        if (subscriber.completed().compareAndSet(false, true)) {
+            subscriber.emitter().complete();
+        }
+    }
+
+    private boolean unsubscribe(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.patientId(), (id, patientSubscribers) -> {
+            removed.set(patientSubscribers.remove(subscriber));
+            return patientSubscribers.isEmpty() ? null : patientSubscribers;
+        });
+
+        if (removed.get()) {
+            subscriberCount.decrementAndGet();
+        }
+        return removed.get();
+    }
+
+    /**
+     * An open event stream with its buffer of events waiting to be sent.
+     */
+    private record Subscriber(Long patientId,
+                              SseEmitter emitter,
+                              BlockingQueue<AppointmentEventDTO> buffer,
+                              AtomicBoolean draining,
+                              AtomicLong sendStartedAt,
+                              AtomicBoolean stalled,
+                              AtomicBoolean closed,
+                              AtomicBoolean completed) {
+        Subscriber(Long patientId, SseEmitter emitter, BlockingQueue<AppointmentEventDTO> buffer) {
+            this(patientId, emitter, buffer, new AtomicBoolean(), new AtomicLong(), new AtomicBoolean(),
+                    new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package tbektenov.com.sau.services.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory store of idempotency keys and the results of the requests that used them.
+ *
+ * <p>The first request with a key runs the action; requests with the same key arriving
+ * meanwhile wait for it and receive the same result, or the same exception or error if it
+ * fails. Failed actions are forgotten, so the client may retry with the same key. Once the store is full, the least recently used key
+ * is evicted.</p>
+ */
+@Component
+public class IdempotencyKeyStore {
+
+    private final Map<String, CompletableFuture<Object>> results;
+
+    /**
+     * Constructs an IdempotencyKeyStore holding at most the given number of keys.
+     *
+     * @param maxKeys the maximum number of remembered keys
+     */
+    @Autowired
+    public IdempotencyKeyStore(@Value("${appointments.idempotency.max-keys:10000}") int maxKeys) {
+        if (maxKeys < 1) {
+            throw new InvalidArgumentsException("Idempotency store must hold at least 1 key");
+        }
+
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Object>> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Runs the action once per key and returns its result to every request using that key.
+     *
+     * @param key the idempotency key supplied by the client
+     * @param action the action to run for the first request with the key
+     * @param <T> the type of the result
+     * @return the result of the action
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> action) {
+        CompletableFuture<Object> result;
+        boolean first = false;
+        synchronized (results) {
+            result = results.get(key);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                results.put(key, result);
+                first = true;
+            }
+        }
+
+        if (first) {
+            try {
+                T value = action.get();
+                result.complete(value);
+                return value;
+            } catch (Throwable e) {
+                // errors too, or the requests waiting for the result would never return
+                forget(key, result);
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return (T) result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of remembered keys.
+     *
+     * @return the number of keys in the store
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    private void forget(String key, CompletableFuture<Object> result) {
+        synchronized (results) {
+            results.remove(key, result);
+        }
+    }
+}
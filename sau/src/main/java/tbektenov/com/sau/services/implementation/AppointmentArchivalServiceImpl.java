@@ -0,0 +1,283 @@
+package tbektenov.com.sau.services.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO;
+import tbektenov.com.sau.dtos.appointment.ArchivalResultDTO;
+import tbektenov.com.sau.events.AppointmentsArchivedEvent;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.JobCheckpoint;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.repositories.ArchivedAppointmentRepo;
+import tbektenov.com.sau.repositories.JobCheckpointRepo;
+import tbektenov.com.sau.services.IAppointmentArchivalService;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+import tbektenov.com.sau.services.schedule.DoctorWaitlist;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service implementation archiving past appointments with chunked bulk updates.
+ *
+ * <p>IDs of past upcoming appointments are read in ascending chunks and archived with a single
+ * UPDATE per chunk, each chunk in its own transaction together with a {@link JobCheckpoint}.
+ * If a run is interrupted, the next run for the same cutoff date continues after the last
+ * archived ID.</p>
+ *
+ * <p>A separate background mover copies archived appointments into the "APPOINTMENTS_ARCHIVE"
+ * table and deletes them from "APPOINTMENTS", one INSERT ... SELECT and one DELETE per chunk,
+ * so the indexes of the active table only cover appointments that are still upcoming.</p>
+ */
+@Service
+public class AppointmentArchivalServiceImpl
+        implements IAppointmentArchivalService {
+
+    static final String JOB_NAME = "appointment-archival";
+    private static final Logger LOG = LoggerFactory.getLogger(AppointmentArchivalServiceImpl.class);
+
+    private final AppointmentRepo appointmentRepo;
+    private final ArchivedAppointmentRepo archivedAppointmentRepo;
+    private final JobCheckpointRepo jobCheckpointRepo;
+    private final DoctorScheduleIndex doctorScheduleIndex;
+    private final DoctorAvailabilityCache doctorAvailabilityCache;
+    private final DoctorWaitlist doctorWaitlist;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final Counter archivedRows;
+    private final Counter movedRows;
+    private final Timer runTimer;
+    private final AtomicLong lastRowsPerSecond = new AtomicLong();
+
+    /**
+     * Constructs an AppointmentArchivalServiceImpl with the required dependencies.
+     *
+     * @param appointmentRepo Repository for Appointment entities.
+     * @param archivedAppointmentRepo Repository for the archive of appointments.
+     * @param jobCheckpointRepo Repository for job progress records.
+     * @param doctorScheduleIndex Index of the booked time slots of doctors.
+     * @param doctorAvailabilityCache Counters of the booked appointments per doctor and day.
+     * @param doctorWaitlist Queues of the patients waiting for a doctor on a given day.
+     * @param transactionTemplate Template used to run each chunk in its own transaction.
+     * @param eventPublisher Publisher of appointment events.
+     * @param meterRegistry Registry the archival metrics are published to.
+     * @param chunkSize Number of appointments archived per bulk update.
+     */
+    @Autowired
+    public AppointmentArchivalServiceImpl(AppointmentRepo appointmentRepo,
+                                          ArchivedAppointmentRepo archivedAppointmentRepo,
+                                          JobCheckpointRepo jobCheckpointRepo,
+                                          DoctorScheduleIndex doctorScheduleIndex,
+                                          DoctorAvailabilityCache doctorAvailabilityCache,
+                                          DoctorWaitlist doctorWaitlist,
+                                          TransactionTemplate transactionTemplate,
+                                          ApplicationEventPublisher eventPublisher,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${appointments.archival.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new InvalidArgumentsException("Archival chunk size must be at least 1");
+        }
+
+        this.appointmentRepo = appointmentRepo;
+        this.archivedAppointmentRepo = archivedAppointmentRepo;
+        this.jobCheckpointRepo = jobCheckpointRepo;
+        this.doctorScheduleIndex = doctorScheduleIndex;
+        this.doctorAvailabilityCache = doctorAvailabilityCache;
+        this.doctorWaitlist = doctorWaitlist;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+
+        this.archivedRows = meterRegistry.counter("appointments.archival.rows");
+        this.movedRows = meterRegistry.counter("appointments.archival.moved.rows");
+        this.runTimer = meterRegistry.timer("appointments.archival.duration");
+        meterRegistry.gauge("appointments.archival.rows.per.second", lastRowsPerSecond);
+    }
+
+    /**
+     * Archives every upcoming appointment dated before today. Runs on the configured schedule.
+     *
+     * @return An ArchivalResultDTO summarizing the run.
+     */
+    @Override
+    @Scheduled(cron = "${appointments.archival.cron:0 0 1 * * *}")
+    public ArchivalResultDTO archivePastAppointments() {
+        return archiveAppointmentsBefore(LocalDate.now());
+    }
+
+    /**
+     * Archives every upcoming appointment dated before the given day.
+     *
+     * @param cutoffDate Appointments dated before this day are archived.
+     * @return An ArchivalResultDTO summarizing the run.
+     */
+    @Override
+    public synchronized ArchivalResultDTO archiveAppointmentsBefore(LocalDate cutoffDate) {
+        if (cutoffDate == null) {
+            throw new InvalidArgumentsException("Cutoff date cannot be null");
+        }
+
+        long started = System.nanoTime();
+        JobCheckpoint checkpoint = transactionTemplate.execute(status -> startRun(cutoffDate));
+        boolean resumed = checkpoint.getLastProcessedId() > 0;
+        long lastId = checkpoint.getLastProcessedId();
+        long rows = 0;
+        int chunks = 0;
+
+        while (true) {
+            final long afterId = lastId;
+            Chunk chunk = transactionTemplate.execute(status -> archiveChunk(cutoffDate, afterId));
+            if (chunk == null) {
+                break;
+            }
+            lastId = chunk.lastId();
+            rows += chunk.archived();
+            chunks++;
+            archivedRows.increment(chunk.archived());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> finishRun());
+        doctorScheduleIndex.pruneBefore(cutoffDate.atStartOfDay());
+        doctorAvailabilityCache.pruneBefore(cutoffDate);
+        doctorWaitlist.pruneBefore(cutoffDate);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        runTimer.record(elapsed);
+        double rowsPerSecond = rows / Math.max(elapsed.toNanos() / 1_000_000_000.0, 1e-9);
+        lastRowsPerSecond.set(Math.round(rowsPerSecond));
+
+        LOG.info("Archived {} appointments before {} in {} chunks, {} ms ({} rows/s){}",
+                rows, cutoffDate, chunks, elapsed.toMillis(), Math.round(rowsPerSecond),
+                resumed ? ", resumed from interrupted run" : "");
+
+        ArchivalResultDTO result = new ArchivalResultDTO();
+        result.setCutoffDate(cutoffDate);
+        result.setRowsArchived(rows);
+        result.setChunks(chunks);
+        result.setDurationMillis(elapsed.toMillis());
+        result.setRowsPerSecond(rowsPerSecond);
+        result.setResumed(resumed);
+        return result;
+    }
+
+    /**
+     * Moves every archived appointment from the active table into the archive table.
+     * Runs with the configured delay between runs.
+     *
+     * <p>Each chunk is copied and deleted in its own transaction, so an appointment is always
+     * in exactly one of the two tables. An interrupted run needs no checkpoint: moved rows are
+     * gone from the active table and the next run picks up the rest.</p>
+     *
+     * @return The number of appointments moved.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${appointments.archival.move-delay-ms:600000}",
+            fixedDelayString = "${appointments.archival.move-delay-ms:600000}")
+    public synchronized int moveArchivedAppointments() {
+        int moved = 0;
+        long lastId = 0;
+
+        while (true) {
+            final long afterId = lastId;
+            Chunk chunk = transactionTemplate.execute(status -> moveChunk(afterId));
+            if (chunk == null) {
+                break;
+            }
+            lastId = chunk.lastId();
+            moved += chunk.archived();
+            movedRows.increment(chunk.archived());
+        }
+
+        if (moved > 0) {
+            LOG.info("Moved {} archived appointments to the archive table", moved);
+        }
+        return moved;
+    }
+
+    /**
+     * Loads or creates the checkpoint of the job, resetting it unless it belongs to an
+     * interrupted run for the same cutoff date.
+     */
+    private JobCheckpoint startRun(LocalDate cutoffDate) {
+        JobCheckpoint checkpoint = jobCheckpointRepo.findById(JOB_NAME).orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        if (!checkpoint.isResumableFor(cutoffDate)) {
+            checkpoint.setCutoffDate(cutoffDate);
+            checkpoint.setLastProcessedId(0L);
+            checkpoint.setRowsProcessed(0L);
+            checkpoint.setStartedAt(LocalDateTime.now());
+            checkpoint.setFinishedAt(null);
+        }
+        return jobCheckpointRepo.save(checkpoint);
+    }
+
+    /**
+     * Archives the next chunk and advances the checkpoint in the same transaction.
+     * An {@link AppointmentsArchivedEvent} is published for the chunk once it commits.
+     *
+     * @return the archived chunk, or null if there was nothing left to archive
+     */
+    private Chunk archiveChunk(LocalDate cutoffDate, long afterId) {
+        List<AppointmentSlotDTO> slots = appointmentRepo.findSlotsByStatusAndDateBefore(
+                AppointmentStatus.UPCOMING, cutoffDate, afterId, PageRequest.of(0, chunkSize)
+        );
+        if (slots.isEmpty()) {
+            return null;
+        }
+
+        List<Long> ids = slots.stream().map(AppointmentSlotDTO::getId).toList();
+        int archived = appointmentRepo.updateStatusByIds(ids, AppointmentStatus.ARCHIVED);
+        long lastId = ids.get(ids.size() - 1);
+        eventPublisher.publishEvent(new AppointmentsArchivedEvent(slots));
+
+        JobCheckpoint checkpoint = jobCheckpointRepo.findById(JOB_NAME).orElseThrow();
+        checkpoint.setLastProcessedId(lastId);
+        checkpoint.setRowsProcessed(checkpoint.getRowsProcessed() + archived);
+        return new Chunk(archived, lastId);
+    }
+
+    /**
+     * Copies the next chunk of archived appointments into the archive table and deletes it
+     * from the active one in the same transaction.
+     *
+     * @return the moved chunk, or null if there was nothing left to move
+     */
+    private Chunk moveChunk(long afterId) {
+        List<Long> ids = appointmentRepo.findIdsByStatusAfter(
+                AppointmentStatus.ARCHIVED, afterId, PageRequest.of(0, chunkSize)
+        );
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        archivedAppointmentRepo.copyFromActive(ids, LocalDateTime.now());
+        int moved = appointmentRepo.deleteByIds(ids);
+        return new Chunk(moved, ids.get(ids.size() - 1));
+    }
+
+    /**
+     * Marks the current run as finished.
+     */
+    private void finishRun() {
+        jobCheckpointRepo.findById(JOB_NAME).ifPresent(checkpoint -> checkpoint.setFinishedAt(LocalDateTime.now()));
+    }
+
+    private record Chunk(int archived, long lastId) {
+    }
+}
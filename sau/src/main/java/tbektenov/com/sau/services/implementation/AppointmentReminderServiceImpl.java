@@ -0,0 +1,218 @@
+package tbektenov.com.sau.services.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.appointment.AppointmentReminderDTO;
+import tbektenov.com.sau.dtos.appointment.ReminderResultDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.ReminderStatus;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentReminderService;
+import tbektenov.com.sau.services.notification.IAppointmentNotifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service implementation sending appointment reminders in batches.
+ *
+ * <p>Pending reminders of upcoming appointments dated between today and the configured number of
+ * days ahead are read in ascending ID batches. The reminders of a batch are sent concurrently on a
+ * fixed pool of sender threads, whose size caps the number of deliveries in flight. Only the
+ * dispatcher thread uses the database: one query per batch and at most two bulk updates recording
+ * the outcome, so slow deliveries never hold JDBC connections the web tier needs.</p>
+ *
+ * <p>A failed delivery stays pending and is retried on the next run until the configured number of
+ * attempts is reached, after which the reminder is marked as failed. An {@link Error} thrown by
+ * the notifier counts as a failed delivery as well; the outcome of its batch is recorded before
+ * the error is rethrown and ends the run, so the reminders already sent are not sent again.</p>
+ */
+@Service
+public class AppointmentReminderServiceImpl
+        implements IAppointmentReminderService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AppointmentReminderServiceImpl.class);
+
+    private final AppointmentRepo appointmentRepo;
+    private final IAppointmentNotifier notifier;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService senders;
+    private final int batchSize;
+    private final int leadDays;
+    private final int maxAttempts;
+
+    private final Counter sentReminders;
+    private final Counter failedReminders;
+    private final Timer runTimer;
+
+    /**
+     * Constructs an AppointmentReminderServiceImpl with the required dependencies.
+     *
+     * @param appointmentRepo Repository for Appointment entities.
+     * @param notifier Channel the reminders are delivered through.
+     * @param transactionTemplate Template used to record the outcome of each batch in its own transaction.
+     * @param meterRegistry Registry the reminder metrics are published to.
+     * @param batchSize Number of reminders read and recorded per batch.
+     * @param maxConcurrency Maximum number of reminders delivered at the same time.
+     * @param leadDays Number of days ahead of an appointment its reminder is sent.
+     * @param maxAttempts Number of failed deliveries after which a reminder is given up.
+     */
+    @Autowired
+    public AppointmentReminderServiceImpl(AppointmentRepo appointmentRepo,
+                                          IAppointmentNotifier notifier,
+                                          TransactionTemplate transactionTemplate,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${appointments.reminders.batch-size:500}") int batchSize,
+                                          @Value("${appointments.reminders.max-concurrency:32}") int maxConcurrency,
+                                          @Value("${appointments.reminders.lead-days:1}") int leadDays,
+                                          @Value("${appointments.reminders.max-attempts:3}") int maxAttempts) {
+        if (batchSize < 1 || maxConcurrency < 1 || leadDays < 0 || maxAttempts < 1) {
+            throw new InvalidArgumentsException("Invalid reminder dispatcher configuration");
+        }
+
+        this.appointmentRepo = appointmentRepo;
+        this.notifier = notifier;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.leadDays = leadDays;
+        this.maxAttempts = maxAttempts;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "appointment-reminders-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentReminders = meterRegistry.counter("appointments.reminders.sent");
+        this.failedReminders = meterRegistry.counter("appointments.reminders.failed");
+        this.runTimer = meterRegistry.timer("appointments.reminders.duration");
+    }
+
+    /**
+     * Sends every pending reminder of the upcoming appointments that are due for one.
+     * Runs with the configured delay between runs.
+     *
+     * @return A ReminderResultDTO summarizing the run.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${appointments.reminders.delay-ms:60000}",
+            fixedDelayString = "${appointments.reminders.delay-ms:60000}")
+    public synchronized ReminderResultDTO dispatchDueReminders() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(leadDays);
+        long lastId = 0;
+        long sent = 0;
+        long failed = 0;
+        int batches = 0;
+
+        while (true) {
+            List<AppointmentReminderDTO> batch = appointmentRepo.findReminders(
+                    ReminderStatus.PENDING, today, lastDay, lastId, PageRequest.of(0, batchSize)
+            );
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Outcome outcome = deliver(batch);
+            transactionTemplate.executeWithoutResult(status -> record(outcome));
+
+            lastId = batch.get(batch.size() - 1).getAppointmentId();
+            sent += outcome.sent().size();
+            failed += outcome.failed().size();
+            batches++;
+            sentReminders.increment(outcome.sent().size());
+            failedReminders.increment(outcome.failed().size());
+            if (outcome.error() != null) {
+                throw outcome.error();
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        runTimer.record(elapsed);
+        double remindersPerSecond = sent / Math.max(elapsed.toNanos() / 1_000_000_000.0, 1e-9);
+
+        if (batches > 0) {
+            LOG.info("Sent {} appointment reminders, {} failed, in {} batches, {} ms ({} reminders/s)",
+                    sent, failed, batches, elapsed.toMillis(), Math.round(remindersPerSecond));
+        }
+
+        ReminderResultDTO result = new ReminderResultDTO();
+        result.setSent(sent);
+        result.setFailed(failed);
+        result.setBatches(batches);
+        result.setDurationMillis(elapsed.toMillis());
+        result.setRemindersPerSecond(remindersPerSecond);
+        return result;
+    }
+
+    /**
+     * Stops the sender threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Sends the reminders of the batch on the sender threads and waits until all of them are done.
+     * The result of every delivery is taken from its own future, so one failure cannot hide the others.
+     */
+    private Outcome deliver(List<AppointmentReminderDTO> batch) {
+        List<CompletableFuture<Void>> deliveries = batch.stream()
+                .map(reminder -> CompletableFuture.runAsync(() -> notifier.sendReminder(reminder), senders))
+                .toList();
+
+        List<Long> sent = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        Error error = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Long appointmentId = batch.get(i).getAppointmentId();
+            try {
+                deliveries.get(i).join();
+                sent.add(appointmentId);
+            } catch (CompletionException e) {
+                LOG.warn("Reminder of appointment {} could not be sent: {}", appointmentId, e.getCause().toString());
+                failed.add(appointmentId);
+                if (error == null && e.getCause() instanceof Error cause) {
+                    error = cause;
+                }
+            }
+        }
+
+        return new Outcome(sent, failed, error);
+    }
+
+    /**
+     * Records the outcome of a batch with one bulk update per kind of outcome.
+     */
+    private void record(Outcome outcome) {
+        if (!outcome.sent().isEmpty()) {
+            appointmentRepo.markRemindersSent(outcome.sent(), LocalDateTime.now());
+        }
+        if (!outcome.failed().isEmpty()) {
+            appointmentRepo.recordFailedReminders(outcome.failed(), maxAttempts);
+        }
+    }
+
+    private record Outcome(List<Long> sent, List<Long> failed, Error error) {
+    }
+}
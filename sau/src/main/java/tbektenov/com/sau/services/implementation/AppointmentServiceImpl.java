@@ -2,22 +2,47 @@ package tbektenov.com.sau.services.implementation;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.config.statements.StatementBudgets;
 import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.AppointmentHistoryResponse;
+import tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO;
 import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.events.AppointmentCancelledEvent;
+import tbektenov.com.sau.events.AppointmentCreatedEvent;
 import tbektenov.com.sau.exceptions.InvalidArgumentsException;
 import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.exceptions.SlotAlreadyBookedException;
 import tbektenov.com.sau.models.Appointment;
 import tbektenov.com.sau.models.AppointmentStatus;
 import tbektenov.com.sau.models.user.userRoles.Doctor;
 import tbektenov.com.sau.models.user.userRoles.Patient;
 import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.repositories.ArchivedAppointmentRepo;
 import tbektenov.com.sau.repositories.DoctorRepo;
 import tbektenov.com.sau.repositories.PatientRepo;
 import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.idempotency.IdempotencyKeyStore;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service implementation for managing appointments.
@@ -28,9 +53,24 @@ import java.util.stream.Collectors;
 @Service
 public class AppointmentServiceImpl
         implements IAppointmentService {
+    private static final Duration DEFAULT_SLOT_LENGTH = Duration.ofMinutes(30);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BOOKING_ATTEMPTS = 3;
+    private static final int BOOKING_STATEMENT_BUDGET = 9;
+    private static final int MAX_CANCELLATION_BATCH = 500;
+    private static final Comparator<AppointmentDTO> NEWEST_FIRST =
+            Comparator.comparing(AppointmentDTO::getDate).thenComparing(AppointmentDTO::getId).reversed();
+
     private DoctorRepo doctorRepo;
     private PatientRepo patientRepo;
     private AppointmentRepo appointmentRepo;
+    private ArchivedAppointmentRepo archivedAppointmentRepo;
+    private DoctorScheduleIndex doctorScheduleIndex;
+    private DoctorAvailabilityCache doctorAvailabilityCache;
+    private IdempotencyKeyStore idempotencyKeyStore;
+    private TransactionTemplate transactionTemplate;
+    private StatementBudgets statementBudgets;
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructs an AppointmentServiceImpl with the specified repositories.
@@ -38,62 +78,346 @@ public class AppointmentServiceImpl
      * @param doctorRepo Repository for Doctor entities.
      * @param patientRepo Repository for Patient entities.
      * @param appointmentRepo Repository for Appointment entities.
+     * @param archivedAppointmentRepo Repository for the archive of appointments.
+     * @param doctorScheduleIndex Index of the booked time slots of doctors.
+     * @param doctorAvailabilityCache Counters of the booked appointments per doctor and day.
+     * @param idempotencyKeyStore Store of the idempotency keys of booking requests.
+     * @param transactionTemplate Template used to run each booking attempt in its own transaction.
+     * @param statementBudgets Budgets each booking attempt is measured against.
+     * @param eventPublisher Publisher of appointment events.
      */
     @Autowired
     public AppointmentServiceImpl(DoctorRepo doctorRepo,
                                   PatientRepo patientRepo,
-                                  AppointmentRepo appointmentRepo) {
+                                  AppointmentRepo appointmentRepo,
+                                  ArchivedAppointmentRepo archivedAppointmentRepo,
+                                  DoctorScheduleIndex doctorScheduleIndex,
+                                  DoctorAvailabilityCache doctorAvailabilityCache,
+                                  IdempotencyKeyStore idempotencyKeyStore,
+                                  TransactionTemplate transactionTemplate,
+                                  StatementBudgets statementBudgets,
+                                  ApplicationEventPublisher eventPublisher) {
         this.doctorRepo = doctorRepo;
         this.patientRepo = patientRepo;
         this.appointmentRepo = appointmentRepo;
+        this.archivedAppointmentRepo = archivedAppointmentRepo;
+        this.doctorScheduleIndex = doctorScheduleIndex;
+        this.doctorAvailabilityCache = doctorAvailabilityCache;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.transactionTemplate = transactionTemplate;
+        this.statementBudgets = statementBudgets;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Creates a new appointment from the provided DTO.
      *
+     * <p>The requested time slot is reserved in the {@link DoctorScheduleIndex} before the
+     * appointment is persisted, so overlapping bookings for the same doctor are rejected.
+     * The unique constraint on the doctor's slot rejects them in the database as well.
+     * The booking is counted in the {@link DoctorAvailabilityCache} and an
+     * {@link AppointmentCreatedEvent} is published once the transaction commits.</p>
+     *
+     * <p>A booking that fails because the doctor was changed concurrently is retried in a new
+     * transaction. Requests carrying an idempotency key already used by the same patient
+     * return the appointment created by the first of them.</p>
+     *
+     * <p>Each attempt is measured against the statement budget of a booking before its
+     * transaction commits, so an enforced budget that was exceeded rolls the attempt back.</p>
+     *
      * @param createAppointmentDTO The data transfer object containing appointment details.
      * @return The created AppointmentDTO with the appointment's details.
+     * @throws SlotAlreadyBookedException if the slot overlaps another appointment of the doctor.
      */
     @Override
-    @Transactional
     public AppointmentDTO createAppointment(CreateAppointmentDTO createAppointmentDTO) {
         if (createAppointmentDTO.getDate() == null) {
             throw new InvalidArgumentsException("Date cannot be null");
         }
 
-        Patient patient = patientRepo.findById(createAppointmentDTO.getPatient_id()).orElseThrow(
-                () -> new ObjectNotFoundException("Patient not found")
+        if (createAppointmentDTO.getStartTime() == null) {
+            throw new InvalidArgumentsException("Start time cannot be null");
+        }
+
+        String idempotencyKey = createAppointmentDTO.getIdempotencyKey();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return bookWithRetry(createAppointmentDTO);
+        }
+
+        return idempotencyKeyStore.execute(
+                createAppointmentDTO.getPatient_id() + ":" + idempotencyKey,
+                () -> bookWithRetry(createAppointmentDTO)
         );
+    }
+
+    /**
+     * Books the appointment, retrying in a new transaction after optimistic locking conflicts.
+     *
+     * @param createAppointmentDTO The data transfer object containing appointment details.
+     * @return The created AppointmentDTO with the appointment's details.
+     */
+    private AppointmentDTO bookWithRetry(CreateAppointmentDTO createAppointmentDTO) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> statementBudgets.measure(
+                        "AppointmentServiceImpl.createAppointment", BOOKING_STATEMENT_BUDGET,
+                        () -> book(createAppointmentDTO)));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                    throw e;
+                }
+                backOff(attempt);
+            } catch (DataIntegrityViolationException e) {
+                if (isDoctorSlotViolation(e)) {
+                    throw new SlotAlreadyBookedException("Doctor already has an appointment in this time slot.");
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Books the appointment within the current transaction.
+     *
+     * @param createAppointmentDTO The data transfer object containing appointment details.
+     * @return The created AppointmentDTO with the appointment's details.
+     */
+    private AppointmentDTO book(CreateAppointmentDTO createAppointmentDTO) {
+        LocalTime startTime = createAppointmentDTO.getStartTime();
+        LocalTime endTime = createAppointmentDTO.getEndTime() != null
+                ? createAppointmentDTO.getEndTime()
+                : startTime.plus(DEFAULT_SLOT_LENGTH);
+
+        if (!endTime.isAfter(startTime)) {
+            throw new InvalidArgumentsException("End time must be after start time");
+        }
 
-        Doctor doctor = doctorRepo.findById(createAppointmentDTO.getDoctor_id()).orElseThrow(
+        Doctor doctor = doctorRepo.findForBookingById(createAppointmentDTO.getDoctor_id()).orElseThrow(
                 () -> new ObjectNotFoundException("Doctor not found")
         );
 
+        Patient patient = patientRepo.findById(createAppointmentDTO.getPatient_id()).orElseThrow(
+                () -> new ObjectNotFoundException("Patient not found")
+        );
+
+        LocalDateTime start = createAppointmentDTO.getDate().atTime(startTime);
+        LocalDateTime end = createAppointmentDTO.getDate().atTime(endTime);
+        if (!doctorScheduleIndex.reserve(doctor.getId(), start, end)) {
+            throw new SlotAlreadyBookedException("Doctor already has an appointment in this time slot.");
+        }
+
         Appointment appointment = new Appointment();
         appointment.setDate(createAppointmentDTO.getDate());
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(endTime);
         appointment.setAppointmentStatus(createAppointmentDTO.getAppointmentStatus());
         appointment.setPatient(patient);
         appointment.setDoctor(doctor);
 
-        Appointment newAppointment = appointmentRepo.save(appointment);
+        Appointment newAppointment = appointmentRepo.saveAndFlush(appointment);
+        doctorAvailabilityCache.recordBooking(doctor.getId(), newAppointment.getDate());
 
-        return mapToDto(newAppointment);
+        AppointmentDTO appointmentDTO = mapToDto(newAppointment);
+        eventPublisher.publishEvent(new AppointmentCreatedEvent(patient.getId(), doctor.getId(), appointmentDTO));
+        return appointmentDTO;
+    }
+
+    /**
+     * Checks whether the exception was caused by the unique constraint on the doctor's slot.
+     */
+    private static boolean isDoctorSlotViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(Appointment.DOCTOR_SLOT_CONSTRAINT);
+    }
+
+    /**
+     * Waits a little before the next booking attempt, longer after each conflict.
+     */
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cancels an upcoming appointment of the patient and frees its time slot.
+     *
+     * <p>Ownership and status are checked by a single query on the appointment's primary key,
+     * and the appointment is deleted by ID, so neither the patient's nor the doctor's
+     * appointment collections are loaded.</p>
+     *
+     * @param patientId The ID of the patient the appointment belongs to.
+     * @param appointmentId The ID of the appointment to cancel.
+     * @throws ObjectNotFoundException if the patient has no upcoming appointment with this ID.
+     */
+    @Override
+    @Transactional
+    @StatementBudget(3)
+    public void cancelAppointment(Long patientId, Long appointmentId) {
+        if (cancelAppointments(patientId, List.of(appointmentId)).isEmpty()) {
+            throw new ObjectNotFoundException("Upcoming appointment not found");
+        }
+    }
+
+    /**
+     * Cancels several upcoming appointments of the patient with one query and one delete statement.
+     *
+     * <p>Once the transaction commits, the slots are released in the {@link DoctorScheduleIndex},
+     * the bookings are no longer counted in the {@link DoctorAvailabilityCache}, and an
+     * {@link AppointmentCancelledEvent} is published per appointment so the slots can be
+     * offered to waiting patients.</p>
+     *
+     * @param patientId The ID of the patient the appointments belong to.
+     * @param appointmentIds The IDs of the appointments to cancel.
+     * @return The IDs of the cancelled appointments.
+     */
+    @Override
+    @Transactional
+    @StatementBudget(3)
+    public List<Long> cancelAppointments(Long patientId, List<Long> appointmentIds) {
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            return List.of();
+        }
+
+        if (appointmentIds.size() > MAX_CANCELLATION_BATCH) {
+            throw new InvalidArgumentsException("At most " + MAX_CANCELLATION_BATCH + " appointments can be cancelled at once");
+        }
+
+        List<AppointmentSlotDTO> slots = appointmentRepo.findSlotsByIdsAndPatientId(
+                appointmentIds, patientId, AppointmentStatus.UPCOMING
+        );
+        if (slots.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> cancelledIds = slots.stream().map(AppointmentSlotDTO::getId).toList();
+        appointmentRepo.deleteByIds(cancelledIds);
+
+        for (AppointmentSlotDTO slot : slots) {
+            if (slot.getStartTime() != null && slot.getEndTime() != null) {
+                doctorScheduleIndex.releaseOnCommit(slot.getDoctorId(),
+                        slot.getDate().atTime(slot.getStartTime()), slot.getDate().atTime(slot.getEndTime()));
+            }
+            doctorAvailabilityCache.recordCancellation(slot.getDoctorId(), slot.getDate());
+            eventPublisher.publishEvent(new AppointmentCancelledEvent(
+                    slot.getId(), slot.getPatientId(), slot.getDoctorId(),
+                    slot.getDate(), slot.getStartTime(), slot.getEndTime()
+            ));
+        }
+
+        return cancelledIds;
     }
 
     /**
      * Retrieves a list of upcoming appointments for a specific patient.
      *
+     * <p>The appointments are projected straight into DTOs, so no managed entities
+     * or dirty-checking snapshots are created.</p>
+     *
      * @param patient_id The ID of the patient.
      * @return A list of upcoming AppointmentDTOs.
      */
     @Override
     @Transactional
+    @StatementBudget(1)
     public List<AppointmentDTO> getUpcomingAppointmentsByPatientId(Long patient_id) {
-        List<Appointment> appointments = appointmentRepo.findByPatientIdAndAppointmentStatus(
-                patient_id, AppointmentStatus.UPCOMING
-        );
+        return appointmentRepo.findDtosByPatientIdAndStatus(patient_id, AppointmentStatus.UPCOMING);
+    }
 
-        return appointments.stream().map(appointment -> mapToDto(appointment)).collect(Collectors.toList());
+    /**
+     * Retrieves one page of a patient's appointments with the given status, using a (date, ID) cursor.
+     *
+     * <p>The cursor predicate is served by the composite index on
+     * (patient_id, status, date, appointment_id), so deep pages cost the same as the first one.
+     * One extra row is read to find out whether another page follows. Rows are projected
+     * straight into DTOs without creating managed entities.</p>
+     *
+     * <p>Archived appointments live in the active table until the background mover copies them
+     * to the archive table, so archived pages read both tables with the same cursor and merge
+     * the results. The active table is read first: an appointment moved in between is then
+     * found in both tables and is listed once.</p>
+     *
+     * @param patientId The ID of the patient.
+     * @param status The status of the appointments to list.
+     * @param afterDate The date of the last appointment of the previous page, or null for the first page.
+     * @param afterId The ID of the last appointment of the previous page, or null for the first page.
+     * @param pageSize The maximum number of appointments in the page.
+     * @return An AppointmentHistoryResponse with the page content and the cursor of the next page.
+     * @throws InvalidArgumentsException if the page size is out of range or the cursor is incomplete.
+     */
+    @Override
+    @Transactional
+    @StatementBudget(2)
+    public AppointmentHistoryResponse getAppointmentHistory(Long patientId,
+                                                            AppointmentStatus status,
+                                                            LocalDate afterDate,
+                                                            Long afterId,
+                                                            int pageSize) {
+        if (status == null) {
+            throw new InvalidArgumentsException("Status cannot be null");
+        }
+
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidArgumentsException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        if ((afterDate == null) != (afterId == null)) {
+            throw new InvalidArgumentsException("Cursor requires both date and id");
+        }
+
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<AppointmentDTO> appointments;
+        if (status == AppointmentStatus.ARCHIVED) {
+            appointments = getArchivedPage(patientId, afterDate, afterId, limit);
+        } else if (afterDate == null) {
+            appointments = appointmentRepo.findFirstPageAsc(patientId, status, limit);
+        } else {
+            appointments = appointmentRepo.findPageAfterAsc(patientId, status, afterDate, afterId, limit);
+        }
+
+        boolean last = appointments.size() <= pageSize;
+        List<AppointmentDTO> page = last ? appointments : appointments.subList(0, pageSize);
+
+        AppointmentHistoryResponse response = new AppointmentHistoryResponse();
+        response.setContent(page);
+        response.setStatus(status);
+        response.setPageSize(pageSize);
+        response.setLast(last);
+        if (!last) {
+            AppointmentDTO lastOnPage = page.get(page.size() - 1);
+            response.setNextDate(lastOnPage.getDate());
+            response.setNextId(lastOnPage.getId());
+        }
+
+        return response;
+    }
+
+    /**
+     * Reads one page of archived appointments, newest first, from both the active and the archive table.
+     */
+    private List<AppointmentDTO> getArchivedPage(Long patientId, LocalDate afterDate, Long afterId, Pageable limit) {
+        List<AppointmentDTO> active;
+        List<AppointmentDTO> archived;
+        if (afterDate == null) {
+            active = appointmentRepo.findFirstPageDesc(patientId, AppointmentStatus.ARCHIVED, limit);
+            archived = archivedAppointmentRepo.findFirstPageDesc(patientId, limit);
+        } else {
+            active = appointmentRepo.findPageAfterDesc(patientId, AppointmentStatus.ARCHIVED, afterDate, afterId, limit);
+            archived = archivedAppointmentRepo.findPageAfterDesc(patientId, afterDate, afterId, limit);
+        }
+
+        if (active.isEmpty()) {
+            return archived;
+        }
+        Map<Long, AppointmentDTO> byId = new HashMap<>();
+        Stream.concat(active.stream(), archived.stream())
+                .forEach(appointment -> byId.putIfAbsent(appointment.getId(), appointment));
+        return byId.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit.getPageSize())
+                .toList();
     }
 
     /**
@@ -109,6 +433,8 @@ public class AppointmentServiceImpl
         appointmentDTO.setHospital(appointment.getDoctor().getHospital().getName());
         appointmentDTO.setHospitalAddress(appointment.getDoctor().getHospital().getAddress());
         appointmentDTO.setDate(appointment.getDate());
+        appointmentDTO.setStartTime(appointment.getStartTime());
+        appointmentDTO.setEndTime(appointment.getEndTime());
         appointmentDTO.setAppointmentStatus(appointment.getAppointmentStatus());
 
         return appointmentDTO;
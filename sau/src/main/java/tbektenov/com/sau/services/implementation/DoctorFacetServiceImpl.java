@@ -0,0 +1,82 @@
+package tbektenov.com.sau.services.implementation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.search.DoctorFacetsDTO;
+import tbektenov.com.sau.dtos.search.FacetCountDTO;
+import tbektenov.com.sau.dtos.search.HospitalSpecializationCountDTO;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.repositories.DoctorRepo;
+import tbektenov.com.sau.services.IDoctorFacetService;
+import tbektenov.com.sau.services.directory.DoctorFacetCache;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service implementation providing the doctor counts offered as search filters.
+ *
+ * <p>The counts come from one grouped query per hospital and specialization; the totals per
+ * hospital and per specialization are summed up from its rows. The result is kept in the
+ * {@link DoctorFacetCache} until the doctors change.</p>
+ */
+@Service
+public class DoctorFacetServiceImpl
+        implements IDoctorFacetService {
+
+    private final DoctorRepo doctorRepo;
+    private final DoctorFacetCache doctorFacetCache;
+
+    /**
+     * Constructs a DoctorFacetServiceImpl.
+     *
+     * @param doctorRepo The repository counting the doctors.
+     * @param doctorFacetCache The cache of the counts.
+     */
+    @Autowired
+    public DoctorFacetServiceImpl(DoctorRepo doctorRepo,
+                                  DoctorFacetCache doctorFacetCache) {
+        this.doctorRepo = doctorRepo;
+        this.doctorFacetCache = doctorFacetCache;
+    }
+
+    /**
+     * Retrieves the number of doctors per hospital, per specialization and per hospital and
+     * specialization.
+     *
+     * @return The doctor counts.
+     */
+    @Override
+    @StatementBudget(1)
+    public DoctorFacetsDTO getFacets() {
+        return doctorFacetCache.get(this::loadFacets);
+    }
+
+    /**
+     * Counts the doctors with a single grouped query and sums up the totals.
+     *
+     * @return The doctor counts.
+     */
+    private DoctorFacetsDTO loadFacets() {
+        List<HospitalSpecializationCountDTO> counts = doctorRepo.findHospitalSpecializationCounts();
+
+        Map<String, Long> hospitals = new TreeMap<>();
+        Map<Specialization, Long> specializations = new EnumMap<>(Specialization.class);
+        for (HospitalSpecializationCountDTO count : counts) {
+            hospitals.merge(count.getHospital(), count.getCount(), Long::sum);
+            specializations.merge(count.getSpecialization(), count.getCount(), Long::sum);
+        }
+
+        return new DoctorFacetsDTO(
+                hospitals.entrySet().stream()
+                        .map(entry -> new FacetCountDTO(entry.getKey(), entry.getValue()))
+                        .toList(),
+                specializations.entrySet().stream()
+                        .map(entry -> new FacetCountDTO(entry.getKey().name(), entry.getValue()))
+                        .toList(),
+                List.copyOf(counts));
+    }
+}
@@ -2,13 +2,24 @@ package tbektenov.com.sau.services.implementation;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.doctor.DoctorAvailabilityDTO;
 import tbektenov.com.sau.dtos.doctor.DoctorDTO;
-import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.dtos.doctor.DoctorResponse;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
 import tbektenov.com.sau.repositories.DoctorRepo;
 import tbektenov.com.sau.repositories.UserRepo;
 import tbektenov.com.sau.services.IDoctorService;
+import tbektenov.com.sau.services.directory.DoctorDirectoryCache;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,41 +33,156 @@ import java.util.stream.Collectors;
 public class DoctorServiceImpl
         implements IDoctorService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private DoctorRepo doctorRepo;
     private UserRepo userRepo;
+    private DoctorAvailabilityCache doctorAvailabilityCache;
+    private DoctorDirectoryCache doctorDirectoryCache;
+    private int dailySlots;
 
     @Autowired
     public DoctorServiceImpl(DoctorRepo doctorRepo,
-                             UserRepo userRepo) {
+                             UserRepo userRepo,
+                             DoctorAvailabilityCache doctorAvailabilityCache,
+                             DoctorDirectoryCache doctorDirectoryCache,
+                             @Value("${appointments.availability.daily-slots:16}") int dailySlots) {
         this.doctorRepo = doctorRepo;
         this.userRepo = userRepo;
+        this.doctorAvailabilityCache = doctorAvailabilityCache;
+        this.doctorDirectoryCache = doctorDirectoryCache;
+        this.dailySlots = dailySlots;
     }
 
     /**
-     * Retrieves all doctors from the repository and maps them to DoctorDTO objects.
+     * Retrieves all doctors, ordered by surname, from the {@link DoctorDirectoryCache}.
      *
      * @return A list of DoctorDTO representing all doctors.
      */
     @Override
-    @Transactional
+    @StatementBudget(1)
     public List<DoctorDTO> getAllDoctors() {
-        List<Doctor> doctors = doctorRepo.findAll();
-        return doctors.stream().map(doctor -> mapToDto(doctor)).collect(Collectors.toList());
+        return doctorDirectoryCache.get(this::loadDoctors);
     }
 
     /**
-     * Maps a Doctor entity to a DoctorDTO.
+     * Searches doctors by hospital, specialization and surname, one page at a time.
+     *
+     * <p>The filtering and paging happen in the database, see
+     * {@link tbektenov.com.sau.repositories.DoctorSearchRepo}.</p>
      *
-     * @param doctor The Doctor entity to map.
-     * @return The mapped DoctorDTO with the doctor's details.
+     * @param hospital The exact name of the doctor's hospital.
+     * @param specialization The doctor's specialization.
+     * @param name The case-insensitive beginning of the doctor's surname.
+     * @param pageNo The page number to retrieve.
+     * @param pageSize The number of doctors per page.
+     * @return A DoctorResponse containing the matching doctors and pagination details.
+     * @throws InvalidArgumentsException if the page number or size is out of range.
      */
-    private DoctorDTO mapToDto(Doctor doctor) {
-        DoctorDTO doctorDTO = new DoctorDTO();
-        doctorDTO.setId(doctor.getId());
-        doctorDTO.setName(doctor.getUser().getName());
-        doctorDTO.setSurname(doctor.getUser().getSurname());
-        doctorDTO.setSpecialization(doctor.getSpecialization());
-        doctorDTO.setHospitalName(doctor.getHospital().getName());
-        return doctorDTO;
+    @Override
+    @Transactional
+    @StatementBudget(2)
+    public DoctorResponse searchDoctors(String hospital,
+                                        Specialization specialization,
+                                        String name,
+                                        int pageNo,
+                                        int pageSize) {
+        if (pageNo < 0) {
+            throw new InvalidArgumentsException("Page number cannot be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidArgumentsException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        String hospitalName = trimToNull(hospital);
+        String surnamePrefix = trimToNull(name);
+        Page<DoctorDTO> doctors = doctorRepo.searchDoctors(
+                hospitalName, specialization, surnamePrefix, PageRequest.of(pageNo, pageSize));
+
+        DoctorResponse doctorResponse = new DoctorResponse();
+        doctorResponse.setContent(doctors.getContent());
+        doctorResponse.setHospital(hospitalName);
+        doctorResponse.setSpecialization(specialization);
+        doctorResponse.setName(surnamePrefix);
+        doctorResponse.setPageNo(doctors.getNumber());
+        doctorResponse.setPageSize(doctors.getSize());
+        doctorResponse.setTotalElements(doctors.getTotalElements());
+        doctorResponse.setTotalPages(doctors.getTotalPages());
+        doctorResponse.setLast(doctors.isLast());
+        return doctorResponse;
+    }
+
+    /**
+     * Retrieves the number of free appointment slots of every doctor on the given day.
+     *
+     * <p>Booked slots come from the {@link DoctorAvailabilityCache}, so no appointments are
+     * counted in the database.</p>
+     *
+     * @param date The day to check.
+     * @return A list of DoctorAvailabilityDTO, one per doctor.
+     */
+    @Override
+    @StatementBudget(2)
+    public List<DoctorAvailabilityDTO> getDoctorAvailability(LocalDate date) {
+        if (date == null) {
+            throw new InvalidArgumentsException("Date cannot be null");
+        }
+
+        return getDoctorAvailability(doctorRepo.findAllIds(), date);
+    }
+
+    /**
+     * Retrieves the number of free appointment slots of the given doctors on the given day.
+     *
+     * <p>Only the {@link DoctorAvailabilityCache} is read, so the database is not queried.</p>
+     *
+     * @param doctorIds The IDs of the doctors to check.
+     * @param date The day to check.
+     * @return A list of DoctorAvailabilityDTO, one per given doctor.
+     */
+    @Override
+    public List<DoctorAvailabilityDTO> getDoctorAvailability(Collection<Long> doctorIds, LocalDate date) {
+        if (doctorIds == null || date == null) {
+            throw new InvalidArgumentsException("Doctor IDs and date cannot be null");
+        }
+
+        return doctorIds.stream()
+                .map(doctorId -> mapToAvailabilityDto(doctorId, date))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the availability of a doctor on the given day from the cached counter.
+     *
+     * @param doctorId The ID of the doctor.
+     * @param date The day to check.
+     * @return The DoctorAvailabilityDTO of the doctor.
+     */
+    private DoctorAvailabilityDTO mapToAvailabilityDto(Long doctorId, LocalDate date) {
+        int booked = doctorAvailabilityCache.getBooked(doctorId, date);
+
+        DoctorAvailabilityDTO availabilityDTO = new DoctorAvailabilityDTO();
+        availabilityDTO.setDoctorId(doctorId);
+        availabilityDTO.setDate(date);
+        availabilityDTO.setDailySlots(dailySlots);
+        availabilityDTO.setBookedSlots(booked);
+        availabilityDTO.setFreeSlots(Math.max(dailySlots - booked, 0));
+        return availabilityDTO;
+    }
+
+    /**
+     * Loads the listing data of all doctors from the repository in a single query.
+     *
+     * @return A list of DoctorDTO representing all doctors.
+     */
+    private List<DoctorDTO> loadDoctors() {
+        return doctorRepo.findAllListings();
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
     }
 }
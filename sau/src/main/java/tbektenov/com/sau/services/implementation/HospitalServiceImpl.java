@@ -2,18 +2,29 @@ package tbektenov.com.sau.services.implementation;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
 import tbektenov.com.sau.dtos.doctor.DoctorDTO;
 import tbektenov.com.sau.dtos.hospital.HospitalDTO;
 import tbektenov.com.sau.dtos.hospital.HospitalResponse;
+import tbektenov.com.sau.dtos.hospital.HospitalTotals;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
 import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.repositories.DoctorRepo;
 import tbektenov.com.sau.repositories.HospitalRepo;
 import tbektenov.com.sau.services.IHospitalService;
+import tbektenov.com.sau.services.directory.HospitalCountCache;
+import tbektenov.com.sau.services.directory.HospitalDetailCache;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -23,66 +34,174 @@ import java.util.stream.Collectors;
 public class HospitalServiceImpl
         implements IHospitalService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private HospitalRepo hospitalRepo;
+    private DoctorRepo doctorRepo;
+    private HospitalDetailCache hospitalDetailCache;
+    private HospitalCountCache hospitalCountCache;
 
     /**
      * Initializes the service with required repositories.
      *
      * @param hospitalRepo repository for hospital data
+     * @param doctorRepo repository for the doctors of a hospital
+     * @param hospitalDetailCache cache of the hospital details
+     * @param hospitalCountCache cache of the number of hospitals
      */
     @Autowired
-    public HospitalServiceImpl(HospitalRepo hospitalRepo) {
+    public HospitalServiceImpl(HospitalRepo hospitalRepo,
+                               DoctorRepo doctorRepo,
+                               HospitalDetailCache hospitalDetailCache,
+                               HospitalCountCache hospitalCountCache) {
         this.hospitalRepo = hospitalRepo;
+        this.doctorRepo = doctorRepo;
+        this.hospitalDetailCache = hospitalDetailCache;
+        this.hospitalCountCache = hospitalCountCache;
     }
 
     /**
-     * Retrieves a paginated list of all hospitals.
+     * Retrieves a paginated list of all hospitals, ordered by ID.
+     *
+     * <p>The page is read in two steps: the hospitals of the page are selected and limited in
+     * the database, then the doctors of exactly these hospitals are loaded with one query. No
+     * collection is fetched together with the page, so the cost does not grow with the
+     * catalog.</p>
+     *
+     * <p>One more hospital than requested is selected to tell whether a next page exists. The
+     * totals are counted in the database for {@link HospitalTotals#EXACT}, taken from the
+     * {@link HospitalCountCache} for {@link HospitalTotals#CACHED} and left at -1 for
+     * {@link HospitalTotals#NONE}. On the last page the total follows from the page itself,
+     * so nothing is counted.</p>
      *
      * @param pageNo the page number to retrieve
      * @param pageSize the number of hospitals per page
+     * @param totals how the totals are computed
      * @return the paginated list of hospitals
+     * @throws InvalidArgumentsException if the page number or size is out of range or the totals mode is missing
      */
     @Override
     @Transactional
-    public HospitalResponse getAllHospitals(int pageNo, int pageSize) {
+    @StatementBudget(3)
+    public HospitalResponse getAllHospitals(int pageNo, int pageSize, HospitalTotals totals) {
+        if (pageNo < 0) {
+            throw new InvalidArgumentsException("Page number cannot be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidArgumentsException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (totals == null) {
+            throw new InvalidArgumentsException("Totals mode cannot be null");
+        }
+
         Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Hospital> hospitals = hospitalRepo.findAll(pageable);
-        List<Hospital> listOfHospitals = hospitals.getContent();
-        List<HospitalDTO> content = listOfHospitals.stream().map(hospital -> mapToDto(hospital)).collect(Collectors.toList());
+        Slice<Hospital> hospitals = hospitalRepo.findSlice(pageable);
+        Map<Long, Set<DoctorDTO>> doctors = loadDoctors(hospitals.getContent());
+        List<HospitalDTO> content = hospitals.getContent().stream()
+                .map(hospital -> mapToDto(hospital, doctors.getOrDefault(hospital.getId(), new LinkedHashSet<>())))
+                .collect(Collectors.toList());
+
+        long totalElements = countHospitals(hospitals, totals);
 
         HospitalResponse hospitalResponse = new HospitalResponse();
         hospitalResponse.setContent(content);
         hospitalResponse.setPageNo(hospitals.getNumber());
         hospitalResponse.setPageSize(hospitals.getSize());
-        hospitalResponse.setTotalElements(hospitals.getTotalElements());
-        hospitalResponse.setTotalPages(hospitals.getTotalPages());
-        hospitalResponse.setLast(hospitals.isLast());
+        hospitalResponse.setTotalElements(totalElements);
+        hospitalResponse.setTotalPages(totalElements < 0 ? -1 : (int) ((totalElements + pageSize - 1) / pageSize));
+        hospitalResponse.setLast(!hospitals.hasNext());
+        hospitalResponse.setTotals(totals);
 
         return hospitalResponse;
     }
 
     /**
-     * Maps a Hospital entity to a HospitalDTO.
+     * Retrieves a hospital with its doctors from the {@link HospitalDetailCache}.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return the hospital with its doctors ordered by surname
+     * @throws ObjectNotFoundException if the hospital does not exist
+     */
+    @Override
+    @StatementBudget(2)
+    public HospitalDTO getHospitalDetails(Long hospitalId) {
+        return hospitalDetailCache.get(hospitalId, this::loadHospitalDetails);
+    }
+
+    /**
+     * Tells whether the {@link HospitalDetailCache} holds the hospital's current details.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return true if the hospital exists and its current details are cached
+     */
+    @Override
+    public boolean isHospitalDetailCached(Long hospitalId) {
+        return hospitalDetailCache.isCurrent(hospitalId);
+    }
+
+    /**
+     * Loads a hospital and the listing data of its doctors with one query each.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return the hospital with its doctors ordered by surname
+     * @throws ObjectNotFoundException if the hospital does not exist
+     */
+    private HospitalDTO loadHospitalDetails(Long hospitalId) {
+        Hospital hospital = hospitalRepo.findPlainById(hospitalId)
+                .orElseThrow(() -> new ObjectNotFoundException("Hospital not found."));
+
+        return mapToDto(hospital, new LinkedHashSet<>(doctorRepo.findListingsByHospitalId(hospitalId)));
+    }
+
+    /**
+     * Determines the total number of hospitals for a page.
+     *
+     * @param hospitals the page
+     * @param totals how the total is computed
+     * @return the number of hospitals, or -1 if it is not computed
+     */
+    private long countHospitals(Slice<Hospital> hospitals, HospitalTotals totals) {
+        if (totals == HospitalTotals.NONE) {
+            return -1;
+        }
+        if (!hospitals.hasNext() && (hospitals.hasContent() || hospitals.getNumber() == 0)) {
+            return (long) hospitals.getNumber() * hospitals.getSize() + hospitals.getNumberOfElements();
+        }
+        return totals == HospitalTotals.EXACT ? hospitalRepo.count() : hospitalCountCache.get();
+    }
+
+    /**
+     * Loads the listing data of the doctors of the given hospitals with a single query.
+     *
+     * @param hospitals the hospitals of a page
+     * @return the doctors ordered by surname, by hospital ID
+     */
+    private Map<Long, Set<DoctorDTO>> loadDoctors(List<Hospital> hospitals) {
+        if (hospitals.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> hospitalIds = hospitals.stream().map(Hospital::getId).toList();
+        Map<Long, Set<DoctorDTO>> doctors = new HashMap<>();
+        for (Object[] row : doctorRepo.findListingsByHospitalIds(hospitalIds)) {
+            doctors.computeIfAbsent((Long) row[0], hospitalId -> new LinkedHashSet<>()).add((DoctorDTO) row[1]);
+        }
+        return doctors;
+    }
+
+    /**
+     * Maps a Hospital entity and its doctors to a HospitalDTO.
      *
      * @param hospital the Hospital entity
+     * @param doctors the doctors of the hospital
      * @return the corresponding HospitalDTO
      */
-    private HospitalDTO mapToDto(Hospital hospital) {
+    private HospitalDTO mapToDto(Hospital hospital, Set<DoctorDTO> doctors) {
         HospitalDTO hospitalDTO = new HospitalDTO();
         hospitalDTO.setHospitalId(hospital.getId());
         hospitalDTO.setName(hospital.getName());
         hospitalDTO.setAddress(hospital.getAddress());
-        hospitalDTO.setDoctors(hospital.getDoctors().stream()
-                .map(doctor -> {
-                    DoctorDTO doctorDTO = new DoctorDTO();
-                    doctorDTO.setId(doctor.getId());
-                    doctorDTO.setName(doctor.getUser().getName());
-                    doctorDTO.setSurname(doctor.getUser().getSurname());
-                    doctorDTO.setSpecialization(doctor.getSpecialization());
-                    doctorDTO.setHospitalName(hospital.getName());
-                    return doctorDTO;
-                }).collect(Collectors.toSet()));
-
+        hospitalDTO.setDoctors(doctors);
         return hospitalDTO;
     }
 }
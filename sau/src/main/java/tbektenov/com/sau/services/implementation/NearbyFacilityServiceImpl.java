@@ -0,0 +1,83 @@
+package tbektenov.com.sau.services.implementation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.services.INearbyFacilityService;
+import tbektenov.com.sau.services.search.FacilityLocationIndex;
+
+import java.util.List;
+
+/**
+ * Service implementation answering nearest-facility queries from the in-memory
+ * {@link FacilityLocationIndex}.
+ */
+@Service
+public class NearbyFacilityServiceImpl
+        implements INearbyFacilityService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final FacilityLocationIndex facilityLocationIndex;
+
+    /**
+     * Constructs a NearbyFacilityServiceImpl.
+     *
+     * @param facilityLocationIndex The index the facilities are looked up in.
+     */
+    @Autowired
+    public NearbyFacilityServiceImpl(FacilityLocationIndex facilityLocationIndex) {
+        this.facilityLocationIndex = facilityLocationIndex;
+    }
+
+    /**
+     * Finds the located facilities of a kind nearest to a point, nearest first.
+     *
+     * @param type The kind of facilities.
+     * @param latitude The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param specialization The specialization the hospitals must offer, or null.
+     * @param partnerOf The ID of the hospital the pharmacies must be partners of, or null.
+     * @param limit The maximum number of facilities.
+     * @return The nearest facilities with their distance in kilometres.
+     * @throws InvalidArgumentsException if the point or limit is out of range or a filter does
+     *                                   not apply to the kind of facilities.
+     */
+    @Override
+    @StatementBudget(3)
+    public List<NearbyFacilityDTO> findNearest(FacilityType type, Double latitude, Double longitude,
+                                               Specialization specialization, Long partnerOf, int limit) {
+        if (type == null) {
+            throw new InvalidArgumentsException("Facility type is required");
+        }
+        if (latitude == null || latitude < -90 || latitude > 90) {
+            throw new InvalidArgumentsException("Latitude must be between -90 and 90");
+        }
+        if (longitude == null || longitude < -180 || longitude > 180) {
+            throw new InvalidArgumentsException("Longitude must be between -180 and 180");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidArgumentsException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (specialization != null && type != FacilityType.HOSPITAL) {
+            throw new InvalidArgumentsException("Only hospitals can be filtered by specialization");
+        }
+        if (partnerOf != null && type != FacilityType.PHARMACY) {
+            throw new InvalidArgumentsException("Only pharmacies can be filtered by partner hospital");
+        }
+
+        if (specialization != null) {
+            return facilityLocationIndex.nearest(type, latitude, longitude,
+                    facilityLocationIndex.hospitalsWith(specialization), limit);
+        }
+        if (partnerOf != null) {
+            return facilityLocationIndex.nearest(type, latitude, longitude,
+                    facilityLocationIndex.partnerPharmaciesOf(partnerOf), limit);
+        }
+        return facilityLocationIndex.nearest(type, latitude, longitude, limit);
+    }
+}
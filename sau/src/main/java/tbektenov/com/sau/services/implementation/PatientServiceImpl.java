@@ -3,6 +3,7 @@ package tbektenov.com.sau.services.implementation;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
 import tbektenov.com.sau.dtos.left_patient.ChangeToLeftPatientDTO;
 import tbektenov.com.sau.dtos.staying_patient.ChangeToStayingPatientDTO;
 import tbektenov.com.sau.exceptions.ObjectNotFoundException;
@@ -21,12 +22,17 @@ import java.util.Set;
 
 /**
  * Service implementation for managing Patient operations.
+ *
+ * <p>Admission and discharge also move the occupancy counters of the ward and its hospital,
+ * with one relative bulk update each in the same transaction, so concurrent admissions to a
+ * ward do not overwrite each other's counts.</p>
  */
 @Service
 public class PatientServiceImpl
         implements IPatientService {
     private final NurseRepo nurseRepo;
     private final HospitalWardRepo hospitalWardRepo;
+    private final HospitalRepo hospitalRepo;
     private PatientRepo patientRepo;
     private LeftPatientRepo leftPatientRepo;
     private StayingPatientRepo stayingPatientRepo;
@@ -36,12 +42,14 @@ public class PatientServiceImpl
                               LeftPatientRepo leftPatientRepo,
                               StayingPatientRepo stayingPatientRepo,
                               NurseRepo nurseRepo,
-                              HospitalWardRepo hospitalWardRepo) {
+                              HospitalWardRepo hospitalWardRepo,
+                              HospitalRepo hospitalRepo) {
         this.patientRepo = patientRepo;
         this.leftPatientRepo = leftPatientRepo;
         this.stayingPatientRepo = stayingPatientRepo;
         this.nurseRepo = nurseRepo;
         this.hospitalWardRepo = hospitalWardRepo;
+        this.hospitalRepo = hospitalRepo;
     }
 
     /**
@@ -53,6 +61,7 @@ public class PatientServiceImpl
      */
     @Override
     @Transactional
+    @StatementBudget(11)
     public void changeToStayingPatient(Long patientId, ChangeToStayingPatientDTO changeToStayingPatientDTO) {
         Patient patient = patientRepo.findById(patientId)
                 .orElseThrow(() -> new ObjectNotFoundException("Patient not found."));
@@ -86,6 +95,7 @@ public class PatientServiceImpl
         patient.setStayingPatient(stayingPatient);
 
         stayingPatientRepo.save(stayingPatient);
+        adjustOccupancy(hospitalWard.getId(), 1);
     }
 
     /**
@@ -97,6 +107,7 @@ public class PatientServiceImpl
      */
     @Override
     @Transactional
+    @StatementBudget(9)
     public void changeToLeftPatient(Long patientId, ChangeToLeftPatientDTO changeToLeftPatientDTO) {
         if (changeToLeftPatientDTO.getConclusion() == null || changeToLeftPatientDTO.getConclusion().isEmpty()) {
             throw new ObjectNotFoundException("Conclusion cannot be null or empty.");
@@ -105,6 +116,7 @@ public class PatientServiceImpl
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
 
         Hospitalization hospitalization = patient.getStayingPatient().getHospitalization();
+        Long wardId = hospitalization.getHospitalWard().getId();
         Set<Nurse> nurseSet = hospitalization.getNurses();
 
         nurseSet.forEach(nurse -> nurse.removeHospitalization(hospitalization));
@@ -122,6 +134,11 @@ public class PatientServiceImpl
         patient.setLeftPatient(leftPatient);
 
         leftPatientRepo.save(leftPatient);
+        adjustOccupancy(wardId, -1);
+    }
 
+    private void adjustOccupancy(Long wardId, int delta) {
+        hospitalWardRepo.adjustOccupied(wardId, delta);
+        hospitalRepo.adjustOccupiedBeds(wardId, delta);
     }
 }
@@ -0,0 +1,58 @@
+package tbektenov.com.sau.services.implementation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.search.TypeaheadSuggestionDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.services.ITypeaheadService;
+import tbektenov.com.sau.services.search.TypeaheadIndex;
+
+import java.util.List;
+
+/**
+ * Service implementation answering typeahead queries from the in-memory {@link TypeaheadIndex}.
+ */
+@Service
+public class TypeaheadServiceImpl
+        implements ITypeaheadService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final TypeaheadIndex typeaheadIndex;
+
+    /**
+     * Constructs a TypeaheadServiceImpl.
+     *
+     * @param typeaheadIndex The index the suggestions are looked up in.
+     */
+    @Autowired
+    public TypeaheadServiceImpl(TypeaheadIndex typeaheadIndex) {
+        this.typeaheadIndex = typeaheadIndex;
+    }
+
+    /**
+     * Suggests the doctors, hospitals and private pharmacies matching the typed words.
+     *
+     * @param query The words typed so far.
+     * @param limit The maximum number of suggestions.
+     * @return The matching suggestions, empty if the query is blank.
+     * @throws InvalidArgumentsException if the limit is out of range or the query is too long.
+     */
+    @Override
+    @StatementBudget(3)
+    public List<TypeaheadSuggestionDTO> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidArgumentsException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidArgumentsException("Query cannot be longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+
+        return typeaheadIndex.suggest(query, limit);
+    }
+}
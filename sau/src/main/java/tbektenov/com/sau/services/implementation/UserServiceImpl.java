@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import tbektenov.com.sau.config.statements.StatementBudget;
 import tbektenov.com.sau.dtos.user.RegisterDTO;
 import tbektenov.com.sau.exceptions.ObjectNotFoundException;
 import tbektenov.com.sau.models.hospital.Hospital;
@@ -55,6 +56,7 @@ public class UserServiceImpl implements IUserService {
      */
     @Override
     @Transactional
+    @StatementBudget(8)
     public void registerUser(RegisterDTO registerDTO) {
         UserEntity user = createUserEntityFromDTO(registerDTO);
         Set<UserRole> userRoles = new HashSet<>();
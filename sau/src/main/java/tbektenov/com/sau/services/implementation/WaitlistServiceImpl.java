@@ -0,0 +1,255 @@
+package tbektenov.com.sau.services.implementation;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.dtos.waitlist.JoinWaitlistDTO;
+import tbektenov.com.sau.dtos.waitlist.WaitlistEntryDTO;
+import tbektenov.com.sau.events.AppointmentCancelledEvent;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.exceptions.SlotAlreadyBookedException;
+import tbektenov.com.sau.models.WaitlistEntry;
+import tbektenov.com.sau.models.WaitlistStatus;
+import tbektenov.com.sau.repositories.DoctorRepo;
+import tbektenov.com.sau.repositories.PatientRepo;
+import tbektenov.com.sau.repositories.WaitlistEntryRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.IWaitlistService;
+import tbektenov.com.sau.services.schedule.DoctorWaitlist;
+import tbektenov.com.sau.services.schedule.DoctorWaitlist.QueuedPatient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation for the waitlists of doctors.
+ *
+ * <p>Cancellations are picked up after their transaction commits and handed to a single
+ * background worker, so the cancelling request does not wait for the backfill. The worker
+ * books the freed slot for the next patient in the {@link DoctorWaitlist}; patients that
+ * cannot be booked are rejected and the next one is tried. If the slot was taken meanwhile,
+ * the patients keep waiting for the next cancellation.</p>
+ */
+@Service
+public class WaitlistServiceImpl
+        implements IWaitlistService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private final WaitlistEntryRepo waitlistEntryRepo;
+    private final DoctorRepo doctorRepo;
+    private final PatientRepo patientRepo;
+    private final IAppointmentService appointmentService;
+    private final DoctorWaitlist doctorWaitlist;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService backfillWorker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a WaitlistServiceImpl with the required dependencies.
+     *
+     * @param waitlistEntryRepo Repository for WaitlistEntry entities.
+     * @param doctorRepo Repository for Doctor entities.
+     * @param patientRepo Repository for Patient entities.
+     * @param appointmentService Service used to book freed slots.
+     * @param doctorWaitlist Queues of the waiting patients.
+     * @param transactionTemplate Template used to book a slot and update the entry in one transaction.
+     */
+    @Autowired
+    public WaitlistServiceImpl(WaitlistEntryRepo waitlistEntryRepo,
+                               DoctorRepo doctorRepo,
+                               PatientRepo patientRepo,
+                               IAppointmentService appointmentService,
+                               DoctorWaitlist doctorWaitlist,
+                               TransactionTemplate transactionTemplate) {
+        this.waitlistEntryRepo = waitlistEntryRepo;
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentService = appointmentService;
+        this.doctorWaitlist = doctorWaitlist;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Adds the patient to the waitlist of a doctor for a day.
+     *
+     * <p>The entry is added to the in-memory queue once the transaction commits.</p>
+     *
+     * @param patientId The ID of the patient.
+     * @param joinWaitlistDTO The doctor, day and priority of the request.
+     * @return The created WaitlistEntryDTO.
+     * @throws InvalidArgumentsException if the day is in the past or the patient is already waiting.
+     * @throws ObjectNotFoundException if the doctor or the patient does not exist.
+     */
+    @Override
+    @Transactional
+    @StatementBudget(6)
+    public WaitlistEntryDTO joinWaitlist(Long patientId, JoinWaitlistDTO joinWaitlistDTO) {
+        LocalDate date = joinWaitlistDTO.getDate();
+        if (date == null || date.isBefore(LocalDate.now())) {
+            throw new InvalidArgumentsException("Waitlist date must be today or later");
+        }
+
+        Long doctorId = joinWaitlistDTO.getDoctor_id();
+        if (doctorId == null || !doctorRepo.existsById(doctorId)) {
+            throw new ObjectNotFoundException("Doctor not found");
+        }
+
+        if (!patientRepo.existsById(patientId)) {
+            throw new ObjectNotFoundException("Patient not found");
+        }
+
+        if (waitlistEntryRepo.existsByPatientIdAndDoctorIdAndDateAndStatus(
+                patientId, doctorId, date, WaitlistStatus.WAITING)) {
+            throw new InvalidArgumentsException("Patient is already waiting for this doctor on this day");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepo.save(WaitlistEntry.builder()
+                .doctor(doctorRepo.getReferenceById(doctorId))
+                .patient(patientRepo.getReferenceById(patientId))
+                .date(date)
+                .priority(joinWaitlistDTO.getPriority())
+                .build());
+
+        QueuedPatient queued = new QueuedPatient(entry.getId(), patientId, entry.getPriority());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doctorWaitlist.add(doctorId, date, queued);
+            }
+        });
+
+        return mapToDto(entry, doctorId);
+    }
+
+    /**
+     * Retrieves all waitlist entries of the patient, newest first.
+     *
+     * @param patientId The ID of the patient.
+     * @return A list of the patient's WaitlistEntryDTOs.
+     */
+    @Override
+    @Transactional
+    @StatementBudget(1)
+    public List<WaitlistEntryDTO> getWaitlistEntries(Long patientId) {
+        return waitlistEntryRepo.findByPatientIdOrderByIdDesc(patientId).stream()
+                .map(entry -> mapToDto(entry, entry.getDoctor().getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hands a freed slot to the backfill worker once the cancellation has committed.
+     *
+     * @param event The cancellation that freed the slot.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentCancelled(AppointmentCancelledEvent event) {
+        if (event.startTime() == null || event.endTime() == null) {
+            return;
+        }
+        long cancelledAt = System.nanoTime();
+        backfillWorker.execute(() -> backfill(event, cancelledAt));
+    }
+
+    /**
+     * Books the freed slot for the next waiting patient that can take it.
+     */
+    private void backfill(AppointmentCancelledEvent event, long cancelledAt) {
+        while (true) {
+            Optional<QueuedPatient> next = doctorWaitlist.peek(event.doctorId(), event.date());
+            if (next.isEmpty()) {
+                return;
+            }
+
+            QueuedPatient patient = next.get();
+            try {
+                AppointmentDTO appointment = transactionTemplate.execute(status -> bookFor(patient, event));
+                doctorWaitlist.remove(event.doctorId(), event.date(), patient);
+                LOG.info("Backfilled slot of appointment {} with appointment {} for patient {} after {} ms",
+                        event.appointmentId(), appointment.getId(), patient.patientId(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cancelledAt));
+                return;
+            } catch (SlotAlreadyBookedException e) {
+                LOG.info("Slot of appointment {} was taken before it could be backfilled", event.appointmentId());
+                return;
+            } catch (InvalidArgumentsException | ObjectNotFoundException | ConstraintViolationException e) {
+                LOG.warn("Rejecting waitlist entry {}: {}", patient.entryId(), e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> updateStatus(patient.entryId(), WaitlistStatus.REJECTED, null));
+                doctorWaitlist.remove(event.doctorId(), event.date(), patient);
+            } catch (RuntimeException e) {
+                LOG.error("Could not backfill slot of appointment {}", event.appointmentId(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Books the freed slot for the patient and marks their entry fulfilled in the current transaction.
+     */
+    private AppointmentDTO bookFor(QueuedPatient patient, AppointmentCancelledEvent event) {
+        CreateAppointmentDTO createAppointmentDTO = new CreateAppointmentDTO();
+        createAppointmentDTO.setPatient_id(patient.patientId());
+        createAppointmentDTO.setDoctor_id(event.doctorId());
+        createAppointmentDTO.setDate(event.date());
+        createAppointmentDTO.setStartTime(event.startTime());
+        createAppointmentDTO.setEndTime(event.endTime());
+
+        AppointmentDTO appointment = appointmentService.createAppointment(createAppointmentDTO);
+        updateStatus(patient.entryId(), WaitlistStatus.FULFILLED, appointment.getId());
+        return appointment;
+    }
+
+    private void updateStatus(Long entryId, WaitlistStatus status, Long appointmentId) {
+        waitlistEntryRepo.findById(entryId).ifPresent(entry -> {
+            entry.setStatus(status);
+            entry.setAppointmentId(appointmentId);
+        });
+    }
+
+    /**
+     * Stops the backfill worker when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        backfillWorker.shutdown();
+    }
+
+    /**
+     * Maps a WaitlistEntry entity to a WaitlistEntryDTO.
+     *
+     * @param entry The WaitlistEntry entity to map.
+     * @param doctorId The ID of the entry's doctor.
+     * @return The mapped WaitlistEntryDTO.
+     */
+    private WaitlistEntryDTO mapToDto(WaitlistEntry entry, Long doctorId) {
+        WaitlistEntryDTO waitlistEntryDTO = new WaitlistEntryDTO();
+        waitlistEntryDTO.setId(entry.getId());
+        waitlistEntryDTO.setDoctorId(doctorId);
+        waitlistEntryDTO.setDate(entry.getDate());
+        waitlistEntryDTO.setPriority(entry.getPriority());
+        waitlistEntryDTO.setStatus(entry.getStatus());
+        waitlistEntryDTO.setCreatedAt(entry.getCreatedAt());
+        waitlistEntryDTO.setAppointmentId(entry.getAppointmentId());
+        return waitlistEntryDTO;
+    }
+}
@@ -0,0 +1,173 @@
+package tbektenov.com.sau.services.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.dtos.hospital.HospitalOccupancyDTO;
+import tbektenov.com.sau.dtos.hospital.OccupancyReconciliationDTO;
+import tbektenov.com.sau.dtos.hospital.WardOccupancyDTO;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.hospital.HospitalWard;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.repositories.HospitalWardRepo;
+import tbektenov.com.sau.services.IWardOccupancyService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Service implementation reporting occupancy from the counters kept by {@link PatientServiceImpl}.
+ *
+ * <p>Reports read the {@code occupied} counters of the wards and hospitals and the capacities of
+ * the wards; no hospitalization is loaded. The counters can drift when hospitalizations are
+ * changed outside of admission and discharge, for example when a hospital is deleted with its
+ * wards or rows are edited by hand, so a background job periodically counts the
+ * hospitalizations, logs every counter that differs and corrects it.</p>
+ */
+@Service
+public class WardOccupancyServiceImpl
+        implements IWardOccupancyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WardOccupancyServiceImpl.class);
+
+    private final HospitalRepo hospitalRepo;
+    private final HospitalWardRepo hospitalWardRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter correctedWards;
+    private final Counter correctedHospitals;
+
+    /**
+     * Constructs a WardOccupancyServiceImpl with the required dependencies.
+     *
+     * @param hospitalRepo Repository for Hospital entities and their occupancy counters.
+     * @param hospitalWardRepo Repository for HospitalWard entities and their occupancy counters.
+     * @param transactionTemplate Template used to run the reconciliation in one transaction.
+     * @param meterRegistry Registry the reconciliation metrics are published to.
+     */
+    @Autowired
+    public WardOccupancyServiceImpl(HospitalRepo hospitalRepo,
+                                    HospitalWardRepo hospitalWardRepo,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry) {
+        this.hospitalRepo = hospitalRepo;
+        this.hospitalWardRepo = hospitalWardRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.correctedWards = meterRegistry.counter("hospitals.occupancy.corrections", "level", "ward");
+        this.correctedHospitals = meterRegistry.counter("hospitals.occupancy.corrections", "level", "hospital");
+    }
+
+    /**
+     * Reports the occupancy of every hospital, without the occupancy of its wards.
+     *
+     * @return The occupancy of each hospital, ordered by ID.
+     */
+    @Override
+    @StatementBudget(1)
+    public List<HospitalOccupancyDTO> getHospitalOccupancy() {
+        List<HospitalOccupancyDTO> occupancy = new ArrayList<>();
+        for (Object[] row : hospitalRepo.findOccupancy()) {
+            occupancy.add(hospitalOccupancy((Long) row[0], (String) row[1],
+                    ((Number) row[2]).longValue(), ((Number) row[3]).longValue()));
+        }
+        return occupancy;
+    }
+
+    /**
+     * Reports the occupancy of a hospital and each of its wards.
+     *
+     * @param hospitalId The ID of the hospital.
+     * @return The occupancy of the hospital and its wards.
+     * @throws ObjectNotFoundException if the hospital does not exist.
+     */
+    @Override
+    @Transactional
+    @StatementBudget(2)
+    public HospitalOccupancyDTO getHospitalOccupancy(Long hospitalId) {
+        Hospital hospital = hospitalRepo.findPlainById(hospitalId)
+                .orElseThrow(() -> new ObjectNotFoundException("Hospital not found."));
+
+        List<WardOccupancyDTO> wards = new ArrayList<>();
+        long capacity = 0;
+        for (HospitalWard ward : hospitalWardRepo.findPlainByHospitalId(hospitalId)) {
+            WardOccupancyDTO dto = new WardOccupancyDTO();
+            dto.setWardId(ward.getId());
+            dto.setWardNum(ward.getWardNum());
+            dto.setCapacity(ward.getCapacity());
+            dto.setOccupied(ward.getOccupied());
+            dto.setFree(Math.max(ward.getCapacity() - ward.getOccupied(), 0));
+            wards.add(dto);
+            capacity += ward.getCapacity();
+        }
+
+        HospitalOccupancyDTO occupancy = hospitalOccupancy(hospital.getId(), hospital.getName(),
+                capacity, hospital.getOccupiedBeds());
+        occupancy.setWards(wards);
+        return occupancy;
+    }
+
+    /**
+     * Compares the occupancy counters of every ward and hospital with their hospitalizations
+     * and corrects the counters that differ. Runs with the configured delay between runs.
+     *
+     * <p>The corrections set each counter from a count taken in the same statement, and the
+     * admission and discharge paths only add to the counters, so a patient admitted while the
+     * job runs is neither lost nor counted twice.</p>
+     *
+     * @return An OccupancyReconciliationDTO summarizing the run.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${hospitals.occupancy.reconcile-delay-ms:3600000}",
+            fixedDelayString = "${hospitals.occupancy.reconcile-delay-ms:3600000}")
+    public synchronized OccupancyReconciliationDTO reconcileOccupancy() {
+        long started = System.nanoTime();
+        OccupancyReconciliationDTO result = transactionTemplate.execute(status -> {
+            OccupancyReconciliationDTO run = new OccupancyReconciliationDTO();
+            run.setWardsCorrected(correct("ward", hospitalWardRepo.findOccupancyDrift(),
+                    hospitalWardRepo::reconcileOccupied));
+            run.setHospitalsCorrected(correct("hospital", hospitalRepo.findOccupiedBedsDrift(),
+                    hospitalRepo::reconcileOccupiedBeds));
+            return run;
+        });
+        correctedWards.increment(result.getWardsCorrected());
+        correctedHospitals.increment(result.getHospitalsCorrected());
+        result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+
+        if (result.getWardsCorrected() > 0 || result.getHospitalsCorrected() > 0) {
+            LOG.warn("Corrected the occupancy of {} wards and {} hospitals in {} ms",
+                    result.getWardsCorrected(), result.getHospitalsCorrected(), result.getDurationMillis());
+        }
+        return result;
+    }
+
+    private static int correct(String level, List<Object[]> drift, Function<List<Long>, Integer> reconcile) {
+        if (drift.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(drift.size());
+        for (Object[] row : drift) {
+            LOG.warn("Occupancy of {} {} counted {} beds, {} are occupied", level, row[0], row[1], row[2]);
+            ids.add((Long) row[0]);
+        }
+        reconcile.apply(ids);
+        return ids.size();
+    }
+
+    private static HospitalOccupancyDTO hospitalOccupancy(Long hospitalId, String name, long capacity, long occupied) {
+        HospitalOccupancyDTO occupancy = new HospitalOccupancyDTO();
+        occupancy.setHospitalId(hospitalId);
+        occupancy.setName(name);
+        occupancy.setCapacity(capacity);
+        occupancy.setOccupied(occupied);
+        occupancy.setFree(Math.max(capacity - occupied, 0));
+        return occupancy;
+    }
+}
@@ -0,0 +1,20 @@
+package tbektenov.com.sau.services.notification;
+
+import tbektenov.com.sau.dtos.appointment.AppointmentReminderDTO;
+import tbektenov.com.sau.exceptions.NotificationFailedException;
+
+/**
+ * Channel delivering appointment reminders to patients.
+ *
+ * <p>Implementations are called concurrently from the reminder dispatcher and must be thread-safe.
+ * They must not use the database, so slow deliveries never hold a JDBC connection.</p>
+ */
+public interface IAppointmentNotifier {
+    /**
+     * Delivers the reminder to the patient.
+     *
+     * @param reminder The reminder to deliver.
+     * @throws NotificationFailedException if the reminder could not be delivered.
+     */
+    void sendReminder(AppointmentReminderDTO reminder);
+}
@@ -0,0 +1,57 @@
+package tbektenov.com.sau.services.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tbektenov.com.sau.dtos.appointment.AppointmentReminderDTO;
+import tbektenov.com.sau.exceptions.NotificationFailedException;
+
+/**
+ * Local stand-in for an SMTP notifier that logs reminders instead of mailing them.
+ *
+ * <p>An optional delay per reminder simulates the round trip to a mail server. Active unless
+ * {@code appointments.reminders.notifier} selects another notifier.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "appointments.reminders.notifier", havingValue = "log", matchIfMissing = true)
+public class LoggingAppointmentNotifier
+        implements IAppointmentNotifier {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoggingAppointmentNotifier.class);
+
+    private final long latencyMillis;
+
+    /**
+     * Constructs a LoggingAppointmentNotifier.
+     *
+     * @param latencyMillis Simulated delivery time of one reminder.
+     */
+    public LoggingAppointmentNotifier(@Value("${appointments.reminders.stub-latency-ms:0}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Logs the reminder as if it were mailed to the patient.
+     *
+     * @param reminder The reminder to deliver.
+     * @throws NotificationFailedException if the delivery is interrupted.
+     */
+    @Override
+    public void sendReminder(AppointmentReminderDTO reminder) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NotificationFailedException("Reminder delivery interrupted", e);
+            }
+        }
+
+        LOG.debug("Reminder to {} <{}>: {} appointment at {} on {} {}",
+                reminder.getPatientName(), reminder.getEmail(), reminder.getSpecialization(),
+                reminder.getHospital(), reminder.getDate(),
+                reminder.getStartTime() != null ? reminder.getStartTime() : "");
+    }
+}
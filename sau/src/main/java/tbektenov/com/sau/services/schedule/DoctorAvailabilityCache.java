@@ -0,0 +1,148 @@
+package tbektenov.com.sau.services.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory counters of the upcoming appointments booked per doctor and day.
+ *
+ * <p>The counters are built once from a grouped query the first time they are needed and are
+ * then maintained incrementally: a booking increments, a cancellation decrements and an
+ * archival run drops the days it archived. Reading a counter never touches the
+ * APPOINTMENTS table.</p>
+ *
+ * <p>Changes made inside a transaction are applied only after it commits, so rolled back
+ * bookings are never counted. The counters are built in a separate transaction, so the
+ * uncommitted changes of the caller are not counted twice. Appointments inserted directly through the repository bypass
+ * the counters until {@link #reset()} is called.</p>
+ */
+@Component
+public class DoctorAvailabilityCache {
+
+    private final AppointmentRepo appointmentRepo;
+    private final TransactionTemplate loadTransaction;
+    private final ConcurrentMap<Long, ConcurrentNavigableMap<LocalDate, Integer>> counters = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Constructs a DoctorAvailabilityCache backed by the given repository.
+     *
+     * @param appointmentRepo repository used to build the counters on first access
+     * @param transactionManager transaction manager used to build the counters in their own transaction
+     */
+    @Autowired
+    public DoctorAvailabilityCache(AppointmentRepo appointmentRepo,
+                                   PlatformTransactionManager transactionManager) {
+        this.appointmentRepo = appointmentRepo;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Counts a new booking of the doctor on the given day once the current transaction commits.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day of the appointment
+     */
+    public void recordBooking(Long doctorId, LocalDate date) {
+        ensureLoaded();
+        afterCommit(() -> adjust(doctorId, date, 1));
+    }
+
+    /**
+     * Removes a cancelled booking of the doctor on the given day once the current transaction commits.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day of the appointment
+     */
+    public void recordCancellation(Long doctorId, LocalDate date) {
+        ensureLoaded();
+        afterCommit(() -> adjust(doctorId, date, -1));
+    }
+
+    /**
+     * Drops the counters of all days before the given one, as their appointments are archived.
+     *
+     * @param cutoffDate the first day that is still counted
+     */
+    public void pruneBefore(LocalDate cutoffDate) {
+        counters.values().forEach(days -> days.headMap(cutoffDate).clear());
+    }
+
+    /**
+     * Returns the number of upcoming appointments of the doctor on the given day.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day
+     * @return the number of booked appointments, zero if there are none
+     */
+    public int getBooked(Long doctorId, LocalDate date) {
+        ensureLoaded();
+        ConcurrentNavigableMap<LocalDate, Integer> days = counters.get(doctorId);
+        return days == null ? 0 : days.getOrDefault(date, 0);
+    }
+
+    /**
+     * Discards all counters, so they are rebuilt from the database on next access.
+     */
+    public synchronized void reset() {
+        counters.clear();
+        loaded = false;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        List<Object[]> rows = loadTransaction.execute(
+                status -> appointmentRepo.countByDoctorAndDate(AppointmentStatus.UPCOMING, LocalDate.now()));
+        for (Object[] row : rows) {
+            counters.computeIfAbsent((Long) row[0], id -> new ConcurrentSkipListMap<>())
+                    .put((LocalDate) row[1], ((Long) row[2]).intValue());
+        }
+        loaded = true;
+    }
+
+    private void adjust(Long doctorId, LocalDate date, int delta) {
+        counters.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>())
+                .compute(date, (day, count) -> {
+                    int next = (count == null ? 0 : count) + delta;
+                    return next > 0 ? next : null;
+                });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
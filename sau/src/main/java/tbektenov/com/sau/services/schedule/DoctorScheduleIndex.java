@@ -0,0 +1,184 @@
+package tbektenov.com.sau.services.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of the booked time slots of every doctor.
+ *
+ * <p>Each doctor has a {@link TreeMap} of non-overlapping intervals keyed by their start,
+ * so a conflict check only has to look at the nearest neighbours of the requested slot,
+ * which costs O(log n) regardless of how many appointments the doctor has.</p>
+ *
+ * <p>The schedule of a doctor is loaded from the database the first time it is needed.
+ * Reservations made inside a transaction are released again if that transaction rolls back.</p>
+ */
+@Component
+public class DoctorScheduleIndex {
+
+    private final AppointmentRepo appointmentRepo;
+    private final ConcurrentMap<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a DoctorScheduleIndex backed by the given repository.
+     *
+     * @param appointmentRepo repository used to load the schedules of doctors
+     */
+    @Autowired
+    public DoctorScheduleIndex(AppointmentRepo appointmentRepo) {
+        this.appointmentRepo = appointmentRepo;
+    }
+
+    /**
+     * Reserves the time slot for the doctor if it does not overlap any booked slot.
+     *
+     * @param doctorId the ID of the doctor
+     * @param start the start of the slot
+     * @param end the end of the slot
+     * @return true if the slot was reserved, false if it overlaps an existing one
+     */
+    public boolean reserve(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        DoctorSchedule schedule = scheduleOf(doctorId);
+        if (!schedule.reserve(start, end)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        schedule.release(start, end);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Releases a previously reserved time slot of the doctor.
+     *
+     * @param doctorId the ID of the doctor
+     * @param start the start of the slot
+     * @param end the end of the slot
+     */
+    public void release(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        DoctorSchedule schedule = schedules.get(doctorId);
+        if (schedule != null) {
+            schedule.release(start, end);
+        }
+    }
+
+    /**
+     * Releases a reserved time slot of the doctor once the current transaction commits,
+     * or right away if there is no transaction.
+     *
+     * @param doctorId the ID of the doctor
+     * @param start the start of the slot
+     * @param end the end of the slot
+     */
+    public void releaseOnCommit(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(doctorId, start, end);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(doctorId, start, end);
+            }
+        });
+    }
+
+    /**
+     * Checks whether the time slot of the doctor is free.
+     *
+     * @param doctorId the ID of the doctor
+     * @param start the start of the slot
+     * @param end the end of the slot
+     * @return true if the slot does not overlap any booked slot
+     */
+    public boolean isFree(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        return scheduleOf(doctorId).isFree(start, end);
+    }
+
+    /**
+     * Removes all slots that start before the given moment from the loaded schedules.
+     *
+     * @param cutoff the moment before which slots are no longer tracked
+     */
+    public void pruneBefore(LocalDateTime cutoff) {
+        schedules.values().forEach(schedule -> schedule.pruneBefore(cutoff));
+    }
+
+    /**
+     * Drops the cached schedule of the doctor, so it is reloaded on next access.
+     *
+     * @param doctorId the ID of the doctor
+     */
+    public void evict(Long doctorId) {
+        schedules.remove(doctorId);
+    }
+
+    private DoctorSchedule scheduleOf(Long doctorId) {
+        return schedules.computeIfAbsent(doctorId, this::load);
+    }
+
+    private DoctorSchedule load(Long doctorId) {
+        DoctorSchedule schedule = new DoctorSchedule();
+        for (Appointment appointment : appointmentRepo.findByDoctorIdAndAppointmentStatusAndStartTimeIsNotNull(
+                doctorId, AppointmentStatus.UPCOMING)) {
+            if (appointment.getEnd() != null) {
+                schedule.reserve(appointment.getStart(), appointment.getEnd());
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Booked, non-overlapping slots of a single doctor.
+     */
+    private static final class DoctorSchedule {
+        private final NavigableMap<LocalDateTime, LocalDateTime> slots = new TreeMap<>();
+
+        synchronized boolean reserve(LocalDateTime start, LocalDateTime end) {
+            if (!isFree(start, end)) {
+                return false;
+            }
+            slots.put(start, end);
+            return true;
+        }
+
+        synchronized void release(LocalDateTime start, LocalDateTime end) {
+            slots.remove(start, end);
+        }
+
+        synchronized void pruneBefore(LocalDateTime cutoff) {
+            slots.headMap(cutoff).clear();
+        }
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = slots.floorEntry(start);
+            if (before != null && before.getValue().isAfter(start)) {
+                return false;
+            }
+
+            LocalDateTime nextStart = slots.ceilingKey(start);
+            return nextStart == null || !nextStart.isBefore(end);
+        }
+    }
+}
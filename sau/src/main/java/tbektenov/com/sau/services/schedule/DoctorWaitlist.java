@@ -0,0 +1,178 @@
+package tbektenov.com.sau.services.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tbektenov.com.sau.models.WaitlistStatus;
+import tbektenov.com.sau.repositories.WaitlistEntryRepo;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory priority queues of the patients waiting for a doctor on a given day.
+ *
+ * <p>Each queue serves the highest priority first and, within a priority, the entry that
+ * joined first. Entries are persisted as {@code WaitlistEntry} rows; the queue of a doctor and
+ * day is loaded from them the first time it is needed, so waiting patients survive restarts.
+ * A queue is only kept while patients wait in it: it is dropped once its last patient is
+ * removed and once its day has passed, and a queue loaded empty is not kept at all. The rows
+ * remain the source of truth, so a dropped queue is simply loaded again if needed.</p>
+ */
+@Component
+public class DoctorWaitlist {
+
+    private static final Comparator<QueuedPatient> SERVING_ORDER = Comparator
+            .comparingInt(QueuedPatient::priority).reversed()
+            .thenComparingLong(QueuedPatient::entryId);
+
+    private final WaitlistEntryRepo waitlistEntryRepo;
+    private final ConcurrentMap<WaitlistKey, PriorityQueue<QueuedPatient>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a DoctorWaitlist backed by the given repository.
+     *
+     * @param waitlistEntryRepo repository used to load the queues
+     */
+    @Autowired
+    public DoctorWaitlist(WaitlistEntryRepo waitlistEntryRepo) {
+        this.waitlistEntryRepo = waitlistEntryRepo;
+    }
+
+    /**
+     * Adds a persisted waitlist entry to the queue of the doctor and day.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day of the waitlist
+     * @param patient the waiting patient
+     */
+    public void add(Long doctorId, LocalDate date, QueuedPatient patient) {
+        WaitlistKey key = new WaitlistKey(doctorId, date);
+        while (true) {
+            PriorityQueue<QueuedPatient> queue = queues.computeIfAbsent(key, this::load);
+            synchronized (queue) {
+                if (queues.get(key) != queue) {
+                    continue;
+                }
+                if (!queue.contains(patient)) {
+                    queue.add(patient);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the patient that is served next for the doctor and day, without removing them.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day of the waitlist
+     * @return the next waiting patient, or empty if nobody waits
+     */
+    public Optional<QueuedPatient> peek(Long doctorId, LocalDate date) {
+        PriorityQueue<QueuedPatient> queue = queueOf(new WaitlistKey(doctorId, date));
+        synchronized (queue) {
+            return Optional.ofNullable(queue.peek());
+        }
+    }
+
+    /**
+     * Removes the entry from the queue of the doctor and day.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day of the waitlist
+     * @param patient the entry to remove
+     */
+    public void remove(Long doctorId, LocalDate date, QueuedPatient patient) {
+        WaitlistKey key = new WaitlistKey(doctorId, date);
+        PriorityQueue<QueuedPatient> queue = queues.get(key);
+        if (queue != null) {
+            synchronized (queue) {
+                if (queue.remove(patient) && queue.isEmpty()) {
+                    queues.remove(key, queue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of patients waiting for the doctor on the given day.
+     *
+     * @param doctorId the ID of the doctor
+     * @param date the day of the waitlist
+     * @return the length of the queue
+     */
+    public int size(Long doctorId, LocalDate date) {
+        PriorityQueue<QueuedPatient> queue = queueOf(new WaitlistKey(doctorId, date));
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Returns the number of queues held in memory.
+     *
+     * @return the number of loaded queues
+     */
+    public int loadedQueues() {
+        return queues.size();
+    }
+
+    /**
+     * Drops the queues of the days before the given one.
+     *
+     * @param date the first day whose queues are kept
+     */
+    public void pruneBefore(LocalDate date) {
+        queues.keySet().removeIf(key -> key.date().isBefore(date));
+    }
+
+    /**
+     * Drops all loaded queues, so they are reloaded from the database on next access.
+     */
+    public void evictAll() {
+        queues.clear();
+    }
+
+    /**
+     * Returns the queue of the doctor and day, loading it if needed. A queue loaded empty is
+     * returned without being kept.
+     */
+    private PriorityQueue<QueuedPatient> queueOf(WaitlistKey key) {
+        PriorityQueue<QueuedPatient> queue = queues.get(key);
+        if (queue != null) {
+            return queue;
+        }
+
+        queue = load(key);
+        if (queue.isEmpty()) {
+            return queue;
+        }
+        PriorityQueue<QueuedPatient> loaded = queues.putIfAbsent(key, queue);
+        return loaded != null ? loaded : queue;
+    }
+
+    private PriorityQueue<QueuedPatient> load(WaitlistKey key) {
+        PriorityQueue<QueuedPatient> queue = new PriorityQueue<>(SERVING_ORDER);
+        for (Object[] row : waitlistEntryRepo.findQueue(key.doctorId(), key.date(), WaitlistStatus.WAITING)) {
+            queue.add(new QueuedPatient((Long) row[0], (Long) row[1], (Integer) row[2]));
+        }
+        return queue;
+    }
+
+    /**
+     * A waiting patient as held in a queue.
+     *
+     * @param entryId the ID of the persisted waitlist entry
+     * @param patientId the ID of the waiting patient
+     * @param priority the priority of the entry
+     */
+    public record QueuedPatient(Long entryId, Long patientId, int priority) {
+    }
+
+    private record WaitlistKey(Long doctorId, LocalDate date) {
+    }
+}
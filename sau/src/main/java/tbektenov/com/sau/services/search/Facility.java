@@ -0,0 +1,59 @@
+package tbektenov.com.sau.services.search;
+
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+
+/**
+ * A located facility of the {@link FacilityLocationIndex}.
+ *
+ * <p>Besides its coordinates in degrees, the facility keeps its position as a unit vector.
+ * The straight-line distance between two such vectors grows with the great-circle distance of
+ * the points, so nearest neighbours can be searched with plain Euclidean geometry, without
+ * special cases at the poles or the antimeridian.</p>
+ *
+ * @param type the kind of the facility
+ * @param id the ID of the hospital or private pharmacy
+ * @param name the name of the facility
+ * @param address the address of the facility
+ * @param latitude the latitude in degrees
+ * @param longitude the longitude in degrees
+ * @param x the first coordinate of the unit vector
+ * @param y the second coordinate of the unit vector
+ * @param z the third coordinate of the unit vector
+ */
+record Facility(FacilityType type, Long id, String name, String address,
+                double latitude, double longitude, double x, double y, double z) {
+
+    /**
+     * The mean radius of the earth in kilometres.
+     */
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    static Facility of(FacilityType type, Long id, String name, String address, double latitude, double longitude) {
+        double[] vector = unitVector(latitude, longitude);
+        return new Facility(type, id, name, address, latitude, longitude, vector[0], vector[1], vector[2]);
+    }
+
+    static double[] unitVector(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double cosPhi = Math.cos(phi);
+        return new double[]{cosPhi * Math.cos(lambda), cosPhi * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    double coordinate(int axis) {
+        return axis == 0 ? x : axis == 1 ? y : z;
+    }
+
+    double squaredChordTo(double[] vector) {
+        double dx = x - vector[0];
+        double dy = y - vector[1];
+        double dz = z - vector[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    NearbyFacilityDTO toDto(double squaredChord) {
+        double distanceKm = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(squaredChord) / 2));
+        return new NearbyFacilityDTO(type, id, name, address, latitude, longitude, distanceKm);
+    }
+}
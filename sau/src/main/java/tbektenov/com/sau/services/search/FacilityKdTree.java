@@ -0,0 +1,122 @@
+package tbektenov.com.sau.services.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, balanced k-d tree over the unit vectors of facilities.
+ *
+ * <p>The tree is stored implicitly in one array: the node of a range is its middle element,
+ * which splits the range on the axis of its depth, and the halves left and right of it are its
+ * subtrees. Building it costs O(n log n) and a nearest-neighbour search visits O(log n) nodes
+ * for evenly spread facilities.</p>
+ */
+final class FacilityKdTree {
+
+    private final Facility[] nodes;
+    private final Map<Long, Facility> byId;
+
+    FacilityKdTree(Collection<Facility> facilities) {
+        this.nodes = facilities.toArray(new Facility[0]);
+        this.byId = new HashMap<>(nodes.length * 2);
+        for (Facility facility : nodes) {
+            byId.put(facility.id(), facility);
+        }
+        build(0, nodes.length, 0);
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    Facility get(Long id) {
+        return byId.get(id);
+    }
+
+    Collection<Facility> facilities() {
+        return Arrays.asList(nodes);
+    }
+
+    /**
+     * Offers the accepted facilities that may be among the nearest to a point.
+     *
+     * @param vector the unit vector of the point
+     * @param accepted the facilities that may be offered
+     * @param nearest the collector of the nearest facilities
+     */
+    void nearest(double[] vector, Predicate<Facility> accepted, NearestFacilities nearest) {
+        search(0, nodes.length, 0, vector, accepted, nearest);
+    }
+
+    private void search(int lo, int hi, int axis, double[] vector,
+                        Predicate<Facility> accepted, NearestFacilities nearest) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        Facility node = nodes[mid];
+        if (accepted.test(node)) {
+            nearest.offer(node, node.squaredChordTo(vector));
+        }
+
+        int next = axis == 2 ? 0 : axis + 1;
+        double offset = vector[axis] - node.coordinate(axis);
+        if (offset < 0) {
+            search(lo, mid, next, vector, accepted, nearest);
+            if (offset * offset < nearest.bound()) {
+                search(mid + 1, hi, next, vector, accepted, nearest);
+            }
+        } else {
+            search(mid + 1, hi, next, vector, accepted, nearest);
+            if (offset * offset < nearest.bound()) {
+                search(lo, mid, next, vector, accepted, nearest);
+            }
+        }
+    }
+
+    private void build(int lo, int hi, int axis) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        int next = axis == 2 ? 0 : axis + 1;
+        build(lo, mid, next);
+        build(mid + 1, hi, next);
+    }
+
+    /**
+     * Moves the element of rank {@code k} on the axis to index {@code k}, smaller ones before it
+     * and larger ones after it, using quickselect.
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            double pivot = nodes[(lo + hi) >>> 1].coordinate(axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (nodes[i].coordinate(axis) < pivot) {
+                    i++;
+                }
+                while (nodes[j].coordinate(axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    Facility swapped = nodes[i];
+                    nodes[i++] = nodes[j];
+                    nodes[j--] = swapped;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+}
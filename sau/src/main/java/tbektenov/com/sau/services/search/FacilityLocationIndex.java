@@ -0,0 +1,393 @@
+package tbektenov.com.sau.services.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.repositories.DoctorRepo;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.repositories.PrivatePharmacyRepo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of the located hospitals and private pharmacies, answering which of them
+ * are nearest to a point.
+ *
+ * <p>Each kind of facility is kept in a balanced {@link FacilityKdTree}. Changes are not
+ * applied to the tree itself: added and moved facilities are kept in a small list searched
+ * alongside it, and removed or moved ones are skipped in it. Once there are more of these than
+ * the square root of the facilities, the tree is rebuilt from the current facilities. Every
+ * change publishes a new immutable state, so lookups do not lock.</p>
+ *
+ * <p>The facilities are loaded on first access in their own read-only transaction and then
+ * kept current by {@link FacilityLocationIndexUpdater}. Changes are serialized with loading,
+ * so a change committed while the index loads is applied on top of the loaded state.</p>
+ *
+ * <p>The filters, the specializations of each hospital's doctors and the partner pharmacies
+ * of each hospital, are loaded on first use and dropped when the updater reports a change.
+ * Filters matching few facilities are answered by measuring the distance to each of them
+ * instead of searching the tree.</p>
+ */
+@Component
+public class FacilityLocationIndex {
+
+    /**
+     * Filters matching at most this many facilities are answered without the tree.
+     */
+    static final int BRUTE_FORCE_LIMIT = 256;
+    private static final int MIN_PENDING_CHANGES = 64;
+
+    private final HospitalRepo hospitalRepo;
+    private final PrivatePharmacyRepo privatePharmacyRepo;
+    private final TransactionTemplate loadTransaction;
+    private final Derived<Map<Specialization, Set<Long>>> hospitalsBySpecialization;
+    private final Derived<Map<Long, Set<Long>>> pharmaciesByPartner;
+    private volatile Map<FacilityType, Locations> locations;
+
+    /**
+     * Constructs a FacilityLocationIndex loading its facilities from the given repositories.
+     *
+     * @param hospitalRepo repository of the hospitals
+     * @param privatePharmacyRepo repository of the private pharmacies and their partnerships
+     * @param doctorRepo repository of the doctors, whose specializations filter the hospitals
+     * @param transactionManager transaction manager used to load the index in its own transaction
+     */
+    @Autowired
+    public FacilityLocationIndex(HospitalRepo hospitalRepo,
+                                 PrivatePharmacyRepo privatePharmacyRepo,
+                                 DoctorRepo doctorRepo,
+                                 PlatformTransactionManager transactionManager) {
+        this.hospitalRepo = hospitalRepo;
+        this.privatePharmacyRepo = privatePharmacyRepo;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.hospitalsBySpecialization = new Derived<>(() -> group(doctorRepo.findHospitalSpecializations(),
+                row -> (Specialization) row[1], row -> (Long) row[0], () -> new EnumMap<>(Specialization.class)));
+        this.pharmaciesByPartner = new Derived<>(() -> group(privatePharmacyRepo.findPartnerships(),
+                row -> (Long) row[0], row -> (Long) row[1], HashMap::new));
+    }
+
+    /**
+     * Returns the facilities of a kind nearest to a point, nearest first.
+     *
+     * @param type the kind of facilities
+     * @param latitude the latitude of the point in degrees
+     * @param longitude the longitude of the point in degrees
+     * @param limit the maximum number of facilities
+     * @return the nearest facilities with their distance
+     */
+    public List<NearbyFacilityDTO> nearest(FacilityType type, double latitude, double longitude, int limit) {
+        double[] vector = Facility.unitVector(latitude, longitude);
+        NearestFacilities nearest = new NearestFacilities(limit);
+        loaded().get(type).nearest(vector, facility -> true, nearest);
+        return nearest.toDtos();
+    }
+
+    /**
+     * Returns the facilities of a kind nearest to a point among the given ones, nearest first.
+     * IDs of facilities that are not located are ignored.
+     *
+     * @param type the kind of facilities
+     * @param latitude the latitude of the point in degrees
+     * @param longitude the longitude of the point in degrees
+     * @param candidates the IDs of the facilities to choose from
+     * @param limit the maximum number of facilities
+     * @return the nearest candidates with their distance
+     */
+    public List<NearbyFacilityDTO> nearest(FacilityType type, double latitude, double longitude,
+                                           Set<Long> candidates, int limit) {
+        double[] vector = Facility.unitVector(latitude, longitude);
+        NearestFacilities nearest = new NearestFacilities(limit);
+        Locations current = loaded().get(type);
+        if (candidates.size() <= BRUTE_FORCE_LIMIT) {
+            for (Long id : candidates) {
+                Facility facility = current.get(id);
+                if (facility != null) {
+                    nearest.offer(facility, facility.squaredChordTo(vector));
+                }
+            }
+        } else {
+            current.nearest(vector, facility -> candidates.contains(facility.id()), nearest);
+        }
+        return nearest.toDtos();
+    }
+
+    /**
+     * Returns the IDs of the hospitals with at least one doctor of a specialization.
+     *
+     * @param specialization the specialization
+     * @return the IDs of the hospitals, located or not
+     */
+    public Set<Long> hospitalsWith(Specialization specialization) {
+        return hospitalsBySpecialization.get().getOrDefault(specialization, Set.of());
+    }
+
+    /**
+     * Returns the IDs of the private pharmacies in partnership with a hospital.
+     *
+     * @param hospitalId the ID of the hospital
+     * @return the IDs of the partner pharmacies, located or not
+     */
+    public Set<Long> partnerPharmaciesOf(Long hospitalId) {
+        return pharmaciesByPartner.get().getOrDefault(hospitalId, Set.of());
+    }
+
+    /**
+     * Indexes a hospital, replacing an earlier entry of it. A hospital without both
+     * coordinates is removed instead.
+     *
+     * @param id the ID of the hospital
+     * @param name the hospital's name
+     * @param address the hospital's address
+     * @param latitude the hospital's latitude in degrees, or null
+     * @param longitude the hospital's longitude in degrees, or null
+     */
+    public void putHospital(Long id, String name, String address, Double latitude, Double longitude) {
+        put(FacilityType.HOSPITAL, id, name, address, latitude, longitude);
+    }
+
+    /**
+     * Indexes a private pharmacy, replacing an earlier entry of it. A pharmacy without both
+     * coordinates is removed instead.
+     *
+     * @param id the ID of the pharmacy
+     * @param name the pharmacy's name
+     * @param address the pharmacy's address
+     * @param latitude the pharmacy's latitude in degrees, or null
+     * @param longitude the pharmacy's longitude in degrees, or null
+     */
+    public void putPharmacy(Long id, String name, String address, Double latitude, Double longitude) {
+        put(FacilityType.PHARMACY, id, name, address, latitude, longitude);
+    }
+
+    /**
+     * Removes a facility from the index.
+     *
+     * @param type the kind of the facility
+     * @param id the ID of the facility
+     */
+    public synchronized void remove(FacilityType type, Long id) {
+        Map<FacilityType, Locations> current = locations;
+        if (current != null) {
+            locations = with(current, type, current.get(type).remove(id));
+        }
+    }
+
+    /**
+     * Drops the specializations of the hospitals, so they are loaded again on next use.
+     */
+    public void invalidateSpecializations() {
+        hospitalsBySpecialization.invalidate();
+    }
+
+    /**
+     * Drops the partnerships of the pharmacies, so they are loaded again on next use.
+     */
+    public void invalidatePartnerships() {
+        pharmaciesByPartner.invalidate();
+    }
+
+    /**
+     * Discards the index and its filters, so they are loaded from the database on next access.
+     */
+    public synchronized void reset() {
+        locations = null;
+        invalidateSpecializations();
+        invalidatePartnerships();
+    }
+
+    /**
+     * Returns the number of indexed facilities of a kind.
+     *
+     * @param type the kind of facilities
+     * @return the number of located facilities
+     */
+    public int size(FacilityType type) {
+        return loaded().get(type).size();
+    }
+
+    private synchronized void put(FacilityType type, Long id, String name, String address,
+                                  Double latitude, Double longitude) {
+        Map<FacilityType, Locations> current = locations;
+        if (current == null) {
+            return;
+        }
+        Locations changed = latitude == null || longitude == null
+                ? current.get(type).remove(id)
+                : current.get(type).put(Facility.of(type, id, name, address, latitude, longitude));
+        locations = with(current, type, changed);
+    }
+
+    private Map<FacilityType, Locations> loaded() {
+        Map<FacilityType, Locations> current = locations;
+        return current != null ? current : load();
+    }
+
+    private synchronized Map<FacilityType, Locations> load() {
+        if (locations != null) {
+            return locations;
+        }
+        Map<FacilityType, Locations> loaded = loadTransaction.execute(status -> {
+            List<Facility> hospitals = new ArrayList<>();
+            for (Hospital hospital : hospitalRepo.findLocated()) {
+                hospitals.add(Facility.of(FacilityType.HOSPITAL, hospital.getId(), hospital.getName(),
+                        hospital.getAddress(), hospital.getLatitude(), hospital.getLongitude()));
+            }
+            List<Facility> pharmacies = new ArrayList<>();
+            for (PrivatePharmacy pharmacy : privatePharmacyRepo.findLocated()) {
+                pharmacies.add(Facility.of(FacilityType.PHARMACY, pharmacy.getId(), pharmacy.getName(),
+                        pharmacy.getAddress(), pharmacy.getLatitude(), pharmacy.getLongitude()));
+            }
+            Map<FacilityType, Locations> byType = new EnumMap<>(FacilityType.class);
+            byType.put(FacilityType.HOSPITAL, Locations.of(hospitals));
+            byType.put(FacilityType.PHARMACY, Locations.of(pharmacies));
+            return byType;
+        });
+        locations = loaded;
+        return loaded;
+    }
+
+    private static Map<FacilityType, Locations> with(Map<FacilityType, Locations> current,
+                                                     FacilityType type, Locations changed) {
+        Map<FacilityType, Locations> copy = new EnumMap<>(current);
+        copy.put(type, changed);
+        return copy;
+    }
+
+    private static <K> Map<K, Set<Long>> group(List<Object[]> rows, Function<Object[], K> key,
+                                               Function<Object[], Long> value, Supplier<Map<K, Set<Long>>> factory) {
+        Map<K, Set<Long>> grouped = factory.get();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent(key.apply(row), k -> new HashSet<>()).add(value.apply(row));
+        }
+        return grouped;
+    }
+
+    /**
+     * The facilities of one kind: a tree built at some point, the facilities added or moved
+     * since then and the IDs of the tree's facilities removed or moved since then.
+     */
+    private record Locations(FacilityKdTree tree, Map<Long, Facility> pending, Set<Long> hidden) {
+
+        static Locations of(Collection<Facility> facilities) {
+            return new Locations(new FacilityKdTree(facilities), Map.of(), Set.of());
+        }
+
+        int size() {
+            return tree.size() - hidden.size() + pending.size();
+        }
+
+        Facility get(Long id) {
+            Facility facility = pending.get(id);
+            if (facility != null || hidden.contains(id)) {
+                return facility;
+            }
+            return tree.get(id);
+        }
+
+        void nearest(double[] vector, Predicate<Facility> accepted, NearestFacilities nearest) {
+            tree.nearest(vector, hidden.isEmpty()
+                    ? accepted
+                    : facility -> !hidden.contains(facility.id()) && accepted.test(facility), nearest);
+            for (Facility facility : pending.values()) {
+                if (accepted.test(facility)) {
+                    nearest.offer(facility, facility.squaredChordTo(vector));
+                }
+            }
+        }
+
+        Locations put(Facility facility) {
+            Map<Long, Facility> changedPending = new HashMap<>(pending);
+            changedPending.put(facility.id(), facility);
+            return changed(changedPending, hide(facility.id()));
+        }
+
+        Locations remove(Long id) {
+            if (!pending.containsKey(id) && (hidden.contains(id) || tree.get(id) == null)) {
+                return this;
+            }
+            Map<Long, Facility> changedPending = new HashMap<>(pending);
+            changedPending.remove(id);
+            return changed(changedPending, hide(id));
+        }
+
+        private Set<Long> hide(Long id) {
+            if (tree.get(id) == null || hidden.contains(id)) {
+                return hidden;
+            }
+            Set<Long> changedHidden = new HashSet<>(hidden);
+            changedHidden.add(id);
+            return changedHidden;
+        }
+
+        private Locations changed(Map<Long, Facility> changedPending, Set<Long> changedHidden) {
+            int changes = changedPending.size() + changedHidden.size();
+            if (changes <= Math.max(MIN_PENDING_CHANGES, (int) Math.sqrt(tree.size()))) {
+                return new Locations(tree, Map.copyOf(changedPending), Set.copyOf(changedHidden));
+            }
+            List<Facility> current = new ArrayList<>(tree.size() + changedPending.size());
+            for (Facility facility : tree.facilities()) {
+                if (!changedHidden.contains(facility.id())) {
+                    current.add(facility);
+                }
+            }
+            current.addAll(changedPending.values());
+            return of(current);
+        }
+    }
+
+    /**
+     * A value derived from the database, loaded on first use in the index's read-only
+     * transaction. A value loaded while it was invalidated is returned but not kept.
+     */
+    private final class Derived<T> {
+        private final Supplier<T> loader;
+        private long generation;
+        private volatile T value;
+
+        Derived(Supplier<T> loader) {
+            this.loader = loader;
+        }
+
+        T get() {
+            T cached = value;
+            if (cached != null) {
+                return cached;
+            }
+            long loadedGeneration;
+            synchronized (this) {
+                loadedGeneration = generation;
+            }
+            T loaded = loadTransaction.execute(status -> loader.get());
+            synchronized (this) {
+                if (generation == loadedGeneration) {
+                    value = loaded;
+                }
+            }
+            return loaded;
+        }
+
+        synchronized void invalidate() {
+            generation++;
+            value = null;
+        }
+    }
+}
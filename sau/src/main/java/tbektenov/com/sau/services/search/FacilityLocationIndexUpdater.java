@@ -0,0 +1,172 @@
+package tbektenov.com.sau.services.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.events.DoctorDirectoryChangedEvent;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
+
+import java.util.Set;
+
+/**
+ * Applies committed changes of hospitals and private pharmacies to the
+ * {@link FacilityLocationIndex}.
+ *
+ * <p>Locations are taken from Hibernate's post-commit events, like the typeahead index's. A
+ * facility whose coordinates are cleared is removed from the index. The index's filters are
+ * dropped instead of updated: the specializations when the doctor directory changes, and the
+ * partnerships once a transaction changing a pharmacy's partner hospitals commits. The partner
+ * hospitals are a pharmacy's only collection, and the role of a newly persisted one is not yet
+ * set when its rows are inserted, so the collection is recognized by its owner.</p>
+ */
+@Component
+public class FacilityLocationIndexUpdater
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final Set<Class<?>> INDEXED = Set.of(Hospital.class, PrivatePharmacy.class);
+
+    private final FacilityLocationIndex facilityLocationIndex;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructs a FacilityLocationIndexUpdater.
+     *
+     * @param facilityLocationIndex the index to keep current
+     * @param entityManagerFactory the factory whose sessions are listened to
+     */
+    @Autowired
+    public FacilityLocationIndexUpdater(FacilityLocationIndex facilityLocationIndex,
+                                        EntityManagerFactory entityManagerFactory) {
+        this.facilityLocationIndex = facilityLocationIndex;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Registers this updater for the committed inserts, updates and deletes of Hibernate and
+     * for its collection changes.
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Hospital hospital) {
+            facilityLocationIndex.remove(FacilityType.HOSPITAL, hospital.getId());
+        } else if (entity instanceof PrivatePharmacy pharmacy) {
+            facilityLocationIndex.remove(FacilityType.PHARMACY, pharmacy.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return INDEXED.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        partnershipsChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        partnershipsChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        partnershipsChanged(event);
+    }
+
+    /**
+     * Drops the specializations of the hospitals when the doctors changed.
+     *
+     * @param event the committed change
+     */
+    @EventListener
+    public void onDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        facilityLocationIndex.invalidateSpecializations();
+    }
+
+    private void index(Object entity) {
+        if (entity instanceof Hospital hospital) {
+            facilityLocationIndex.putHospital(hospital.getId(), hospital.getName(), hospital.getAddress(),
+                    hospital.getLatitude(), hospital.getLongitude());
+        } else if (entity instanceof PrivatePharmacy pharmacy) {
+            facilityLocationIndex.putPharmacy(pharmacy.getId(), pharmacy.getName(), pharmacy.getAddress(),
+                    pharmacy.getLatitude(), pharmacy.getLongitude());
+        }
+    }
+
+    private void partnershipsChanged(AbstractCollectionEvent event) {
+        if (!(event.getAffectedOwnerOrNull() instanceof PrivatePharmacy)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            facilityLocationIndex.invalidatePartnerships();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                facilityLocationIndex.invalidatePartnerships();
+            }
+        });
+    }
+}
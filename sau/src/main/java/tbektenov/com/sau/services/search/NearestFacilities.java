@@ -0,0 +1,54 @@
+package tbektenov.com.sau.services.search;
+
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The nearest facilities offered so far, at most a fixed number, ordered by distance.
+ *
+ * <p>The limits are small, so the facilities are kept in sorted arrays and inserted by shifting.</p>
+ */
+final class NearestFacilities {
+
+    private final Facility[] facilities;
+    private final double[] squaredChords;
+    private int size;
+
+    NearestFacilities(int limit) {
+        this.facilities = new Facility[limit];
+        this.squaredChords = new double[limit];
+    }
+
+    /**
+     * Returns the distance a facility has to be below to be kept.
+     *
+     * @return the squared chord of the farthest kept facility, infinite while there is room
+     */
+    double bound() {
+        return size < facilities.length ? Double.POSITIVE_INFINITY : squaredChords[size - 1];
+    }
+
+    void offer(Facility facility, double squaredChord) {
+        if (squaredChord >= bound()) {
+            return;
+        }
+        int index = size < facilities.length ? size++ : size - 1;
+        while (index > 0 && squaredChords[index - 1] > squaredChord) {
+            facilities[index] = facilities[index - 1];
+            squaredChords[index] = squaredChords[index - 1];
+            index--;
+        }
+        facilities[index] = facility;
+        squaredChords[index] = squaredChord;
+    }
+
+    List<NearbyFacilityDTO> toDtos() {
+        List<NearbyFacilityDTO> dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dtos.add(facilities[i].toDto(squaredChords[i]));
+        }
+        return dtos;
+    }
+}
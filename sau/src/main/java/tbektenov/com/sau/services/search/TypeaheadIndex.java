@@ -0,0 +1,322 @@
+package tbektenov.com.sau.services.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.search.SuggestionType;
+import tbektenov.com.sau.dtos.search.TypeaheadSuggestionDTO;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.repositories.DoctorRepo;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.repositories.PrivatePharmacyRepo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over doctor names, hospital names and private pharmacy names,
+ * companies and addresses.
+ *
+ * <p>Every indexed text is split into words, which are lower-cased and stripped of accents.
+ * The words are kept in a sorted map, so all words starting with a prefix form one range of
+ * it and a lookup costs a logarithmic seek plus the matches it returns. A query with several
+ * words scans the range of its longest word and keeps the records that also have a word
+ * starting with each of the other ones.</p>
+ *
+ * <p>The index is loaded on first access in its own read-only transaction and then kept
+ * current by {@link TypeaheadIndexUpdater}. Changes are serialized with loading, so a change
+ * committed while the index loads is applied on top of the loaded state. Lookups do not lock.
+ * Bulk updates bypass the index until {@link #reset()} is called.</p>
+ */
+@Component
+public class TypeaheadIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::type).thenComparing(Key::id);
+
+    private final DoctorRepo doctorRepo;
+    private final HospitalRepo hospitalRepo;
+    private final PrivatePharmacyRepo privatePharmacyRepo;
+    private final TransactionTemplate loadTransaction;
+    private volatile Entries entries;
+
+    /**
+     * Constructs a TypeaheadIndex loading its records from the given repositories.
+     *
+     * @param doctorRepo repository of the doctors
+     * @param hospitalRepo repository of the hospitals
+     * @param privatePharmacyRepo repository of the private pharmacies
+     * @param transactionManager transaction manager used to load the index in its own transaction
+     */
+    @Autowired
+    public TypeaheadIndex(DoctorRepo doctorRepo,
+                          HospitalRepo hospitalRepo,
+                          PrivatePharmacyRepo privatePharmacyRepo,
+                          PlatformTransactionManager transactionManager) {
+        this.doctorRepo = doctorRepo;
+        this.hospitalRepo = hospitalRepo;
+        this.privatePharmacyRepo = privatePharmacyRepo;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns the records matching every word of the query as a prefix of one of their words.
+     * Records whose matching word comes first alphabetically are returned first.
+     *
+     * @param query the words typed so far
+     * @param limit the maximum number of suggestions
+     * @return the matching suggestions, empty if the query has no words
+     */
+    public List<TypeaheadSuggestionDTO> suggest(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Entries current = loaded();
+
+        String longest = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Set<Key> seen = new HashSet<>();
+        List<TypeaheadSuggestionDTO> suggestions = new ArrayList<>(limit);
+        for (Set<Key> keys : current.byWord.subMap(longest, true, longest + Character.MAX_VALUE, true).values()) {
+            for (Key key : keys) {
+                Entry entry = current.byKey.get(key);
+                if (entry == null || !seen.add(key) || !entry.matchesAll(words)) {
+                    continue;
+                }
+                suggestions.add(entry.toDto());
+                if (suggestions.size() == limit) {
+                    return suggestions;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Indexes a doctor under their name and surname, replacing an earlier entry of the doctor.
+     *
+     * @param id the ID of the doctor
+     * @param name the doctor's name
+     * @param surname the doctor's surname
+     * @param specialization the doctor's specialization, shown as detail
+     */
+    public void putDoctor(Long id, String name, String surname, Specialization specialization) {
+        put(doctorEntry(id, name, surname, specialization));
+    }
+
+    /**
+     * Updates an indexed doctor. Arguments that are null keep their indexed value, and a doctor
+     * that is not indexed stays so.
+     *
+     * @param id the ID of the doctor
+     * @param name the doctor's new name, or null
+     * @param surname the doctor's new surname, or null
+     * @param specialization the doctor's new specialization, or null
+     */
+    public synchronized void updateDoctor(Long id, String name, String surname, Specialization specialization) {
+        Entries current = entries;
+        Entry indexed = current == null ? null : current.byKey.get(new Key(SuggestionType.DOCTOR, id));
+        if (indexed == null) {
+            return;
+        }
+        current.put(doctorEntry(id,
+                name != null ? name : indexed.texts().get(0),
+                surname != null ? surname : indexed.texts().get(1),
+                specialization != null ? specialization : Specialization.valueOf(indexed.detail())));
+    }
+
+    /**
+     * Indexes a hospital under its name, replacing an earlier entry of the hospital.
+     *
+     * @param id the ID of the hospital
+     * @param name the hospital's name
+     * @param address the hospital's address, shown as detail
+     */
+    public void putHospital(Long id, String name, String address) {
+        put(hospitalEntry(id, name, address));
+    }
+
+    /**
+     * Indexes a private pharmacy under its name, company and address, replacing an earlier
+     * entry of the pharmacy.
+     *
+     * @param id the ID of the pharmacy
+     * @param name the pharmacy's name
+     * @param company the pharmaceutical company running the pharmacy
+     * @param address the pharmacy's address
+     */
+    public void putPharmacy(Long id, String name, String company, String address) {
+        put(pharmacyEntry(id, name, company, address));
+    }
+
+    /**
+     * Removes a record from the index.
+     *
+     * @param type the kind of the record
+     * @param id the ID of the record
+     */
+    public synchronized void remove(SuggestionType type, Long id) {
+        Entries current = entries;
+        if (current != null) {
+            current.remove(new Key(type, id));
+        }
+    }
+
+    /**
+     * Discards the index, so it is loaded from the database on next access.
+     */
+    public synchronized void reset() {
+        entries = null;
+    }
+
+    private synchronized void put(Entry entry) {
+        Entries current = entries;
+        if (current != null) {
+            current.put(entry);
+        }
+    }
+
+    private Entries loaded() {
+        Entries current = entries;
+        return current != null ? current : load();
+    }
+
+    private synchronized Entries load() {
+        if (entries != null) {
+            return entries;
+        }
+        Entries loaded = new Entries();
+        loadTransaction.executeWithoutResult(status -> {
+            for (DoctorDTO doctor : doctorRepo.findAllListings()) {
+                loaded.put(doctorEntry(doctor.getId(), doctor.getName(), doctor.getSurname(), doctor.getSpecialization()));
+            }
+            for (Hospital hospital : hospitalRepo.findAll()) {
+                loaded.put(hospitalEntry(hospital.getId(), hospital.getName(), hospital.getAddress()));
+            }
+            for (PrivatePharmacy pharmacy : privatePharmacyRepo.findAll()) {
+                loaded.put(pharmacyEntry(pharmacy.getId(), pharmacy.getName(), pharmacy.getPharmaCompany(),
+                        pharmacy.getAddress()));
+            }
+        });
+        entries = loaded;
+        return loaded;
+    }
+
+    private static Entry doctorEntry(Long id, String name, String surname, Specialization specialization) {
+        return new Entry(new Key(SuggestionType.DOCTOR, id), name + " " + surname, specialization.name(),
+                List.of(name, surname));
+    }
+
+    private static Entry hospitalEntry(Long id, String name, String address) {
+        return new Entry(new Key(SuggestionType.HOSPITAL, id), name, address, List.of(name));
+    }
+
+    private static Entry pharmacyEntry(Long id, String name, String company, String address) {
+        return new Entry(new Key(SuggestionType.PHARMACY, id), name, company + ", " + address,
+                List.of(name, company, address));
+    }
+
+    private static List<String> words(String... texts) {
+        return words(Arrays.asList(texts));
+    }
+
+    private static List<String> words(Collection<String> texts) {
+        List<String> words = new ArrayList<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String normalized = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                    .replaceAll("")
+                    .toLowerCase(Locale.ROOT);
+            Arrays.stream(WORD_SEPARATOR.split(normalized))
+                    .filter(word -> !word.isEmpty())
+                    .forEach(words::add);
+        }
+        return words;
+    }
+
+    private record Key(SuggestionType type, Long id) {
+    }
+
+    /**
+     * An indexed record with the texts it is indexed under and the words of these texts.
+     */
+    private record Entry(Key key, String label, String detail, List<String> texts, Set<String> words) {
+
+        Entry(Key key, String label, String detail, List<String> texts) {
+            this(key, label, detail, texts, Set.copyOf(TypeaheadIndex.words(texts)));
+        }
+
+        boolean matchesAll(List<String> prefixes) {
+            for (String prefix : prefixes) {
+                if (!matches(prefix)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(String prefix) {
+            for (String word : words) {
+                if (word.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        TypeaheadSuggestionDTO toDto() {
+            return new TypeaheadSuggestionDTO(key.type(), key.id(), label, detail);
+        }
+    }
+
+    /**
+     * The indexed records by key and by word. Only modified while holding the index's lock.
+     */
+    private static final class Entries {
+        private final ConcurrentMap<Key, Entry> byKey = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Set<Key>> byWord = new ConcurrentSkipListMap<>();
+
+        void put(Entry entry) {
+            remove(entry.key());
+            byKey.put(entry.key(), entry);
+            for (String word : entry.words()) {
+                byWord.computeIfAbsent(word, w -> new ConcurrentSkipListSet<>(KEY_ORDER)).add(entry.key());
+            }
+        }
+
+        void remove(Key key) {
+            Entry removed = byKey.remove(key);
+            if (removed == null) {
+                return;
+            }
+            for (String word : removed.words()) {
+                byWord.computeIfPresent(word, (w, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package tbektenov.com.sau.services.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tbektenov.com.sau.dtos.search.SuggestionType;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
+import tbektenov.com.sau.models.user.UserEntity;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+
+import java.util.Set;
+
+/**
+ * Applies committed changes of doctors, their users, hospitals and private pharmacies to the
+ * {@link TypeaheadIndex}.
+ *
+ * <p>The changes are taken from Hibernate's post-commit events, so rolled back changes never
+ * reach the index and no extra query is needed: the entity of the event carries the new
+ * values. A doctor's name is taken from its user if that is loaded, otherwise the indexed
+ * name is kept; renaming the user updates it separately.</p>
+ */
+@Component
+public class TypeaheadIndexUpdater
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> INDEXED = Set.of(
+            Doctor.class, UserEntity.class, Hospital.class, PrivatePharmacy.class);
+
+    private final TypeaheadIndex typeaheadIndex;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructs a TypeaheadIndexUpdater.
+     *
+     * @param typeaheadIndex the index to keep current
+     * @param entityManagerFactory the factory whose sessions are listened to
+     */
+    @Autowired
+    public TypeaheadIndexUpdater(TypeaheadIndex typeaheadIndex,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.typeaheadIndex = typeaheadIndex;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Registers this updater for the committed inserts, updates and deletes of Hibernate.
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Doctor doctor) {
+            typeaheadIndex.remove(SuggestionType.DOCTOR, doctor.getId());
+        } else if (entity instanceof Hospital hospital) {
+            typeaheadIndex.remove(SuggestionType.HOSPITAL, hospital.getId());
+        } else if (entity instanceof PrivatePharmacy pharmacy) {
+            typeaheadIndex.remove(SuggestionType.PHARMACY, pharmacy.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return INDEXED.contains(persister.getMappedClass());
+    }
+
+    private void index(Object entity) {
+        if (entity instanceof Doctor doctor) {
+            UserEntity user = doctor.getUser();
+            if (user != null && Hibernate.isInitialized(user)) {
+                typeaheadIndex.putDoctor(doctor.getId(), user.getName(), user.getSurname(), doctor.getSpecialization());
+            } else {
+                typeaheadIndex.updateDoctor(doctor.getId(), null, null, doctor.getSpecialization());
+            }
+        } else if (entity instanceof UserEntity user) {
+            typeaheadIndex.updateDoctor(user.getId(), user.getName(), user.getSurname(), null);
+        } else if (entity instanceof Hospital hospital) {
+            typeaheadIndex.putHospital(hospital.getId(), hospital.getName(), hospital.getAddress());
+        } else if (entity instanceof PrivatePharmacy pharmacy) {
+            typeaheadIndex.putPharmacy(pharmacy.getId(), pharmacy.getName(), pharmacy.getPharmaCompany(),
+                    pharmacy.getAddress());
+        }
+    }
+}
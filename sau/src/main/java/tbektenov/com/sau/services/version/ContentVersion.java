@@ -0,0 +1,20 @@
+package tbektenov.com.sau.services.version;
+
+/**
+ * The version of a group of records shown together, such as the hospital catalog.
+ *
+ * @param counter incremented on every committed change of the records
+ * @param modifiedAt the time of the last change in epoch milliseconds, truncated to seconds
+ */
+public record ContentVersion(long counter, long modifiedAt) {
+
+    /**
+     * Returns the version following this one.
+     *
+     * @param now the time of the change in epoch milliseconds
+     * @return the next version
+     */
+    ContentVersion next(long now) {
+        return new ContentVersion(counter + 1, Math.max(modifiedAt, now - now % 1000));
+    }
+}
@@ -0,0 +1,146 @@
+package tbektenov.com.sau.services.version;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tbektenov.com.sau.dtos.appointment.AppointmentSlotDTO;
+import tbektenov.com.sau.events.AppointmentCancelledEvent;
+import tbektenov.com.sau.events.AppointmentCreatedEvent;
+import tbektenov.com.sau.events.AppointmentsArchivedEvent;
+import tbektenov.com.sau.events.DoctorDirectoryChangedEvent;
+import tbektenov.com.sau.models.hospital.Hospital;
+
+/**
+ * Advances the {@link ContentVersions} after changes commit.
+ *
+ * <p>Hospitals are taken from Hibernate's post-commit events, doctors from the
+ * {@link DoctorDirectoryChangedEvent} and appointments from the booking, cancellation and
+ * archival events once their transaction committed.</p>
+ */
+@Component
+public class ContentVersionUpdater
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ContentVersions contentVersions;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructs a ContentVersionUpdater.
+     *
+     * @param contentVersions the versions to advance
+     * @param entityManagerFactory the factory whose sessions are listened to
+     */
+    @Autowired
+    public ContentVersionUpdater(ContentVersions contentVersions,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.contentVersions = contentVersions;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Registers this updater for the committed inserts, updates and deletes of Hibernate.
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        hospitalChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        hospitalChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        hospitalChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Hospital.class;
+    }
+
+    /**
+     * Advances the doctor directory after a committed change of the doctors.
+     *
+     * @param event the committed change
+     */
+    @EventListener
+    public void onDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        contentVersions.doctorDirectoryChanged();
+    }
+
+    /**
+     * Advances the patient's appointments after a committed booking.
+     *
+     * @param event the booking
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentCreated(AppointmentCreatedEvent event) {
+        contentVersions.appointmentsChanged(event.patientId());
+    }
+
+    /**
+     * Advances the patient's appointments after a committed cancellation.
+     *
+     * @param event the cancellation
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentCancelled(AppointmentCancelledEvent event) {
+        contentVersions.appointmentsChanged(event.patientId());
+    }
+
+    /**
+     * Advances the appointments of every affected patient after a committed archival chunk.
+     *
+     * @param event the archived appointments
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsArchived(AppointmentsArchivedEvent event) {
+        event.appointments().stream()
+                .map(AppointmentSlotDTO::getPatientId)
+                .distinct()
+                .forEach(contentVersions::appointmentsChanged);
+    }
+
+    private void hospitalChanged(Object entity) {
+        if (entity instanceof Hospital) {
+            contentVersions.hospitalCatalogChanged();
+        }
+    }
+}
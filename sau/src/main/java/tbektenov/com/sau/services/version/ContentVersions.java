@@ -0,0 +1,126 @@
+package tbektenov.com.sau.services.version;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory version counters of the records rendered by the read pages.
+ *
+ * <p>Every group of records has a {@link ContentVersion} that {@link ContentVersionUpdater}
+ * advances after a change of the group commits. A page built from some groups is unchanged as
+ * long as their versions are, so its entity tag can be computed from the counters alone and a
+ * conditional request is answered without querying the database.</p>
+ *
+ * <p>The counters start over when the application starts, so every tag also carries the start
+ * time and tags issued before a restart never match. Changes made through bulk queries or
+ * directly in the database are not counted.</p>
+ */
+@Component
+public class ContentVersions {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final ContentVersion initial = new ContentVersion(0, startedAt - startedAt % 1000);
+    private final String instance = Long.toString(startedAt, 36);
+    private final AtomicReference<ContentVersion> hospitalCatalog = new AtomicReference<>(initial);
+    private final AtomicReference<ContentVersion> doctorDirectory = new AtomicReference<>(initial);
+    private final AtomicReference<ContentVersion> doctorAvailability = new AtomicReference<>(initial);
+    private final ConcurrentMap<Long, ContentVersion> patientAppointments = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the version of the hospitals with their addresses and doctors.
+     *
+     * @return the current version
+     */
+    public ContentVersion hospitalCatalog() {
+        return hospitalCatalog.get();
+    }
+
+    /**
+     * Returns the version of the doctors' names, specializations and hospitals and of the
+     * users' names.
+     *
+     * @return the current version
+     */
+    public ContentVersion doctorDirectory() {
+        return doctorDirectory.get();
+    }
+
+    /**
+     * Returns the version of the booked slots of all doctors.
+     *
+     * @return the current version
+     */
+    public ContentVersion doctorAvailability() {
+        return doctorAvailability.get();
+    }
+
+    /**
+     * Returns the version of a patient's appointments.
+     *
+     * @param patientId the ID of the patient
+     * @return the current version
+     */
+    public ContentVersion patientAppointments(Long patientId) {
+        return patientAppointments.getOrDefault(patientId, initial);
+    }
+
+    /**
+     * Advances the version of the hospital catalog.
+     */
+    public void hospitalCatalogChanged() {
+        long now = System.currentTimeMillis();
+        hospitalCatalog.updateAndGet(version -> version.next(now));
+    }
+
+    /**
+     * Advances the version of the doctor directory and of the hospital catalog listing the doctors.
+     */
+    public void doctorDirectoryChanged() {
+        long now = System.currentTimeMillis();
+        doctorDirectory.updateAndGet(version -> version.next(now));
+        hospitalCatalog.updateAndGet(version -> version.next(now));
+    }
+
+    /**
+     * Advances the version of a patient's appointments and of the doctors' booked slots.
+     *
+     * @param patientId the ID of the patient whose appointment changed
+     */
+    public void appointmentsChanged(Long patientId) {
+        long now = System.currentTimeMillis();
+        patientAppointments.merge(patientId, initial.next(now), (version, ignored) -> version.next(now));
+        doctorAvailability.updateAndGet(version -> version.next(now));
+    }
+
+    /**
+     * Builds a strong entity tag of a page from the versions it is rendered from.
+     *
+     * @param scope identifies the page and everything else the page depends on, such as the user
+     * @param versions the versions of the records the page shows
+     * @return the quoted entity tag
+     */
+    public String etag(String scope, ContentVersion... versions) {
+        StringBuilder etag = new StringBuilder("\"").append(scope).append('-').append(instance);
+        for (ContentVersion version : versions) {
+            etag.append('-').append(version.counter());
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Returns the time of the latest change among the given versions.
+     *
+     * @param versions the versions of the records a page shows
+     * @return the time in epoch milliseconds
+     */
+    public long lastModified(ContentVersion... versions) {
+        long lastModified = initial.modifiedAt();
+        for (ContentVersion version : versions) {
+            lastModified = Math.max(lastModified, version.modifiedAt());
+        }
+        return lastModified;
+    }
+}
@@ -0,0 +1,86 @@
+document.addEventListener('DOMContentLoaded', () => {
+    let content = document.querySelector('.content');
+    let table = document.getElementById('appointmentTable');
+    let upcoming = content.dataset.status === 'UPCOMING';
+    let last = content.dataset.last === 'true';
+
+    /**
+     * Compares two appointments in the order of the upcoming list: by date, then by ID.
+     */
+    let compare = (date, id, otherDate, otherId) => {
+        if (date !== otherDate) {
+            return date < otherDate ? -1 : 1;
+        }
+        return Number(id) - Number(otherId);
+    }
+
+    /**
+     * Tells whether an appointment falls between the cursor the page starts after and the last
+     * row of the page. Later appointments belong to a following page.
+     */
+    let onThisPage = (appointment) => {
+        if (content.dataset.afterDate
+            && compare(appointment.date, appointment.id, content.dataset.afterDate, content.dataset.afterId) <= 0) {
+            return false;
+        }
+        return last || compare(appointment.date, appointment.id, content.dataset.nextDate, content.dataset.nextId) <= 0;
+    }
+
+    /**
+     * Builds a table row for an appointment that was booked while the page was open.
+     */
+    let buildRow = (appointment) => {
+        let row = document.createElement('tr');
+        row.dataset.appointmentId = appointment.id;
+        row.dataset.date = appointment.date;
+
+        let time = appointment.startTime ? appointment.startTime + ' - ' + appointment.endTime : '';
+        [appointment.id, appointment.specialization, appointment.hospital + ', ' + appointment.hospitalAddress,
+            appointment.appointmentStatus, appointment.date, time].forEach((value) => {
+            let cell = document.createElement('td');
+            cell.textContent = value;
+            row.appendChild(cell);
+        });
+
+        let form = document.createElement('form');
+        form.action = '/appointments/' + appointment.id + '/cancel';
+        form.method = 'post';
+        let button = document.createElement('button');
+        button.type = 'submit';
+        button.className = 'cancel-link';
+        button.textContent = 'Cancel';
+        form.appendChild(button);
+        let cell = document.createElement('td');
+        cell.appendChild(form);
+        row.appendChild(cell);
+        return row;
+    }
+
+    let source = new EventSource('/api/appointments/events');
+    source.addEventListener('appointment', (message) => {
+        let event = JSON.parse(message.data);
+
+        if (event.type === 'CREATED') {
+            if (!upcoming || !onThisPage(event.appointment)) {
+                return;
+            }
+            // a full page would overflow into the next one, so it is fetched again
+            if (!table || !last) {
+                window.location.reload();
+                return;
+            }
+            let appointment = event.appointment;
+            let next = Array.from(table.rows).find((row) =>
+                compare(appointment.date, appointment.id, row.dataset.date, row.dataset.appointmentId) < 0);
+            table.insertBefore(buildRow(appointment), next || null);
+            return;
+        }
+
+        if (table) {
+            let row = table.querySelector('tr[data-appointment-id="' + event.appointmentId + '"]');
+            if (row) {
+                row.remove();
+            }
+        }
+    });
+});
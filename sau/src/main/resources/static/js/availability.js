@@ -0,0 +1,19 @@
+$(document).ready(() => {
+    /**
+     * Refreshes the number of free slots of every doctor for the chosen date.
+     */
+    let refreshAvailability = () => {
+        var date = $('#date').val();
+        if (!date) {
+            return;
+        }
+
+        $.getJSON('/api/appointments/availability', { date: date }, (availability) => {
+            availability.forEach((doctor) => {
+                $('.free-slots[data-doctor-id="' + doctor.doctorId + '"]').text(doctor.freeSlots);
+            });
+        });
+    }
+
+    $('#date').change(refreshAvailability);
+});
@@ -1,34 +1,11 @@
 $(document).ready(() => {
 
     /**
-     * Applies filters to the doctor table based on the selected hospital and specialization.
+     * Reloads the doctor list from the server with the selected hospital and specialization.
+     * Filtering and paging happen server-side, so a changed filter always starts at the first page.
      */
     let applyFilters = () => {
-        var selectedHospital = $('#hospitalFilter')
-                                    .val()
-                                    .toLowerCase()
-                                    .trim();
-        var selectedSpecialization = $('#specFilter')
-                                        .val()
-                                        .toLowerCase()
-                                        .trim();
-
-        $('#doctorTable tr').each(function () {
-            var hospitalText = $(this).find('td:eq(3)')
-                                        .text()
-                                        .toLowerCase()
-                                        .trim();
-
-            var specializationText = $(this).find('td:eq(2)')
-                                                .text()
-                                                .toLowerCase()
-                                                .trim();
-
-            var hospitalMatch = selectedHospital === "" || hospitalText === selectedHospital;
-            var specializationMatch = selectedSpecialization === "" || specializationText === selectedSpecialization;
-
-            $(this).toggle(hospitalMatch && specializationMatch);
-        });
+        $('#doctorFilter').submit();
     }
 
     $('#hospitalFilter').change(applyFilters);
@@ -0,0 +1,209 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.ArchivalResultDTO;
+import tbektenov.com.sau.events.AppointmentsArchivedEvent;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.JobCheckpoint;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.repositories.ArchivedAppointmentRepo;
+import tbektenov.com.sau.repositories.JobCheckpointRepo;
+import tbektenov.com.sau.services.IAppointmentArchivalService;
+import tbektenov.com.sau.services.IAppointmentService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the archival job without a surrounding test transaction, so every chunk really commits
+ * on its own. The appointments created by a test are deleted from both tables afterwards.
+ */
+@SpringBootTest(properties = "appointments.archival.chunk-size=2")
+class AppointmentArchivalTests {
+
+	private static final LocalDate CUTOFF = LocalDate.of(2001, 1, 1);
+	private static final String JOB_NAME = "appointment-archival";
+
+	@Autowired
+	private IAppointmentArchivalService archivalService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private ArchivedAppointmentRepo archivedAppointmentRepo;
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private JobCheckpointRepo jobCheckpointRepo;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private ChunkObserver chunkObserver;
+
+	private final List<Long> createdIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		chunkObserver.reset();
+		appointmentRepo.deleteAllById(createdIds.stream().filter(appointmentRepo::existsById).toList());
+		archivedAppointmentRepo.deleteAllById(createdIds.stream().filter(archivedAppointmentRepo::existsById).toList());
+		createdIds.clear();
+		// a failed run must not be resumed by the next test
+		jobCheckpointRepo.findById(JOB_NAME).ifPresent(jobCheckpointRepo::delete);
+	}
+
+	@Test
+	void archivesPastAppointmentsInChunks() {
+		List<Long> past = createPastAppointments(5);
+
+		ArchivalResultDTO result = archivalService.archiveAppointmentsBefore(CUTOFF);
+
+		assertEquals(5, result.getRowsArchived());
+		assertEquals(3, result.getChunks());
+		assertFalse(result.isResumed());
+		assertEquals(List.of(2L, 4L, 5L), chunkObserver.archivedAfterCommit);
+		assertEquals(List.of(past.get(1), past.get(3), past.get(4)), chunkObserver.checkpointAfterCommit);
+		assertStatus(past, AppointmentStatus.ARCHIVED);
+
+		JobCheckpoint checkpoint = jobCheckpointRepo.findById(JOB_NAME).orElseThrow();
+		assertNotNull(checkpoint.getFinishedAt());
+		assertEquals(5L, checkpoint.getRowsProcessed());
+	}
+
+	@Test
+	void failedRunKeepsCommittedChunksAndIsResumed() {
+		List<Long> past = createPastAppointments(5);
+		chunkObserver.failingChunk = 2;
+
+		assertThrows(IllegalStateException.class, () -> archivalService.archiveAppointmentsBefore(CUTOFF));
+
+		assertStatus(past.subList(0, 2), AppointmentStatus.ARCHIVED);
+		assertStatus(past.subList(2, 5), AppointmentStatus.UPCOMING);
+		JobCheckpoint interrupted = jobCheckpointRepo.findById(JOB_NAME).orElseThrow();
+		assertNull(interrupted.getFinishedAt());
+		assertEquals(past.get(1), interrupted.getLastProcessedId());
+		assertEquals(2L, interrupted.getRowsProcessed());
+
+		chunkObserver.failingChunk = 0;
+		ArchivalResultDTO result = archivalService.archiveAppointmentsBefore(CUTOFF);
+
+		assertTrue(result.isResumed());
+		assertEquals(3, result.getRowsArchived());
+		assertEquals(2, result.getChunks());
+		assertStatus(past, AppointmentStatus.ARCHIVED);
+		JobCheckpoint finished = jobCheckpointRepo.findById(JOB_NAME).orElseThrow();
+		assertNotNull(finished.getFinishedAt());
+		assertEquals(5L, finished.getRowsProcessed());
+	}
+
+	@Test
+	void archivedAppointmentsAreMovedAndStillListedInHistory() {
+		List<Long> past = createPastAppointments(3);
+		archivalService.archiveAppointmentsBefore(CUTOFF);
+
+		assertTrue(archivalService.moveArchivedAppointments() >= 3);
+
+		past.forEach(id -> {
+			assertFalse(appointmentRepo.existsById(id));
+			assertTrue(archivedAppointmentRepo.existsById(id));
+		});
+
+		Long notYetMoved = createAppointment(LocalDate.of(2000, 1, 2), AppointmentStatus.ARCHIVED);
+
+		List<Long> history = appointmentService.getAppointmentHistory(1L, AppointmentStatus.ARCHIVED, null, null, 100)
+				.getContent().stream()
+				.map(AppointmentDTO::getId)
+				.filter(id -> id.equals(notYetMoved) || past.contains(id))
+				.toList();
+		assertEquals(List.of(past.get(2), notYetMoved, past.get(1), past.get(0)), history);
+	}
+
+	private List<Long> createPastAppointments(int count) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(createAppointment(LocalDate.of(2000, 1, 1).plusDays(i), AppointmentStatus.UPCOMING));
+		}
+		return ids;
+	}
+
+	private Long createAppointment(LocalDate date, AppointmentStatus status) {
+		Long id = transactionTemplate.execute(transaction -> appointmentRepo.save(Appointment.builder()
+				.date(date)
+				.appointmentStatus(status)
+				.doctor(entityManager.getReference(Doctor.class, 4L))
+				.patient(entityManager.getReference(Patient.class, 1L))
+				.build()).getId());
+		createdIds.add(id);
+		return id;
+	}
+
+	private void assertStatus(List<Long> ids, AppointmentStatus status) {
+		ids.forEach(id -> assertEquals(status, appointmentRepo.findById(id).orElseThrow().getAppointmentStatus()));
+	}
+
+	@TestConfiguration
+	static class ChunkObserverConfiguration {
+		@Bean
+		ChunkObserver chunkObserver(JdbcTemplate jdbcTemplate) {
+			return new ChunkObserver(jdbcTemplate);
+		}
+	}
+
+	/**
+	 * Fails the configured chunk before it commits and records the committed state after every
+	 * other chunk: the number of archived appointments dated before the cutoff and the
+	 * checkpoint's last processed ID.
+	 */
+	static class ChunkObserver {
+		private final JdbcTemplate jdbcTemplate;
+		private final List<Long> archivedAfterCommit = new CopyOnWriteArrayList<>();
+		private final List<Long> checkpointAfterCommit = new CopyOnWriteArrayList<>();
+		private volatile int failingChunk;
+		private volatile int chunks;
+
+		ChunkObserver(JdbcTemplate jdbcTemplate) {
+			this.jdbcTemplate = jdbcTemplate;
+		}
+
+		@EventListener
+		public void beforeCommit(AppointmentsArchivedEvent event) {
+			if (++chunks == failingChunk) {
+				throw new IllegalStateException("Chunk " + chunks + " failed");
+			}
+		}
+
+		@TransactionalEventListener
+		public void afterCommit(AppointmentsArchivedEvent event) {
+			archivedAfterCommit.add(jdbcTemplate.queryForObject(
+					"select count(*) from appointments where status = 'ARCHIVED' and date < ?", Long.class, CUTOFF));
+			checkpointAfterCommit.add(jdbcTemplate.queryForObject(
+					"select last_processed_id from job_checkpoint where job_name = ?", Long.class, JOB_NAME));
+		}
+
+		void reset() {
+			archivedAfterCommit.clear();
+			checkpointAfterCommit.clear();
+			failingChunk = 0;
+			chunks = 0;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.exceptions.SlotAlreadyBookedException;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AppointmentBookingConcurrencyTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final long[] PATIENT_IDS = {1L, 2L, 3L, 5L, 6L};
+	private static final LocalDate DATE = LocalDate.now().plusYears(10);
+
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+
+	private final List<Long> createdIds = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAllById(createdIds);
+		createdIds.clear();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void concurrentBookingsOfSameSlotCreateOnlyOneAppointment() throws Exception {
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < threads; i++) {
+			long patientId = PATIENT_IDS[i % PATIENT_IDS.length];
+			futures.add(executor.submit(() -> {
+				start.await();
+				try {
+					AppointmentDTO created = appointmentService.createAppointment(
+							request(patientId, LocalTime.of(10, 0), LocalTime.of(10, 30)));
+					createdIds.add(created.getId());
+				} catch (SlotAlreadyBookedException e) {
+					conflicts.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(1, createdIds.size());
+		assertEquals(threads - 1, conflicts.get());
+	}
+
+	@Test
+	void overlappingSlotIsRejectedAndAdjacentSlotIsAccepted() {
+		createdIds.add(appointmentService.createAppointment(
+				request(1L, LocalTime.of(9, 0), LocalTime.of(9, 30))).getId());
+
+		assertThrows(SlotAlreadyBookedException.class, () -> appointmentService.createAppointment(
+				request(2L, LocalTime.of(9, 15), LocalTime.of(9, 45))));
+
+		createdIds.add(appointmentService.createAppointment(
+				request(2L, LocalTime.of(9, 30), null)).getId());
+
+		assertEquals(2, createdIds.size());
+	}
+
+	private CreateAppointmentDTO request(Long patientId, LocalTime startTime, LocalTime endTime) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(patientId);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setStartTime(startTime);
+		dto.setEndTime(endTime);
+		return dto;
+	}
+}
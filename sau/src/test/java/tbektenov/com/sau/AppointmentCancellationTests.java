@@ -0,0 +1,122 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AppointmentCancellationTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final LocalDate DATE = LocalDate.now().plusYears(14);
+
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private final List<Long> createdIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		statistics.setStatisticsEnabled(false);
+		appointmentRepo.deleteAllById(createdIds.stream().filter(appointmentRepo::existsById).toList());
+		createdIds.clear();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void cancellationUsesOneQueryAndOneDeleteWithoutLoadingCollections() {
+		Long id = book(1L, LocalTime.of(8, 0));
+
+		List<String> statements = new ArrayList<>();
+		startCounting();
+		StatementRecorder.record(statements, () -> {
+			appointmentService.cancelAppointment(1L, id);
+			return null;
+		});
+
+		assertEquals(2, statements.size(), () -> String.join("\n", statements));
+		assertEquals(0, statistics.getCollectionLoadCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertFalse(appointmentRepo.existsById(id));
+		assertTrue(doctorScheduleIndex.isFree(DOCTOR_ID, DATE.atTime(8, 0), DATE.atTime(8, 30)));
+	}
+
+	@Test
+	void appointmentOfAnotherPatientIsNotCancelled() {
+		Long id = book(1L, LocalTime.of(9, 0));
+
+		assertThrows(ObjectNotFoundException.class, () -> appointmentService.cancelAppointment(2L, id));
+		assertTrue(appointmentRepo.existsById(id));
+	}
+
+	@Test
+	void bulkCancellationDeletesAllOwnedAppointmentsInOneStatement() {
+		List<Long> ids = new ArrayList<>();
+		for (int hour = 10; hour < 15; hour++) {
+			ids.add(book(1L, LocalTime.of(hour, 0)));
+		}
+		Long foreign = book(2L, LocalTime.of(16, 0));
+		ids.add(foreign);
+
+		List<String> statements = new ArrayList<>();
+		startCounting();
+		List<Long> cancelled = StatementRecorder.record(statements, () -> appointmentService.cancelAppointments(1L, ids));
+
+		assertEquals(ids.subList(0, 5).stream().sorted().toList(), cancelled.stream().sorted().toList());
+		assertEquals(2, statements.size(), () -> String.join("\n", statements));
+		assertEquals(0, statistics.getCollectionLoadCount());
+		assertTrue(appointmentRepo.existsById(foreign));
+		LocalDateTime freed = DATE.atTime(12, 0);
+		assertTrue(doctorScheduleIndex.isFree(DOCTOR_ID, freed, freed.plusMinutes(30)));
+	}
+
+	private void startCounting() {
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+
+	private Long book(Long patientId, LocalTime startTime) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(patientId);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setStartTime(startTime);
+		Long id = appointmentService.createAppointment(dto).getId();
+		createdIds.add(id);
+		return id;
+	}
+}
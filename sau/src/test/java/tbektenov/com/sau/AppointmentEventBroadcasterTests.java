@@ -0,0 +1,210 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tbektenov.com.sau.dtos.appointment.AppointmentEventDTO;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.events.AppointmentEventBroadcaster;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+import tbektenov.com.sau.services.schedule.DoctorWaitlist;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"appointments.events.buffer-size=4", "appointments.events.sender-threads=2",
+		"appointments.events.send-timeout-ms=200"})
+class AppointmentEventBroadcasterTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final LocalDate DATE = LocalDate.now().plusYears(15);
+
+	@Autowired
+	private AppointmentEventBroadcaster broadcaster;
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private DoctorWaitlist doctorWaitlist;
+
+	private final List<Long> createdIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAllById(createdIds.stream().filter(appointmentRepo::existsById).toList());
+		createdIds.clear();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+		doctorWaitlist.evictAll();
+	}
+
+	@Test
+	void committedChangesReachOnlyTheOwnStreams() throws Exception {
+		CapturingEmitter own = new CapturingEmitter(null);
+		CapturingEmitter other = new CapturingEmitter(null);
+		broadcaster.subscribe(1L, own);
+		broadcaster.subscribe(2L, other);
+
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(1L);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setStartTime(LocalTime.of(8, 0));
+		Long id = appointmentService.createAppointment(dto).getId();
+		createdIds.add(id);
+
+		AppointmentEventDTO created = own.next();
+		assertEquals("CREATED", created.getType());
+		assertEquals(id, created.getAppointmentId());
+		assertEquals(DATE, created.getAppointment().getDate());
+
+		appointmentService.cancelAppointment(1L, id);
+
+		AppointmentEventDTO cancelled = own.next();
+		assertEquals("CANCELLED", cancelled.getType());
+		assertEquals(id, cancelled.getAppointmentId());
+		assertNull(other.received.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void slowStreamIsDroppedWithoutHoldingUpOthers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CapturingEmitter slow = new CapturingEmitter(release);
+		CapturingEmitter fast = new CapturingEmitter(null);
+		int subscribersBefore = broadcaster.getSubscriberCount();
+		broadcaster.subscribe(3L, slow);
+		broadcaster.subscribe(3L, fast);
+
+		try {
+			for (long i = 1; i <= 6; i++) {
+				broadcaster.publish(3L, new AppointmentEventDTO("CANCELLED", i, null));
+				assertEquals(i, fast.next().getAppointmentId());
+			}
+
+			assertFalse(fast.completed);
+			assertEquals(subscribersBefore + 1, broadcaster.getSubscriberCount());
+		} finally {
+			release.countDown();
+		}
+		// the stream is completed once its pending send returns
+		slow.awaitCompleted();
+	}
+
+	@Test
+	void stalledStreamsDoNotHoldUpTheSenderThreads() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CapturingEmitter firstStalled = new CapturingEmitter(release);
+		CapturingEmitter secondStalled = new CapturingEmitter(release);
+		CapturingEmitter healthy = new CapturingEmitter(null);
+		int subscribersBefore = broadcaster.getSubscriberCount();
+		broadcaster.subscribe(6L, firstStalled);
+		broadcaster.subscribe(7L, secondStalled);
+		broadcaster.subscribe(8L, healthy);
+
+		try {
+			broadcaster.publish(6L, new AppointmentEventDTO("CANCELLED", 1L, null));
+			broadcaster.publish(7L, new AppointmentEventDTO("CANCELLED", 2L, null));
+			assertTrue(firstStalled.sending.await(5, TimeUnit.SECONDS));
+			assertTrue(secondStalled.sending.await(5, TimeUnit.SECONDS));
+
+			// both sender threads are stuck in a send that completing the stream cannot interrupt
+			broadcaster.publish(8L, new AppointmentEventDTO("CANCELLED", 3L, null));
+
+			assertEquals(3L, healthy.next().getAppointmentId());
+			long started = System.nanoTime();
+			while (broadcaster.getSubscriberCount() > subscribersBefore + 1 && System.nanoTime() - started < 5_000_000_000L) {
+				Thread.sleep(5);
+			}
+			assertEquals(subscribersBefore + 1, broadcaster.getSubscriberCount());
+			assertFalse(firstStalled.completed);
+			assertFalse(secondStalled.completed);
+		} finally {
+			release.countDown();
+		}
+		firstStalled.awaitCompleted();
+		secondStalled.awaitCompleted();
+	}
+
+	/**
+	 * Emitter capturing the sent events, optionally blocking every send until released.
+	 *
+	 * <p>Like a socket write to a client that does not read, a blocked send ignores interrupts
+	 * and holds the emitter's lock, which {@link #complete()} waits for.</p>
+	 */
+	private static class CapturingEmitter extends SseEmitter {
+		private final BlockingQueue<AppointmentEventDTO> received = new LinkedBlockingQueue<>();
+		private final CountDownLatch release;
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private volatile boolean completed;
+
+		CapturingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public synchronized void send(SseEventBuilder builder) throws IOException {
+			sending.countDown();
+			if (release != null) {
+				awaitUninterruptibly(release);
+			}
+			builder.build().stream()
+					.map(DataWithMediaType::getData)
+					.filter(AppointmentEventDTO.class::isInstance)
+					.forEach(data -> received.add((AppointmentEventDTO) data));
+		}
+
+		@Override
+		public void complete() {
+			super.complete();
+			completed = true;
+		}
+
+		void awaitCompleted() throws InterruptedException {
+			long started = System.nanoTime();
+			while (!completed && System.nanoTime() - started < 5_000_000_000L) {
+				Thread.sleep(5);
+			}
+			assertTrue(completed, "stream was not completed");
+		}
+
+		private static void awaitUninterruptibly(CountDownLatch latch) {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					latch.await();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		AppointmentEventDTO next() throws InterruptedException {
+			AppointmentEventDTO event = received.poll(5, TimeUnit.SECONDS);
+			assertNotNull(event, "no event received");
+			return event;
+		}
+	}
+}
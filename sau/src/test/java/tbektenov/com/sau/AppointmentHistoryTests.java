@@ -0,0 +1,178 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.appointment.AppointmentHistoryResponse;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppointmentHistoryTests {
+
+	private static final String USERNAME = "s26218";
+	private static final Long PATIENT_ID = 1L;
+	private static final Long DOCTOR_ID = 4L;
+	// later than the appointments of every other test, so a cursor just before it only sees these
+	private static final LocalDate DATE = LocalDate.now().plusYears(50);
+
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final MockHttpSession session = new MockHttpSession();
+	private final List<Long> createdIds = new ArrayList<>();
+
+	@BeforeEach
+	void logIn() {
+		SecurityContextImpl context = new SecurityContextImpl(new TestingAuthenticationToken(USERNAME, null, "PATIENT"));
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAllById(createdIds);
+		createdIds.clear();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void cursorContinuesAcrossPagesOfEqualDates() {
+		List<Long> expected = new ArrayList<>();
+		for (int hour = 8; hour < 13; hour++) {
+			expected.add(book(DATE, LocalTime.of(hour, 0)));
+		}
+		expected.add(book(DATE.plusDays(1), LocalTime.of(8, 0)));
+		expected.add(book(DATE.plusDays(1), LocalTime.of(9, 0)));
+
+		List<Long> read = new ArrayList<>();
+		List<AppointmentHistoryResponse> pages = new ArrayList<>();
+		LocalDate afterDate = DATE.minusDays(1);
+		Long afterId = Long.MAX_VALUE;
+		AppointmentHistoryResponse page;
+		do {
+			page = history(afterDate, afterId, 2);
+			pages.add(page);
+			page.getContent().stream().map(AppointmentDTO::getId).forEach(read::add);
+			afterDate = page.getNextDate();
+			afterId = page.getNextId();
+		} while (!page.isLast());
+
+		assertEquals(expected.stream().sorted().toList(), read);
+		assertEquals(4, pages.size());
+		// the second page ends in the middle of the first date, so its cursor has to break the tie by id
+		assertEquals(DATE, pages.get(1).getNextDate());
+		assertEquals(read.get(3), pages.get(1).getNextId());
+	}
+
+	@Test
+	void fullLastPageHasNoCursor() {
+		List<Long> expected = new ArrayList<>();
+		for (int hour = 8; hour < 11; hour++) {
+			expected.add(book(DATE, LocalTime.of(hour, 0)));
+		}
+
+		AppointmentHistoryResponse page = history(DATE.minusDays(1), Long.MAX_VALUE, 3);
+
+		assertEquals(expected, page.getContent().stream().map(AppointmentDTO::getId).toList());
+		assertTrue(page.isLast());
+		assertNull(page.getNextDate());
+		assertNull(page.getNextId());
+
+		AppointmentHistoryResponse afterLast = history(DATE, expected.get(2), 3);
+		assertTrue(afterLast.getContent().isEmpty());
+		assertTrue(afterLast.isLast());
+		assertNull(afterLast.getNextId());
+	}
+
+	@Test
+	void incompleteCursorAndPageSizeAreRejected() throws Exception {
+		assertThrows(InvalidArgumentsException.class, () -> history(DATE, null, 2));
+		assertThrows(InvalidArgumentsException.class, () -> history(null, 1L, 2));
+		assertThrows(InvalidArgumentsException.class, () -> history(null, null, 0));
+
+		mockMvc.perform(get("/api/appointments/history").param("afterDate", DATE.toString()).session(session))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/appointments/history").param("afterId", "1").session(session))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/appointments/history").param("afterDate", "not-a-date").param("afterId", "1").session(session))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/appointments/history").param("pageSize", "0").session(session))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void endpointReturnsTheCursorOfTheNextPage() throws Exception {
+		Long first = book(DATE, LocalTime.of(8, 0));
+		Long second = book(DATE, LocalTime.of(9, 0));
+
+		mockMvc.perform(get("/api/appointments/history")
+						.param("afterDate", DATE.minusDays(1).toString())
+						.param("afterId", String.valueOf(Long.MAX_VALUE))
+						.param("pageSize", "1")
+						.session(session))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].id").value(first))
+				.andExpect(jsonPath("$.last").value(false))
+				.andExpect(jsonPath("$.nextDate").value(DATE.toString()))
+				.andExpect(jsonPath("$.nextId").value(first));
+
+		mockMvc.perform(get("/api/appointments/history")
+						.param("afterDate", DATE.toString())
+						.param("afterId", String.valueOf(first))
+						.param("pageSize", "1")
+						.session(session))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].id").value(second))
+				.andExpect(jsonPath("$.last").value(true))
+				.andExpect(jsonPath("$.nextId").doesNotExist());
+	}
+
+	private AppointmentHistoryResponse history(LocalDate afterDate, Long afterId, int pageSize) {
+		return appointmentService.getAppointmentHistory(PATIENT_ID, AppointmentStatus.UPCOMING, afterDate, afterId, pageSize);
+	}
+
+	private Long book(LocalDate date, LocalTime startTime) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(PATIENT_ID);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(date);
+		dto.setStartTime(startTime);
+		Long id = appointmentService.createAppointment(dto).getId();
+		createdIds.add(id);
+		return id;
+	}
+}
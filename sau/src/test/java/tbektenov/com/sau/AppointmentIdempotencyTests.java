@@ -0,0 +1,178 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.idempotency.IdempotencyKeyStore;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AppointmentIdempotencyTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final LocalDate DATE = LocalDate.now().plusYears(12);
+
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private IdempotencyKeyStore idempotencyKeyStore;
+
+	private final Set<Long> createdIds = ConcurrentHashMap.newKeySet();
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAllById(createdIds);
+		createdIds.clear();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void repeatedSubmitsWithSameKeyCreateOneAppointment() throws Exception {
+		String key = UUID.randomUUID().toString();
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> futures = new ArrayList<>();
+
+		for (int i = 0; i < threads; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return appointmentService.createAppointment(request(key, LocalTime.of(10, 0))).getId();
+			}));
+		}
+
+		start.countDown();
+		for (Future<Long> future : futures) {
+			createdIds.add(future.get(30, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+
+		assertEquals(1, createdIds.size());
+		assertEquals(createdIds.iterator().next(),
+				appointmentService.createAppointment(request(key, LocalTime.of(10, 0))).getId());
+	}
+
+	@Test
+	void differentKeysCreateSeparateAppointments() {
+		createdIds.add(appointmentService.createAppointment(request(UUID.randomUUID().toString(), LocalTime.of(11, 0))).getId());
+		createdIds.add(appointmentService.createAppointment(request(UUID.randomUUID().toString(), LocalTime.of(12, 0))).getId());
+
+		assertEquals(2, createdIds.size());
+	}
+
+	@Test
+	void errorIsPassedToWaitingRequestsAndTheKeyForgotten() throws Exception {
+		String key = UUID.randomUUID().toString();
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch fail = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		Future<Object> first = executor.submit(() -> idempotencyKeyStore.execute(key, () -> {
+			running.countDown();
+			awaitQuietly(fail);
+			throw new OutOfMemoryError("simulated");
+		}));
+		assertTrue(running.await(10, TimeUnit.SECONDS));
+		AtomicReference<Thread> waiter = new AtomicReference<>();
+		Future<Object> waiting = executor.submit(() -> {
+			waiter.set(Thread.currentThread());
+			return idempotencyKeyStore.execute(key, () -> "ran again");
+		});
+		// the waiting request parks on the first request's result
+		while (waiter.get() == null || waiter.get().getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		fail.countDown();
+
+		ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+		ExecutionException waitingFailure = assertThrows(ExecutionException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		assertInstanceOf(OutOfMemoryError.class, firstFailure.getCause());
+		assertSame(firstFailure.getCause(), waitingFailure.getCause());
+		assertEquals("retried", idempotencyKeyStore.execute(key, () -> "retried"));
+	}
+
+	@Test
+	@Transactional
+	void databaseRejectsSecondAppointmentInSameSlot() {
+		appointmentRepo.saveAndFlush(slot(1L));
+
+		assertThrows(DataIntegrityViolationException.class, () -> appointmentRepo.saveAndFlush(slot(2L)));
+	}
+
+	@Test
+	@Transactional
+	void bulkStatusUpdateIncrementsVersion() {
+		Appointment appointment = appointmentRepo.saveAndFlush(slot(1L));
+		assertEquals(0L, appointment.getVersion());
+
+		appointmentRepo.updateStatusByIds(List.of(appointment.getId()), AppointmentStatus.ARCHIVED);
+		entityManager.clear();
+
+		Appointment archived = appointmentRepo.findById(appointment.getId()).orElseThrow();
+		assertEquals(AppointmentStatus.ARCHIVED, archived.getAppointmentStatus());
+		assertEquals(1L, archived.getVersion());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Appointment slot(Long patientId) {
+		return Appointment.builder()
+				.date(DATE)
+				.startTime(LocalTime.of(15, 0))
+				.endTime(LocalTime.of(15, 30))
+				.appointmentStatus(AppointmentStatus.UPCOMING)
+				.doctor(entityManager.getReference(Doctor.class, DOCTOR_ID))
+				.patient(entityManager.getReference(Patient.class, patientId))
+				.build();
+	}
+
+	private CreateAppointmentDTO request(String idempotencyKey, LocalTime startTime) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(1L);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setStartTime(startTime);
+		dto.setIdempotencyKey(idempotencyKey);
+		return dto;
+	}
+}
@@ -0,0 +1,138 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the entity-based and the projection-based read path for a patient's upcoming appointments.
+ *
+ * <p>The entity path hydrates {@code Appointment -> Doctor -> Hospital} through the
+ * {@code Appointment.details} graph and copies the fields afterwards. The projection path selects
+ * the fields straight into {@link AppointmentDTO}. Allocated bytes are measured per thread.</p>
+ */
+@SpringBootTest
+class AppointmentReadPathBenchmarkTests {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AppointmentReadPathBenchmarkTests.class);
+
+	private static final Long PATIENT_ID = 1L;
+	private static final int APPOINTMENTS = 300;
+	private static final int ITERATIONS = 30;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void enableStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void disableStatistics() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	@Transactional
+	void projectionCreatesNoEntitiesAndAllocatesLess() {
+		seedAppointments();
+
+		Supplier<List<AppointmentDTO>> entityPath = () -> appointmentRepo
+				.findByPatientIdAndAppointmentStatus(PATIENT_ID, AppointmentStatus.UPCOMING).stream()
+				.map(this::copyToDto)
+				.toList();
+		Supplier<List<AppointmentDTO>> projectionPath = () -> appointmentRepo
+				.findDtosByPatientIdAndStatus(PATIENT_ID, AppointmentStatus.UPCOMING);
+
+		assertEquals(entityPath.get().size(), projectionPath.get().size());
+		entityManager.clear();
+
+		statistics.clear();
+		projectionPath.get();
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+
+		long entityBytes = allocatedPerCall(entityPath);
+		long projectionBytes = allocatedPerCall(projectionPath);
+
+		LOG.info("Upcoming appointments ({} rows): entity path {} KB/call, projection {} KB/call",
+				APPOINTMENTS, entityBytes / 1024, projectionBytes / 1024);
+		assertTrue(projectionBytes < entityBytes,
+				() -> "projection allocated " + projectionBytes + " bytes per call, entity path " + entityBytes);
+	}
+
+	private long allocatedPerCall(Supplier<List<AppointmentDTO>> path) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			path.get();
+			entityManager.clear();
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; i++) {
+			path.get();
+			entityManager.clear();
+		}
+		return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+	}
+
+	private void seedAppointments() {
+		Doctor doctor = entityManager.getReference(Doctor.class, 4L);
+		Patient patient = entityManager.getReference(Patient.class, PATIENT_ID);
+		for (int i = 0; i < APPOINTMENTS; i++) {
+			entityManager.persist(Appointment.builder()
+					.date(LocalDate.now().plusYears(30).plusDays(i))
+					.appointmentStatus(AppointmentStatus.UPCOMING)
+					.doctor(doctor)
+					.patient(patient)
+					.build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private AppointmentDTO copyToDto(Appointment appointment) {
+		return new AppointmentDTO(
+				appointment.getId(),
+				appointment.getDoctor().getSpecialization(),
+				appointment.getDoctor().getHospital().getName(),
+				appointment.getDoctor().getHospital().getAddress(),
+				appointment.getAppointmentStatus(),
+				appointment.getDate(),
+				appointment.getStartTime(),
+				appointment.getEndTime());
+	}
+}
@@ -0,0 +1,211 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.appointment.AppointmentReminderDTO;
+import tbektenov.com.sau.dtos.appointment.ReminderResultDTO;
+import tbektenov.com.sau.exceptions.NotificationFailedException;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.ReminderStatus;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentReminderService;
+import tbektenov.com.sau.services.notification.IAppointmentNotifier;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"appointments.reminders.notifier=recording",
+		"appointments.reminders.batch-size=10",
+		"appointments.reminders.max-concurrency=4",
+		"appointments.reminders.max-attempts=2"
+})
+class AppointmentReminderTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final long[] PATIENT_IDS = {1L, 2L, 3L, 5L, 6L};
+	private static final Long UNREACHABLE_PATIENT_ID = 6L;
+	private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+	@Autowired
+	private IAppointmentReminderService reminderService;
+	@Autowired
+	private RecordingNotifier notifier;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private EntityManager entityManager;
+
+	private final List<Appointment> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAllById(created.stream().map(Appointment::getId).toList());
+		created.clear();
+		notifier.deliveries.clear();
+		notifier.brokenPatientId = null;
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void dueRemindersAreSentConcurrentlyAndFailuresRetriedUntilGivenUp() {
+		createAppointments(25);
+
+		ReminderResultDTO first = reminderService.dispatchDueReminders();
+
+		assertTrue(first.getBatches() >= 3);
+		assertTrue(notifier.maxInFlight.get() <= 4);
+		assertTrue(notifier.maxInFlight.get() > 1);
+		for (Appointment appointment : created) {
+			Appointment stored = appointmentRepo.findById(appointment.getId()).orElseThrow();
+			assertEquals(1, notifier.deliveries.get(appointment.getId()).get());
+			// the bookkeeping must not conflict with a concurrent change of the appointment
+			assertEquals(appointment.getVersion(), stored.getVersion());
+			if (isUnreachable(appointment)) {
+				assertEquals(ReminderStatus.PENDING, stored.getReminderStatus());
+				assertEquals(1, stored.getReminderAttempts());
+			} else {
+				assertEquals(ReminderStatus.SENT, stored.getReminderStatus());
+				assertNotNull(stored.getReminderSentAt());
+			}
+		}
+
+		reminderService.dispatchDueReminders();
+		reminderService.dispatchDueReminders();
+
+		for (Appointment appointment : created) {
+			Appointment stored = appointmentRepo.findById(appointment.getId()).orElseThrow();
+			if (isUnreachable(appointment)) {
+				assertEquals(2, notifier.deliveries.get(appointment.getId()).get());
+				assertEquals(ReminderStatus.FAILED, stored.getReminderStatus());
+			} else {
+				assertEquals(1, notifier.deliveries.get(appointment.getId()).get());
+			}
+		}
+	}
+
+	@Test
+	void errorFromTheNotifierEndsTheRunAfterItsBatchIsRecorded() {
+		createAppointments(5);
+		notifier.brokenPatientId = 2L;
+
+		assertThrows(ServiceConfigurationError.class, () -> reminderService.dispatchDueReminders());
+
+		for (Appointment appointment : created) {
+			Appointment stored = appointmentRepo.findById(appointment.getId()).orElseThrow();
+			if (isUnreachable(appointment) || appointment.getPatient().getId().equals(2L)) {
+				assertEquals(ReminderStatus.PENDING, stored.getReminderStatus());
+				assertEquals(1, stored.getReminderAttempts());
+			} else {
+				assertEquals(ReminderStatus.SENT, stored.getReminderStatus());
+			}
+		}
+
+		notifier.brokenPatientId = null;
+		reminderService.dispatchDueReminders();
+
+		for (Appointment appointment : created) {
+			int expected = isUnreachable(appointment) || appointment.getPatient().getId().equals(2L) ? 2 : 1;
+			assertEquals(expected, notifier.deliveries.get(appointment.getId()).get());
+		}
+	}
+
+	@Test
+	void remindersOfArchivedAppointmentsAreNotMarkedAsSent() {
+		createAppointments(1);
+		Long id = created.get(0).getId();
+
+		int updated = transactionTemplate.execute(status -> {
+			appointmentRepo.updateStatusByIds(List.of(id), AppointmentStatus.ARCHIVED);
+			return appointmentRepo.markRemindersSent(List.of(id), LocalDateTime.now());
+		});
+
+		assertEquals(0, updated);
+		assertEquals(ReminderStatus.PENDING, appointmentRepo.findById(id).orElseThrow().getReminderStatus());
+	}
+
+	private boolean isUnreachable(Appointment appointment) {
+		return appointment.getPatient().getId().equals(UNREACHABLE_PATIENT_ID);
+	}
+
+	private void createAppointments(int count) {
+		transactionTemplate.executeWithoutResult(status -> {
+			Doctor doctor = entityManager.getReference(Doctor.class, DOCTOR_ID);
+			for (int i = 0; i < count; i++) {
+				created.add(appointmentRepo.save(Appointment.builder()
+						.date(DATE)
+						.startTime(LocalTime.of(8, 0).plusMinutes(i))
+						.appointmentStatus(AppointmentStatus.UPCOMING)
+						.doctor(doctor)
+						.patient(entityManager.getReference(Patient.class, PATIENT_IDS[i % PATIENT_IDS.length]))
+						.build()));
+			}
+		});
+	}
+
+	@TestConfiguration
+	static class RecordingNotifierConfiguration {
+		@Bean
+		RecordingNotifier recordingNotifier() {
+			return new RecordingNotifier();
+		}
+	}
+
+	/**
+	 * Notifier counting deliveries per appointment and the deliveries in flight,
+	 * failing every reminder of the unreachable patient and throwing an error for the broken one.
+	 */
+	static class RecordingNotifier implements IAppointmentNotifier {
+		private final Map<Long, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+		private volatile Long brokenPatientId;
+
+		@Override
+		public void sendReminder(AppointmentReminderDTO reminder) {
+			deliveries.computeIfAbsent(reminder.getAppointmentId(), id -> new AtomicInteger()).incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				inFlight.decrementAndGet();
+			}
+
+			if (reminder.getPatientId().equals(brokenPatientId)) {
+				throw new ServiceConfigurationError("Mail client could not be loaded");
+			}
+			if (reminder.getPatientId().equals(UNREACHABLE_PATIENT_ID)) {
+				throw new NotificationFailedException("Mailbox unavailable");
+			}
+		}
+	}
+}
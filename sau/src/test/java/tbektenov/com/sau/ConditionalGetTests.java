@@ -0,0 +1,213 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.ServletWebRequest;
+import tbektenov.com.sau.controllers.appointment.AppointmentController;
+import tbektenov.com.sau.controllers.hospital.HospitalController;
+import tbektenov.com.sau.controllers.user.AuthController;
+import tbektenov.com.sau.dtos.appointment.AppointmentDTO;
+import tbektenov.com.sau.dtos.hospital.HospitalTotals;
+import tbektenov.com.sau.events.AppointmentCreatedEvent;
+import tbektenov.com.sau.events.DoctorDirectoryChangedEvent;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.services.version.ContentVersions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ConditionalGetTests {
+
+	private static final String USERNAME = "s26218";
+	private static final Long PATIENT_ID = 1L;
+	private static final Long HOSPITAL_ID = 1L;
+
+	@Autowired
+	private AuthController authController;
+	@Autowired
+	private HospitalController hospitalController;
+	@Autowired
+	private AppointmentController appointmentController;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private ContentVersions contentVersions;
+
+	private final MockHttpSession session = new MockHttpSession();
+
+	@BeforeEach
+	void logIn() {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(USERNAME, null, "PATIENT"));
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void unchangedHomePageIsNotModifiedWithoutQueries() {
+		MockHttpServletResponse first = get("/home", null, this::home);
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		assertEquals(200, first.getStatus());
+		assertNotNull(etag);
+		assertNotNull(first.getHeader(HttpHeaders.LAST_MODIFIED));
+		assertEquals("no-cache, private", first.getHeader(HttpHeaders.CACHE_CONTROL));
+
+		List<String> statements = new ArrayList<>();
+		MockHttpServletResponse second = StatementRecorder.record(statements, () -> get("/home", etag, this::home));
+
+		assertEquals(304, second.getStatus());
+		assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+		assertTrue(statements.isEmpty(), () -> "Revalidating the home page issued:\n" + String.join("\n", statements));
+	}
+
+	@Test
+	void bookingChangesTheHomePageTag() {
+		String etag = get("/home", null, this::home).getHeader(HttpHeaders.ETAG);
+
+		eventPublisher.publishEvent(new AppointmentCreatedEvent(PATIENT_ID, 4L, new AppointmentDTO()));
+
+		MockHttpServletResponse response = get("/home", etag, this::home);
+		assertEquals(200, response.getStatus());
+		assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void changingAHospitalChangesTheCatalogTag() {
+		String etag = get("/hospitals", null, this::hospitals).getHeader(HttpHeaders.ETAG);
+		assertEquals(304, get("/hospitals", etag, this::hospitals).getStatus());
+		String address = entityManager.find(Hospital.class, HOSPITAL_ID).getAddress();
+
+		try {
+			updateAddress(address + " 1");
+
+			MockHttpServletResponse response = get("/hospitals", etag, this::hospitals);
+			assertEquals(200, response.getStatus());
+			assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+		} finally {
+			updateAddress(address);
+		}
+	}
+
+	@Test
+	void changingAHospitalChangesItsDetailsTag() {
+		MockHttpServletResponse first = get("/hospitals/" + HOSPITAL_ID, null, this::hospitalDetails);
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		assertEquals(200, first.getStatus());
+		assertNotNull(etag);
+		assertEquals(304, get("/hospitals/" + HOSPITAL_ID, etag, this::hospitalDetails).getStatus());
+		String address = entityManager.find(Hospital.class, HOSPITAL_ID).getAddress();
+
+		try {
+			updateAddress(address + " 1");
+
+			MockHttpServletResponse response = get("/hospitals/" + HOSPITAL_ID, etag, this::hospitalDetails);
+			assertEquals(200, response.getStatus());
+			assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+		} finally {
+			updateAddress(address);
+		}
+	}
+
+	@Test
+	void unchangedHospitalDetailsAreNotModifiedWithoutQueries() {
+		String etag = get("/hospitals/" + HOSPITAL_ID, null, this::hospitalDetails).getHeader(HttpHeaders.ETAG);
+
+		List<String> statements = new ArrayList<>();
+		MockHttpServletResponse second = StatementRecorder.record(statements,
+				() -> get("/hospitals/" + HOSPITAL_ID, etag, this::hospitalDetails));
+
+		assertEquals(304, second.getStatus());
+		assertTrue(statements.isEmpty(), () -> "Revalidating the hospital details issued:\n" + String.join("\n", statements));
+	}
+
+	@Test
+	void unknownHospitalIsNotFoundEvenWithAMatchingTag() {
+		String etag = contentVersions.etag("hospital--1", contentVersions.hospitalCatalog());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hospitals/-1");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		ServletWebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+
+		assertThrows(ObjectNotFoundException.class,
+				() -> hospitalController.getDoctorsFromHospital(-1L, new ExtendedModelMap(), webRequest));
+	}
+
+	@Test
+	void bookingFormIsNotModifiedUntilTheSlotsOrDoctorsChange() {
+		MockHttpServletResponse first = get("/appointments/new", null, this::newAppointment);
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		assertEquals(200, first.getStatus());
+		assertNotNull(etag);
+		assertEquals(304, get("/appointments/new", etag, this::newAppointment).getStatus());
+
+		eventPublisher.publishEvent(new AppointmentCreatedEvent(PATIENT_ID, 4L, new AppointmentDTO()));
+
+		MockHttpServletResponse booked = get("/appointments/new", etag, this::newAppointment);
+		assertEquals(200, booked.getStatus());
+		String bookedEtag = booked.getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, bookedEtag);
+		assertEquals(304, get("/appointments/new", bookedEtag, this::newAppointment).getStatus());
+
+		eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(Doctor.class));
+
+		assertEquals(200, get("/appointments/new", bookedEtag, this::newAppointment).getStatus());
+	}
+
+	private String home(ServletWebRequest request) {
+		return authController.showHomePage(AppointmentStatus.UPCOMING, null, null, 10, new ExtendedModelMap(), session, request);
+	}
+
+	private String hospitals(ServletWebRequest request) {
+		return hospitalController.showHospitals(0, 5, HospitalTotals.CACHED, new ExtendedModelMap(), request);
+	}
+
+	private String hospitalDetails(ServletWebRequest request) {
+		return hospitalController.getDoctorsFromHospital(HOSPITAL_ID, new ExtendedModelMap(), request);
+	}
+
+	private String newAppointment(ServletWebRequest request) {
+		return appointmentController.newAppointment(null, null, null, 0, 20, new ExtendedModelMap(), session, request);
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch, Function<ServletWebRequest, String> handler) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setSession(session);
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		String view = handler.apply(new ServletWebRequest(request, response));
+		assertEquals(response.getStatus() == 304, view == null);
+		return response;
+	}
+
+	private void updateAddress(String address) {
+		transactionTemplate.executeWithoutResult(status -> entityManager.find(Hospital.class, HOSPITAL_ID).setAddress(address));
+	}
+}
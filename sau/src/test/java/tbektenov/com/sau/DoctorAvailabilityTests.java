@@ -0,0 +1,125 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.dtos.doctor.DoctorAvailabilityDTO;
+import tbektenov.com.sau.exceptions.SlotAlreadyBookedException;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.IDoctorService;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "appointments.availability.daily-slots=3")
+class DoctorAvailabilityTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final LocalDate DATE = LocalDate.now().plusYears(11);
+
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private IDoctorService doctorService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final List<Long> createdIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		appointmentRepo.deleteAllById(createdIds);
+		createdIds.clear();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void bookingsAreCountedWithoutQueryingAppointments() {
+		assertEquals(3, availabilityOf(DOCTOR_ID, DATE).getFreeSlots());
+
+		book(1L, LocalTime.of(8, 0));
+		book(2L, LocalTime.of(9, 0));
+		assertThrows(SlotAlreadyBookedException.class, () -> book(3L, LocalTime.of(9, 0)));
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		try {
+			DoctorAvailabilityDTO availability = availabilityOf(DOCTOR_ID, DATE);
+			assertEquals(2, availability.getBookedSlots());
+			assertEquals(1, availability.getFreeSlots());
+			assertEquals(0, doctorAvailabilityCache.getBooked(DOCTOR_ID, DATE.plusDays(1)));
+			assertFalse(List.of(statistics.getQueries()).stream()
+					.anyMatch(query -> query.contains("Appointment")));
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+
+		book(3L, LocalTime.of(10, 0));
+		book(5L, LocalTime.of(11, 0));
+		assertEquals(0, availabilityOf(DOCTOR_ID, DATE).getFreeSlots());
+	}
+
+	@Test
+	void cancellationAndPruningReleaseCounters() {
+		book(1L, LocalTime.of(8, 0));
+		doctorAvailabilityCache.recordCancellation(DOCTOR_ID, DATE);
+		assertEquals(0, doctorAvailabilityCache.getBooked(DOCTOR_ID, DATE));
+
+		book(2L, LocalTime.of(9, 0));
+		doctorAvailabilityCache.pruneBefore(DATE.plusDays(1));
+		assertEquals(0, doctorAvailabilityCache.getBooked(DOCTOR_ID, DATE));
+	}
+
+	@Test
+	void availabilityOfTheGivenDoctorsIsReadWithoutQueries() {
+		book(1L, LocalTime.of(8, 0));
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		try {
+			List<DoctorAvailabilityDTO> availability = doctorService.getDoctorAvailability(List.of(DOCTOR_ID), DATE);
+			assertEquals(List.of(DOCTOR_ID), availability.stream().map(DoctorAvailabilityDTO::getDoctorId).toList());
+			assertEquals(2, availability.get(0).getFreeSlots());
+			assertEquals(0, statistics.getPrepareStatementCount());
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+	}
+
+	private void book(Long patientId, LocalTime startTime) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(patientId);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setStartTime(startTime);
+		createdIds.add(appointmentService.createAppointment(dto).getId());
+	}
+
+	private DoctorAvailabilityDTO availabilityOf(Long doctorId, LocalDate date) {
+		return doctorService.getDoctorAvailability(date).stream()
+				.filter(availability -> availability.getDoctorId().equals(doctorId))
+				.findFirst()
+				.orElseThrow();
+	}
+}
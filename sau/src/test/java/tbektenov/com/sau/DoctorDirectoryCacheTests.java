@@ -0,0 +1,141 @@
+package tbektenov.com.sau;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.user.UserEntity;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.repositories.UserRepo;
+import tbektenov.com.sau.services.IDoctorService;
+import tbektenov.com.sau.services.IUserService;
+import tbektenov.com.sau.services.directory.DoctorDirectoryCache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DoctorDirectoryCacheTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final String USERNAME = "directory-test";
+
+	@Autowired
+	private IDoctorService doctorService;
+	@Autowired
+	private IUserService userService;
+	@Autowired
+	private UserRepo userRepo;
+	@Autowired
+	private DoctorDirectoryCache doctorDirectoryCache;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void startEmpty() {
+		doctorDirectoryCache.invalidate();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		userRepo.findByUsername(USERNAME).ifPresent(userRepo::delete);
+	}
+
+	@Test
+	void directoryIsLoadedOnceAndCountsHitsAndMisses() {
+		double hits = count("doctors.directory.cache.hits");
+		double misses = count("doctors.directory.cache.misses");
+
+		List<DoctorDTO> first = doctorService.getAllDoctors();
+		List<DoctorDTO> second = doctorService.getAllDoctors();
+
+		assertSame(first, second);
+		assertEquals(misses + 1, count("doctors.directory.cache.misses"));
+		assertEquals(hits + 1, count("doctors.directory.cache.hits"));
+	}
+
+	@Test
+	void registeringAndRemovingADoctorInvalidatesTheDirectory() {
+		doctorService.getAllDoctors();
+
+		userService.registerUser(TestFixtures.doctorRegistration(USERNAME, "Dana", "Directorytest"));
+		assertTrue(containsSurname("Directorytest"));
+
+		userRepo.delete(userRepo.findByUsername(USERNAME).orElseThrow());
+		assertFalse(containsSurname("Directorytest"));
+	}
+
+	@Test
+	void movingADoctorInvalidatesTheDirectory() {
+		DoctorDTO before = find(doctorService.getAllDoctors(), DOCTOR_ID);
+		Long originalHospitalId = hospitalIdOf(DOCTOR_ID);
+		Hospital other = entityManager.createQuery("select h from Hospital h where h.id <> :id order by h.id", Hospital.class)
+				.setParameter("id", originalHospitalId)
+				.setMaxResults(1)
+				.getSingleResult();
+
+		try {
+			updateDoctor(doctor -> doctor.setHospital(entityManager.getReference(Hospital.class, other.getId())));
+
+			assertEquals(other.getName(), find(doctorService.getAllDoctors(), DOCTOR_ID).getHospitalName());
+		} finally {
+			updateDoctor(doctor -> doctor.setHospital(entityManager.getReference(Hospital.class, originalHospitalId)));
+		}
+		assertEquals(before, find(doctorService.getAllDoctors(), DOCTOR_ID));
+	}
+
+	@Test
+	void unrelatedChangesKeepTheDirectory() {
+		List<DoctorDTO> cached = doctorService.getAllDoctors();
+		double invalidations = count("doctors.directory.cache.invalidations");
+		String email = userRepo.findById(DOCTOR_ID).orElseThrow().getEmail();
+
+		try {
+			updateUser(user -> user.setEmail("directory-test@example.com"));
+		} finally {
+			updateUser(user -> user.setEmail(email));
+		}
+
+		assertEquals(invalidations, count("doctors.directory.cache.invalidations"));
+		assertSame(cached, doctorService.getAllDoctors());
+	}
+
+	private boolean containsSurname(String surname) {
+		return doctorService.getAllDoctors().stream().anyMatch(doctor -> doctor.getSurname().equals(surname));
+	}
+
+	private Long hospitalIdOf(Long doctorId) {
+		return transactionTemplate.execute(status -> entityManager.find(Doctor.class, doctorId).getHospital().getId());
+	}
+
+	private void updateDoctor(Consumer<Doctor> change) {
+		transactionTemplate.executeWithoutResult(status -> change.accept(entityManager.find(Doctor.class, DOCTOR_ID)));
+	}
+
+	private void updateUser(Consumer<UserEntity> change) {
+		transactionTemplate.executeWithoutResult(status -> change.accept(entityManager.find(UserEntity.class, DOCTOR_ID)));
+	}
+
+	private static DoctorDTO find(List<DoctorDTO> doctors, Long doctorId) {
+		return doctors.stream()
+				.filter(doctor -> doctor.getId().equals(doctorId))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private double count(String name) {
+		return meterRegistry.counter(name).count();
+	}
+}
@@ -0,0 +1,105 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.search.DoctorFacetsDTO;
+import tbektenov.com.sau.dtos.search.FacetCountDTO;
+import tbektenov.com.sau.dtos.search.HospitalSpecializationCountDTO;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.repositories.UserRepo;
+import tbektenov.com.sau.services.IDoctorFacetService;
+import tbektenov.com.sau.services.IDoctorService;
+import tbektenov.com.sau.services.IUserService;
+import tbektenov.com.sau.services.directory.DoctorFacetCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DoctorFacetTests {
+
+	private static final String USERNAME = "facet-test";
+
+	@Autowired
+	private IDoctorFacetService doctorFacetService;
+	@Autowired
+	private IDoctorService doctorService;
+	@Autowired
+	private IUserService userService;
+	@Autowired
+	private UserRepo userRepo;
+	@Autowired
+	private DoctorFacetCache doctorFacetCache;
+
+	@BeforeEach
+	void startEmpty() {
+		doctorFacetCache.invalidate();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		userRepo.findByUsername(USERNAME).ifPresent(userRepo::delete);
+	}
+
+	@Test
+	void countsMatchTheDoctors() {
+		List<DoctorDTO> doctors = doctorService.getAllDoctors();
+		DoctorFacetsDTO facets = doctorFacetService.getFacets();
+
+		assertEquals(doctors.stream().collect(Collectors.groupingBy(DoctorDTO::getHospitalName, Collectors.counting())),
+				toMap(facets.getHospitals()));
+		assertEquals(doctors.stream().collect(Collectors.groupingBy(doctor -> doctor.getSpecialization().name(), Collectors.counting())),
+				toMap(facets.getSpecializations()));
+		assertEquals(doctors.size(), facets.getHospitalSpecializations().stream()
+				.mapToLong(HospitalSpecializationCountDTO::getCount)
+				.sum());
+
+		List<String> hospitals = facets.getHospitals().stream().map(FacetCountDTO::getValue).toList();
+		assertEquals(hospitals.stream().sorted().toList(), hospitals);
+		List<Specialization> specializations = facets.getSpecializations().stream()
+				.map(facet -> Specialization.valueOf(facet.getValue()))
+				.toList();
+		assertEquals(specializations.stream().sorted().toList(), specializations);
+	}
+
+	@Test
+	void facetsCostOneStatementAndAreThenCached() {
+		List<String> statements = new ArrayList<>();
+		DoctorFacetsDTO first = StatementRecorder.record(statements, () -> doctorFacetService.getFacets());
+		assertEquals(1, statements.size(), () -> "Counting the doctors issued:\n" + String.join("\n", statements));
+
+		statements.clear();
+		DoctorFacetsDTO second = StatementRecorder.record(statements, () -> doctorFacetService.getFacets());
+		assertSame(first, second);
+		assertTrue(statements.isEmpty(), () -> "Cached facets issued:\n" + String.join("\n", statements));
+	}
+
+	@Test
+	void registeringADoctorInvalidatesTheFacets() {
+		long dentists = specializationCount(doctorFacetService.getFacets(), Specialization.DENTIST);
+
+		userService.registerUser(TestFixtures.doctorRegistration(USERNAME, "Farah", "Facettest"));
+
+		assertEquals(dentists + 1, specializationCount(doctorFacetService.getFacets(), Specialization.DENTIST));
+	}
+
+	private static long specializationCount(DoctorFacetsDTO facets, Specialization specialization) {
+		return facets.getSpecializations().stream()
+				.filter(facet -> facet.getValue().equals(specialization.name()))
+				.mapToLong(FacetCountDTO::getCount)
+				.sum();
+	}
+
+	private static Map<String, Long> toMap(List<FacetCountDTO> facets) {
+		return facets.stream().collect(Collectors.toMap(FacetCountDTO::getValue, FacetCountDTO::getCount));
+	}
+
+}
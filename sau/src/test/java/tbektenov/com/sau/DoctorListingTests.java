@@ -0,0 +1,53 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.repositories.DoctorRepo;
+import tbektenov.com.sau.services.IDoctorService;
+import tbektenov.com.sau.services.directory.DoctorDirectoryCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DoctorListingTests {
+
+	@Autowired
+	private IDoctorService doctorService;
+	@Autowired
+	private DoctorRepo doctorRepo;
+	@Autowired
+	private DoctorDirectoryCache doctorDirectoryCache;
+
+	@Test
+	void listingDoctorsCostsOneStatement() {
+		List<String> statements = new ArrayList<>();
+		List<DoctorDTO> doctors = StatementRecorder.record(statements, () -> doctorRepo.findAllListings());
+
+		assertEquals(doctorRepo.count(), doctors.size());
+		assertTrue(doctors.size() > 1);
+		assertEquals(1, statements.size(), () -> "Listing doctors issued:\n" + String.join("\n", statements));
+		doctors.forEach(doctor -> {
+			assertNotNull(doctor.getName());
+			assertNotNull(doctor.getSurname());
+			assertNotNull(doctor.getSpecialization());
+			assertNotNull(doctor.getHospitalName());
+		});
+	}
+
+	@Test
+	void loadingTheDirectoryCostsOneStatement() {
+		doctorDirectoryCache.invalidate();
+
+		List<String> statements = new ArrayList<>();
+		List<DoctorDTO> doctors = StatementRecorder.record(statements, () -> doctorService.getAllDoctors());
+
+		assertEquals(doctorRepo.count(), doctors.size());
+		assertEquals(1, statements.size(), () -> "Loading the directory issued:\n" + String.join("\n", statements));
+	}
+
+}
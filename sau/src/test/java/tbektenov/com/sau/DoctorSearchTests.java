@@ -0,0 +1,93 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.doctor.DoctorResponse;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.services.IDoctorService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DoctorSearchTests {
+
+	private static final Comparator<DoctorDTO> BY_SURNAME = Comparator.comparing(DoctorDTO::getSurname)
+			.thenComparing(DoctorDTO::getId);
+
+	@Autowired
+	private IDoctorService doctorService;
+
+	@Test
+	void filtersMatchTheFullDoctorList() {
+		List<DoctorDTO> all = doctorService.getAllDoctors();
+		DoctorDTO sample = all.get(0);
+
+		assertMatches(all, null, null, null, doctor -> true);
+		assertMatches(all, sample.getHospitalName(), null, null,
+				doctor -> doctor.getHospitalName().equals(sample.getHospitalName()));
+		assertMatches(all, null, sample.getSpecialization(), null,
+				doctor -> doctor.getSpecialization() == sample.getSpecialization());
+		assertMatches(all, sample.getHospitalName(), sample.getSpecialization(), null,
+				doctor -> doctor.getHospitalName().equals(sample.getHospitalName())
+						&& doctor.getSpecialization() == sample.getSpecialization());
+
+		String prefix = sample.getSurname().substring(0, 2);
+		assertMatches(all, null, null, prefix.toUpperCase(Locale.ROOT),
+				doctor -> doctor.getSurname().toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT)));
+	}
+
+	@Test
+	void pagesCoverEveryMatchOnce() {
+		List<DoctorDTO> all = new ArrayList<>(doctorService.getAllDoctors());
+		all.sort(BY_SURNAME);
+
+		List<DoctorDTO> paged = new ArrayList<>();
+		DoctorResponse page;
+		int pageNo = 0;
+		do {
+			page = doctorService.searchDoctors(" ", null, "", pageNo++, 2);
+			assertEquals(all.size(), page.getTotalElements());
+			assertTrue(page.getContent().size() <= 2);
+			paged.addAll(page.getContent());
+		} while (!page.isLast());
+
+		assertEquals(all, paged);
+		assertEquals(pageNo, page.getTotalPages());
+	}
+
+	@Test
+	void wildcardsInTheNameAreMatchedLiterally() {
+		assertTrue(doctorService.searchDoctors(null, null, "%", 0, 20).getContent().isEmpty());
+		assertTrue(doctorService.searchDoctors(null, null, "_", 0, 20).getContent().isEmpty());
+	}
+
+	@Test
+	void outOfRangePagingIsRejected() {
+		assertThrows(InvalidArgumentsException.class, () -> doctorService.searchDoctors(null, null, null, -1, 20));
+		assertThrows(InvalidArgumentsException.class, () -> doctorService.searchDoctors(null, null, null, 0, 0));
+		assertThrows(InvalidArgumentsException.class, () -> doctorService.searchDoctors(null, null, null, 0, 101));
+	}
+
+	private void assertMatches(List<DoctorDTO> all,
+							   String hospital,
+							   Specialization specialization,
+							   String name,
+							   Predicate<DoctorDTO> filter) {
+		List<DoctorDTO> expected = all.stream().filter(filter).sorted(BY_SURNAME).toList();
+		DoctorResponse response = doctorService.searchDoctors(hospital, specialization, name, 0, 100);
+
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, response.getContent());
+		assertEquals(expected.size(), response.getTotalElements());
+		assertTrue(response.isLast());
+	}
+}
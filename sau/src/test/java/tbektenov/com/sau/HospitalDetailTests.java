@@ -0,0 +1,102 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.doctor.DoctorDTO;
+import tbektenov.com.sau.dtos.hospital.HospitalDTO;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.services.IHospitalService;
+import tbektenov.com.sau.services.directory.HospitalDetailCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "hospitals.details.cache.max-entries=2")
+class HospitalDetailTests {
+
+	private static final Long DOCTOR_ID = 4L;
+
+	@Autowired
+	private IHospitalService hospitalService;
+	@Autowired
+	private HospitalDetailCache hospitalDetailCache;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void startEmpty() {
+		hospitalDetailCache.clear();
+	}
+
+	@Test
+	void detailsAreLoadedWithTwoStatementsAndThenCached() {
+		Long hospitalId = hospitalIdOf(DOCTOR_ID);
+
+		List<String> statements = new ArrayList<>();
+		HospitalDTO first = StatementRecorder.record(statements, () -> hospitalService.getHospitalDetails(hospitalId));
+		assertEquals(2, statements.size(), () -> "Loading the details issued:\n" + String.join("\n", statements));
+		assertTrue(first.getDoctors().stream().anyMatch(doctor -> doctor.getId().equals(DOCTOR_ID)));
+		assertTrue(first.getDoctors().stream().allMatch(doctor -> doctor.getHospitalName().equals(first.getName())));
+
+		statements.clear();
+		HospitalDTO second = StatementRecorder.record(statements, () -> hospitalService.getHospitalDetails(hospitalId));
+		assertSame(first, second);
+		assertTrue(statements.isEmpty(), () -> "Cached details issued:\n" + String.join("\n", statements));
+	}
+
+	@Test
+	void movingADoctorRefreshesTheDetails() {
+		Long originalHospitalId = hospitalIdOf(DOCTOR_ID);
+		Long otherHospitalId = entityManager.createQuery("select h.id from Hospital h where h.id <> :id order by h.id", Long.class)
+				.setParameter("id", originalHospitalId)
+				.setMaxResults(1)
+				.getSingleResult();
+		assertFalse(containsDoctor(hospitalService.getHospitalDetails(otherHospitalId)));
+
+		try {
+			moveDoctor(otherHospitalId);
+
+			assertTrue(containsDoctor(hospitalService.getHospitalDetails(otherHospitalId)));
+			assertFalse(containsDoctor(hospitalService.getHospitalDetails(originalHospitalId)));
+		} finally {
+			moveDoctor(originalHospitalId);
+		}
+		assertFalse(containsDoctor(hospitalService.getHospitalDetails(otherHospitalId)));
+	}
+
+	@Test
+	void cacheIsBoundedAndUnknownHospitalsAreNotCached() {
+		List<Long> hospitalIds = entityManager.createQuery("select h.id from Hospital h order by h.id", Long.class)
+				.setMaxResults(3)
+				.getResultList();
+		hospitalIds.forEach(hospitalService::getHospitalDetails);
+
+		assertEquals(2, hospitalDetailCache.size());
+		assertThrows(ObjectNotFoundException.class, () -> hospitalService.getHospitalDetails(-1L));
+		assertEquals(2, hospitalDetailCache.size());
+	}
+
+	private boolean containsDoctor(HospitalDTO hospital) {
+		return hospital.getDoctors().stream().map(DoctorDTO::getId).anyMatch(DOCTOR_ID::equals);
+	}
+
+	private Long hospitalIdOf(Long doctorId) {
+		return transactionTemplate.execute(status -> entityManager.find(Doctor.class, doctorId).getHospital().getId());
+	}
+
+	private void moveDoctor(Long hospitalId) {
+		transactionTemplate.executeWithoutResult(status -> entityManager.find(Doctor.class, DOCTOR_ID)
+				.setHospital(entityManager.getReference(Hospital.class, hospitalId)));
+	}
+
+}
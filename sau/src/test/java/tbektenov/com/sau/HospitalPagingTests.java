@@ -0,0 +1,142 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.hospital.HospitalDTO;
+import tbektenov.com.sau.dtos.hospital.HospitalResponse;
+import tbektenov.com.sau.dtos.hospital.HospitalTotals;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.services.IHospitalService;
+import tbektenov.com.sau.services.directory.HospitalCountCache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class HospitalPagingTests {
+
+	@Autowired
+	private IHospitalService hospitalService;
+	@Autowired
+	private HospitalRepo hospitalRepo;
+	@Autowired
+	private HospitalCountCache hospitalCountCache;
+
+	@BeforeEach
+	void startEmpty() {
+		hospitalCountCache.reset();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		hospitalRepo.findByName("Paging Test Hospital").ifPresent(hospitalRepo::delete);
+	}
+
+	@Test
+	void pagesCostTheSameNumberOfStatementsWhateverTheirSize() {
+		List<String> small = new ArrayList<>();
+		HospitalResponse first = record(small, 0, 2, HospitalTotals.EXACT);
+		List<String> large = new ArrayList<>();
+		HospitalResponse firstFive = record(large, 0, 5, HospitalTotals.EXACT);
+
+		assertEquals(3, small.size(), () -> "A page of hospitals issued:\n" + String.join("\n", small));
+		assertEquals(small.size(), large.size(), () -> "A larger page of hospitals issued:\n" + String.join("\n", large));
+		assertTrue(small.stream().noneMatch(statement -> statement.contains("laborator") || statement.contains("pharmac")),
+				() -> "A page of hospitals loaded unrendered associations:\n" + String.join("\n", small));
+		assertEquals(2, first.getContent().size());
+		assertEquals(hospitalRepo.count(), first.getTotalElements());
+		assertEquals(firstFive.getContent().subList(0, 2).stream().map(HospitalDTO::getHospitalId).toList(),
+				first.getContent().stream().map(HospitalDTO::getHospitalId).toList());
+	}
+
+	@Test
+	void cachedAndOmittedTotalsSkipTheCount() {
+		long hospitals = hospitalRepo.count();
+		hospitalService.getAllHospitals(0, 2, HospitalTotals.CACHED);
+
+		List<String> cached = new ArrayList<>();
+		HospitalResponse withCachedTotals = record(cached, 0, 2, HospitalTotals.CACHED);
+		List<String> none = new ArrayList<>();
+		HospitalResponse withoutTotals = record(none, 0, 2, HospitalTotals.NONE);
+
+		assertEquals(2, cached.size(), () -> "A page with cached totals issued:\n" + String.join("\n", cached));
+		assertEquals(hospitals, withCachedTotals.getTotalElements());
+		assertEquals((hospitals + 1) / 2, withCachedTotals.getTotalPages());
+		assertEquals(2, none.size(), () -> "A page without totals issued:\n" + String.join("\n", none));
+		assertEquals(-1, withoutTotals.getTotalElements());
+		assertEquals(-1, withoutTotals.getTotalPages());
+		assertFalse(withoutTotals.isLast());
+	}
+
+	@Test
+	void lastPageDerivesItsTotalWithoutCounting() {
+		long hospitals = hospitalRepo.count();
+		int pageSize = (int) hospitals - 1;
+
+		List<String> statements = new ArrayList<>();
+		HospitalResponse last = record(statements, 1, pageSize, HospitalTotals.EXACT);
+
+		assertEquals(2, statements.size(), () -> "The last page issued:\n" + String.join("\n", statements));
+		assertTrue(last.isLast());
+		assertEquals(1, last.getContent().size());
+		assertEquals(hospitals, last.getTotalElements());
+		assertEquals(2, last.getTotalPages());
+	}
+
+	@Test
+	void insertsAndDeletesKeepTheCachedCount() {
+		long hospitals = hospitalCountCache.get();
+
+		Hospital hospital = hospitalRepo.save(Hospital.builder()
+				.name("Paging Test Hospital")
+				.address("Paging Str 1")
+				.laboratories(new HashSet<>())
+				.hospitalPharmacies(new HashSet<>())
+				.hospitalWards(new HashSet<>())
+				.partnerPharmacies(new HashSet<>())
+				.doctors(new HashSet<>())
+				.build());
+		assertEquals(hospitals + 1, countWithoutStatements());
+
+		hospitalRepo.delete(hospital);
+		assertEquals(hospitals, countWithoutStatements());
+	}
+
+	@Test
+	void pagesCarryTheDoctorsOfTheirHospitals() {
+		HospitalResponse page = hospitalService.getAllHospitals(0, 5, HospitalTotals.EXACT);
+
+		List<Long> ids = page.getContent().stream().map(HospitalDTO::getHospitalId).toList();
+		assertEquals(ids.stream().sorted().toList(), ids);
+		for (HospitalDTO hospital : page.getContent()) {
+			assertEquals(hospitalService.getHospitalDetails(hospital.getHospitalId()).getDoctors(), hospital.getDoctors());
+		}
+	}
+
+	@Test
+	void invalidPagesAreRejected() {
+		assertThrows(InvalidArgumentsException.class, () -> hospitalService.getAllHospitals(-1, 5, HospitalTotals.EXACT));
+		assertThrows(InvalidArgumentsException.class, () -> hospitalService.getAllHospitals(0, 0, HospitalTotals.EXACT));
+		assertThrows(InvalidArgumentsException.class, () -> hospitalService.getAllHospitals(0, 101, HospitalTotals.EXACT));
+		assertThrows(InvalidArgumentsException.class, () -> hospitalService.getAllHospitals(0, 5, null));
+	}
+
+	private long countWithoutStatements() {
+		List<String> statements = new ArrayList<>();
+		long count = StatementRecorder.record(statements, () -> hospitalCountCache.get());
+		assertTrue(statements.isEmpty(), () -> "The cached count issued:\n" + String.join("\n", statements));
+		return count;
+	}
+
+	private HospitalResponse record(List<String> statements, int pageNo, int pageSize, HospitalTotals totals) {
+		return StatementRecorder.record(statements, () -> hospitalService.getAllHospitals(pageNo, pageSize, totals));
+	}
+}
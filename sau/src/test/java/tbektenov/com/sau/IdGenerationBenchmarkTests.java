@@ -0,0 +1,136 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import tbektenov.com.sau.dtos.user.RegisterDTO;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.user.Sex;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Patient;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.services.IUserService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures insert throughput of bulk booking and bulk registration.
+ *
+ * <p>With sequence-based IDs Hibernate groups the inserts into JDBC batches, so the number of
+ * prepared statements stays well below the number of inserted rows. With identity columns every
+ * row needs its own statement, which is what these tests guard against.</p>
+ */
+@SpringBootTest
+class IdGenerationBenchmarkTests {
+
+	private static final Logger LOG = LoggerFactory.getLogger(IdGenerationBenchmarkTests.class);
+
+	private static final int APPOINTMENTS = 400;
+	private static final int USERS = 40;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private IUserService userService;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void enableStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void disableStatistics() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	@Transactional
+	void bulkBookingIsBatched() {
+		Doctor doctor = entityManager.getReference(Doctor.class, 4L);
+		Patient patient = entityManager.getReference(Patient.class, 1L);
+		LocalDate date = LocalDate.now().plusYears(20);
+
+		List<Appointment> appointments = new ArrayList<>();
+		for (int i = 0; i < APPOINTMENTS; i++) {
+			appointments.add(Appointment.builder()
+					.date(date.plusDays(i / 16))
+					.startTime(LocalTime.of(8, 0).plusMinutes(30L * (i % 16)))
+					.endTime(LocalTime.of(8, 30).plusMinutes(30L * (i % 16)))
+					.appointmentStatus(AppointmentStatus.UPCOMING)
+					.doctor(doctor)
+					.patient(patient)
+					.build());
+		}
+
+		statistics.clear();
+		long start = System.nanoTime();
+		appointmentRepo.saveAll(appointments);
+		entityManager.flush();
+		long elapsed = System.nanoTime() - start;
+
+		report("booking", statistics.getEntityInsertCount(), elapsed);
+		assertEquals(APPOINTMENTS, statistics.getEntityInsertCount());
+		assertTrue(statistics.getPrepareStatementCount() < APPOINTMENTS / 5,
+				"inserts were not batched: " + statistics.getPrepareStatementCount() + " statements");
+	}
+
+	@Test
+	@Transactional
+	void bulkRegistrationIsBatched() {
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < USERS; i++) {
+			userService.registerUser(registerDto(i));
+		}
+		entityManager.flush();
+		long elapsed = System.nanoTime() - start;
+
+		report("registration", statistics.getEntityInsertCount(), elapsed);
+		assertEquals(2L * USERS, statistics.getEntityInsertCount());
+		assertTrue(statistics.getPrepareStatementCount() < USERS,
+				"inserts were not batched: " + statistics.getPrepareStatementCount() + " statements");
+	}
+
+	private RegisterDTO registerDto(int i) {
+		RegisterDTO registerDTO = new RegisterDTO();
+		registerDTO.setName("Bench");
+		registerDTO.setSurname("User" + i);
+		registerDTO.setUsername("bench_user_" + i);
+		registerDTO.setPassword("bench");
+		registerDTO.setEmail("bench" + i + "@example.com");
+		registerDTO.setPhoneNumber("123-456-7890");
+		registerDTO.setBirthdate(LocalDate.of(1990, 1, 1));
+		registerDTO.setPesel(String.format("900101%05d", i));
+		registerDTO.setSex(Sex.FEMALE);
+		registerDTO.setSsn(String.format("5%08d", i));
+		return registerDTO;
+	}
+
+	private void report(String scenario, long rows, long elapsedNanos) {
+		LOG.info("{}: {} rows, {} statements prepared, {} rows/s", scenario, rows,
+				statistics.getPrepareStatementCount(), Math.round(rows / (elapsedNanos / 1_000_000_000.0)));
+	}
+}
@@ -0,0 +1,296 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.search.FacilityType;
+import tbektenov.com.sau.dtos.search.NearbyFacilityDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.pharmacy.PrivatePharmacy;
+import tbektenov.com.sau.models.user.userRoles.Doctor;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.repositories.DoctorRepo;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.repositories.PrivatePharmacyRepo;
+import tbektenov.com.sau.services.INearbyFacilityService;
+import tbektenov.com.sau.services.search.FacilityLocationIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class NearbyFacilityTests {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NearbyFacilityTests.class);
+
+	private static final String HOSPITAL_NAME = "Nearby Test Hospital";
+	private static final String PHARMACY_NAME = "Nearby Test Pharmacy";
+	private static final String PHARMACY_COMPANY = "Nearby Test Company";
+	private static final long SYNTHETIC_ID_OFFSET = 900_000_000L;
+	private static final int SYNTHETIC_FACILITIES = 20_000;
+	private static final double EARTH_RADIUS_KM = 6371.0088;
+
+	@Autowired
+	private INearbyFacilityService nearbyFacilityService;
+	@Autowired
+	private FacilityLocationIndex facilityLocationIndex;
+	@Autowired
+	private HospitalRepo hospitalRepo;
+	@Autowired
+	private PrivatePharmacyRepo privatePharmacyRepo;
+	@Autowired
+	private DoctorRepo doctorRepo;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		transactionTemplate.executeWithoutResult(status -> privatePharmacyRepo
+				.findByAddressAndPharmaCompany("Nearby Str 1", PHARMACY_COMPANY)
+				.ifPresent(pharmacy -> {
+					List.copyOf(pharmacy.getPartnerHospitals()).forEach(pharmacy::removePartnerHospital);
+					privatePharmacyRepo.delete(pharmacy);
+				}));
+		hospitalRepo.findByName(HOSPITAL_NAME).ifPresent(hospitalRepo::delete);
+		facilityLocationIndex.reset();
+	}
+
+	@Test
+	void nearestFacilitiesMatchAFullScanAcrossChanges() {
+		assertEquals(0, facilityLocationIndex.size(FacilityType.PHARMACY));
+		Random random = new Random(7);
+		Map<Long, double[]> located = new HashMap<>();
+		for (int i = 0; i < 3_000; i++) {
+			locate(located, SYNTHETIC_ID_OFFSET + i, randomPoint(random));
+		}
+		assertNearestMatchFullScan(located, random);
+
+		for (int i = 0; i < 500; i++) {
+			long id = SYNTHETIC_ID_OFFSET + random.nextInt(3_500);
+			switch (random.nextInt(3)) {
+				case 0 -> {
+					facilityLocationIndex.remove(FacilityType.PHARMACY, id);
+					located.remove(id);
+				}
+				case 1 -> {
+					facilityLocationIndex.putPharmacy(id, "Pharmacy " + id, "Street " + id, null, null);
+					located.remove(id);
+				}
+				default -> locate(located, id, randomPoint(random));
+			}
+			if (i % 50 == 0) {
+				assertNearestMatchFullScan(located, random);
+			}
+		}
+		assertEquals(located.size(), facilityLocationIndex.size(FacilityType.PHARMACY));
+		assertNearestMatchFullScan(located, random);
+	}
+
+	@Test
+	void hospitalsAreFilteredBySpecializationOfTheirDoctors() {
+		facilityLocationIndex.size(FacilityType.HOSPITAL);
+		Map<Long, double[]> located = new HashMap<>();
+		for (long id = 1; id <= 6; id++) {
+			double[] point = {42.80 + id / 100.0, 74.50 + id / 100.0};
+			facilityLocationIndex.putHospital(id, "Hospital " + id, "Street " + id, point[0], point[1]);
+			located.put(id, point);
+		}
+
+		for (Specialization specialization : Specialization.values()) {
+			Set<Long> offering = transactionTemplate.execute(status -> {
+				Set<Long> ids = new HashSet<>();
+				for (Doctor doctor : doctorRepo.findAll()) {
+					if (doctor.getSpecialization() == specialization && doctor.getHospital() != null) {
+						ids.add(doctor.getHospital().getId());
+					}
+				}
+				return ids;
+			});
+			Map<Long, double[]> candidates = new HashMap<>(located);
+			candidates.keySet().retainAll(offering);
+
+			List<NearbyFacilityDTO> nearest = nearbyFacilityService.findNearest(FacilityType.HOSPITAL,
+					42.85, 74.55, specialization, null, 10);
+			assertEquals(fullScan(candidates, 42.85, 74.55, 10), ids(nearest), specialization::name);
+		}
+	}
+
+	@Test
+	void pharmaciesAreFilteredByPartnershipAfterCommit() {
+		Hospital partner = hospitalRepo.findById(1L).orElseThrow();
+		List<NearbyFacilityDTO> before = nearbyFacilityService.findNearest(FacilityType.PHARMACY,
+				42.85, 74.55, null, partner.getId(), 50);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			PrivatePharmacy pharmacy = privatePharmacyRepo.save(PrivatePharmacy.builder()
+					.name(PHARMACY_NAME)
+					.address("Nearby Str 1")
+					.pharmaCompany(PHARMACY_COMPANY)
+					.latitude(42.85)
+					.longitude(74.55)
+					.build());
+			pharmacy.addPartnerHospital(hospitalRepo.findById(partner.getId()).orElseThrow());
+		});
+
+		List<NearbyFacilityDTO> after = nearbyFacilityService.findNearest(FacilityType.PHARMACY,
+				42.85, 74.55, null, partner.getId(), 50);
+		assertEquals(before.size() + 1, after.size());
+		assertEquals(PHARMACY_NAME, after.get(0).getName());
+		assertEquals(0.0, after.get(0).getDistanceKm(), 1e-9);
+		assertTrue(nearbyFacilityService.findNearest(FacilityType.PHARMACY, 42.85, 74.55, null, 2L, 50).stream()
+				.noneMatch(facility -> facility.getName().equals(PHARMACY_NAME)));
+	}
+
+	@Test
+	void committedHospitalChangesAreIndexed() {
+		int located = facilityLocationIndex.size(FacilityType.HOSPITAL);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			hospitalRepo.save(hospital(10.0, 20.0));
+			status.setRollbackOnly();
+		});
+		assertEquals(located, facilityLocationIndex.size(FacilityType.HOSPITAL));
+
+		Hospital hospital = hospitalRepo.save(hospital(10.0, 20.0));
+		List<NearbyFacilityDTO> nearest = nearbyFacilityService.findNearest(FacilityType.HOSPITAL,
+				10.0, 20.1, null, null, 1);
+		assertEquals(List.of(hospital.getId()), ids(nearest));
+		assertEquals(10.95, nearest.get(0).getDistanceKm(), 0.01);
+
+		hospital.setLatitude(-10.0);
+		hospital = hospitalRepo.save(hospital);
+		assertEquals(-10.0, nearbyFacilityService.findNearest(FacilityType.HOSPITAL,
+				10.0, 20.1, null, null, 1).get(0).getLatitude());
+
+		hospital.setLatitude(null);
+		hospital = hospitalRepo.save(hospital);
+		assertEquals(located, facilityLocationIndex.size(FacilityType.HOSPITAL));
+
+		hospital.setLatitude(10.0);
+		hospital = hospitalRepo.save(hospital);
+		assertEquals(located + 1, facilityLocationIndex.size(FacilityType.HOSPITAL));
+		hospitalRepo.delete(hospital);
+		assertEquals(located, facilityLocationIndex.size(FacilityType.HOSPITAL));
+	}
+
+	@Test
+	void invalidQueriesAreRejected() {
+		assertThrows(InvalidArgumentsException.class,
+				() -> nearbyFacilityService.findNearest(null, 0.0, 0.0, null, null, 10));
+		assertThrows(InvalidArgumentsException.class,
+				() -> nearbyFacilityService.findNearest(FacilityType.HOSPITAL, 91.0, 0.0, null, null, 10));
+		assertThrows(InvalidArgumentsException.class,
+				() -> nearbyFacilityService.findNearest(FacilityType.HOSPITAL, 0.0, null, null, null, 10));
+		assertThrows(InvalidArgumentsException.class,
+				() -> nearbyFacilityService.findNearest(FacilityType.HOSPITAL, 0.0, 0.0, null, null, 0));
+		assertThrows(InvalidArgumentsException.class,
+				() -> nearbyFacilityService.findNearest(FacilityType.PHARMACY, 0.0, 0.0, Specialization.DENTIST, null, 10));
+		assertThrows(InvalidArgumentsException.class,
+				() -> nearbyFacilityService.findNearest(FacilityType.HOSPITAL, 0.0, 0.0, null, 1L, 10));
+	}
+
+	/**
+	 * Logs the lookup latency over many facilities; timings depend on the machine, so they are
+	 * reported rather than asserted.
+	 */
+	@Test
+	void lookupLatencyOverManyFacilitiesIsReported() {
+		facilityLocationIndex.size(FacilityType.PHARMACY);
+		Random random = new Random(42);
+		for (int i = 0; i < SYNTHETIC_FACILITIES; i++) {
+			double[] point = randomPoint(random);
+			facilityLocationIndex.putPharmacy(SYNTHETIC_ID_OFFSET + i, "Pharmacy " + i, "Street " + i, point[0], point[1]);
+		}
+
+		for (int i = 0; i < SYNTHETIC_FACILITIES; i++) {
+			double[] point = randomPoint(random);
+			nearbyFacilityService.findNearest(FacilityType.PHARMACY, point[0], point[1], null, null, 10);
+		}
+		long[] nanos = new long[SYNTHETIC_FACILITIES];
+		for (int i = 0; i < SYNTHETIC_FACILITIES; i++) {
+			double[] point = randomPoint(random);
+			long started = System.nanoTime();
+			List<NearbyFacilityDTO> nearest = nearbyFacilityService.findNearest(FacilityType.PHARMACY,
+					point[0], point[1], null, null, 10);
+			nanos[i] = System.nanoTime() - started;
+			assertEquals(10, nearest.size());
+		}
+
+		Arrays.sort(nanos);
+		LOG.info("Nearest 10 of {} facilities: p50 {} us, p99 {} us", SYNTHETIC_FACILITIES,
+				nanos[SYNTHETIC_FACILITIES / 2] / 1_000, nanos[SYNTHETIC_FACILITIES * 99 / 100] / 1_000);
+	}
+
+	private void locate(Map<Long, double[]> located, long id, double[] point) {
+		facilityLocationIndex.putPharmacy(id, "Pharmacy " + id, "Street " + id, point[0], point[1]);
+		located.put(id, point);
+	}
+
+	private void assertNearestMatchFullScan(Map<Long, double[]> located, Random random) {
+		List<double[]> points = new ArrayList<>(List.of(
+				new double[]{90, 0}, new double[]{-90, 0}, new double[]{0, 180}, new double[]{0, -179.999}));
+		for (int i = 0; i < 20; i++) {
+			points.add(randomPoint(random));
+		}
+		for (double[] point : points) {
+			List<NearbyFacilityDTO> nearest = facilityLocationIndex.nearest(FacilityType.PHARMACY, point[0], point[1], 7);
+			assertEquals(fullScan(located, point[0], point[1], 7), ids(nearest), () -> Arrays.toString(point));
+			for (NearbyFacilityDTO facility : nearest) {
+				assertEquals(haversine(point, located.get(facility.getId())), facility.getDistanceKm(), 1e-6);
+			}
+		}
+	}
+
+	private static List<Long> fullScan(Map<Long, double[]> located, double latitude, double longitude, int limit) {
+		double[] point = {latitude, longitude};
+		return located.entrySet().stream()
+				.sorted(Comparator.comparingDouble(entry -> haversine(point, entry.getValue())))
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
+	private static double haversine(double[] from, double[] to) {
+		double dLat = Math.toRadians(to[0] - from[0]);
+		double dLon = Math.toRadians(to[1] - from[1]);
+		double a = Math.pow(Math.sin(dLat / 2), 2)
+				+ Math.cos(Math.toRadians(from[0])) * Math.cos(Math.toRadians(to[0])) * Math.pow(Math.sin(dLon / 2), 2);
+		return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+	}
+
+	private static double[] randomPoint(Random random) {
+		return new double[]{Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)), 360 * random.nextDouble() - 180};
+	}
+
+	private static List<Long> ids(List<NearbyFacilityDTO> facilities) {
+		return facilities.stream().map(NearbyFacilityDTO::getId).toList();
+	}
+
+	private static Hospital hospital(Double latitude, Double longitude) {
+		return Hospital.builder()
+				.name(HOSPITAL_NAME)
+				.address("Nearby Str 1")
+				.latitude(latitude)
+				.longitude(longitude)
+				.laboratories(new HashSet<>())
+				.hospitalPharmacies(new HashSet<>())
+				.hospitalWards(new HashSet<>())
+				.partnerPharmacies(new HashSet<>())
+				.doctors(new HashSet<>())
+				.build();
+	}
+}
@@ -0,0 +1,324 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import tbektenov.com.sau.models.AppointmentStatus;
+import tbektenov.com.sau.models.ReminderStatus;
+import tbektenov.com.sau.models.WaitlistStatus;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+import tbektenov.com.sau.repositories.*;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Captures the SQL of every repository method and fails when its H2 plan falls back to a table scan.
+ *
+ * <p>A new repository method has to be registered in {@link #queries()}, otherwise
+ * {@link #everyRepositoryMethodIsCovered()} fails.</p>
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTests {
+
+	private static final int SEEDED_APPOINTMENTS = 5000;
+	private static final long SEEDED_ID_OFFSET = 900_000_000L;
+	private static final long[] PATIENT_IDS = {1L, 2L, 3L, 5L, 6L};
+	private static final LocalDate SEED_DATE = LocalDate.now().plusYears(40);
+
+	/**
+	 * Methods that list a whole table by design.
+	 */
+	private static final Set<String> FULL_SCANS = Set.of(
+			"DoctorRepo.findAllListings",
+			"DoctorRepo.findHospitalSpecializationCounts",
+			"DoctorRepo.searchDoctors",
+			"HospitalRepo.findLocated",
+			"HospitalRepo.findOccupancy",
+			"HospitalRepo.findOccupiedBedsDrift",
+			"HospitalWardRepo.findOccupancyDrift",
+			"PrivatePharmacyRepo.findLocated"
+	);
+
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private ArchivedAppointmentRepo archivedAppointmentRepo;
+	@Autowired
+	private DoctorRepo doctorRepo;
+	@Autowired
+	private HospitalPharmacyRepo hospitalPharmacyRepo;
+	@Autowired
+	private HospitalRepo hospitalRepo;
+	@Autowired
+	private HospitalWardRepo hospitalWardRepo;
+	@Autowired
+	private HospitalizationRepo hospitalizationRepo;
+	@Autowired
+	private LaboratoryRepo laboratoryRepo;
+	@Autowired
+	private NurseRepo nurseRepo;
+	@Autowired
+	private OrderRepo orderRepo;
+	@Autowired
+	private PatientRepo patientRepo;
+	@Autowired
+	private PrivatePharmacyRepo privatePharmacyRepo;
+	@Autowired
+	private UserRepo userRepo;
+	@Autowired
+	private WaitlistEntryRepo waitlistEntryRepo;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Test
+	void everyRepositoryMethodIsCovered() {
+		Repositories repositories = new Repositories(applicationContext);
+		Set<String> declared = new TreeSet<>();
+		for (Class<?> domainType : repositories) {
+			Class<?> repository = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+			List<Class<?>> declaring = new ArrayList<>(List.of(repository));
+			Arrays.stream(repository.getInterfaces())
+					.filter(fragment -> fragment.getPackage().equals(repository.getPackage()))
+					.forEach(declaring::add);
+			for (Class<?> type : declaring) {
+				for (Method method : type.getDeclaredMethods()) {
+					if (!method.isSynthetic() && !method.isDefault()) {
+						declared.add(repository.getSimpleName() + "." + method.getName());
+					}
+				}
+			}
+		}
+
+		declared.removeAll(queries().keySet());
+		assertTrue(declared.isEmpty(), () -> "Repository methods without a query plan check: " + declared);
+	}
+
+	@Test
+	void noRepositoryQueryFallsBackToATableScan() {
+		seedAppointments();
+
+		Map<String, String> scans = new TreeMap<>();
+		queries().forEach((name, query) -> {
+			List<String> statements = record(query);
+			assertFalse(statements.isEmpty(), () -> name + " did not issue any SQL");
+			List<String> plans = statements.stream().map(this::explain).toList();
+			if (FULL_SCANS.contains(name)) {
+				assertTrue(plans.stream().anyMatch(plan -> plan.contains(".tableScan")),
+						() -> name + " is expected to scan its table:\n" + plans);
+				return;
+			}
+			plans.stream()
+					.filter(plan -> plan.contains(".tableScan"))
+					.findFirst()
+					.ifPresent(plan -> scans.put(name, plan));
+		});
+
+		assertTrue(scans.isEmpty(), () -> "Queries falling back to a table scan:\n" + scans.entrySet().stream()
+				.map(scan -> scan.getKey() + ":\n" + scan.getValue())
+				.collect(Collectors.joining("\n\n")));
+	}
+
+	/**
+	 * Invokes every repository method with representative arguments, keyed by repository and method name.
+	 */
+	private Map<String, Runnable> queries() {
+		LocalDate today = LocalDate.now();
+		List<Long> ids = List.of(SEEDED_ID_OFFSET + 1, SEEDED_ID_OFFSET + 2);
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+
+		queries.put("AppointmentRepo.findByPatientIdAndAppointmentStatus",
+				() -> appointmentRepo.findByPatientIdAndAppointmentStatus(1L, AppointmentStatus.UPCOMING));
+		queries.put("AppointmentRepo.existsByPatientIdAndDoctorId",
+				() -> appointmentRepo.existsByPatientIdAndDoctorId(1L, 4L));
+		queries.put("AppointmentRepo.findByDoctorIdAndAppointmentStatusAndStartTimeIsNotNull",
+				() -> appointmentRepo.findByDoctorIdAndAppointmentStatusAndStartTimeIsNotNull(4L, AppointmentStatus.UPCOMING));
+		queries.put("AppointmentRepo.findDtosByPatientIdAndStatus",
+				() -> appointmentRepo.findDtosByPatientIdAndStatus(1L, AppointmentStatus.UPCOMING));
+		queries.put("AppointmentRepo.findFirstPageAsc",
+				() -> appointmentRepo.findFirstPageAsc(1L, AppointmentStatus.UPCOMING, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.findPageAfterAsc",
+				() -> appointmentRepo.findPageAfterAsc(1L, AppointmentStatus.UPCOMING, today, 1L, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.findFirstPageDesc",
+				() -> appointmentRepo.findFirstPageDesc(1L, AppointmentStatus.ARCHIVED, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.findPageAfterDesc",
+				() -> appointmentRepo.findPageAfterDesc(1L, AppointmentStatus.ARCHIVED, today, 1L, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.findSlotsByStatusAndDateBefore",
+				() -> appointmentRepo.findSlotsByStatusAndDateBefore(AppointmentStatus.UPCOMING, today, 0L, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.findIdsByStatusAfter",
+				() -> appointmentRepo.findIdsByStatusAfter(AppointmentStatus.ARCHIVED, 0L, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.updateStatusByIds",
+				() -> appointmentRepo.updateStatusByIds(ids, AppointmentStatus.ARCHIVED));
+		queries.put("AppointmentRepo.countByDoctorAndDate",
+				() -> appointmentRepo.countByDoctorAndDate(AppointmentStatus.UPCOMING, today));
+		queries.put("AppointmentRepo.findSlotsByIdsAndPatientId",
+				() -> appointmentRepo.findSlotsByIdsAndPatientId(ids, 1L, AppointmentStatus.UPCOMING));
+		queries.put("AppointmentRepo.deleteByIds",
+				() -> appointmentRepo.deleteByIds(ids));
+		queries.put("AppointmentRepo.findReminders",
+				() -> appointmentRepo.findReminders(ReminderStatus.PENDING, today, today.plusDays(1), 0L, PageRequest.of(0, 10)));
+		queries.put("AppointmentRepo.markRemindersSent",
+				() -> appointmentRepo.markRemindersSent(ids, LocalDateTime.now()));
+		queries.put("AppointmentRepo.recordFailedReminders",
+				() -> appointmentRepo.recordFailedReminders(ids, 3));
+
+		queries.put("ArchivedAppointmentRepo.existsByPatientIdAndDoctorId",
+				() -> archivedAppointmentRepo.existsByPatientIdAndDoctorId(1L, 4L));
+		queries.put("ArchivedAppointmentRepo.findFirstPageDesc",
+				() -> archivedAppointmentRepo.findFirstPageDesc(1L, PageRequest.of(0, 10)));
+		queries.put("ArchivedAppointmentRepo.findPageAfterDesc",
+				() -> archivedAppointmentRepo.findPageAfterDesc(1L, today, 1L, PageRequest.of(0, 10)));
+		queries.put("ArchivedAppointmentRepo.copyFromActive",
+				() -> archivedAppointmentRepo.copyFromActive(ids, LocalDateTime.now()));
+
+		queries.put("DoctorRepo.findAllListings", () -> doctorRepo.findAllListings());
+		queries.put("DoctorRepo.findById", () -> doctorRepo.findById(4L));
+		queries.put("DoctorRepo.findForBookingById", () -> doctorRepo.findForBookingById(4L));
+		queries.put("DoctorRepo.findAllIds", () -> doctorRepo.findAllIds());
+		queries.put("DoctorRepo.findListingsByHospitalId", () -> doctorRepo.findListingsByHospitalId(1L));
+		queries.put("DoctorRepo.findListingsByHospitalIds", () -> doctorRepo.findListingsByHospitalIds(List.of(1L, 2L)));
+		queries.put("DoctorRepo.findHospitalSpecializationCounts", () -> doctorRepo.findHospitalSpecializationCounts());
+		queries.put("DoctorRepo.findHospitalSpecializations", () -> doctorRepo.findHospitalSpecializations());
+		queries.put("DoctorRepo.searchDoctors",
+				() -> doctorRepo.searchDoctors(null, null, null, PageRequest.of(0, 20)));
+		queries.put("DoctorRepo.searchDoctors(hospital)",
+				() -> doctorRepo.searchDoctors("Hospital", null, null, PageRequest.of(1, 20)));
+		queries.put("DoctorRepo.searchDoctors(hospital, specialization)",
+				() -> doctorRepo.searchDoctors("Hospital", Specialization.DENTIST, null, PageRequest.of(1, 20)));
+		queries.put("DoctorRepo.searchDoctors(specialization)",
+				() -> doctorRepo.searchDoctors(null, Specialization.DENTIST, null, PageRequest.of(1, 20)));
+		queries.put("DoctorRepo.searchDoctors(name)",
+				() -> doctorRepo.searchDoctors(null, null, "sm", PageRequest.of(1, 20)));
+
+		queries.put("HospitalPharmacyRepo.existsByHospitalIdAndName",
+				() -> hospitalPharmacyRepo.existsByHospitalIdAndName(1L, "Pharmacy"));
+		queries.put("HospitalPharmacyRepo.findByNameAndHospitalId",
+				() -> hospitalPharmacyRepo.findByNameAndHospitalId("Pharmacy", 1L));
+
+		queries.put("HospitalRepo.findSlice", () -> hospitalRepo.findSlice(PageRequest.of(0, 5)));
+		queries.put("HospitalRepo.existsByName", () -> hospitalRepo.existsByName("Hospital"));
+		queries.put("HospitalRepo.findByName", () -> hospitalRepo.findByName("Hospital"));
+		queries.put("HospitalRepo.findById", () -> hospitalRepo.findById(1L));
+		queries.put("HospitalRepo.findPlainById", () -> hospitalRepo.findPlainById(1L));
+		queries.put("HospitalRepo.findLocated", () -> hospitalRepo.findLocated());
+		queries.put("HospitalRepo.adjustOccupiedBeds", () -> hospitalRepo.adjustOccupiedBeds(1L, 0));
+		queries.put("HospitalRepo.findOccupancy", () -> hospitalRepo.findOccupancy());
+		queries.put("HospitalRepo.findOccupiedBedsDrift", () -> hospitalRepo.findOccupiedBedsDrift());
+		queries.put("HospitalRepo.reconcileOccupiedBeds", () -> hospitalRepo.reconcileOccupiedBeds(List.of(1L, 2L)));
+
+		queries.put("HospitalWardRepo.findById", () -> hospitalWardRepo.findById(1L));
+		queries.put("HospitalWardRepo.findByWardNumAndHospitalId",
+				() -> hospitalWardRepo.findByWardNumAndHospitalId("1A", 1L));
+		queries.put("HospitalWardRepo.existsByWardNumAndHospital",
+				() -> hospitalWardRepo.existsByWardNumAndHospital("1A", entityManager.getReference(Hospital.class, 1L)));
+		queries.put("HospitalWardRepo.findPlainByHospitalId", () -> hospitalWardRepo.findPlainByHospitalId(1L));
+		queries.put("HospitalWardRepo.adjustOccupied", () -> hospitalWardRepo.adjustOccupied(1L, 0));
+		queries.put("HospitalWardRepo.findOccupancyDrift", () -> hospitalWardRepo.findOccupancyDrift());
+		queries.put("HospitalWardRepo.reconcileOccupied", () -> hospitalWardRepo.reconcileOccupied(List.of(1L, 2L)));
+
+		queries.put("HospitalizationRepo.findById", () -> hospitalizationRepo.findById(1L));
+		queries.put("LaboratoryRepo.existsByHospitalIdAndFloor", () -> laboratoryRepo.existsByHospitalIdAndFloor(1L, 1));
+		queries.put("NurseRepo.findById", () -> nurseRepo.findById(1L));
+		queries.put("OrderRepo.existsByDoctorId", () -> orderRepo.existsByDoctorId(4L));
+		queries.put("PatientRepo.findById", () -> patientRepo.findById(1L));
+
+		queries.put("PrivatePharmacyRepo.existsByAddressAndPharmaCompany",
+				() -> privatePharmacyRepo.existsByAddressAndPharmaCompany("Address", "Company"));
+		queries.put("PrivatePharmacyRepo.findByAddressAndPharmaCompany",
+				() -> privatePharmacyRepo.findByAddressAndPharmaCompany("Address", "Company"));
+		queries.put("PrivatePharmacyRepo.findLocated", () -> privatePharmacyRepo.findLocated());
+		queries.put("PrivatePharmacyRepo.findPartnerships", () -> privatePharmacyRepo.findPartnerships());
+
+		queries.put("UserRepo.findByUsername", () -> userRepo.findByUsername("s26218"));
+		queries.put("UserRepo.existsByUsername", () -> userRepo.existsByUsername("s26218"));
+
+		queries.put("WaitlistEntryRepo.findQueue",
+				() -> waitlistEntryRepo.findQueue(4L, today, WaitlistStatus.WAITING));
+		queries.put("WaitlistEntryRepo.findByPatientIdOrderByIdDesc",
+				() -> waitlistEntryRepo.findByPatientIdOrderByIdDesc(1L));
+		queries.put("WaitlistEntryRepo.existsByPatientIdAndDoctorIdAndDateAndStatus",
+				() -> waitlistEntryRepo.existsByPatientIdAndDoctorIdAndDateAndStatus(1L, 4L, today, WaitlistStatus.WAITING));
+
+		return queries;
+	}
+
+	/**
+	 * Inserts enough appointments that a table scan is clearly worse than any index.
+	 * The rows are rolled back with the test transaction.
+	 */
+	private void seedAppointments() {
+		List<Object[]> rows = new ArrayList<>(SEEDED_APPOINTMENTS);
+		for (int i = 0; i < SEEDED_APPOINTMENTS; i++) {
+			LocalTime startTime = LocalTime.of(8, 0).plusMinutes(30L * (i % 20));
+			rows.add(new Object[]{
+					SEEDED_ID_OFFSET + i,
+					SEED_DATE.plusDays(i / 20),
+					startTime,
+					startTime.plusMinutes(30),
+					(i % 2 == 0 ? AppointmentStatus.UPCOMING : AppointmentStatus.ARCHIVED).name(),
+					4L,
+					PATIENT_IDS[i % PATIENT_IDS.length]
+			});
+		}
+		jdbcTemplate.batchUpdate("insert into APPOINTMENTS (appointment_id, date, start_time, end_time, status, " +
+				"doctor_id, patient_id, version, reminder_status, reminder_attempts) " +
+				"values (?, ?, ?, ?, ?, ?, ?, 0, 'PENDING', 0)", rows);
+	}
+
+	/**
+	 * Runs the query with a fresh persistence context and returns the SQL it issued.
+	 */
+	private List<String> record(Runnable query) {
+		entityManager.flush();
+		entityManager.clear();
+		List<String> statements = new ArrayList<>();
+		StatementRecorder.record(statements, () -> {
+			query.run();
+			entityManager.flush();
+			return null;
+		});
+		return statements;
+	}
+
+	/**
+	 * Returns the H2 plan of the statement, with every parameter bound to null.
+	 */
+	private String explain(String sql) {
+		return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+			try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+				int parameters = statement.getParameterMetaData().getParameterCount();
+				for (int i = 1; i <= parameters; i++) {
+					statement.setObject(i, null);
+				}
+				StringBuilder plan = new StringBuilder();
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						plan.append(resultSet.getString(1));
+					}
+				}
+				return plan.toString();
+			}
+		});
+	}
+}
@@ -260,8 +260,10 @@ class SauApplicationTests {
 				.nurses(nurses)
 				.build();
 
+		hospitalizationRepo.save(hospitalization);
+
 		assertThrows(ConstraintViolationException.class, () -> {
-			hospitalizationRepo.save(hospitalization);
+			hospitalizationRepo.flush();
 		});
 	}
 
@@ -367,8 +369,10 @@ class SauApplicationTests {
 				.nurses(nurses)
 				.build();
 
+		hospitalizationRepo.save(hospitalization);
+
 		assertThrows(ConstraintViolationException.class, () -> {
-			hospitalizationRepo.save(hospitalization);
+			hospitalizationRepo.flush();
 		});
 	}
 
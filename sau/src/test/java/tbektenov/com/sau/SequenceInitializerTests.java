@@ -0,0 +1,66 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SequenceInitializerTests {
+
+	// no test inserts laboratories, so moving their sequence cannot collide with a pooled ID in use
+	private static final String SEQUENCE = "laboratory_seq";
+
+	@Autowired
+	private SequenceInitializer sequenceInitializer;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ConfigurableApplicationContext applicationContext;
+
+	@Test
+	void sequencesAheadOfTheDataAreLeftAlone() {
+		long before = baseValue();
+		assertTrue(before > maxId());
+
+		align();
+		align();
+
+		assertEquals(before, baseValue());
+	}
+
+	@Test
+	void sequenceBehindTheDataIsMovedPastIt() {
+		long before = baseValue();
+		long maxId = maxId();
+		assertTrue(maxId > 0);
+
+		try {
+			jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + maxId);
+
+			align();
+
+			assertEquals(maxId + 1, baseValue());
+		} finally {
+			jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + before);
+		}
+	}
+
+	private void align() {
+		sequenceInitializer.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+	}
+
+	private long baseValue() {
+		return jdbcTemplate.queryForObject(
+				"SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)",
+				Long.class, SEQUENCE);
+	}
+
+	private long maxId() {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(laboratory_id), 0) FROM laboratory", Long.class);
+	}
+}
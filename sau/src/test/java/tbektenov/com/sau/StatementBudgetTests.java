@@ -0,0 +1,355 @@
+package tbektenov.com.sau;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import tbektenov.com.sau.config.statements.StatementBudget;
+import tbektenov.com.sau.config.statements.StatementCount;
+import tbektenov.com.sau.config.statements.StatementReport;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.events.AppointmentCreatedEvent;
+import tbektenov.com.sau.exceptions.StatementBudgetExceededException;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.repositories.WaitlistEntryRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.directory.DoctorDirectoryCache;
+import tbektenov.com.sau.services.directory.DoctorFacetCache;
+import tbektenov.com.sau.services.directory.HospitalCountCache;
+import tbektenov.com.sau.services.directory.HospitalDetailCache;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+import tbektenov.com.sau.services.schedule.DoctorWaitlist;
+import tbektenov.com.sau.services.search.FacilityLocationIndex;
+import tbektenov.com.sau.services.search.TypeaheadIndex;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "statements.budget.enforce=true")
+@AutoConfigureMockMvc
+class StatementBudgetTests {
+
+	private static final String USERNAME = "s26218";
+	private static final Long PATIENT_ID = 1L;
+	private static final Long DOCTOR_ID = 4L;
+	private static final LocalDate DATE = LocalDate.now().plusYears(15);
+	private static final String HOSPITAL_NAME = "Budget Test Hospital";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	@Qualifier("requestMappingHandlerMapping")
+	private RequestMappingHandlerMapping handlerMapping;
+	@Autowired
+	private RepeatedQueries repeatedQueries;
+	@Autowired
+	private BookingQueries bookingQueries;
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private WaitlistEntryRepo waitlistEntryRepo;
+	@Autowired
+	private HospitalRepo hospitalRepo;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private DoctorDirectoryCache doctorDirectoryCache;
+	@Autowired
+	private DoctorFacetCache doctorFacetCache;
+	@Autowired
+	private HospitalCountCache hospitalCountCache;
+	@Autowired
+	private HospitalDetailCache hospitalDetailCache;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorWaitlist doctorWaitlist;
+	@Autowired
+	private TypeaheadIndex typeaheadIndex;
+	@Autowired
+	private FacilityLocationIndex facilityLocationIndex;
+
+	private final MockHttpSession session = new MockHttpSession();
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		SecurityContextImpl context = new SecurityContextImpl(new TestingAuthenticationToken(USERNAME, null, "PATIENT"));
+		session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		bookingQueries.extraQueries = 0;
+		statistics.setStatisticsEnabled(false);
+		appointmentRepo.deleteAll(appointmentRepo.findAll().stream()
+				.filter(appointment -> appointment.getDate().equals(DATE))
+				.toList());
+		waitlistEntryRepo.deleteAll(waitlistEntryRepo.findAll().stream()
+				.filter(entry -> entry.getDate().equals(DATE))
+				.toList());
+		hospitalRepo.findByName(HOSPITAL_NAME).ifPresent(hospitalRepo::delete);
+		emptyCaches();
+	}
+
+	@Test
+	void everyEndpointDeclaresABudget() {
+		List<String> unbudgeted = handlerMapping.getHandlerMethods().values().stream()
+				.filter(handler -> handler.getBeanType().getPackageName().startsWith("tbektenov.com.sau"))
+				.filter(handler -> !handler.hasMethodAnnotation(StatementBudget.class))
+				.map(HandlerMethod::getShortLogMessage)
+				.toList();
+
+		assertEquals(List.of(), unbudgeted);
+	}
+
+	@Test
+	void readEndpointsStayWithinTheirBudgetsWithEmptyCaches() throws Exception {
+		perform(get("/"));
+		perform(get("/login"));
+		perform(get("/home"));
+		perform(get("/hospitals").param("totals", "EXACT"));
+		perform(get("/hospitals/1"));
+		perform(get("/api/hospitals/occupancy"));
+		perform(get("/api/hospitals/1/occupancy"));
+		perform(get("/appointments/new"));
+		perform(get("/api/appointments/history"));
+		perform(get("/api/appointments/availability"));
+		perform(get("/api/appointments/doctors").param("specialization", "DENTIST"));
+		perform(get("/api/appointments/waitlist"));
+		perform(get("/api/search/typeahead").param("q", "bek"));
+		perform(get("/api/search/facets"));
+		perform(get("/api/search/nearest").param("type", "HOSPITAL").param("lat", "42.87").param("lon", "74.59")
+				.param("specialization", "DENTIST"));
+		perform(get("/api/search/nearest").param("type", "PHARMACY").param("lat", "42.87").param("lon", "74.59")
+				.param("partnerOf", "1"));
+	}
+
+	@Test
+	void writeEndpointsStayWithinTheirBudgets() throws Exception {
+		perform(post("/appointments/create")
+				.param("patient_id", PATIENT_ID.toString())
+				.param("doctor_id", DOCTOR_ID.toString())
+				.param("date", DATE.toString())
+				.param("startTime", "08:00"));
+		perform(post("/appointments/" + appointmentAt(LocalTime.of(8, 0)) + "/cancel"));
+
+		book(LocalTime.of(9, 0));
+		perform(delete("/api/appointments/" + appointmentAt(LocalTime.of(9, 0))));
+
+		book(LocalTime.of(10, 0));
+		book(LocalTime.of(11, 0));
+		perform(delete("/api/appointments/")
+				.param("ids", appointmentAt(LocalTime.of(10, 0)).toString(), appointmentAt(LocalTime.of(11, 0)).toString()));
+
+		perform(post("/api/appointments/waitlist")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"doctor_id\": " + DOCTOR_ID + ", \"date\": \"" + DATE + "\", \"priority\": 1}"));
+	}
+
+	@Test
+	void servicesExceedingTheirBudgetFailAndNameTheRepeatedStatement() {
+		StatementBudgetExceededException exception =
+				assertThrows(StatementBudgetExceededException.class, () -> repeatedQueries.countTwice());
+
+		assertTrue(exception.getMessage().startsWith("RepeatedQueries.countTwice executed 2 SQL statements, its budget is 1."),
+				exception::getMessage);
+		assertTrue(exception.getMessage().contains("2x select count"), exception::getMessage);
+	}
+
+	@Test
+	void writesExceedingTheirBudgetAreRolledBack() {
+		assertThrows(StatementBudgetExceededException.class, () -> repeatedQueries.countAndSave(HOSPITAL_NAME));
+
+		assertTrue(hospitalRepo.findByName(HOSPITAL_NAME).isEmpty());
+	}
+
+	@Test
+	void bookingsExceedingTheirBudgetAreRolledBack() {
+		bookingQueries.extraQueries = 10;
+
+		StatementBudgetExceededException exception =
+				assertThrows(StatementBudgetExceededException.class, () -> book(LocalTime.of(10, 0)));
+
+		assertTrue(exception.getMessage().startsWith("AppointmentServiceImpl.createAppointment executed"),
+				exception::getMessage);
+		assertTrue(appointmentRepo.findAll().stream().noneMatch(appointment -> appointment.getDate().equals(DATE)));
+	}
+
+	@Test
+	void countsAreNestedAndCountRepeatedStatements() {
+		StatementCount outer = StatementCount.open();
+		try {
+			StatementCount inner = StatementCount.open();
+			try {
+				repeatedQueries.countOnce();
+				repeatedQueries.countOnce();
+			} finally {
+				inner.close();
+			}
+			repeatedQueries.countOnce();
+
+			assertEquals(2, inner.statements());
+			assertEquals(List.of(2), List.copyOf(inner.repeatedStatements().values()));
+			assertEquals(3, outer.statements());
+		} finally {
+			outer.close();
+		}
+	}
+
+	private void perform(MockHttpServletRequestBuilder request) throws Exception {
+		emptyCaches();
+		MvcResult result = mockMvc.perform(request.session(session))
+				.andExpect(withinStatementBudget())
+				.andReturn();
+		assertTrue(result.getResponse().getStatus() < 400,
+				() -> request + " answered " + result.getResponse().getStatus());
+	}
+
+	private static ResultMatcher withinStatementBudget() {
+		return result -> {
+			StatementReport report = (StatementReport) result.getRequest().getAttribute(StatementReport.ATTRIBUTE);
+			assertNotNull(report, () -> result.getRequest().getRequestURI() + " was not measured");
+			assertFalse(report.exceeded(), report::describe);
+		};
+	}
+
+	private Long appointmentAt(LocalTime startTime) {
+		return appointmentRepo.findAll().stream()
+				.filter(appointment -> appointment.getDate().equals(DATE) && appointment.getStartTime().equals(startTime))
+				.map(Appointment::getId)
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private void book(LocalTime startTime) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(PATIENT_ID);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setStartTime(startTime);
+		appointmentService.createAppointment(dto);
+	}
+
+	private void emptyCaches() {
+		doctorDirectoryCache.invalidate();
+		doctorFacetCache.invalidate();
+		hospitalCountCache.reset();
+		hospitalDetailCache.clear();
+		doctorAvailabilityCache.reset();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorWaitlist.evictAll();
+		typeaheadIndex.reset();
+		facilityLocationIndex.reset();
+	}
+
+	@TestConfiguration
+	static class RepeatedQueriesConfiguration {
+		@Bean
+		RepeatedQueries repeatedQueries(HospitalRepo hospitalRepo) {
+			return new RepeatedQueries(hospitalRepo);
+		}
+
+		@Bean
+		BookingQueries bookingQueries(HospitalRepo hospitalRepo) {
+			return new BookingQueries(hospitalRepo);
+		}
+	}
+
+	/**
+	 * Service running the same query more often than its budget allows.
+	 */
+	static class RepeatedQueries {
+		private final HospitalRepo hospitalRepo;
+
+		RepeatedQueries(HospitalRepo hospitalRepo) {
+			this.hospitalRepo = hospitalRepo;
+		}
+
+		@Transactional
+		@StatementBudget(1)
+		public void countTwice() {
+			hospitalRepo.count();
+			hospitalRepo.count();
+		}
+
+		/**
+		 * Stays within the budget until the hospital is inserted when the transaction is flushed.
+		 */
+		@Transactional
+		@StatementBudget(1)
+		public void countAndSave(String name) {
+			hospitalRepo.count();
+			hospitalRepo.save(Hospital.builder()
+					.name(name)
+					.address("Budget Str 1")
+					.laboratories(new HashSet<>())
+					.hospitalPharmacies(new HashSet<>())
+					.hospitalWards(new HashSet<>())
+					.partnerPharmacies(new HashSet<>())
+					.doctors(new HashSet<>())
+					.build());
+		}
+
+		public void countOnce() {
+			hospitalRepo.count();
+		}
+	}
+
+	/**
+	 * Adds queries to every booking while it is still in its transaction.
+	 */
+	static class BookingQueries {
+		private final HospitalRepo hospitalRepo;
+		volatile int extraQueries;
+
+		BookingQueries(HospitalRepo hospitalRepo) {
+			this.hospitalRepo = hospitalRepo;
+		}
+
+		@EventListener
+		public void onAppointmentCreated(AppointmentCreatedEvent event) {
+			for (int i = 0; i < extraQueries; i++) {
+				hospitalRepo.count();
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package tbektenov.com.sau;
+
+import tbektenov.com.sau.config.statements.StatementCount;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records the SQL issued by the current thread, as counted by the {@link StatementCount}
+ * the statement budgets are measured with.
+ */
+final class StatementRecorder {
+
+	private StatementRecorder() {
+	}
+
+	/**
+	 * Runs the action and adds the statements it issues on this thread to the given list.
+	 */
+	static <T> T record(List<String> statements, Supplier<T> action) {
+		StatementCount count = StatementCount.open();
+		try {
+			return action.get();
+		} finally {
+			count.close();
+			statements.addAll(count.executedStatements());
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package tbektenov.com.sau;
+
+import tbektenov.com.sau.dtos.user.RegisterDTO;
+import tbektenov.com.sau.models.user.Sex;
+import tbektenov.com.sau.models.user.userRoles.Specialization;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the data tests register through the services.
+ *
+ * <p>Unique columns get a fresh value on every call, so tests never collide, not even with the
+ * leftovers of a test whose cleanup failed.</p>
+ */
+final class TestFixtures {
+
+	private static final AtomicInteger SEQUENCE = new AtomicInteger(ThreadLocalRandom.current().nextInt(90_000));
+
+	private TestFixtures() {
+	}
+
+	/**
+	 * A registration of a dentist at the first hospital.
+	 */
+	static RegisterDTO doctorRegistration(String username, String name, String surname) {
+		int number = SEQUENCE.incrementAndGet() % 100_000;
+
+		RegisterDTO registerDTO = new RegisterDTO();
+		registerDTO.setName(name);
+		registerDTO.setSurname(surname);
+		registerDTO.setUsername(username);
+		registerDTO.setPassword("123456");
+		registerDTO.setEmail(username + "@example.com");
+		registerDTO.setPhoneNumber(String.format("660-%03d-%04d", number / 10_000, number % 10_000));
+		registerDTO.setBirthdate(LocalDate.of(1990, 1, 30));
+		registerDTO.setPesel(String.format("900130%05d", number));
+		registerDTO.setSex(Sex.FEMALE);
+		registerDTO.setHospitalId(1L);
+		registerDTO.setSpecialization(Specialization.DENTIST);
+		return registerDTO;
+	}
+}
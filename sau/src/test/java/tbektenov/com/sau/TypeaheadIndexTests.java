@@ -0,0 +1,190 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.search.SuggestionType;
+import tbektenov.com.sau.dtos.search.TypeaheadSuggestionDTO;
+import tbektenov.com.sau.models.hospital.Hospital;
+import tbektenov.com.sau.models.user.UserEntity;
+import tbektenov.com.sau.repositories.HospitalRepo;
+import tbektenov.com.sau.repositories.UserRepo;
+import tbektenov.com.sau.services.ITypeaheadService;
+import tbektenov.com.sau.services.IUserService;
+import tbektenov.com.sau.services.search.TypeaheadIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TypeaheadIndexTests {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TypeaheadIndexTests.class);
+
+	private static final String USERNAME = "typeahead-test";
+	private static final String HOSPITAL_NAME = "Typeahead Test Clinic";
+	private static final long SYNTHETIC_ID_OFFSET = 900_000_000L;
+	private static final int SYNTHETIC_RECORDS = 20_000;
+	private static final String[] SYLLABLES = {"ka", "ra", "mo", "li", "sen", "tor", "vi", "na", "bel", "dru", "es", "ost"};
+
+	@Autowired
+	private ITypeaheadService typeaheadService;
+	@Autowired
+	private TypeaheadIndex typeaheadIndex;
+	@Autowired
+	private IUserService userService;
+	@Autowired
+	private UserRepo userRepo;
+	@Autowired
+	private HospitalRepo hospitalRepo;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		userRepo.findByUsername(USERNAME).ifPresent(userRepo::delete);
+		hospitalRepo.findByName(HOSPITAL_NAME).ifPresent(hospitalRepo::delete);
+		typeaheadIndex.reset();
+	}
+
+	@Test
+	void wordsAreMatchedByPrefixIgnoringCaseAndAccents() {
+		assertTrue(labels(SuggestionType.DOCTOR, "BEKT").contains("Tagir Bektenov"));
+		assertTrue(labels(SuggestionType.DOCTOR, "tágir bek").contains("Tagir Bektenov"));
+		assertEquals(List.of("Med Life Hospital"), labels(SuggestionType.HOSPITAL, "li med"));
+		assertEquals(1, typeaheadService.suggest("paper 321", 10).size());
+		assertEquals(2, typeaheadService.suggest("med4life", 10).stream()
+				.filter(suggestion -> suggestion.getType() == SuggestionType.PHARMACY)
+				.count());
+		assertTrue(typeaheadService.suggest("  ", 10).isEmpty());
+		assertEquals(1, typeaheadService.suggest("a", 1).size());
+	}
+
+	@Test
+	void committedChangesAreIndexed() {
+		typeaheadService.suggest("warm", 1);
+
+		userService.registerUser(TestFixtures.doctorRegistration(USERNAME, "Tess", "Typeaheadson"));
+		assertEquals(List.of("Tess Typeaheadson"), labels(SuggestionType.DOCTOR, "typeaheads"));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			UserEntity user = userRepo.findByUsername(USERNAME).orElseThrow();
+			user.setSurname("Renamedson");
+		});
+		assertTrue(labels(SuggestionType.DOCTOR, "typeaheads").isEmpty());
+		assertEquals(List.of("Tess Renamedson"), labels(SuggestionType.DOCTOR, "renamedson"));
+
+		hospitalRepo.save(Hospital.builder().name(HOSPITAL_NAME).address("Test Street 1").build());
+		assertEquals(List.of(HOSPITAL_NAME), labels(SuggestionType.HOSPITAL, "typeahead clin"));
+
+		userRepo.delete(userRepo.findByUsername(USERNAME).orElseThrow());
+		hospitalRepo.delete(hospitalRepo.findByName(HOSPITAL_NAME).orElseThrow());
+		assertTrue(typeaheadService.suggest("renamedson", 10).isEmpty());
+		assertTrue(typeaheadService.suggest("typeahead clin", 10).isEmpty());
+	}
+
+	@Test
+	void rolledBackChangesAreNotIndexed() {
+		typeaheadService.suggest("warm", 1);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			hospitalRepo.save(Hospital.builder().name(HOSPITAL_NAME).address("Test Street 1").build());
+			status.setRollbackOnly();
+		});
+
+		assertTrue(typeaheadService.suggest("typeahead clin", 10).isEmpty());
+	}
+
+	@Test
+	void lookupsOverManyRecordsReturnOnlyMatchingRecords() {
+		Random random = new Random(42);
+		String[] names = indexSyntheticHospitals(random);
+
+		for (int i = 0; i < 1_000; i++) {
+			String query = query(names[random.nextInt(SYNTHETIC_RECORDS)], random);
+			List<String> prefixes = List.of(query.toLowerCase(Locale.ROOT).split(" "));
+			List<TypeaheadSuggestionDTO> suggestions = typeaheadService.suggest(query, 10);
+
+			assertFalse(suggestions.isEmpty(), query);
+			suggestions.stream()
+					.filter(suggestion -> suggestion.getType() == SuggestionType.HOSPITAL)
+					.filter(suggestion -> suggestion.getId() >= SYNTHETIC_ID_OFFSET)
+					.forEach(suggestion -> assertTrue(matchesAll(suggestion.getLabel(), prefixes),
+							() -> suggestion.getLabel() + " does not match " + query));
+		}
+	}
+
+	/**
+	 * Logs the lookup latency over many records; timings depend on the machine, so they are
+	 * reported rather than asserted.
+	 */
+	@Test
+	void lookupLatencyOverManyRecordsIsReported() {
+		Random random = new Random(42);
+		String[] names = indexSyntheticHospitals(random);
+
+		for (int i = 0; i < SYNTHETIC_RECORDS; i++) {
+			typeaheadService.suggest(query(names[random.nextInt(SYNTHETIC_RECORDS)], random), 10);
+		}
+		long[] nanos = new long[SYNTHETIC_RECORDS];
+		for (int i = 0; i < SYNTHETIC_RECORDS; i++) {
+			String query = query(names[random.nextInt(SYNTHETIC_RECORDS)], random);
+			long started = System.nanoTime();
+			List<TypeaheadSuggestionDTO> suggestions = typeaheadService.suggest(query, 10);
+			nanos[i] = System.nanoTime() - started;
+			assertFalse(suggestions.isEmpty(), query);
+		}
+
+		Arrays.sort(nanos);
+		LOG.info("Typeahead over {} records: p50 {} us, p99 {} us", SYNTHETIC_RECORDS,
+				nanos[SYNTHETIC_RECORDS / 2] / 1_000, nanos[SYNTHETIC_RECORDS * 99 / 100] / 1_000);
+	}
+
+	private String[] indexSyntheticHospitals(Random random) {
+		typeaheadService.suggest("warm", 1);
+		String[] names = new String[SYNTHETIC_RECORDS];
+		for (int i = 0; i < SYNTHETIC_RECORDS; i++) {
+			names[i] = word(random) + " " + word(random) + " Clinic";
+			typeaheadIndex.putHospital(SYNTHETIC_ID_OFFSET + i, names[i], "Street " + i);
+		}
+		return names;
+	}
+
+	private static boolean matchesAll(String label, List<String> prefixes) {
+		List<String> words = List.of(label.toLowerCase(Locale.ROOT).split(" "));
+		return prefixes.stream().allMatch(prefix -> words.stream().anyMatch(word -> word.startsWith(prefix)));
+	}
+
+	private List<String> labels(SuggestionType type, String query) {
+		return typeaheadService.suggest(query, 50).stream()
+				.filter(suggestion -> suggestion.getType() == type)
+				.map(TypeaheadSuggestionDTO::getLabel)
+				.toList();
+	}
+
+	private static String word(Random random) {
+		StringBuilder word = new StringBuilder();
+		int syllables = 2 + random.nextInt(3);
+		for (int i = 0; i < syllables; i++) {
+			word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		return word.substring(0, 1).toUpperCase() + word.substring(1);
+	}
+
+	private static String query(String name, Random random) {
+		String[] words = name.split(" ");
+		String first = words[0].substring(0, 1 + random.nextInt(words[0].length()));
+		if (random.nextBoolean()) {
+			return first;
+		}
+		return first + " " + words[1].substring(0, 1 + random.nextInt(words[1].length()));
+	}
+}
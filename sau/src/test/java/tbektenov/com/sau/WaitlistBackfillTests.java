@@ -0,0 +1,188 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tbektenov.com.sau.dtos.appointment.CreateAppointmentDTO;
+import tbektenov.com.sau.dtos.waitlist.JoinWaitlistDTO;
+import tbektenov.com.sau.exceptions.InvalidArgumentsException;
+import tbektenov.com.sau.models.Appointment;
+import tbektenov.com.sau.models.WaitlistEntry;
+import tbektenov.com.sau.models.WaitlistStatus;
+import tbektenov.com.sau.repositories.AppointmentRepo;
+import tbektenov.com.sau.repositories.WaitlistEntryRepo;
+import tbektenov.com.sau.services.IAppointmentService;
+import tbektenov.com.sau.services.IWaitlistService;
+import tbektenov.com.sau.services.schedule.DoctorAvailabilityCache;
+import tbektenov.com.sau.services.schedule.DoctorScheduleIndex;
+import tbektenov.com.sau.services.schedule.DoctorWaitlist;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class WaitlistBackfillTests {
+
+	private static final Long DOCTOR_ID = 4L;
+	private static final LocalDate DATE = LocalDate.now().plusYears(13);
+	private static final LocalTime START = LocalTime.of(10, 0);
+
+	@Autowired
+	private IAppointmentService appointmentService;
+	@Autowired
+	private IWaitlistService waitlistService;
+	@Autowired
+	private AppointmentRepo appointmentRepo;
+	@Autowired
+	private WaitlistEntryRepo waitlistEntryRepo;
+	@Autowired
+	private DoctorWaitlist doctorWaitlist;
+	@Autowired
+	private DoctorScheduleIndex doctorScheduleIndex;
+	@Autowired
+	private DoctorAvailabilityCache doctorAvailabilityCache;
+
+	private final List<Long> entryIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		List<WaitlistEntry> entries = waitlistEntryRepo.findAllById(entryIds);
+		appointmentRepo.deleteAllById(entries.stream()
+				.map(WaitlistEntry::getAppointmentId)
+				.filter(id -> id != null && appointmentRepo.existsById(id))
+				.toList());
+		waitlistEntryRepo.deleteAll(entries);
+		entryIds.clear();
+		doctorWaitlist.evictAll();
+		doctorScheduleIndex.evict(DOCTOR_ID);
+		doctorAvailabilityCache.reset();
+	}
+
+	@Test
+	void freedSlotGoesToHighestPriorityThenFirstComer() throws Exception {
+		Long cancelled = book(1L);
+		Long lowPriority = join(2L, 0);
+		Long firstUrgent = join(3L, 5);
+		Long secondUrgent = join(5L, 5);
+
+		appointmentService.cancelAppointment(1L, cancelled);
+		WaitlistEntry fulfilled = awaitFulfilled(firstUrgent);
+
+		Appointment backfilled = appointmentRepo.findById(fulfilled.getAppointmentId()).orElseThrow();
+		assertEquals(START, backfilled.getStartTime());
+		assertEquals(DATE, backfilled.getDate());
+		assertEquals(WaitlistStatus.WAITING, waitlistEntryRepo.findById(lowPriority).orElseThrow().getStatus());
+
+		appointmentService.cancelAppointment(3L, fulfilled.getAppointmentId());
+		awaitFulfilled(secondUrgent);
+		assertEquals(WaitlistStatus.WAITING, waitlistEntryRepo.findById(lowPriority).orElseThrow().getStatus());
+	}
+
+	@Test
+	void waitlistSurvivesReload() throws Exception {
+		Long cancelled = book(1L);
+		Long waiting = join(2L, 0);
+
+		doctorWaitlist.evictAll();
+		assertEquals(1, doctorWaitlist.size(DOCTOR_ID, DATE));
+
+		appointmentService.cancelAppointment(1L, cancelled);
+		assertNotNull(awaitFulfilled(waiting).getAppointmentId());
+	}
+
+	@Test
+	void drainedQueueIsDropped() throws Exception {
+		doctorWaitlist.evictAll();
+		Long cancelled = book(1L);
+		join(2L, 0);
+		assertEquals(1, doctorWaitlist.loadedQueues());
+
+		appointmentService.cancelAppointment(1L, cancelled);
+		awaitFulfilled(entryIds.get(0));
+
+		long started = System.nanoTime();
+		while (doctorWaitlist.loadedQueues() > 0 && System.nanoTime() - started < 5_000_000_000L) {
+			Thread.sleep(5);
+		}
+		assertEquals(0, doctorWaitlist.loadedQueues());
+	}
+
+	@Test
+	void cancellingSlotNobodyWaitsForLoadsNoQueue() throws Exception {
+		doctorWaitlist.evictAll();
+		Long unwatched = book(1L, DATE.plusDays(1));
+		Long cancelled = book(1L);
+		join(2L, 0);
+
+		appointmentService.cancelAppointment(1L, unwatched);
+		appointmentService.cancelAppointment(1L, cancelled);
+		awaitFulfilled(entryIds.get(0));
+
+		long started = System.nanoTime();
+		while (doctorWaitlist.loadedQueues() > 0 && System.nanoTime() - started < 5_000_000_000L) {
+			Thread.sleep(5);
+		}
+		assertEquals(0, doctorWaitlist.loadedQueues());
+		assertEquals(0, doctorWaitlist.size(DOCTOR_ID, DATE.plusDays(1)));
+		assertEquals(0, doctorWaitlist.loadedQueues());
+	}
+
+	@Test
+	void queuesOfPastDaysArePruned() {
+		doctorWaitlist.evictAll();
+		doctorWaitlist.add(DOCTOR_ID, DATE, new DoctorWaitlist.QueuedPatient(-1L, 2L, 0));
+		doctorWaitlist.add(DOCTOR_ID, DATE.plusDays(1), new DoctorWaitlist.QueuedPatient(-2L, 2L, 0));
+
+		doctorWaitlist.pruneBefore(DATE.plusDays(1));
+
+		assertEquals(1, doctorWaitlist.loadedQueues());
+	}
+
+	@Test
+	void patientCannotJoinSameWaitlistTwice() {
+		join(2L, 0);
+
+		assertThrows(InvalidArgumentsException.class, () -> join(2L, 1));
+	}
+
+	private Long book(Long patientId) {
+		return book(patientId, DATE);
+	}
+
+	private Long book(Long patientId, LocalDate date) {
+		CreateAppointmentDTO dto = new CreateAppointmentDTO();
+		dto.setPatient_id(patientId);
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(date);
+		dto.setStartTime(START);
+		return appointmentService.createAppointment(dto).getId();
+	}
+
+	private Long join(Long patientId, int priority) {
+		JoinWaitlistDTO dto = new JoinWaitlistDTO();
+		dto.setDoctor_id(DOCTOR_ID);
+		dto.setDate(DATE);
+		dto.setPriority(priority);
+		Long id = waitlistService.joinWaitlist(patientId, dto).getId();
+		entryIds.add(id);
+		return id;
+	}
+
+	private WaitlistEntry awaitFulfilled(Long entryId) throws InterruptedException {
+		long started = System.nanoTime();
+		while (System.nanoTime() - started < 5_000_000_000L) {
+			WaitlistEntry entry = waitlistEntryRepo.findById(entryId).orElseThrow();
+			if (entry.getStatus() == WaitlistStatus.FULFILLED) {
+				return entry;
+			}
+			Thread.sleep(5);
+		}
+		fail("Waitlist entry " + entryId + " was not fulfilled");
+		return null;
+	}
+}
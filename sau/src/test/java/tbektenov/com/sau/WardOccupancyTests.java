@@ -0,0 +1,133 @@
+package tbektenov.com.sau;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import tbektenov.com.sau.dtos.hospital.HospitalOccupancyDTO;
+import tbektenov.com.sau.dtos.hospital.OccupancyReconciliationDTO;
+import tbektenov.com.sau.dtos.hospital.WardOccupancyDTO;
+import tbektenov.com.sau.dtos.left_patient.ChangeToLeftPatientDTO;
+import tbektenov.com.sau.dtos.staying_patient.ChangeToStayingPatientDTO;
+import tbektenov.com.sau.exceptions.ObjectNotFoundException;
+import tbektenov.com.sau.models.Hospitalization;
+import tbektenov.com.sau.models.hospital.HospitalWard;
+import tbektenov.com.sau.repositories.HospitalWardRepo;
+import tbektenov.com.sau.repositories.HospitalizationRepo;
+import tbektenov.com.sau.services.IPatientService;
+import tbektenov.com.sau.services.IWardOccupancyService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class WardOccupancyTests {
+
+	private static final Long PATIENT_ID = 1L;
+	private static final Long NURSE_ID = 3L;
+	private static final Long WARD_ID = 1L;
+
+	@Autowired
+	private IWardOccupancyService wardOccupancyService;
+	@Autowired
+	private IPatientService patientService;
+	@Autowired
+	private HospitalWardRepo hospitalWardRepo;
+	@Autowired
+	private HospitalizationRepo hospitalizationRepo;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		wardOccupancyService.reconcileOccupancy();
+	}
+
+	@Test
+	void countersMatchTheHospitalizations() {
+		Map<Long, Long> hospitalized = transactionTemplate.execute(status -> {
+			Map<Long, Long> counts = new HashMap<>();
+			for (Hospitalization hospitalization : hospitalizationRepo.findAll()) {
+				counts.merge(hospitalization.getHospitalWard().getHospital().getId(), 1L, Long::sum);
+			}
+			return counts;
+		});
+
+		List<HospitalOccupancyDTO> occupancy = wardOccupancyService.getHospitalOccupancy();
+		assertFalse(occupancy.isEmpty());
+		for (HospitalOccupancyDTO hospital : occupancy) {
+			assertEquals(hospitalized.getOrDefault(hospital.getHospitalId(), 0L), hospital.getOccupied(), hospital::getName);
+			assertEquals(Math.max(hospital.getCapacity() - hospital.getOccupied(), 0), hospital.getFree());
+			assertNull(hospital.getWards());
+		}
+	}
+
+	@Test
+	void admissionAndDischargeMoveTheCounters() {
+		HospitalWard ward = transactionTemplate.execute(status -> {
+			HospitalWard loaded = hospitalWardRepo.findById(WARD_ID).orElseThrow();
+			loaded.getHospital().getId();
+			return loaded;
+		});
+		Long hospitalId = ward.getHospital().getId();
+		HospitalOccupancyDTO before = wardOccupancyService.getHospitalOccupancy(hospitalId);
+
+		ChangeToStayingPatientDTO admission = new ChangeToStayingPatientDTO();
+		admission.setHospitalId(hospitalId);
+		admission.setWardNum(ward.getWardNum());
+		admission.setNurseId(NURSE_ID);
+		patientService.changeToStayingPatient(PATIENT_ID, admission);
+
+		HospitalOccupancyDTO admitted = wardOccupancyService.getHospitalOccupancy(hospitalId);
+		assertEquals(before.getOccupied() + 1, admitted.getOccupied());
+		assertEquals(before.getCapacity(), admitted.getCapacity());
+		assertEquals(occupiedBeds(before, WARD_ID) + 1, occupiedBeds(admitted, WARD_ID));
+		assertEquals(0, wardOccupancyService.reconcileOccupancy().getWardsCorrected());
+
+		ChangeToLeftPatientDTO discharge = new ChangeToLeftPatientDTO();
+		discharge.setConclusion("Is healthy");
+		patientService.changeToLeftPatient(PATIENT_ID, discharge);
+
+		HospitalOccupancyDTO discharged = wardOccupancyService.getHospitalOccupancy(hospitalId);
+		assertEquals(before.getOccupied(), discharged.getOccupied());
+		assertEquals(occupiedBeds(before, WARD_ID), occupiedBeds(discharged, WARD_ID));
+		OccupancyReconciliationDTO reconciliation = wardOccupancyService.reconcileOccupancy();
+		assertEquals(0, reconciliation.getWardsCorrected());
+		assertEquals(0, reconciliation.getHospitalsCorrected());
+	}
+
+	@Test
+	void reconciliationCorrectsDriftedCounters() {
+		HospitalOccupancyDTO before = wardOccupancyService.getHospitalOccupancy(1L);
+		jdbcTemplate.update("update hospital_ward set occupied = occupied + 5 where hospital_ward_id = ?", WARD_ID);
+		jdbcTemplate.update("update hospital set occupied_beds = occupied_beds + 3 where hospital_id = 2");
+		assertEquals(occupiedBeds(before, WARD_ID) + 5, occupiedBeds(wardOccupancyService.getHospitalOccupancy(1L), WARD_ID));
+
+		OccupancyReconciliationDTO reconciliation = wardOccupancyService.reconcileOccupancy();
+
+		assertEquals(1, reconciliation.getWardsCorrected());
+		assertEquals(1, reconciliation.getHospitalsCorrected());
+		assertEquals(occupiedBeds(before, WARD_ID), occupiedBeds(wardOccupancyService.getHospitalOccupancy(1L), WARD_ID));
+		assertEquals(0, wardOccupancyService.reconcileOccupancy().getHospitalsCorrected());
+	}
+
+	@Test
+	void unknownHospitalIsRejected() {
+		assertThrows(ObjectNotFoundException.class, () -> wardOccupancyService.getHospitalOccupancy(-1L));
+	}
+
+	private static long occupiedBeds(HospitalOccupancyDTO hospital, Long wardId) {
+		return hospital.getWards().stream()
+				.filter(ward -> ward.getWardId().equals(wardId))
+				.mapToLong(WardOccupancyDTO::getOccupied)
+				.findFirst()
+				.orElseThrow();
+	}
+}